@@ -0,0 +1,36 @@
+package com.cakify.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of target/benchmarks.jar.
+ *
+ * Runs the benchmarks with the GC profiler (allocation rate and bytes per operation) and writes
+ * the results as JSON so runs can be compared before and after a change:
+ * <pre>
+ *     mvn -pl cakify,cakify-benchmarks -am package -DskipTests
+ *     java -jar cakify-benchmarks/target/benchmarks.jar                  # everything
+ *     java -jar cakify-benchmarks/target/benchmarks.jar OrderTotal -f 2  # regex filter + JMH options
+ * </pre>
+ * The results file defaults to jmh-result.json in the working directory; override with
+ * -Dcakify.jmh.result=path.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(System.getProperty("cakify.jmh.result", "jmh-result.json"))
+                .build();
+        new Runner(options).run();
+    }
+}
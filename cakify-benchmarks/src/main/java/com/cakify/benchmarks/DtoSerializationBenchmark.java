@@ -0,0 +1,116 @@
+package com.cakify.benchmarks;
+
+import com.cakify.dto.CategoryResponse;
+import com.cakify.dto.InquiryResponse;
+import com.cakify.dto.ProductResponse;
+import com.cakify.dto.ReviewResponse;
+import com.cakify.entity.Order;
+import com.cakify.entity.OrderItem;
+import com.cakify.json.ResponseJsonWriters;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the response bodies of the busiest endpoints.
+ * The ObjectMapper is built the way Spring Boot builds it (Java time module, ISO dates), either
+ * with plain reflective serialization or with the hand-written ResponseJsonWriters the application
+ * registers. Run with the GC profiler (BenchmarkRunner) to compare bytes allocated per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoSerializationBenchmark {
+
+    // Size of the product and inquiry lists
+    @Param({"1", "20", "100"})
+    public int listSize;
+
+    // reflective: Jackson bean serializers; writers: ResponseJsonWriters (what the application uses)
+    @Param({"reflective", "writers"})
+    public String serializer;
+
+    private ObjectMapper objectMapper;
+    private List<ProductResponse> products;
+    private List<InquiryResponse> inquiries;
+    private List<ReviewResponse> reviews;
+    private List<CategoryResponse> categories;
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if ("writers".equals(serializer)) {
+            builder.serializers(ResponseJsonWriters.all().toArray(JsonSerializer[]::new));
+        }
+        objectMapper = builder.build();
+
+        products = new ArrayList<>(listSize);
+        inquiries = new ArrayList<>(listSize);
+        reviews = new ArrayList<>(listSize);
+        categories = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            products.add(new ProductResponse(String.valueOf(i), "Chocolate Fudge Cake " + i,
+                    "Three layers of chocolate sponge with fudge frosting", new BigDecimal("4500.00"),
+                    "/images/cake-" + i + ".jpg", 3L, "Birthday Cakes", List.of("1kg", "2kg", "3kg"),
+                    true, "IN_STOCK", i % 5 == 0, 4.5, 12L));
+            inquiries.add(new InquiryResponse(String.valueOf(i), "Anna Perera", "anna.perera@example.com",
+                    "Do you make eggless cakes for a birthday party of 30 people?", "resolved",
+                    "Yes, please place the order at least three days ahead.", "2024-05-17T14:32:05.123"));
+            reviews.add(new ReviewResponse((long) i, "anna.perera@example.com", 5,
+                    "Moist sponge and not too sweet, everyone at the party loved it.",
+                    LocalDateTime.of(2024, 5, 17, 14, 32, 5)));
+            categories.add(new CategoryResponse((long) i, "Birthday Cakes " + i));
+        }
+
+        order = new Order(1L, 42L, "Anna Perera", "anna.perera@example.com", new BigDecimal("4500.00"), 2);
+        order.setOrderId(1001L);
+        order.setDeliveryAddress("12 Main Street, Colombo 05");
+        order.setDeliveryDate(LocalDateTime.of(2024, 5, 20, 10, 0));
+        List<OrderItem> items = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            OrderItem item = new OrderItem(order, (long) i, "Cake " + i, new BigDecimal("900.00"), 1);
+            item.setOrderItemId(5000L + i);
+            items.add(item);
+        }
+        order.setOrderItems(items);
+    }
+
+    @Benchmark
+    public byte[] productList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public byte[] inquiryList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(inquiries);
+    }
+
+    @Benchmark
+    public byte[] reviewList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(reviews);
+    }
+
+    @Benchmark
+    public byte[] categoryList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(categories);
+    }
+
+    @Benchmark
+    public byte[] orderWithItems() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(order);
+    }
+}
@@ -0,0 +1,109 @@
+package com.cakify.benchmarks;
+
+import com.cakify.capacity.CapacityCalendar;
+import com.cakify.entity.Customer;
+import com.cakify.entity.Order;
+import com.cakify.exception.OrderValidationException;
+import com.cakify.metrics.BusinessMetrics;
+import com.cakify.repository.CustomerRepository;
+import com.cakify.repository.OrderRepository;
+import com.cakify.service.CustomerService;
+import com.cakify.service.OrderService;
+import com.cakify.stock.StockLedger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * The email check in OrderService.validateOrder, which compiles its regex on every call
+ * through String.matches.
+ *
+ * createOrder measures the real service path (including its metrics) with repository stubs:
+ * saveAndFlush() returns its argument and every email belongs to one existing customer. The
+ * capacity calendar and stock ledger are left out, as when they are disabled. stringMatches and
+ * precompiledPattern isolate the regex so a change to the service can be compared against both.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmailValidationBenchmark {
+
+    // Copy of the expression in OrderService.validateOrder
+    private static final String EMAIL_REGEX = "^[A-Za-z0-9+_.-]+@(.+)$";
+    private static final Pattern EMAIL_PATTERN = Pattern.compile(EMAIL_REGEX);
+
+    @Param({"anna.perera@example.com", "not-an-email"})
+    public String email;
+
+    private OrderService orderService;
+    private Order order;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        OrderRepository orderRepository = stub(OrderRepository.class, (proxy, method, args) -> {
+            if (method.getName().equals("saveAndFlush")) {
+                return args[0];
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+        Customer customer = new Customer(42L, email, LocalDateTime.now());
+        CustomerRepository customerRepository = stub(CustomerRepository.class, (proxy, method, args) -> {
+            if (method.getName().equals("findByEmailNormalized")) {
+                return Optional.of(customer);
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+        // An empty bean factory hands out providers with nothing available
+        StaticListableBeanFactory noBeans = new StaticListableBeanFactory();
+
+        orderService = new OrderService();
+        inject("orderRepository", orderRepository);
+        inject("businessMetrics", new BusinessMetrics(new SimpleMeterRegistry()));
+        inject("customerService", new CustomerService(customerRepository));
+        inject("capacityCalendar", noBeans.getBeanProvider(CapacityCalendar.class));
+        inject("stockLedger", noBeans.getBeanProvider(StockLedger.class));
+
+        order = new Order(1L, 42L, "Anna Perera", email, new BigDecimal("4500.00"), 1);
+    }
+
+    private static <T> T stub(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler));
+    }
+
+    private void inject(String fieldName, Object value) throws ReflectiveOperationException {
+        Field field = OrderService.class.getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(orderService, value);
+    }
+
+    @Benchmark
+    public Object createOrder() {
+        try {
+            return orderService.createOrder(order);
+        } catch (OrderValidationException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public boolean stringMatches() {
+        return email.matches(EMAIL_REGEX);
+    }
+
+    @Benchmark
+    public boolean precompiledPattern() {
+        return EMAIL_PATTERN.matcher(email).matches();
+    }
+}
@@ -0,0 +1,40 @@
+package com.cakify.benchmarks;
+
+import com.cakify.dto.InquiryResponse;
+import com.cakify.entity.Inquiry;
+import com.cakify.entity.InquiryStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InquiryResponse.fromEntity (status lower-casing and date formatting per row).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InquiryMappingBenchmark {
+
+    private Inquiry inquiry;
+
+    @Setup
+    public void setUp() {
+        inquiry = new Inquiry();
+        inquiry.setId(7L);
+        inquiry.setName("Anna Perera");
+        inquiry.setEmail("anna.perera@example.com");
+        inquiry.setMessage("Do you make eggless cakes for a birthday party of 30 people?");
+        inquiry.setStatus(InquiryStatus.RESOLVED);
+        inquiry.setReply("Yes, please place the order at least three days ahead.");
+        inquiry.setCreatedAt(LocalDateTime.of(2024, 5, 17, 14, 32, 5, 123_000_000));
+    }
+
+    @Benchmark
+    public InquiryResponse fromEntity() {
+        return InquiryResponse.fromEntity(inquiry);
+    }
+}
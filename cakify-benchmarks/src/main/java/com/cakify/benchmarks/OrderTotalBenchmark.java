@@ -0,0 +1,44 @@
+package com.cakify.benchmarks;
+
+import com.cakify.entity.Order;
+import com.cakify.entity.OrderItem;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order.calculateTotalAmount, run on every item add, update and delete.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderTotalBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int itemCount;
+
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        order = new Order();
+        List<OrderItem> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            items.add(new OrderItem(order, (long) i, "Cake " + i,
+                    new BigDecimal("1250.00").add(BigDecimal.valueOf(i)), 1 + i % 3));
+        }
+        order.setOrderItems(items);
+    }
+
+    @Benchmark
+    public BigDecimal calculateTotalAmount() {
+        order.calculateTotalAmount();
+        return order.getTotalAmount();
+    }
+}
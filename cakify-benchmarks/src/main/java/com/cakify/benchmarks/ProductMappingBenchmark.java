@@ -0,0 +1,65 @@
+package com.cakify.benchmarks;
+
+import com.cakify.dto.ProductResponse;
+import com.cakify.entity.Category;
+import com.cakify.entity.Product;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * ProductResponse.fromEntity, which runs for every product in every catalog response,
+ * and the sizes column split it performs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductMappingBenchmark {
+
+    // Number of entries in the comma-separated sizes column
+    @Param({"0", "3", "8"})
+    public int sizeCount;
+
+    private Product product;
+
+    @Setup
+    public void setUp() {
+        Category category = new Category();
+        category.setId(3L);
+        category.setName("Birthday Cakes");
+
+        product = new Product();
+        product.setId(42L);
+        product.setName("Chocolate Fudge Cake");
+        product.setDescription("Three layers of chocolate sponge with fudge frosting");
+        product.setPrice(new BigDecimal("4500.00"));
+        product.setCategory(category);
+        product.setFeatured(true);
+        product.setAvailability(true);
+        product.setSizes(IntStream.range(0, sizeCount)
+                .mapToObj(i -> (i + 1) + "kg")
+                .collect(Collectors.joining(",")));
+    }
+
+    @Benchmark
+    public ProductResponse fromEntity() {
+        return ProductResponse.fromEntity(product);
+    }
+
+    @Benchmark
+    public ProductResponse fromEntityWithRatings() {
+        return ProductResponse.fromEntity(product, 4.5, 12L);
+    }
+
+    @Benchmark
+    public List<String> getSizeList() {
+        return product.getSizeList();
+    }
+}
@@ -0,0 +1,140 @@
+package com.cakify.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thin JSON client over java.net.http that times every call into a {@link LatencyRecorder}.
+ *
+ * Calls are blocking; they are meant to run on virtual threads. The endpoint name is the
+ * templated path (e.g. "GET /api/products/{id}") so results aggregate across ids.
+ * Logs in as the given admin user and sends the token with every call; logins are not recorded.
+ */
+public class ApiClient {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final String username;
+    private final String password;
+    private final LatencyRecorder recorder;
+    private volatile String authorization;
+    private volatile long tokenRenewAt;
+
+    public ApiClient(String baseUrl, String username, String password, LatencyRecorder recorder) {
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.username = username;
+        this.password = password;
+        this.recorder = recorder;
+        logIn();
+    }
+
+    public JsonNode get(String endpoint, String path) {
+        return send(endpoint, request(path).GET().build());
+    }
+
+    public JsonNode post(String endpoint, String path, Object body) {
+        return send(endpoint, request(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(toJson(body)))
+                .build());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        if (System.nanoTime() - tokenRenewAt > 0) {
+            logIn();
+        }
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json")
+                .header("Authorization", authorization);
+    }
+
+    // Renews the token a minute before it expires; concurrent callers wait for one login
+    private synchronized void logIn() {
+        if (authorization != null && System.nanoTime() - tokenRenewAt < 0) {
+            return;
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(toJson(
+                        Map.of("username", username, "password", password))))
+                .build();
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new LoadTestException("Login as " + username + " returned HTTP " + response.statusCode());
+            }
+            JsonNode token = objectMapper.readTree(response.body());
+            long validNanos = TimeUnit.SECONDS.toNanos(Math.max(0, token.path("expiresIn").asLong() - 60));
+            authorization = "Bearer " + token.path("accessToken").asText();
+            tokenRenewAt = System.nanoTime() + validNanos;
+        } catch (IOException e) {
+            throw new LoadTestException("Login as " + username + " failed: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LoadTestException("Login interrupted", e);
+        }
+    }
+
+    private JsonNode send(String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            recorder.recordError(endpoint);
+            throw new LoadTestException(endpoint + " failed: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LoadTestException(endpoint + " interrupted", e);
+        }
+        recorder.record(endpoint, System.nanoTime() - start);
+
+        if (response.statusCode() >= 400) {
+            recorder.recordError(endpoint);
+            throw new LoadTestException(endpoint + " returned HTTP " + response.statusCode());
+        }
+        try {
+            byte[] body = response.body();
+            return body.length == 0 ? objectMapper.nullNode() : objectMapper.readTree(body);
+        } catch (IOException e) {
+            // Non-JSON bodies (plain numbers are JSON, but error pages are not) are not an error here
+            return objectMapper.nullNode();
+        }
+    }
+
+    private byte[] toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (IOException e) {
+            throw new LoadTestException("Cannot serialize request body", e);
+        }
+    }
+
+    public static class LoadTestException extends RuntimeException {
+
+        public LoadTestException(String message) {
+            super(message);
+        }
+
+        public LoadTestException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
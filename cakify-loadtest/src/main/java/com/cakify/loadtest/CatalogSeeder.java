@@ -0,0 +1,59 @@
+package com.cakify.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Makes sure the target has enough catalog data to browse, using the public API only, and
+ * returns the ids the scenarios pick from.
+ */
+public class CatalogSeeder {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSeeder.class);
+
+    private static final List<String> CATEGORIES =
+            List.of("Load Test Birthday", "Load Test Wedding", "Load Test Party", "Load Test Cupcakes");
+
+    private final ApiClient client;
+
+    public CatalogSeeder(ApiClient client) {
+        this.client = client;
+    }
+
+    public Catalog seed(int productCount) {
+        List<Long> categoryIds = ids(client.get("seed", "/api/categories"), "id");
+        if (categoryIds.isEmpty()) {
+            for (String name : CATEGORIES) {
+                categoryIds.add(client.post("seed", "/api/categories", Map.of("name", name)).path("id").asLong());
+            }
+        }
+
+        List<Long> productIds = ids(client.get("seed", "/api/products"), "id");
+        for (int i = productIds.size(); i < productCount; i++) {
+            JsonNode created = client.post("seed", "/api/products", Map.of(
+                    "name", "Load Test Cake " + i,
+                    "description", "Seeded by the load test",
+                    "price", 1500 + i * 25,
+                    "categoryId", categoryIds.get(i % categoryIds.size()),
+                    "sizes", List.of("1kg", "2kg"),
+                    "featured", i % 5 == 0));
+            productIds.add(created.path("id").asLong());
+        }
+        log.info("Catalog ready: {} categories, {} products", categoryIds.size(), productIds.size());
+        return new Catalog(List.copyOf(categoryIds), List.copyOf(productIds));
+    }
+
+    private static List<Long> ids(JsonNode array, String field) {
+        List<Long> ids = new ArrayList<>();
+        array.forEach(node -> ids.add(node.path(field).asLong()));
+        return ids;
+    }
+
+    public record Catalog(List<Long> categoryIds, List<Long> productIds) {
+    }
+}
@@ -0,0 +1,111 @@
+package com.cakify.loadtest;
+
+import com.cakify.CakifyApplication;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Boots the application in this JVM (unless --base-url points at a running one), seeds a catalog,
+ * warms up, applies open-model load and writes report.json / report.html.
+ *
+ * The application uses its normal configuration, so the database is whatever
+ * application.properties or SPRING_DATASOURCE_* point at; --spring.* options override it.
+ * <pre>
+ *     mvn -pl cakify,cakify-loadtest -am install -DskipTests
+ *     mvn -pl cakify-loadtest exec:java -Dexec.args="--rate=40 --duration=2m"
+ *     mvn -pl cakify-loadtest exec:java -Dexec.args="--baseline=baseline/report.json --fail-on-regression"
+ * </pre>
+ */
+public class LoadTestMain {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestMain.class);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        LoadTestReport baseline = options.baseline() != null ? LoadTestReport.read(options.baseline()) : null;
+
+        ConfigurableApplicationContext application = null;
+        String baseUrl = options.baseUrl();
+        if (baseUrl == null) {
+            application = boot(options, List.of());
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) application).getWebServer().getPort();
+        }
+
+        LoadTestReport report;
+        try {
+            report = run(options, baseUrl, baseline);
+        } finally {
+            if (application != null) {
+                application.close();
+            }
+        }
+
+        report.write(options.reportDir());
+        log.info("Report written to {}", options.reportDir().toAbsolutePath());
+        report.endpoints().forEach((endpoint, stats) -> log.info("{}: n={} errors={} p50={}ms p99={}ms p99.9={}ms",
+                endpoint, stats.count(), stats.errors(), stats.p50(), stats.p99(), stats.p999()));
+
+        if (report.hasRegressions()) {
+            report.comparison().stream().filter(LoadTestReport.Comparison::regressed).forEach(row ->
+                    log.warn("Regression: {} p99 {}ms -> {}ms", row.endpoint(), row.baselineP99(), row.p99()));
+            if (options.failOnRegression()) {
+                System.exit(1);
+            }
+        }
+    }
+
+    static ConfigurableApplicationContext boot(LoadTestOptions options, List<String> extraArgs) {
+        List<String> args = new ArrayList<>();
+        args.add("--server.port=0");
+        args.add("--management.server.port=0");
+        // The load-test admin account; a cheap hash, since logins are not what is measured
+        args.add("--cakify.auth.users." + options.username() + ".password-hash="
+                + new BCryptPasswordEncoder(4).encode(options.password()));
+        // Every simulated client shares one address, so the rate limiter would answer most writes with 429
+        args.add("--cakify.rate-limit.enabled=false");
+        // A single instance, so any node id will do
+        args.add("--cakify.ids.node-id=0");
+        args.addAll(options.applicationArgs());
+        args.addAll(extraArgs);
+        return new SpringApplicationBuilder(CakifyApplication.class)
+                .run(args.toArray(String[]::new));
+    }
+
+    static LoadTestReport run(LoadTestOptions options, String baseUrl, LoadTestReport baseline) {
+        LatencyRecorder recorder = new LatencyRecorder();
+        ApiClient client = new ApiClient(baseUrl, options.username(), options.password(), recorder);
+        CatalogSeeder.Catalog catalog = new CatalogSeeder(client).seed(options.catalogSize());
+
+        OpenModelDriver driver = new OpenModelDriver(client, recorder, Scenarios.all(catalog), options.mix(),
+                options.maxInFlight());
+
+        log.info("Warming up for {} at {} scenarios/s", options.warmup(), options.rate());
+        driver.run(options.rate(), options.warmup());
+        recorder.reset();
+
+        log.info("Measuring for {} at {} scenarios/s against {}", options.duration(), options.rate(), baseUrl);
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+        long dropped = driver.run(options.rate(), options.duration());
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("rate", options.rate());
+        settings.put("warmup", options.warmup().toString());
+        settings.put("duration", options.duration().toString());
+        settings.put("mix", options.mix());
+        settings.put("maxInFlight", options.maxInFlight());
+        settings.put("applicationArgs", options.applicationArgs());
+        return LoadTestReport.build(startedAt, settings, dropped, recorder, seconds, baseline, options.maxRegression());
+    }
+}
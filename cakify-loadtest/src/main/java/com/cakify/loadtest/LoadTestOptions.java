@@ -0,0 +1,115 @@
+package com.cakify.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command-line options. Every option is --name=value; unknown options that start with
+ * --spring., --cakify., --server. or --management. are passed through to the application that is
+ * booted in-process.
+ *
+ * @param baseUrl          target an already running instance instead of booting one
+ * @param rate             scenario arrivals per second (open model: independent of response times)
+ * @param warmup           load applied before measuring; its results are discarded
+ * @param duration         measured load
+ * @param maxInFlight      scenarios allowed to run at once before new arrivals are dropped
+ * @param mix              relative weight of each scenario
+ * @param reportDir        where report.json and report.html are written
+ * @param baseline         previous report.json to compare against
+ * @param maxRegression    allowed p99 increase over the baseline, in percent
+ * @param failOnRegression exit with status 1 when any endpoint regresses
+ */
+public record LoadTestOptions(
+        String baseUrl,
+        String username,
+        String password,
+        double rate,
+        Duration warmup,
+        Duration duration,
+        int maxInFlight,
+        int catalogSize,
+        Map<String, Integer> mix,
+        Path reportDir,
+        Path baseline,
+        double maxRegression,
+        boolean failOnRegression,
+        List<String> applicationArgs
+) {
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Options must look like --name=value: " + arg);
+            }
+            if (arg.startsWith("--spring.") || arg.startsWith("--cakify.") || arg.startsWith("--server.")
+                    || arg.startsWith("--management.")) {
+                applicationArgs.add(arg);
+                continue;
+            }
+            int equals = arg.indexOf('=');
+            String name = equals < 0 ? arg.substring(2) : arg.substring(2, equals);
+            values.put(name, equals < 0 ? "true" : arg.substring(equals + 1));
+        }
+
+        String baseline = values.remove("baseline");
+        LoadTestOptions options = new LoadTestOptions(
+                values.remove("base-url"),
+                values.getOrDefault("username", "loadtest"),
+                values.getOrDefault("password", "loadtest"),
+                Double.parseDouble(values.getOrDefault("rate", "20")),
+                parseDuration(values.getOrDefault("warmup", "10s")),
+                parseDuration(values.getOrDefault("duration", "60s")),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "2000")),
+                Integer.parseInt(values.getOrDefault("catalog-size", "40")),
+                parseMix(values.getOrDefault("mix", "browse=50,detail=30,checkout=10,dashboard=10")),
+                Path.of(values.getOrDefault("report-dir", "target/loadtest")),
+                baseline != null ? Path.of(baseline) : null,
+                Double.parseDouble(values.getOrDefault("max-regression", "10")),
+                Boolean.parseBoolean(values.getOrDefault("fail-on-regression", "false")),
+                List.copyOf(applicationArgs));
+
+        values.keySet().removeAll(List.of("username", "password", "rate", "warmup", "duration", "max-in-flight",
+                "catalog-size", "mix", "report-dir", "max-regression", "fail-on-regression"));
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        if (options.rate <= 0) {
+            throw new IllegalArgumentException("--rate must be greater than 0");
+        }
+        return options;
+    }
+
+    // Accepts 500ms, 30s, 5m or ISO-8601 (PT30S)
+    static Duration parseDuration(String value) {
+        String trimmed = value.trim().toLowerCase();
+        if (trimmed.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(trimmed.substring(0, trimmed.length() - 2)));
+        }
+        if (trimmed.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(trimmed.substring(0, trimmed.length() - 1)));
+        }
+        if (trimmed.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(trimmed.substring(0, trimmed.length() - 1)));
+        }
+        return Duration.parse(value);
+    }
+
+    // browse=50,detail=30 -> {browse: 50, detail: 30}
+    static Map<String, Integer> parseMix(String value) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid --mix entry: " + entry);
+            }
+            mix.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,170 @@
+package com.cakify.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Result of one run: percentiles and throughput per endpoint, plus the comparison with a baseline
+ * run. Written as report.json (the format read back as a baseline) and report.html.
+ */
+public record LoadTestReport(
+        Instant startedAt,
+        Map<String, Object> settings,
+        long droppedArrivals,
+        Map<String, EndpointStats> endpoints,
+        List<Comparison> comparison
+) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    /**
+     * Latencies in milliseconds; throughput in completed calls per second over the measured window.
+     */
+    public record EndpointStats(long count, long errors, double throughput, double mean,
+                                double p50, double p90, double p95, double p99, double p999, double max) {
+
+        static EndpointStats of(Histogram histogram, long errors, double seconds) {
+            return new EndpointStats(
+                    histogram.getTotalCount(),
+                    errors,
+                    round(histogram.getTotalCount() / seconds),
+                    millis(histogram.getMean()),
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(95)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+        }
+
+        private static double millis(double micros) {
+            return round(micros / 1000.0);
+        }
+    }
+
+    /**
+     * p50/p99 of this run against the baseline; regressed when p99 grew by more than the allowed
+     * percentage or the endpoint started failing.
+     */
+    public record Comparison(String endpoint, Double baselineP50, Double p50, Double baselineP99, Double p99,
+                             Double p99ChangePercent, boolean regressed) {
+    }
+
+    public static LoadTestReport build(Instant startedAt, Map<String, Object> settings, long droppedArrivals,
+                                       LatencyRecorder recorder, double measuredSeconds,
+                                       LoadTestReport baseline, double maxRegressionPercent) {
+        Map<String, EndpointStats> endpoints = new LinkedHashMap<>();
+        recorder.histograms().forEach((endpoint, histogram) ->
+                endpoints.put(endpoint, EndpointStats.of(histogram, recorder.errorCount(endpoint), measuredSeconds)));
+        // Endpoints that only ever failed before a response arrived have no histogram
+        for (String endpoint : recorder.endpointsWithErrors()) {
+            endpoints.computeIfAbsent(endpoint, key -> new EndpointStats(0, recorder.errorCount(key), 0,
+                    0, 0, 0, 0, 0, 0, 0));
+        }
+        List<Comparison> comparison = baseline != null
+                ? compare(baseline.endpoints(), endpoints, maxRegressionPercent)
+                : List.of();
+        return new LoadTestReport(startedAt, settings, droppedArrivals, endpoints, comparison);
+    }
+
+    private static List<Comparison> compare(Map<String, EndpointStats> baseline, Map<String, EndpointStats> current,
+                                            double maxRegressionPercent) {
+        Set<String> names = new TreeSet<>(baseline.keySet());
+        names.addAll(current.keySet());
+        List<Comparison> result = new ArrayList<>();
+        for (String name : names) {
+            EndpointStats before = baseline.get(name);
+            EndpointStats after = current.get(name);
+            if (before == null || after == null) {
+                result.add(new Comparison(name,
+                        before != null ? before.p50() : null, after != null ? after.p50() : null,
+                        before != null ? before.p99() : null, after != null ? after.p99() : null,
+                        null, false));
+                continue;
+            }
+            Double change = before.p99() > 0 ? round((after.p99() - before.p99()) * 100 / before.p99()) : null;
+            boolean newErrors = before.errors() == 0 && after.errors() > 0;
+            boolean regressed = newErrors || (change != null && change > maxRegressionPercent);
+            result.add(new Comparison(name, before.p50(), after.p50(), before.p99(), after.p99(), change, regressed));
+        }
+        return result;
+    }
+
+    public boolean hasRegressions() {
+        return comparison.stream().anyMatch(Comparison::regressed);
+    }
+
+    public static LoadTestReport read(Path json) throws IOException {
+        return MAPPER.readValue(json.toFile(), LoadTestReport.class);
+    }
+
+    public void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        MAPPER.writeValue(directory.resolve("report.json").toFile(), this);
+        Files.writeString(directory.resolve("report.html"), toHtml());
+    }
+
+    private String toHtml() {
+        StringBuilder html = new StringBuilder();
+        html.append("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>Cakify load test</title><style>")
+                .append("body{font-family:sans-serif;margin:2em}table{border-collapse:collapse;margin-bottom:2em}")
+                .append("th,td{border:1px solid #ccc;padding:4px 8px;text-align:right}th:first-child,td:first-child")
+                .append("{text-align:left}.bad{background:#fdd}.good{background:#dfd}</style></head><body>")
+                .append("<h1>Cakify load test</h1><p>Started ").append(startedAt)
+                .append("</p><p>Settings: ").append(escape(settings.toString()))
+                .append("</p><p>Dropped arrivals: ").append(droppedArrivals).append("</p>");
+
+        html.append("<h2>Latency (ms)</h2><table><tr><th>Endpoint</th><th>Count</th><th>Errors</th><th>Req/s</th>")
+                .append("<th>Mean</th><th>p50</th><th>p90</th><th>p95</th><th>p99</th><th>p99.9</th><th>Max</th></tr>");
+        endpoints.forEach((name, stats) -> html.append("<tr").append(stats.errors() > 0 ? " class=\"bad\"" : "")
+                .append("><td>").append(escape(name)).append("</td>")
+                .append(cell(stats.count())).append(cell(stats.errors())).append(cell(stats.throughput()))
+                .append(cell(stats.mean())).append(cell(stats.p50())).append(cell(stats.p90()))
+                .append(cell(stats.p95())).append(cell(stats.p99())).append(cell(stats.p999()))
+                .append(cell(stats.max())).append("</tr>"));
+        html.append("</table>");
+
+        if (!comparison.isEmpty()) {
+            html.append("<h2>Against baseline</h2><table><tr><th>Endpoint</th><th>p50 before</th><th>p50</th>")
+                    .append("<th>p99 before</th><th>p99</th><th>p99 change %</th></tr>");
+            for (Comparison row : comparison) {
+                String css = row.regressed() ? " class=\"bad\""
+                        : row.p99ChangePercent() != null && row.p99ChangePercent() < 0 ? " class=\"good\"" : "";
+                html.append("<tr").append(css).append("><td>").append(escape(row.endpoint())).append("</td>")
+                        .append(cell(row.baselineP50())).append(cell(row.p50()))
+                        .append(cell(row.baselineP99())).append(cell(row.p99()))
+                        .append(cell(row.p99ChangePercent())).append("</tr>");
+            }
+            html.append("</table>");
+        }
+        return html.append("</body></html>").toString();
+    }
+
+    private static String cell(Object value) {
+        return "<td>" + (value != null ? value : "-") + "</td>";
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
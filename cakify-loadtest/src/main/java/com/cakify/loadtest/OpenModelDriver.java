@@ -0,0 +1,107 @@
+package com.cakify.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load: scenarios arrive on a fixed schedule (rate per second) whether or not earlier
+ * ones have finished, each on its own virtual thread. A slow server therefore builds up
+ * concurrency instead of quietly lowering the offered load.
+ *
+ * Scenario latency is measured from the scheduled arrival time, not from when the thread got
+ * to run, so queueing delay is included (no coordinated omission).
+ */
+public class OpenModelDriver {
+
+    private static final Logger log = LoggerFactory.getLogger(OpenModelDriver.class);
+
+    private final ApiClient client;
+    private final LatencyRecorder recorder;
+    private final List<Scenario> weightedScenarios = new ArrayList<>();
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final LongAdder dropped = new LongAdder();
+
+    public OpenModelDriver(ApiClient client, LatencyRecorder recorder, Map<String, Scenario> scenarios,
+                           Map<String, Integer> mix, int maxInFlight) {
+        this.client = client;
+        this.recorder = recorder;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        mix.forEach((name, weight) -> {
+            Scenario scenario = scenarios.get(name);
+            if (scenario == null) {
+                throw new IllegalArgumentException("Unknown scenario '" + name + "', expected one of " + scenarios.keySet());
+            }
+            for (int i = 0; i < weight; i++) {
+                weightedScenarios.add(scenario);
+            }
+        });
+        if (weightedScenarios.isEmpty()) {
+            throw new IllegalArgumentException("--mix selects no scenario");
+        }
+    }
+
+    /**
+     * Offer load for the given duration and wait for in-flight scenarios to finish.
+     *
+     * @return number of arrivals dropped because maxInFlight scenarios were already running
+     */
+    public long run(double ratePerSecond, Duration duration) {
+        long intervalNanos = (long) (1_000_000_000L / ratePerSecond);
+        long durationNanos = duration.toNanos();
+        long start = System.nanoTime();
+        long droppedBefore = dropped.sum();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long arrival = 0; ; arrival++) {
+                long intended = start + arrival * intervalNanos;
+                if (intended - start >= durationNanos) {
+                    break;
+                }
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (!inFlight.tryAcquire()) {
+                    dropped.increment();
+                    continue;
+                }
+                Scenario scenario = weightedScenarios.get(ThreadLocalRandom.current().nextInt(weightedScenarios.size()));
+                executor.execute(() -> runScenario(scenario, intended));
+            }
+        }
+        long droppedNow = dropped.sum() - droppedBefore;
+        if (droppedNow > 0) {
+            log.warn("{} arrivals dropped: {} scenarios were already in flight", droppedNow, maxInFlight);
+        }
+        return droppedNow;
+    }
+
+    private void runScenario(Scenario scenario, long intendedStart) {
+        String name = "scenario:" + scenario.name();
+        try {
+            scenario.run(client);
+        } catch (ApiClient.LoadTestException e) {
+            recorder.recordError(name);
+            log.debug("{} failed: {}", name, e.getMessage());
+        } catch (RuntimeException e) {
+            recorder.recordError(name);
+            log.warn("{} failed unexpectedly", name, e);
+        } finally {
+            recorder.record(name, System.nanoTime() - intendedStart);
+            inFlight.release();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.cakify.loadtest;
+
+/**
+ * One user journey: a short sequence of dependent API calls.
+ */
+public interface Scenario {
+
+    String name();
+
+    void run(ApiClient client);
+}
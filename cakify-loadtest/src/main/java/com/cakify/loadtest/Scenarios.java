@@ -0,0 +1,115 @@
+package com.cakify.loadtest;
+
+import com.cakify.loadtest.CatalogSeeder.Catalog;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The scripted journeys, named as in --mix.
+ */
+public final class Scenarios {
+
+    private Scenarios() {
+    }
+
+    public static Map<String, Scenario> all(Catalog catalog) {
+        return Map.of(
+                "browse", new CatalogBrowse(catalog),
+                "detail", new ProductDetail(catalog),
+                "checkout", new Checkout(catalog),
+                "dashboard", new AdminDashboard());
+    }
+
+    private static long pick(List<Long> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    // Storefront landing: categories, available and featured products, one category page
+    record CatalogBrowse(Catalog catalog) implements Scenario {
+
+        @Override
+        public String name() {
+            return "browse";
+        }
+
+        @Override
+        public void run(ApiClient client) {
+            client.get("GET /api/categories", "/api/categories");
+            client.get("GET /api/products/available", "/api/products/available");
+            client.get("GET /api/products/featured", "/api/products/featured");
+            long categoryId = pick(catalog.categoryIds());
+            client.get("GET /api/products/category/{id}", "/api/products/category/" + categoryId);
+        }
+    }
+
+    // Product page: the product, then the first review page (which carries the rating summary)
+    record ProductDetail(Catalog catalog) implements Scenario {
+
+        @Override
+        public String name() {
+            return "detail";
+        }
+
+        @Override
+        public void run(ApiClient client) {
+            long productId = pick(catalog.productIds());
+            client.get("GET /api/products/{id}", "/api/products/" + productId);
+            client.get("GET /api/products/{id}/reviews", "/api/products/" + productId + "/reviews");
+        }
+    }
+
+    // Place an order, add two items, read it back
+    record Checkout(Catalog catalog) implements Scenario {
+
+        @Override
+        public String name() {
+            return "checkout";
+        }
+
+        @Override
+        public void run(ApiClient client) {
+            int customer = ThreadLocalRandom.current().nextInt(10_000);
+            long productId = pick(catalog.productIds());
+            JsonNode order = client.post("POST /api/orders", "/api/orders", Map.of(
+                    "customerName", "Load Test Customer",
+                    "customerEmail", "customer" + customer + "@loadtest.example.com",
+                    "customerPhone", "0771234567",
+                    "deliveryAddress", customer + " Load Test Street, Colombo",
+                    "totalAmount", 3000,
+                    "quantity", 2,
+                    "productId", productId));
+            long orderId = order.path("orderId").asLong();
+
+            for (int i = 0; i < 2; i++) {
+                client.post("POST /api/order-items/order/{id}", "/api/order-items/order/" + orderId, Map.of(
+                        "productId", productId,
+                        "productName", "Load Test Cake",
+                        "unitPrice", 1500,
+                        "quantity", 1));
+            }
+            client.get("GET /api/orders/{id}", "/api/orders/" + orderId);
+        }
+    }
+
+    // What the admin dashboard polls
+    record AdminDashboard() implements Scenario {
+
+        @Override
+        public String name() {
+            return "dashboard";
+        }
+
+        @Override
+        public void run(ApiClient client) {
+            client.get("GET /api/orders/recent", "/api/orders/recent");
+            client.get("GET /api/orders/count/{status}", "/api/orders/count/PENDING");
+            client.get("GET /api/orders/status/{status}/paginated",
+                    "/api/orders/status/PENDING/paginated?size=20&sort=orderDate,desc");
+            client.get("GET /api/inquiries/stats", "/api/inquiries/stats");
+            client.get("GET /api/inquiries/new", "/api/inquiries/new");
+        }
+    }
+}
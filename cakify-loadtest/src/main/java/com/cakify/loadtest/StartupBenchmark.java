@@ -0,0 +1,183 @@
+package com.cakify.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures time-to-first-request: from launching the JVM to the first successful response from the
+ * API, once for a plain start of the executable jar and once for the fast-startup build (extracted
+ * jar, Spring AOT, class-data-sharing archive). Each run is a fresh JVM; runs of the two modes
+ * alternate so that machine noise hits both alike.
+ *
+ * Build with the fast-startup profile first (see cakify/pom.xml); both modes use that build, the
+ * plain one simply without the flags. The application connects to its usual database, so the same
+ * SPRING_DATASOURCE_* or --spring.* options as for LoadTestMain apply.
+ * <pre>
+ *     mvn -Pfast-startup -pl cakify clean package -DskipTests
+ *     mvn -pl cakify-loadtest exec:java -Dexec.mainClass=com.cakify.loadtest.StartupBenchmark \
+ *         -Dexec.args="--runs=5"
+ * </pre>
+ * Options: --runs, --jar, --cds-dir, --path (a public endpoint), --timeout, --report-dir.
+ */
+public class StartupBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupBenchmark.class);
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--spring.") || arg.startsWith("--cakify.")) {
+                applicationArgs.add(arg);
+                continue;
+            }
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Options must look like --name=value: " + arg);
+            }
+            options.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        Path jar = Path.of(options.getOrDefault("jar", "cakify/target/cakify-0.0.1-SNAPSHOT-exec.jar"));
+        Path cdsDir = Path.of(options.getOrDefault("cds-dir", "cakify/target/cds"));
+        String path = options.getOrDefault("path", "/api/categories");
+        Duration timeout = LoadTestOptions.parseDuration(options.getOrDefault("timeout", "120s"));
+        Path reportDir = Path.of(options.getOrDefault("report-dir", "target/startup"));
+
+        Path extractedJar = cdsDir.resolve(jar.getFileName());
+        Path archive = cdsDir.resolve("application.jsa");
+        if (!Files.exists(jar) || !Files.exists(extractedJar)) {
+            throw new IllegalStateException("Build with -Pfast-startup first: " + jar + " or " + extractedJar
+                    + " is missing");
+        }
+        List<String> fastFlags = new ArrayList<>();
+        if (Files.exists(archive)) {
+            fastFlags.add("-XX:SharedArchiveFile=" + archive);
+        } else {
+            log.warn("{} is missing (built with -Dcds.training.skip?); measuring AOT without CDS", archive);
+        }
+        fastFlags.add("-Dspring.aot.enabled=true");
+
+        List<String> commonArgs = new ArrayList<>();
+        commonArgs.add("--management.server.port=0");
+        commonArgs.addAll(applicationArgs);
+
+        Files.createDirectories(reportDir);
+
+        Map<String, List<Long>> millis = new LinkedHashMap<>();
+        millis.put("default", new ArrayList<>());
+        millis.put("fast-startup", new ArrayList<>());
+        for (int run = 1; run <= runs; run++) {
+            millis.get("default").add(measure("default", run, List.of(), jar, commonArgs, path, timeout,
+                    reportDir));
+            millis.get("fast-startup").add(measure("fast-startup", run, fastFlags, extractedJar, commonArgs, path,
+                    timeout, reportDir));
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("path", path);
+        report.put("runs", runs);
+        millis.forEach((mode, values) -> {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("minMs", values.stream().mapToLong(Long::longValue).min().orElse(0));
+            stats.put("medianMs", median(values));
+            stats.put("maxMs", values.stream().mapToLong(Long::longValue).max().orElse(0));
+            stats.put("runsMs", values);
+            report.put(mode, stats);
+            log.info("{}: median {} ms, min {} ms, max {} ms", mode, stats.get("medianMs"), stats.get("minMs"),
+                    stats.get("maxMs"));
+        });
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(reportDir.resolve("startup.json").toFile(), report);
+        log.info("Report written to {}", reportDir.resolve("startup.json").toAbsolutePath());
+    }
+
+    // Launch one JVM, poll until the first request succeeds, stop it; returns milliseconds since launch
+    private static long measure(String mode, int run, List<String> jvmFlags, Path jar, List<String> applicationArgs,
+                                String path, Duration timeout, Path reportDir)
+            throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmFlags);
+        command.add("-jar");
+        command.add(jar.toString());
+        command.add("--server.port=" + port);
+        command.addAll(applicationArgs);
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+
+        Path logFile = reportDir.resolve(mode + "-" + run + ".log");
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile())
+                .start();
+        try {
+            long deadline = start + timeout.toNanos();
+            while (System.nanoTime() - deadline < 0) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(mode + " run " + run + " exited with status "
+                            + process.exitValue() + "; see " + logFile);
+                }
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 200) {
+                        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                        log.info("{} run {}: first response after {} ms", mode, run, elapsed);
+                        return elapsed;
+                    }
+                    throw new IllegalStateException(mode + " run " + run + ": GET " + path + " answered "
+                            + response.statusCode());
+                } catch (ConnectException | HttpTimeoutException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(POLL_INTERVAL.toMillis());
+            }
+            throw new IllegalStateException(mode + " run " + run + " did not answer within " + timeout
+                    + "; see " + logFile);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static long median(List<Long> values) {
+        List<Long> sorted = values.stream().sorted().toList();
+        return sorted.isEmpty() ? 0 : sorted.get(sorted.size() / 2);
+    }
+}
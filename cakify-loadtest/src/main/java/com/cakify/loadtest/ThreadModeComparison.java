@@ -0,0 +1,71 @@
+package com.cakify.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the same load twice in this JVM, first with Tomcat's platform thread pool and then with
+ * virtual threads (spring.threads.virtual.enabled), and compares the two.
+ *
+ * Reports land in platform/ and virtual/ under --report-dir; the virtual report uses the platform
+ * one as its baseline. Throughput only differs once the platform pool saturates, so pick a --rate
+ * above what the platform mode sustains (its report shows dropped arrivals and rising p99).
+ * <pre>
+ *     mvn -pl cakify-loadtest exec:java -Dexec.mainClass=com.cakify.loadtest.ThreadModeComparison \
+ *         -Dexec.args="--rate=200 --duration=1m"
+ * </pre>
+ */
+public class ThreadModeComparison {
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadModeComparison.class);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        if (options.baseUrl() != null || options.baseline() != null) {
+            throw new IllegalArgumentException("--base-url and --baseline do not apply: both modes are booted here");
+        }
+
+        LoadTestReport platform = runMode(options, false, null);
+        platform.write(options.reportDir().resolve("platform"));
+        LoadTestReport virtual = runMode(options, true, platform);
+        virtual.write(options.reportDir().resolve("virtual"));
+
+        log.info("Reports written to {}", options.reportDir().toAbsolutePath());
+        log.info(String.format("%-40s %12s %12s %12s %12s", "endpoint", "platform/s", "virtual/s",
+                "platform p99", "virtual p99"));
+        for (String endpoint : platform.endpoints().keySet()) {
+            LoadTestReport.EndpointStats before = platform.endpoints().get(endpoint);
+            LoadTestReport.EndpointStats after = virtual.endpoints().get(endpoint);
+            log.info(String.format("%-40s %12.2f %12.2f %12.2f %12.2f", endpoint, before.throughput(),
+                    after != null ? after.throughput() : 0, before.p99(), after != null ? after.p99() : 0));
+        }
+        log.info("Completed calls/s: platform {} (dropped {}), virtual {} (dropped {})",
+                totalThroughput(platform.endpoints()), platform.droppedArrivals(),
+                totalThroughput(virtual.endpoints()), virtual.droppedArrivals());
+    }
+
+    private static LoadTestReport runMode(LoadTestOptions options, boolean virtualThreads, LoadTestReport baseline) {
+        log.info("Running with {} threads", virtualThreads ? "virtual" : "platform");
+        ConfigurableApplicationContext application = LoadTestMain.boot(options,
+                List.of("--spring.threads.virtual.enabled=" + virtualThreads));
+        try {
+            String baseUrl = "http://localhost:" + ((WebServerApplicationContext) application).getWebServer().getPort();
+            return LoadTestMain.run(options, baseUrl, baseline);
+        } finally {
+            application.close();
+        }
+    }
+
+    private static double totalThroughput(Map<String, LoadTestReport.EndpointStats> endpoints) {
+        double total = 0;
+        for (LoadTestReport.EndpointStats stats : endpoints.values()) {
+            total += stats.throughput();
+        }
+        return Math.round(total * 100) / 100.0;
+    }
+}
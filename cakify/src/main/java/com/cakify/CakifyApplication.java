@@ -2,12 +2,19 @@ package com.cakify;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class CakifyApplication {
 
+    // Startup steps kept for /actuator/startup; past this, later steps are dropped
+    private static final int STARTUP_STEPS = 10_000;
+
     public static void main(String[] args) {
-        SpringApplication.run(CakifyApplication.class, args);
+        SpringApplication application = new SpringApplication(CakifyApplication.class);
+        // Records the startup timeline (bean instantiation, post-processing, ...) for /actuator/startup
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+        application.run(args);
     }
 
 }
@@ -0,0 +1,291 @@
+package com.cakify.capacity;
+
+import com.cakify.config.CapacityProperties;
+import com.cakify.dto.CapacityDayResponse;
+import com.cakify.dto.CapacitySlotResponse;
+import com.cakify.entity.Order;
+import com.cakify.enums.OrderStatus;
+import com.cakify.exception.CapacityExceededException;
+import com.cakify.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Committed cake quantities per delivery slot and day, held in memory so that availability
+ * queries and the capacity check of an order cost no query.
+ *
+ * Built from the orders table before the application takes requests (deliveries from today on,
+ * cancelled orders left out) and changed here as orders are created, rebooked, cancelled and
+ * deleted. A reservation is checked and applied under one lock, so two orders cannot both take the
+ * last cakes of a slot; it is undone if the order's transaction rolls back. Releases wait for the commit.
+ *
+ * Limits hold per instance: orders taken by other instances are only counted after the next rebuild
+ * (every refresh-interval), which also drops past days.
+ */
+@Service
+@ConditionalOnProperty(prefix = "cakify.capacity", name = "enabled", matchIfMissing = true)
+public class CapacityCalendar implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(CapacityCalendar.class);
+
+    private final OrderRepository orderRepository;
+    private final CapacityProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration slotLength;
+
+    // ReentrantLock rather than synchronized: callers may be virtual threads
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // All guarded by lock
+    private Map<Long, Booking> bookings = new HashMap<>();
+    private NavigableMap<LocalDateTime, Integer> slotLoad = new TreeMap<>();
+    private final Map<LocalDate, Integer> dayLoad = new HashMap<>();
+    // Reservations whose transaction is still open: a rebuild cannot see them in the table yet
+    private final Map<Long, Integer> uncommitted = new HashMap<>();
+    // Orders changed while a rebuild reads the table; their state here wins over what it read
+    private Set<Long> changedDuringRebuild;
+
+    public CapacityCalendar(OrderRepository orderRepository, CapacityProperties properties,
+                            TransactionTemplate transactionTemplate) {
+        this.orderRepository = orderRepository;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        this.slotLength = properties.getSlotLength();
+        if (slotLength.isNegative() || slotLength.isZero() || Duration.ofDays(1).toNanos() % slotLength.toNanos() != 0) {
+            throw new IllegalStateException("cakify.capacity.slot-length must divide a day, was " + slotLength);
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Book the order's quantity into its delivery slot, replacing any earlier booking of the order
+     * Throws CapacityExceededException (and changes nothing) when the slot or the day is full
+     */
+    public void reserve(Order order) {
+        Long orderId = order.getOrderId();
+        if (order.getDeliveryDate() == null || order.getStatus() == OrderStatus.CANCELLED) {
+            releaseAfterCommit(orderId);
+            return;
+        }
+        Booking booking = new Booking(slotStart(order.getDeliveryDate()), order.getQuantity());
+        Booking previous;
+        lock.lock();
+        try {
+            previous = bookings.get(orderId);
+            int slotBooked = slotLoad.getOrDefault(booking.slot(), 0);
+            int dayBooked = dayLoad.getOrDefault(booking.day(), 0);
+            if (previous != null) {
+                slotBooked -= previous.slot().equals(booking.slot()) ? previous.quantity() : 0;
+                dayBooked -= previous.day().equals(booking.day()) ? previous.quantity() : 0;
+            }
+            if (slotBooked + booking.quantity() > properties.getSlotLimit()) {
+                throw new CapacityExceededException("Delivery slot " + booking.slot() + " has room for "
+                        + Math.max(0, properties.getSlotLimit() - slotBooked) + " more cakes");
+            }
+            if (dayBooked + booking.quantity() > properties.getDailyLimit()) {
+                throw new CapacityExceededException("Delivery day " + booking.day() + " has room for "
+                        + Math.max(0, properties.getDailyLimit() - dayBooked) + " more cakes");
+            }
+            set(orderId, booking);
+            uncommitted.merge(orderId, 1, Integer::sum);
+        } finally {
+            lock.unlock();
+        }
+        afterCompletion(committed -> {
+            lock.lock();
+            try {
+                uncommitted.computeIfPresent(orderId, (id, count) -> count > 1 ? count - 1 : null);
+                if (!committed) {
+                    set(orderId, previous);
+                } else {
+                    // A rebuild reading now may have missed the row; it has left uncommitted, so the
+                    // rebuild must still take the booking from here
+                    markChanged(orderId);
+                }
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Free the order's booking once the current transaction commits (cancellation, deletion)
+     */
+    public void releaseAfterCommit(Long orderId) {
+        afterCompletion(committed -> {
+            if (committed) {
+                lock.lock();
+                try {
+                    set(orderId, null);
+                } finally {
+                    lock.unlock();
+                }
+            }
+        });
+    }
+
+    /**
+     * Booked and available quantities per day and slot, both dates inclusive
+     */
+    public List<CapacityDayResponse> getAvailability(LocalDate from, LocalDate to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        if (from.plusDays(properties.getMaxRangeDays()).isBefore(to.plusDays(1))) {
+            throw new IllegalArgumentException("At most " + properties.getMaxRangeDays() + " days per request");
+        }
+        int dailyLimit = properties.getDailyLimit();
+        int slotLimit = properties.getSlotLimit();
+        List<CapacityDayResponse> days = new ArrayList<>();
+        lock.lock();
+        try {
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                int dayBooked = dayLoad.getOrDefault(date, 0);
+                int dayAvailable = Math.max(0, dailyLimit - dayBooked);
+                List<CapacitySlotResponse> slots = new ArrayList<>();
+                LocalDateTime end = date.plusDays(1).atStartOfDay();
+                for (LocalDateTime start = date.atStartOfDay(); start.isBefore(end); start = start.plus(slotLength)) {
+                    int slotBooked = slotLoad.getOrDefault(start, 0);
+                    int slotAvailable = Math.min(Math.max(0, slotLimit - slotBooked), dayAvailable);
+                    slots.add(new CapacitySlotResponse(start, start.plus(slotLength), slotLimit, slotBooked,
+                            slotAvailable));
+                }
+                days.add(new CapacityDayResponse(date, dailyLimit, dayBooked, dayAvailable, slots));
+            }
+        } finally {
+            lock.unlock();
+        }
+        return days;
+    }
+
+    /**
+     * Reload the bookings of today and later from the orders table
+     * Counts orders taken by other instances and forgets past days
+     */
+    @Scheduled(fixedDelayString = "${cakify.capacity.refresh-interval:PT1M}",
+            initialDelayString = "${cakify.capacity.refresh-interval:PT1M}")
+    public void rebuild() {
+        Set<Long> changed = new HashSet<>();
+        lock.lock();
+        try {
+            changedDuringRebuild = changed;
+        } finally {
+            lock.unlock();
+        }
+        Map<Long, Booking> loaded = new HashMap<>();
+        try {
+            List<DeliveryBooking> rows = transactionTemplate.execute(status ->
+                    orderRepository.findDeliveryBookingsFrom(LocalDate.now().atStartOfDay()));
+            for (DeliveryBooking row : rows) {
+                loaded.put(row.orderId(), new Booking(slotStart(row.deliveryDate()), row.quantity()));
+            }
+        } finally {
+            lock.lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        lock.lock();
+        try {
+            changed.addAll(uncommitted.keySet());
+            for (Long orderId : changed) {
+                Booking current = bookings.get(orderId);
+                if (current == null) {
+                    loaded.remove(orderId);
+                } else {
+                    loaded.put(orderId, current);
+                }
+            }
+            bookings = loaded;
+            slotLoad = new TreeMap<>();
+            dayLoad.clear();
+            loaded.values().forEach(booking -> add(booking, booking.quantity()));
+        } finally {
+            lock.unlock();
+        }
+        log.debug("Capacity calendar rebuilt: {} bookings", loaded.size());
+    }
+
+    // ========== HELPERS (callers hold lock) ==========
+
+    private void set(Long orderId, Booking booking) {
+        Booking previous = booking == null ? bookings.remove(orderId) : bookings.put(orderId, booking);
+        if (previous != null) {
+            add(previous, -previous.quantity());
+        }
+        if (booking != null) {
+            add(booking, booking.quantity());
+        }
+        markChanged(orderId);
+    }
+
+    private void markChanged(Long orderId) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(orderId);
+        }
+    }
+
+    private void add(Booking booking, int quantity) {
+        slotLoad.merge(booking.slot(), quantity, CapacityCalendar::sumOrRemove);
+        dayLoad.merge(booking.day(), quantity, CapacityCalendar::sumOrRemove);
+    }
+
+    private static Integer sumOrRemove(Integer a, Integer b) {
+        int sum = a + b;
+        return sum == 0 ? null : sum;
+    }
+
+    private LocalDateTime slotStart(LocalDateTime deliveryDate) {
+        LocalDateTime midnight = deliveryDate.toLocalDate().atStartOfDay();
+        long slots = Duration.between(midnight, deliveryDate).toNanos() / slotLength.toNanos();
+        return midnight.plus(slotLength.multipliedBy(slots));
+    }
+
+    private static void afterCompletion(Consumer<Boolean> action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    private record Booking(LocalDateTime slot, int quantity) {
+
+        LocalDate day() {
+            return slot.toLocalDate();
+        }
+    }
+}
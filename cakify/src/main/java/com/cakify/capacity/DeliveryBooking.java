@@ -0,0 +1,9 @@
+package com.cakify.capacity;
+
+import java.time.LocalDateTime;
+
+/**
+ * Delivery time and quantity of one order, as read by OrderRepository.findDeliveryBookingsFrom
+ */
+public record DeliveryBooking(Long orderId, LocalDateTime deliveryDate, Integer quantity) {
+}
@@ -0,0 +1,49 @@
+package com.cakify.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stateless API authentication: admin accounts, JWT signing and login hashing (cakify.auth.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "cakify.auth")
+public class AuthProperties {
+
+    // Base64 HMAC-SHA256 key of at least 32 bytes, the same on every instance. When empty a random
+    // key is generated: tokens then only work on the instance that issued them, until it restarts
+    private String jwtSecret;
+
+    // Written to and required in the iss claim
+    private String issuer = "cakify";
+
+    // Lifetime of an issued token; there is no revocation, so keep it short
+    private Duration tokenTtl = Duration.ofHours(1);
+
+    // Verified tokens kept in memory, so repeat requests skip signature check and claim parsing
+    private int tokenCacheSize = 10_000;
+
+    // Threads that check passwords; bcrypt is CPU-bound by design, so this bounds its share of the CPUs
+    private int loginThreads = 2;
+
+    // Logins waiting for a thread; past this, login answers 503 instead of queueing
+    private int loginQueueCapacity = 50;
+
+    // Username -> account. Accounts without a password hash are ignored
+    private Map<String, User> users = new LinkedHashMap<>();
+
+    @Data
+    public static class User {
+
+        // BCrypt hash ($2a$/$2b$); never the password itself
+        private String passwordHash;
+
+        // Roles granted in the token, without the ROLE_ prefix
+        private List<String> roles = List.of("ADMIN");
+    }
+}
@@ -0,0 +1,32 @@
+package com.cakify.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Baking capacity per delivery day and slot (cakify.capacity.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "cakify.capacity")
+public class CapacityProperties {
+
+    // When off, orders are accepted for any deliveryDate and GET /api/capacity does not exist
+    private boolean enabled = true;
+
+    // Cakes (order quantity) that can be delivered on one day
+    private int dailyLimit = 40;
+
+    // Cakes that can be delivered in one slot
+    private int slotLimit = 10;
+
+    // Slots start at midnight and follow each other, so the length must divide a day
+    private Duration slotLength = Duration.ofHours(2);
+
+    // How often the calendar is rebuilt from the orders table, which picks up other instances' orders
+    private Duration refreshInterval = Duration.ofMinutes(1);
+
+    // Longest range, in days, one GET /api/capacity answers
+    private int maxRangeDays = 62;
+}
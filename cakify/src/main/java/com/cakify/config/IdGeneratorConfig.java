@@ -0,0 +1,44 @@
+package com.cakify.config;
+
+import com.cakify.id.TsidFactory;
+import com.cakify.id.TsidGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(IdProperties.class)
+public class IdGeneratorConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(IdGeneratorConfig.class);
+
+    // Profiles that may run without a node id (local runs and tests, never several instances on one database)
+    private static final Profiles RANDOM_NODE_PROFILES = Profiles.of("dev", "test");
+
+    @Bean
+    TsidFactory tsidFactory(IdProperties properties, Environment environment) {
+        if (properties.getNodeId() == null) {
+            if (!environment.acceptsProfiles(RANDOM_NODE_PROFILES)) {
+                throw new IllegalStateException("cakify.ids.node-id (CAKIFY_NODE_ID) must be set to 0-"
+                        + TsidFactory.MAX_NODE + ", different on every instance");
+            }
+            int node = ThreadLocalRandom.current().nextInt(TsidFactory.MAX_NODE + 1);
+            log.warn("cakify.ids.node-id is not set; using random node {} (dev/test profile only)", node);
+            return new TsidFactory(node);
+        }
+        return new TsidFactory(properties.getNodeId());
+    }
+
+    // @Tsid generators are created by Hibernate, not Spring; they find the factory in the settings
+    @Bean
+    HibernatePropertiesCustomizer tsidGeneratorSettings(TsidFactory tsidFactory) {
+        return hibernateProperties -> hibernateProperties.put(TsidGenerator.FACTORY_SETTING, tsidFactory);
+    }
+}
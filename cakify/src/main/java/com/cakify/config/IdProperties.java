@@ -0,0 +1,16 @@
+package com.cakify.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Application-assigned ids of orders, order items, reviews and inquiries (cakify.ids.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "cakify.ids")
+public class IdProperties {
+
+    // 0-31, different on every instance writing to the same database. Required, except under the dev
+    // or test profile, where a random node is picked when unset
+    private Integer nodeId;
+}
@@ -0,0 +1,26 @@
+package com.cakify.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Idempotency-Key handling for order creation (cakify.idempotency.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "cakify.idempotency")
+public class IdempotencyProperties {
+
+    // How long a key is remembered; a retry after this creates a new order
+    private Duration ttl = Duration.ofHours(24);
+
+    // Responses this instance created, kept in memory so retries skip the database
+    private int cacheSize = 10_000;
+
+    // How often expired keys are deleted (ISO-8601, e.g. PT1H)
+    private Duration purgeInterval = Duration.ofHours(1);
+
+    // Keys deleted per purge transaction
+    private int purgeBatchSize = 500;
+}
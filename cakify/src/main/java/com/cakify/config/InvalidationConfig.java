@@ -0,0 +1,48 @@
+package com.cakify.config;
+
+import com.cakify.invalidation.InvalidationListener;
+import com.cakify.invalidation.InvalidationPublisher;
+import com.cakify.invalidation.LocalCacheInvalidator;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.DriverManager;
+
+/**
+ * Keeps the caches of several instances consistent: writes announce the entities they changed
+ * with NOTIFY, and every instance (the writer included) evicts them on LISTEN. Needs PostgreSQL.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(InvalidationProperties.class)
+@ConditionalOnProperty(prefix = "cakify.invalidation", name = "enabled", matchIfMissing = true)
+public class InvalidationConfig {
+
+    @Bean
+    InvalidationPublisher invalidationPublisher(JdbcTemplate jdbcTemplate) {
+        return new InvalidationPublisher(jdbcTemplate);
+    }
+
+    @Bean
+    LocalCacheInvalidator localCacheInvalidator(EntityManagerFactory entityManagerFactory) {
+        return new LocalCacheInvalidator(entityManagerFactory.unwrap(SessionFactory.class));
+    }
+
+    // Same database and credentials as the pool, but a connection of its own
+    @Bean
+    InvalidationListener invalidationListener(DataSourceProperties dataSource, LocalCacheInvalidator invalidator,
+                                              InvalidationProperties properties, MeterRegistry registry) {
+        String url = dataSource.determineUrl();
+        String username = dataSource.determineUsername();
+        String password = dataSource.determinePassword();
+        return new InvalidationListener(() -> DriverManager.getConnection(url, username, password), invalidator,
+                properties.getHeartbeatInterval(), properties.getCatchUpOverlap(), properties.getRetention(),
+                properties.getMaxReconnectDelay(), registry);
+    }
+}
@@ -0,0 +1,30 @@
+package com.cakify.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Cross-instance cache invalidation over PostgreSQL LISTEN/NOTIFY (cakify.invalidation.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "cakify.invalidation")
+public class InvalidationProperties {
+
+    // Master switch; when off, writes notify no one and this instance listens to no one
+    private boolean enabled = true;
+
+    // How long the listener waits for notifications before checking its connection
+    private Duration heartbeatInterval = Duration.ofSeconds(10);
+
+    // Catch-up after a reconnect also replays notices this much older than the last check,
+    // covering transactions that were still running then (rows carry their transaction start time)
+    private Duration catchUpOverlap = Duration.ofMinutes(2);
+
+    // Notices kept for catch-up; a listener down for longer clears its whole cache instead
+    private Duration retention = Duration.ofDays(1);
+
+    // Longest wait between reconnect attempts (the wait doubles from one second)
+    private Duration maxReconnectDelay = Duration.ofSeconds(30);
+}
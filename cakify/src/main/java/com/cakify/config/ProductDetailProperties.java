@@ -0,0 +1,23 @@
+package com.cakify.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Composite product detail endpoint (cakify.product-detail.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "cakify.product-detail")
+public class ProductDetailProperties {
+
+    // Each section (product, reviews, rating stats, related products) must finish within this
+    private Duration branchTimeout = Duration.ofMillis(800);
+
+    // Newest reviews included in the payload
+    private int reviewPageSize = 10;
+
+    // Other available products from the same category
+    private int relatedProductsLimit = 4;
+}
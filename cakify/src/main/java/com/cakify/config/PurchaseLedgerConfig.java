@@ -0,0 +1,9 @@
+package com.cakify.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(PurchaseLedgerProperties.class)
+public class PurchaseLedgerConfig {
+}
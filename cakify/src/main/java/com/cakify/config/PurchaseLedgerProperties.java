@@ -0,0 +1,29 @@
+package com.cakify.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Purchase ledger and its in-memory Bloom filter (cakify.purchases.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "cakify.purchases")
+public class PurchaseLedgerProperties {
+
+    // Answer most "not a buyer" checks from memory; when off every check is a primary-key lookup
+    private boolean bloomFilterEnabled = true;
+
+    // Target false-positive rate while the filter is within its capacity
+    private double bloomFilterFalsePositiveRate = 0.01;
+
+    // Smallest capacity a filter is sized for; it is rebuilt at twice the ledger size once full
+    private long bloomFilterMinCapacity = 100_000;
+
+    // How often other instances' rows are merged into this filter (ISO-8601, e.g. PT30S)
+    private Duration bloomFilterRefreshInterval = Duration.ofSeconds(30);
+
+    // Orders copied per backfill transaction
+    private int backfillBatchSize = 5_000;
+}
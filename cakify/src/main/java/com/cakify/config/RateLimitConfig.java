@@ -0,0 +1,43 @@
+package com.cakify.config;
+
+import com.cakify.ratelimit.RateLimitFilter;
+import com.cakify.ratelimit.RateLimiter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnProperty(prefix = "cakify.rate-limit", name = "enabled", matchIfMissing = true)
+public class RateLimitConfig {
+
+    // Ahead of Spring Security (order -100): rejected requests cost no authentication work
+    @Bean
+    FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimitProperties properties,
+                                                            MeterRegistry meterRegistry) {
+        List<RateLimitFilter.Rule> rules = new ArrayList<>();
+        for (Map.Entry<String, RateLimitProperties.Limit> entry : properties.getLimits().entrySet()) {
+            RateLimitProperties.Limit limit = entry.getValue();
+            RateLimiter limiter = new RateLimiter(entry.getKey(), limit.getCapacity(), limit.getPeriod(),
+                    properties.getMaxClients(), properties.getSweepInterval());
+            Gauge.builder("cakify.rate.limit.clients", limiter, RateLimiter::getTrackedClients)
+                    .description("Clients with a rate-limit bucket")
+                    .tag("limit", limiter.getName())
+                    .register(meterRegistry);
+            rules.add(new RateLimitFilter.Rule(limit.getMethod(), limit.getPath(), limiter));
+        }
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(
+                new RateLimitFilter(rules, properties.getApiKeyHeader(), properties.getApiKeys(), meterRegistry));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 10);
+        return registration;
+    }
+}
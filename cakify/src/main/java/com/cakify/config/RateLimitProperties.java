@@ -0,0 +1,50 @@
+package com.cakify.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-client rate limits for the public write endpoints (cakify.rate-limit.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "cakify.rate-limit")
+public class RateLimitProperties {
+
+    // Master switch; when off no filter is registered
+    private boolean enabled = true;
+
+    // Request header carrying a partner API key; only keys listed in api-keys are honoured
+    private String apiKeyHeader = "X-Api-Key";
+
+    // API key -> client name. Such callers get a bucket of their own instead of sharing their address's
+    private Map<String, String> apiKeys = new LinkedHashMap<>();
+
+    // Buckets kept per limit; past this, new clients share one overflow bucket until the next sweep
+    private int maxClients = 100_000;
+
+    // How often buckets that have refilled completely are dropped
+    private Duration sweepInterval = Duration.ofMinutes(1);
+
+    // Limits by name; the first one matching the request applies
+    private Map<String, Limit> limits = new LinkedHashMap<>();
+
+    @Data
+    public static class Limit {
+
+        // HTTP method the limit applies to
+        private String method = "POST";
+
+        // Ant-style path pattern, e.g. /api/products/*/reviews
+        private String path;
+
+        // Requests a client may make in a burst
+        private int capacity = 10;
+
+        // Time for an empty bucket to refill completely (tokens come back evenly over it)
+        private Duration period = Duration.ofMinutes(1);
+    }
+}
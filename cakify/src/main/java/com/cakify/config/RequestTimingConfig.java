@@ -0,0 +1,36 @@
+package com.cakify.config;
+
+import com.cakify.metrics.RequestTimingFilter;
+import com.cakify.metrics.RequestTimingQueryListener;
+import com.cakify.metrics.TimedJackson2HttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(RequestTimingProperties.class)
+@ConditionalOnProperty(prefix = "cakify.request-timing", name = "enabled", matchIfMissing = true)
+public class RequestTimingConfig {
+
+    @Bean
+    RequestTimingQueryListener requestTimingQueryListener() {
+        return new RequestTimingQueryListener();
+    }
+
+    @Bean
+    TimedJackson2HttpMessageConverter timedJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new TimedJackson2HttpMessageConverter(objectMapper);
+    }
+
+    // Runs after Spring Security (order -100) so the debug role check sees the authenticated user
+    @Bean
+    FilterRegistrationBean<RequestTimingFilter> requestTimingFilter(RequestTimingProperties properties) {
+        FilterRegistrationBean<RequestTimingFilter> registration =
+                new FilterRegistrationBean<>(new RequestTimingFilter(properties));
+        registration.setOrder(0);
+        return registration;
+    }
+}
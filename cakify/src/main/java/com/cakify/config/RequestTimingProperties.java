@@ -0,0 +1,37 @@
+package com.cakify.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-request SQL and serialization timing (cakify.request-timing.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "cakify.request-timing")
+public class RequestTimingProperties {
+
+    // Master switch; when off no collector, filter or timed JSON converter is registered
+    private boolean enabled = true;
+
+    // Fraction of requests (0.0 - 1.0) whose SQL text is kept; counts and durations are always collected
+    private double sampleRate = 0.05;
+
+    // Requests taking at least this long are written to the slow-request log
+    private Duration slowThreshold = Duration.ofMillis(500);
+
+    // Upper bound on statements kept per request, so an N+1 loop cannot grow the log without limit
+    private int maxStatements = 50;
+
+    // Request header that asks for a Server-Timing response header (any value)
+    private String debugHeader = "X-Debug-Timing";
+
+    // Role the caller needs for the debug header to be honoured; empty allows every client (local use only)
+    private String debugRole = "ADMIN";
+
+    // Streaming endpoints never get the header: it would require buffering the whole body
+    private List<String> excludedPaths = new ArrayList<>(List.of("/api/*/export"));
+}
@@ -0,0 +1,38 @@
+package com.cakify.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Data lifecycle settings (cakify.retention.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "cakify.retention")
+public class RetentionProperties {
+
+    // Master switch for the scheduled job (manual runs via the archive API always work)
+    private boolean enabled = true;
+
+    // When the scheduled job runs (default: every night at 03:30)
+    private String cron = "0 30 3 * * *";
+
+    // Closed orders older than this (by order date) are moved to the archive tables
+    private Duration closedOrderAge = Duration.ofDays(365);
+
+    // Resolved inquiries older than this (by creation date) are archived or purged
+    private Duration resolvedInquiryAge = Duration.ofDays(180);
+
+    private InquiryMode inquiryMode = InquiryMode.ARCHIVE;
+
+    // Rows moved per transaction; keeps locks and undo short on large backlogs
+    private int batchSize = 500;
+
+    public enum InquiryMode {
+        // Move resolved inquiries into inquiries_archive (still readable via the archive API)
+        ARCHIVE,
+        // Delete resolved inquiries permanently
+        PURGE
+    }
+}
@@ -0,0 +1,128 @@
+package com.cakify.config;
+
+import com.cakify.entity.Product;
+import com.cakify.event.CatalogChangedEvent;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.cache.CacheManager;
+import java.util.Map;
+import java.util.OptionalLong;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(SecondLevelCacheProperties.class)
+public class SecondLevelCacheConfig {
+
+    // Query cache region of the product list queries (ProductRepository)
+    public static final String PRODUCT_QUERIES_REGION = "product-queries";
+
+    @Bean
+    @ConditionalOnProperty(prefix = "cakify.second-level-cache", name = "enabled", matchIfMissing = true)
+    HibernatePropertiesCustomizer secondLevelCache(SecondLevelCacheProperties properties) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+            // Hibernate closes the manager when the EntityManagerFactory closes
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, createCacheManager(properties.getRegions()));
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.FAIL.getExternalRepresentation());
+        };
+    }
+
+    // hibernate-jcache on the classpath would otherwise be picked up with unbounded default regions
+    @Bean
+    @ConditionalOnProperty(prefix = "cakify.second-level-cache", name = "enabled", havingValue = "false")
+    HibernatePropertiesCustomizer noSecondLevelCache() {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, false);
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "cakify.second-level-cache", name = "enabled", matchIfMissing = true)
+    MeterBinder secondLevelCacheMetrics(EntityManagerFactory entityManagerFactory,
+                                        SecondLevelCacheProperties properties) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return registry -> {
+            for (String region : properties.getRegions().keySet()) {
+                Gauge.builder("cakify.second.level.cache.hit.ratio", statistics, s -> hitRatio(s, region))
+                        .description("Share of second-level cache lookups answered from memory")
+                        .tag("region", region)
+                        .register(registry);
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "cakify.second-level-cache", name = "enabled", matchIfMissing = true)
+    CatalogCacheEviction catalogCacheEviction(EntityManagerFactory entityManagerFactory) {
+        return new CatalogCacheEviction(entityManagerFactory.unwrap(SessionFactory.class));
+    }
+
+    // A private provider instance, so two application contexts in one JVM (tests) never share regions
+    private static CacheManager createCacheManager(Map<String, SecondLevelCacheProperties.Region> regions) {
+        CacheManager cacheManager = new CaffeineCachingProvider().getCacheManager();
+        regions.forEach((name, region) -> cacheManager.createCache(name, new CaffeineConfiguration<>()
+                .setMaximumSize(OptionalLong.of(region.getMaxSize()))
+                .setExpireAfterWrite(OptionalLong.of(region.getTtl().toNanos()))));
+        // Hibernate's own regions. Update timestamps must never be evicted before the query results
+        // that depend on them, so that one is unbounded (one entry per table)
+        if (!regions.containsKey(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME)) {
+            cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                    new CaffeineConfiguration<>().setMaximumSize(OptionalLong.of(100)));
+        }
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    private static double hitRatio(Statistics statistics, String region) {
+        CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+        if (regionStatistics == null) {
+            return Double.NaN;
+        }
+        long lookups = regionStatistics.getHitCount() + regionStatistics.getMissCount();
+        return lookups == 0 ? Double.NaN : (double) regionStatistics.getHitCount() / lookups;
+    }
+
+    /**
+     * Bulk catalog writes (CSV import) go through JDBC, which Hibernate does not see: drop the cached
+     * products and product lists once they are committed
+     */
+    static class CatalogCacheEviction {
+
+        private static final Logger log = LoggerFactory.getLogger(CatalogCacheEviction.class);
+
+        private final SessionFactory sessionFactory;
+
+        CatalogCacheEviction(SessionFactory sessionFactory) {
+            this.sessionFactory = sessionFactory;
+        }
+
+        @TransactionalEventListener(fallbackExecution = true)
+        public void onCatalogChanged(CatalogChangedEvent event) {
+            sessionFactory.getCache().evictEntityData(Product.class);
+            sessionFactory.getCache().evictQueryRegion(PRODUCT_QUERIES_REGION);
+            log.debug("Evicted cached products after {}", event.source());
+        }
+    }
+}
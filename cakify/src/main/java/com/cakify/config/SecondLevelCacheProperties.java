@@ -0,0 +1,34 @@
+package com.cakify.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hibernate second-level cache (cakify.second-level-cache.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "cakify.second-level-cache")
+public class SecondLevelCacheProperties {
+
+    // Master switch; when off Hibernate runs without second-level or query cache
+    private boolean enabled = true;
+
+    // Regions by name, as used in @Cache(region = ...) and the query cache hints. A region used but
+    // not listed here fails startup, so every region is bounded
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    @Data
+    public static class Region {
+
+        // Entries kept; the least valuable ones are evicted past this
+        private long maxSize = 1_000;
+
+        // Entries are dropped this long after they were written, which bounds staleness from writes
+        // that bypass Hibernate (other tools, manual SQL)
+        private Duration ttl = Duration.ofMinutes(10);
+    }
+}
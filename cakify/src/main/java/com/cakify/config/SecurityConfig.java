@@ -0,0 +1,212 @@
+package com.cakify.config;
+
+import com.cakify.security.CachingJwtDecoder;
+import com.cakify.security.LoginService;
+import com.cakify.security.TokenService;
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtIssuerValidator;
+import org.springframework.security.oauth2.jwt.JwtTimestampValidator;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.security.oauth2.server.resource.web.BearerTokenResolver;
+import org.springframework.security.oauth2.server.resource.web.DefaultBearerTokenResolver;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stateless API security. Nothing is kept between requests: admin requests carry a signed JWT
+ * (POST /api/auth/login) that any instance verifies with the shared key, without a session or a
+ * database lookup.
+ *
+ * Three filter chains, tried in order:
+ * management port (internal, open), public catalog and capacity reads (no authentication at all),
+ * everything else (customer writes and login open, the rest ADMIN only).
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(AuthProperties.class)
+public class SecurityConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
+    private static final int MIN_SECRET_BYTES = 32;
+
+    // Actuator listens on its own port, reachable only from inside the network (see application.yml)
+    @Bean
+    @Order(1)
+    SecurityFilterChain managementSecurityFilterChain(HttpSecurity http) throws Exception {
+        return stateless(http)
+                .securityMatcher(EndpointRequest.toAnyEndpoint())
+                .authorizeHttpRequests(requests -> requests.anyRequest().permitAll())
+                .build();
+    }
+
+    // Catalog reads skip token parsing entirely; a bearer token is only looked at when the caller
+    // asks for debug timing, which needs the debug role (see RequestTimingFilter)
+    @Bean
+    @Order(2)
+    SecurityFilterChain catalogSecurityFilterChain(HttpSecurity http, JwtAuthenticationConverter authenticationConverter,
+                                                   ObjectProvider<RequestTimingProperties> requestTiming)
+            throws Exception {
+        DefaultBearerTokenResolver bearerTokens = new DefaultBearerTokenResolver();
+        RequestTimingProperties timing = requestTiming.getIfAvailable();
+        BearerTokenResolver debugOnly = request -> timing != null && request.getHeader(timing.getDebugHeader()) != null
+                ? bearerTokens.resolve(request) : null;
+        return stateless(http)
+                .securityMatchers(matchers -> matchers.requestMatchers(HttpMethod.GET,
+                        "/api/categories", "/api/categories/**", "/api/products", "/api/products/**",
+                        "/api/capacity"))
+                .authorizeHttpRequests(requests -> requests.anyRequest().permitAll())
+                .oauth2ResourceServer(resourceServer -> resourceServer
+                        .bearerTokenResolver(debugOnly)
+                        .jwt(jwt -> jwt.jwtAuthenticationConverter(authenticationConverter)))
+                .build();
+    }
+
+    @Bean
+    @Order(3)
+    SecurityFilterChain apiSecurityFilterChain(HttpSecurity http, JwtAuthenticationConverter authenticationConverter)
+            throws Exception {
+        return stateless(http)
+                .authorizeHttpRequests(requests -> requests
+                        .requestMatchers(HttpMethod.POST, "/api/auth/login").permitAll()
+                        // Customers have no accounts: placing orders, inquiries and reviews stays open
+                        // (and rate-limited, see RateLimitConfig)
+                        .requestMatchers(HttpMethod.POST, "/api/orders", "/api/inquiries",
+                                "/api/products/*/reviews").permitAll()
+                        .requestMatchers("/error").permitAll()
+                        .anyRequest().hasRole("ADMIN"))
+                .oauth2ResourceServer(resourceServer -> resourceServer
+                        .jwt(jwt -> jwt.jwtAuthenticationConverter(authenticationConverter)))
+                .build();
+    }
+
+    // "roles": ["ADMIN"] becomes ROLE_ADMIN
+    @Bean
+    JwtAuthenticationConverter jwtAuthenticationConverter() {
+        JwtGrantedAuthoritiesConverter authorities = new JwtGrantedAuthoritiesConverter();
+        authorities.setAuthoritiesClaimName(TokenService.ROLES_CLAIM);
+        authorities.setAuthorityPrefix("ROLE_");
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(authorities);
+        return converter;
+    }
+
+    // The key is decoded once; the Nimbus verifier built from it is reused for every token
+    @Bean
+    JwtDecoder jwtDecoder(SecretKey jwtSigningKey, AuthProperties properties) {
+        NimbusJwtDecoder nimbus = NimbusJwtDecoder.withSecretKey(jwtSigningKey)
+                .macAlgorithm(MacAlgorithm.HS256)
+                .build();
+        nimbus.setJwtValidator(new DelegatingOAuth2TokenValidator<>(
+                new JwtTimestampValidator(), new JwtIssuerValidator(properties.getIssuer())));
+        return new CachingJwtDecoder(nimbus, properties.getTokenCacheSize(), properties.getTokenTtl(),
+                Clock.systemUTC());
+    }
+
+    @Bean
+    JwtEncoder jwtEncoder(SecretKey jwtSigningKey) {
+        return new NimbusJwtEncoder(new ImmutableSecret<>(jwtSigningKey));
+    }
+
+    @Bean
+    TokenService tokenService(JwtEncoder jwtEncoder, AuthProperties properties) {
+        return new TokenService(jwtEncoder, properties.getIssuer(), properties.getTokenTtl(), Clock.systemUTC());
+    }
+
+    @Bean
+    PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
+
+    // Platform threads on purpose: the pool size is what limits the CPU spent on bcrypt
+    @Bean
+    ExecutorService loginExecutor(AuthProperties properties, MeterRegistry registry) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(properties.getLoginThreads(), properties.getLoginThreads(),
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getLoginQueueCapacity()),
+                Thread.ofPlatform().name("login-", 0).daemon(true).factory(), new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "login", List.of()).bindTo(registry);
+        return executor;
+    }
+
+    @Bean
+    LoginService loginService(AuthProperties properties, PasswordEncoder passwordEncoder, TokenService tokenService,
+                              ExecutorService loginExecutor) {
+        Map<String, AuthProperties.User> accounts = new LinkedHashMap<>();
+        properties.getUsers().forEach((username, user) -> {
+            if (StringUtils.hasText(user.getPasswordHash())) {
+                accounts.put(username, user);
+            } else {
+                log.warn("Ignoring account '{}' without a password hash (cakify.auth.users.{}.password-hash)",
+                        username, username);
+            }
+        });
+        if (accounts.isEmpty()) {
+            log.warn("No admin accounts configured (cakify.auth.users); nobody can log in");
+        }
+        return new LoginService(accounts, passwordEncoder, tokenService, loginExecutor);
+    }
+
+    @Bean
+    SecretKey jwtSigningKey(AuthProperties properties) {
+        if (!StringUtils.hasText(properties.getJwtSecret())) {
+            byte[] random = new byte[MIN_SECRET_BYTES];
+            new SecureRandom().nextBytes(random);
+            log.warn("cakify.auth.jwt-secret is not set; using a random key, so tokens only work on this instance "
+                    + "until it restarts");
+            return new SecretKeySpec(random, "HmacSHA256");
+        }
+        byte[] secret = Base64.getDecoder().decode(properties.getJwtSecret());
+        if (secret.length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException("cakify.auth.jwt-secret must decode to at least " + MIN_SECRET_BYTES
+                    + " bytes");
+        }
+        return new SecretKeySpec(secret, "HmacSHA256");
+    }
+
+    // Bearer tokens are not sent by browsers on their own, so CSRF protection has nothing to protect
+    private static HttpSecurity stateless(HttpSecurity http) throws Exception {
+        return http
+                .csrf(AbstractHttpConfigurer::disable)
+                .cors(Customizer.withDefaults())
+                .httpBasic(AbstractHttpConfigurer::disable)
+                .formLogin(AbstractHttpConfigurer::disable)
+                .requestCache(cache -> cache.disable())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+    }
+}
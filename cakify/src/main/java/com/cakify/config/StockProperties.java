@@ -0,0 +1,26 @@
+package com.cakify.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Stock of limited-quantity products (cakify.stock.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "cakify.stock")
+public class StockProperties {
+
+    // When off, stock limits are not enforced and /api/products/{id}/stock does not exist
+    private boolean enabled = true;
+
+    // How often the stock journal is folded into product_stock.sold
+    private Duration flushInterval = Duration.ofSeconds(5);
+
+    // Journal entries flushed per transaction
+    private int flushBatchSize = 500;
+
+    // How often the in-memory counters are reconciled with the tables, which counts other instances' orders
+    private Duration refreshInterval = Duration.ofSeconds(30);
+}
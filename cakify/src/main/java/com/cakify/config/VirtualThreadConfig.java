@@ -0,0 +1,95 @@
+package com.cakify.config;
+
+import com.cakify.jdbc.ConnectionLimitingDataSource;
+import com.cakify.metrics.VirtualThreadPinningMonitor;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Active when spring.threads.virtual.enabled=true (see the virtual-threads profile): Tomcat,
+ * {@code @Async} methods and scheduled jobs then run on virtual threads, and this configuration
+ * bounds their access to the connection pool and reports carrier pinning.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnThreading(Threading.VIRTUAL)
+@EnableConfigurationProperties(VirtualThreadProperties.class)
+public class VirtualThreadConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    private static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    static BeanPostProcessor connectionLimitingPostProcessor(ObjectProvider<VirtualThreadProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConnectionLimitingDataSource) {
+                    return bean;
+                }
+                VirtualThreadProperties settings = properties.getObject();
+                int maxConnections = settings.getMaxConcurrentConnections();
+                if (maxConnections <= 0) {
+                    HikariConfigMXBean pool = DataSourceUnwrapper.unwrap(dataSource, HikariConfigMXBean.class,
+                            HikariDataSource.class);
+                    if (pool == null) {
+                        log.warn("DataSource '{}' is not a Hikari pool; set cakify.virtual-threads."
+                                + "max-concurrent-connections to bound it", beanName);
+                        return bean;
+                    }
+                    // Hikari leaves the size unset (-1) until the pool starts, then applies its default
+                    maxConnections = pool.getMaximumPoolSize() > 0
+                            ? pool.getMaximumPoolSize() : HIKARI_DEFAULT_POOL_SIZE;
+                }
+                return new ConnectionLimitingDataSource(dataSource, maxConnections,
+                        settings.getConnectionAcquireTimeout());
+            }
+        };
+    }
+
+    @Bean
+    MeterBinder connectionLimitMetrics(DataSource dataSource) {
+        return registry -> {
+            ConnectionLimitingDataSource limited = limiterOf(dataSource);
+            if (limited != null) {
+                Gauge.builder("cakify.jdbc.connections.waiting", limited, ConnectionLimitingDataSource::getWaitingThreads)
+                        .description("Threads queued for a connection permit")
+                        .register(registry);
+            }
+        };
+    }
+
+    // JDBC unwrap rather than DataSourceUnwrapper, since the statement proxy may sit in front of the limiter
+    private static ConnectionLimitingDataSource limiterOf(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(ConnectionLimitingDataSource.class)
+                    ? dataSource.unwrap(ConnectionLimitingDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "cakify.virtual-threads", name = "pinning-monitor", matchIfMissing = true)
+    VirtualThreadPinningMonitor virtualThreadPinningMonitor(MeterRegistry registry,
+                                                           VirtualThreadProperties properties) {
+        return new VirtualThreadPinningMonitor(registry, properties.getPinningThreshold());
+    }
+}
@@ -0,0 +1,26 @@
+package com.cakify.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings that apply when spring.threads.virtual.enabled=true (cakify.virtual-threads.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "cakify.virtual-threads")
+public class VirtualThreadProperties {
+
+    // Connections that may be checked out at once; 0 uses the Hikari maximum pool size
+    private int maxConcurrentConnections = 0;
+
+    // How long a request queues for a connection before failing; longer than Hikari's own timeout on purpose
+    private Duration connectionAcquireTimeout = Duration.ofSeconds(60);
+
+    // Stream jdk.VirtualThreadPinned events from JFR into metrics and the log
+    private boolean pinningMonitor = true;
+
+    // Pinned parks shorter than this are ignored (same default as the JFR event)
+    private Duration pinningThreshold = Duration.ofMillis(20);
+}
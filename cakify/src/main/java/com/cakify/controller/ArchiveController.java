@@ -0,0 +1,100 @@
+package com.cakify.controller;
+
+import com.cakify.dto.RetentionReport;
+import com.cakify.entity.ArchivedInquiry;
+import com.cakify.entity.ArchivedOrder;
+import com.cakify.entity.ArchivedOrderItem;
+import com.cakify.service.ArchiveService;
+import com.cakify.service.DataRetentionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST Controller for archived orders and inquiries (Admin only)
+ * Archived data is read-only; it is written exclusively by the retention job
+ */
+@Lazy
+@RestController
+@RequestMapping("/api/archive")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class ArchiveController {
+
+    private final ArchiveService archiveService;
+    private final DataRetentionService dataRetentionService;
+
+    /**
+     * Get archived orders with pagination
+     * GET /api/archive/orders?page=0&size=20&sort=orderDate,desc
+     */
+    @GetMapping("/orders")
+    public ResponseEntity<Page<ArchivedOrder>> getArchivedOrders(Pageable pageable) {
+        return ResponseEntity.ok(archiveService.getArchivedOrders(pageable));
+    }
+
+    /**
+     * Get archived order by ID
+     * GET /api/archive/orders/{id}
+     */
+    @GetMapping("/orders/{id}")
+    public ResponseEntity<ArchivedOrder> getArchivedOrderById(@PathVariable Long id) {
+        return archiveService.getArchivedOrderById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Get items of an archived order
+     * GET /api/archive/orders/{id}/items
+     */
+    @GetMapping("/orders/{id}/items")
+    public ResponseEntity<List<ArchivedOrderItem>> getArchivedOrderItems(@PathVariable Long id) {
+        return ResponseEntity.ok(archiveService.getArchivedOrderItems(id));
+    }
+
+    /**
+     * Get archived orders by customer email
+     * GET /api/archive/orders/customer/{email}?page=0&size=20
+     */
+    @GetMapping("/orders/customer/{email}")
+    public ResponseEntity<Page<ArchivedOrder>> getArchivedOrdersByCustomerEmail(
+            @PathVariable String email,
+            Pageable pageable) {
+        return ResponseEntity.ok(archiveService.getArchivedOrdersByCustomerEmail(email, pageable));
+    }
+
+    /**
+     * Get archived inquiries with pagination
+     * GET /api/archive/inquiries?page=0&size=20
+     */
+    @GetMapping("/inquiries")
+    public ResponseEntity<Page<ArchivedInquiry>> getArchivedInquiries(Pageable pageable) {
+        return ResponseEntity.ok(archiveService.getArchivedInquiries(pageable));
+    }
+
+    /**
+     * Get archived inquiries by customer email
+     * GET /api/archive/inquiries/customer/{email}
+     */
+    @GetMapping("/inquiries/customer/{email}")
+    public ResponseEntity<Page<ArchivedInquiry>> getArchivedInquiriesByEmail(
+            @PathVariable String email,
+            Pageable pageable) {
+        return ResponseEntity.ok(archiveService.getArchivedInquiriesByEmail(email, pageable));
+    }
+
+    /**
+     * Run the retention policies now instead of waiting for the schedule
+     * POST /api/archive/run
+     */
+    @PostMapping("/run")
+    public ResponseEntity<RetentionReport> runRetention() {
+        return ResponseEntity.ok(dataRetentionService.runRetention());
+    }
+}
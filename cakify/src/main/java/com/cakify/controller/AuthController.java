@@ -0,0 +1,47 @@
+package com.cakify.controller;
+
+import com.cakify.dto.LoginRequest;
+import com.cakify.dto.TokenResponse;
+import com.cakify.security.LoginService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * REST Controller for admin login: exchanges a username and password for a JWT
+ */
+@RestController
+@RequestMapping("/api/auth")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class AuthController {
+
+    private final LoginService loginService;
+
+    /**
+     * Log in (Public endpoint); send the token as "Authorization: Bearer <token>" afterwards
+     * POST /api/auth/login
+     * The request thread is released while the password is checked
+     */
+    @PostMapping("/login")
+    public CompletableFuture<ResponseEntity<?>> login(@Valid @RequestBody LoginRequest request) {
+        try {
+            return loginService.login(request.getUsername(), request.getPassword())
+                    .thenApply(token -> token.<ResponseEntity<?>>map(issued -> ResponseEntity.ok(
+                                    new TokenResponse(issued.value(), "Bearer", issued.expiresInSeconds())))
+                            .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                                    .body(Map.of("message", "Invalid username or password"))));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of("message", "Too many logins in progress, try again shortly")));
+        }
+    }
+}
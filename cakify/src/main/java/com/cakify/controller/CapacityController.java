@@ -0,0 +1,41 @@
+package com.cakify.controller;
+
+import com.cakify.capacity.CapacityCalendar;
+import com.cakify.dto.CapacityDayResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * REST Controller for delivery capacity (public: customers pick a delivery slot with it)
+ * Answered from the in-memory capacity calendar, without a database query
+ */
+@RestController
+@RequestMapping("/api/capacity")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+@ConditionalOnProperty(prefix = "cakify.capacity", name = "enabled", matchIfMissing = true)
+public class CapacityController {
+
+    private final CapacityCalendar capacityCalendar;
+
+    /**
+     * Get booked and available cakes per day and delivery slot, both dates inclusive
+     * GET /api/capacity?from=2024-06-01&to=2024-06-07
+     */
+    @GetMapping
+    public ResponseEntity<List<CapacityDayResponse>> getCapacity(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(capacityCalendar.getAvailability(from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
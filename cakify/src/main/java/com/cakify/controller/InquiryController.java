@@ -2,13 +2,21 @@ package com.cakify.controller;
 
 import com.cakify.dto.InquiryRequest;
 import com.cakify.dto.InquiryResponse;
+import com.cakify.enums.ExportFormat;
+import com.cakify.service.ExportService;
 import com.cakify.service.InquiryService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -20,6 +28,8 @@ import java.util.Optional;
 public class InquiryController {
     
     private final InquiryService inquiryService;
+    // Created on the first export
+    private final ObjectProvider<ExportService> exportService;
     
     // POST /api/inquiries - Customer submits inquiry (Public endpoint)
     @PostMapping
@@ -95,6 +105,32 @@ public class InquiryController {
         return ResponseEntity.ok(stats);
     }
     
+    // GET /api/inquiries/export?from=2024-01-01&to=2024-12-31&format=ndjson - Stream inquiries (Admin only)
+    @GetMapping("/export")
+    public void exportInquiries(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "csv") String format,
+            HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.fromString(format);
+            if (to.isBefore(from)) {
+                throw new IllegalArgumentException("'to' must not be before 'from'");
+            }
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+            return;
+        }
+        
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"inquiries_" + from + "_" + to
+                + "." + exportFormat.getFileExtension() + "\"");
+        exportService.getObject().exportInquiries(from.atStartOfDay(), to.plusDays(1).atStartOfDay(), exportFormat,
+                response.getOutputStream());
+    }
+    
     // GET /api/inquiries/customer/{email} - Get inquiries by customer email
     @GetMapping("/customer/{email}")
     public ResponseEntity<List<InquiryResponse>> getInquiriesByEmail(@PathVariable String email) {
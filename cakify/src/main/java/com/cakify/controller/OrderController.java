@@ -4,16 +4,29 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import com.cakify.entity.Order;
+import com.cakify.enums.ExportFormat;
 import com.cakify.enums.OrderStatus;
+import com.cakify.exception.CapacityExceededException;
+import com.cakify.exception.OutOfStockException;
+import com.cakify.service.ExportService;
+import com.cakify.service.OrderIdempotencyService;
+import com.cakify.service.OrderIdempotencyService.IdempotentResponse;
 import com.cakify.service.OrderService;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,15 +35,38 @@ import java.util.Optional;
 @CrossOrigin(origins = "*")
 public class OrderController {
 
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private OrderIdempotencyService orderIdempotencyService;
+
+    // Exports are admin-only: the service is created on the first export, not at startup
+    @Autowired
+    private ObjectProvider<ExportService> exportService;
+
     // Create new order
+    // With an Idempotency-Key, a retry gets the first response instead of creating a second order
     @PostMapping
-    public ResponseEntity<Order> createOrder(@Valid @RequestBody Order order) {
+    public ResponseEntity<?> createOrder(@Valid @RequestBody Order order,
+                                         @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        if (idempotencyKey != null) {
+            // Validation and key reuse errors are answered by GlobalExceptionHandler
+            IdempotentResponse response = orderIdempotencyService.createOrder(idempotencyKey, order);
+            return ResponseEntity.status(response.status())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(IDEMPOTENT_REPLAYED, String.valueOf(response.replayed()))
+                    .body(response.body());
+        }
         try {
             Order createdOrder = orderService.createOrder(order);
             return new ResponseEntity<>(createdOrder, HttpStatus.CREATED);
+        } catch (CapacityExceededException | OutOfStockException e) {
+            // Full delivery slot or day, sold-out product: 409 from GlobalExceptionHandler
+            throw e;
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
         }
@@ -50,6 +86,36 @@ public class OrderController {
         }
     }
 
+    /**
+     * Stream orders for accounting as CSV or NDJSON (Admin only)
+     * GET /api/orders/export?from=2024-01-01&to=2024-12-31&format=csv
+     * Both dates are inclusive; memory use is independent of the number of rows
+     */
+    @GetMapping("/export")
+    public void exportOrders(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "csv") String format,
+            HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.fromString(format);
+            if (to.isBefore(from)) {
+                throw new IllegalArgumentException("'to' must not be before 'from'");
+            }
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+            return;
+        }
+
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders_" + from + "_" + to
+                + "." + exportFormat.getFileExtension() + "\"");
+        exportService.getObject().exportOrders(from.atStartOfDay(), to.plusDays(1).atStartOfDay(), exportFormat,
+                response.getOutputStream());
+    }
+
     // Get order by ID
     @GetMapping("/{id}")
     public ResponseEntity<Order> getOrderById(@PathVariable Long id) {
@@ -106,6 +172,8 @@ public class OrderController {
         try {
             Order updatedOrder = orderService.updateOrder(id, order);
             return new ResponseEntity<>(updatedOrder, HttpStatus.OK);
+        } catch (CapacityExceededException | OutOfStockException e) {
+            throw e;
         } catch (RuntimeException e) {
             return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
         } catch (Exception e) {
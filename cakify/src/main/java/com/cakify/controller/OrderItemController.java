@@ -1,6 +1,7 @@
 package com.cakify.controller;
 
 import com.cakify.entity.OrderItem;
+import com.cakify.exception.OutOfStockException;
 import com.cakify.service.OrderItemService;
 
 import jakarta.validation.Valid;
@@ -36,6 +37,9 @@ public class OrderItemController {
         try {
             OrderItem savedItem = orderItemService.addItemToOrder(orderId, orderItem);
             return new ResponseEntity<>(savedItem, HttpStatus.CREATED);
+        } catch (OutOfStockException e) {
+            // Sold-out product: 409 from GlobalExceptionHandler
+            throw e;
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
         }
@@ -87,6 +91,9 @@ public class OrderItemController {
         try {
             OrderItem updatedItem = orderItemService.updateOrderItem(id, orderItem);
             return new ResponseEntity<>(updatedItem, HttpStatus.OK);
+        } catch (OutOfStockException e) {
+            // Sold-out product: 409 from GlobalExceptionHandler
+            throw e;
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
         }
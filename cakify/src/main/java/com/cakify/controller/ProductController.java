@@ -1,16 +1,27 @@
 package com.cakify.controller;
 
+import com.cakify.dto.CatalogImportReport;
+import com.cakify.dto.ProductDetailResponse;
 import com.cakify.dto.ProductResponse;
 import com.cakify.entity.Category;
 import com.cakify.entity.Product;
+import com.cakify.exception.ProductDetailUnavailableException;
+import com.cakify.service.CatalogImportService;
+import com.cakify.service.ProductDetailService;
 import com.cakify.service.ProductService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -20,6 +31,9 @@ import java.util.Optional;
 public class ProductController {
 
     private final ProductService productService;
+    // Admin-only, created on the first import
+    private final ObjectProvider<CatalogImportService> catalogImportService;
+    private final ProductDetailService productDetailService;
 
     // GET /api/products - Get all products
     @GetMapping
@@ -50,6 +64,18 @@ public class ProductController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // GET /api/products/{id}/detail - Product, newest reviews, rating stats and related products in one call
+    @GetMapping("/{id}/detail")
+    public ResponseEntity<?> getProductDetail(@PathVariable Long id) {
+        try {
+            Optional<ProductDetailResponse> detail = productDetailService.getProductDetail(id);
+            return detail.<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (ProductDetailUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("message", e.getMessage()));
+        }
+    }
+
     // GET /api/products/category/{categoryId} - Get products by category ID
     @GetMapping("/category/{categoryId}")
     public ResponseEntity<List<ProductResponse>> getProductsByCategory(@PathVariable Long categoryId) {
@@ -117,6 +143,29 @@ public class ProductController {
         }
     }
 
+    // POST /api/products/import - Bulk create/update products from a CSV upload (Admin only)
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> importProducts(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream input = file.getInputStream()) {
+            return importCatalog(input);
+        }
+    }
+
+    // POST /api/products/import - Same as above with the CSV as raw request body (Content-Type: text/csv)
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<?> importProductsFromBody(InputStream body) throws IOException {
+        return importCatalog(body);
+    }
+
+    private ResponseEntity<?> importCatalog(InputStream input) throws IOException {
+        try {
+            CatalogImportReport report = catalogImportService.getObject().importCsv(input);
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
     // DELETE /api/products/{id} - Delete product (Admin only)
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
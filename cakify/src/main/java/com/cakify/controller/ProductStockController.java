@@ -0,0 +1,58 @@
+package com.cakify.controller;
+
+import com.cakify.dto.ProductStockRequest;
+import com.cakify.dto.ProductStockResponse;
+import com.cakify.stock.StockLedger;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST Controller for the stock of limited-quantity products
+ * Reading is public like the rest of the catalog; setting and removing a limit is Admin only
+ */
+@RestController
+@RequestMapping("/api/products/{productId}/stock")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+@ConditionalOnProperty(prefix = "cakify.stock", name = "enabled", matchIfMissing = true)
+public class ProductStockController {
+
+    private final StockLedger stockLedger;
+
+    /**
+     * Get a limited product's stock (404 for products made to order)
+     * GET /api/products/{productId}/stock
+     */
+    @GetMapping
+    public ResponseEntity<ProductStockResponse> getStock(@PathVariable Long productId) {
+        return stockLedger.getStock(productId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Limit a product to a number of units in total, or change its limit
+     * PUT /api/products/{productId}/stock {"stock": 30}
+     */
+    @PutMapping
+    public ResponseEntity<ProductStockResponse> setStock(@PathVariable Long productId,
+                                                         @Valid @RequestBody ProductStockRequest request) {
+        return stockLedger.setStock(productId, request.getStock())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Remove a product's limit (made to order again)
+     * DELETE /api/products/{productId}/stock
+     */
+    @DeleteMapping
+    public ResponseEntity<Void> removeStock(@PathVariable Long productId) {
+        return stockLedger.removeStock(productId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+}
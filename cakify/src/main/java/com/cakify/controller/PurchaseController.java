@@ -0,0 +1,30 @@
+package com.cakify.controller;
+
+import com.cakify.dto.PurchaseBackfillReport;
+import com.cakify.service.PurchaseLedger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST Controller for the purchase ledger used by review verification (Admin only)
+ */
+@Lazy
+@RestController
+@RequestMapping("/api/purchases")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class PurchaseController {
+
+    private final PurchaseLedger purchaseLedger;
+
+    /**
+     * Build the ledger from delivered orders, including archived ones; safe to run more than once
+     * POST /api/purchases/backfill
+     */
+    @PostMapping("/backfill")
+    public ResponseEntity<PurchaseBackfillReport> backfill() {
+        return ResponseEntity.ok(purchaseLedger.backfill());
+    }
+}
@@ -1,7 +1,10 @@
 package com.cakify.controller;
 
+import com.cakify.dto.RatingStats;
+import com.cakify.dto.ReviewPageResponse;
 import com.cakify.dto.ReviewRequest;
 import com.cakify.dto.ReviewResponse;
+import com.cakify.enums.ReviewSort;
 import com.cakify.service.ReviewService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -10,7 +13,6 @@ import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -36,12 +38,22 @@ public class ReviewController {
         }
     }
 
-    // GET - Get all reviews for a product
+    // GET - Get a page of reviews for a product
+    // ?sort=newest|rating&limit=20, then ?cursor=<nextCursor> for the following pages
     @GetMapping
-    public ResponseEntity<?> getProductReviews(@PathVariable Long productId) {
+    public ResponseEntity<?> getProductReviews(
+            @PathVariable Long productId,
+            @RequestParam(defaultValue = "newest") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
-            List<ReviewResponse> reviews = reviewService.getProductReviews(productId);
-            return ResponseEntity.ok(reviews);
+            ReviewPageResponse page = reviewService.getProductReviews(productId, ReviewSort.fromString(sort),
+                    cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
         } catch (RuntimeException e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", e.getMessage());
@@ -49,17 +61,11 @@ public class ReviewController {
         }
     }
 
-    // GET - Get review statistics (average rating and count)
+    // GET - Get review statistics (average rating, count and 1-5 star histogram)
     @GetMapping("/stats")
     public ResponseEntity<?> getReviewStats(@PathVariable Long productId) {
         try {
-            Double averageRating = reviewService.getAverageRating(productId);
-            Long reviewCount = reviewService.getReviewCount(productId);
-
-            Map<String, Object> stats = new HashMap<>();
-            stats.put("averageRating", averageRating);
-            stats.put("reviewCount", reviewCount);
-
+            RatingStats stats = reviewService.getRatingStats(productId);
             return ResponseEntity.ok(stats);
         } catch (RuntimeException e) {
             Map<String, String> error = new HashMap<>();
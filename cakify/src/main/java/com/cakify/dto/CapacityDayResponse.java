@@ -0,0 +1,23 @@
+package com.cakify.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Capacity of one delivery day and its slots
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CapacityDayResponse {
+
+    private LocalDate date;
+    private int limit;
+    private int booked;
+    private int available;
+    private List<CapacitySlotResponse> slots;
+}
@@ -0,0 +1,22 @@
+package com.cakify.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Capacity of one delivery slot; available also accounts for the day's limit
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CapacitySlotResponse {
+
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private int limit;
+    private int booked;
+    private int available;
+}
@@ -0,0 +1,30 @@
+package com.cakify.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class CatalogImportReport {
+
+    private int totalRows;
+    private int created;
+    private int updated;
+    private int rejected;
+    private List<RowResult> rows = new ArrayList<>();
+
+    // Outcome of a single CSV row (row numbers are 1-based and exclude the header)
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowResult {
+        private int row;
+        private String name;
+        private String status;
+        private String message;
+    }
+}
@@ -0,0 +1,22 @@
+package com.cakify.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginRequest {
+
+    @NotBlank(message = "Username is required")
+    @Size(max = 100, message = "Username must be less than 100 characters")
+    private String username;
+
+    // BCrypt only looks at the first 72 bytes
+    @NotBlank(message = "Password is required")
+    @Size(max = 72, message = "Password must be at most 72 characters")
+    private String password;
+}
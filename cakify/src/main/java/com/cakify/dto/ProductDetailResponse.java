@@ -0,0 +1,23 @@
+package com.cakify.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Everything the product page needs in one payload.
+ * Sections that failed or timed out are null and listed in missingSections, so the page
+ * can render what it has and fall back to the single-purpose endpoints for the rest.
+ */
+@Data
+@NoArgsConstructor
+public class ProductDetailResponse {
+
+    private ProductResponse product;
+    private List<ReviewResponse> reviews;
+    private RatingStats ratingStats;
+    private List<ProductResponse> relatedProducts;
+    private List<String> missingSections = new ArrayList<>();
+}
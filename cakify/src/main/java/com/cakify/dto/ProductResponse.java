@@ -1,5 +1,6 @@
 package com.cakify.dto;
 
+import com.cakify.entity.AvailabilityStatus;
 import com.cakify.entity.Product;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -22,6 +23,8 @@ public class ProductResponse {
     private String categoryName;
     private List<String> sizes;
     private Boolean availability;
+    // IN_STOCK, UNAVAILABLE (switched off) or OUT_OF_STOCK (limited product sold out)
+    private String availabilityStatus;
     private Boolean featured;
     private Double averageRating;
     private Long reviewCount;
@@ -38,6 +41,7 @@ public class ProductResponse {
         response.setCategoryName(product.getCategory().getName());
         response.setSizes(product.getSizeList());
         response.setAvailability(product.getAvailability() != null ? product.getAvailability() : true);
+        response.setAvailabilityStatus(AvailabilityStatus.fromBoolean(response.getAvailability()).name());
         response.setFeatured(product.getFeatured() != null ? product.getFeatured() : false);
         response.setAverageRating(0.0);
         response.setReviewCount(0L);
@@ -51,4 +55,12 @@ public class ProductResponse {
         response.setReviewCount(reviewCount != null ? reviewCount : 0L);
         return response;
     }
-}
\ No newline at end of file
+
+    // A limited product with no units left is not available, whatever its availability flag says
+    public void markOutOfStock() {
+        if (Boolean.TRUE.equals(availability)) {
+            availability = false;
+            availabilityStatus = AvailabilityStatus.OUT_OF_STOCK.name();
+        }
+    }
+}
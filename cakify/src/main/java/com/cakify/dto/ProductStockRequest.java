@@ -0,0 +1,16 @@
+package com.cakify.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * Units of a limited product for sale in total (restock by raising it)
+ */
+@Data
+public class ProductStockRequest {
+
+    @NotNull(message = "Stock is required")
+    @Min(value = 0, message = "Stock cannot be negative")
+    private Integer stock;
+}
@@ -0,0 +1,19 @@
+package com.cakify.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stock of a limited product; remaining is this instance's live count
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductStockResponse {
+
+    private Long productId;
+    private int stock;
+    private int remaining;
+    private String availabilityStatus;
+}
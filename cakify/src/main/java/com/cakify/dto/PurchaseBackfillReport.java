@@ -0,0 +1,18 @@
+package com.cakify.dto;
+
+import lombok.Data;
+
+/**
+ * Result of rebuilding the purchase ledger from order history
+ */
+@Data
+public class PurchaseBackfillReport {
+
+    // New (customer, product) pairs found in the orders / order_items tables
+    private long purchasesFromOrders;
+
+    // New pairs found in the archive tables
+    private long purchasesFromArchive;
+
+    private long durationMillis;
+}
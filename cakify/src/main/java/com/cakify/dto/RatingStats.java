@@ -0,0 +1,33 @@
+package com.cakify.dto;
+
+import com.cakify.entity.ProductRatingStats;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingStats {
+
+    private Double averageRating;
+    private Long reviewCount;
+    // Number of reviews per rating, 1 to 5 stars
+    private Map<Integer, Long> ratingCounts;
+
+    // Stats of a product with no stats row (never reviewed)
+    public static RatingStats empty() {
+        return fromEntity(new ProductRatingStats());
+    }
+
+    public static RatingStats fromEntity(ProductRatingStats stats) {
+        Map<Integer, Long> ratingCounts = new LinkedHashMap<>();
+        for (int rating = 1; rating <= 5; rating++) {
+            ratingCounts.put(rating, stats.getCount(rating));
+        }
+        return new RatingStats(stats.getAverageRating(), stats.getReviewCount(), ratingCounts);
+    }
+}
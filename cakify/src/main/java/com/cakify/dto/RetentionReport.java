@@ -0,0 +1,17 @@
+package com.cakify.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RetentionReport {
+
+    private long archivedOrders;
+    private long archivedOrderItems;
+    private long archivedInquiries;
+    private long purgedInquiries;
+    private long purgedStockJournalEntries;
+}
@@ -0,0 +1,22 @@
+package com.cakify.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a product's reviews.
+ * nextCursor is passed back as ?cursor= for the following page and is null on the last one;
+ * ratingStats is only filled on the first page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewPageResponse {
+
+    private List<ReviewResponse> reviews;
+    private String nextCursor;
+    private RatingStats ratingStats;
+}
@@ -0,0 +1,46 @@
+package com.cakify.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Read-only copy of an order item whose order has been archived
+ */
+@Entity
+@Table(name = "order_items_archive")
+@Data
+@NoArgsConstructor
+public class ArchivedOrderItem {
+
+    @Id
+    @Column(name = "order_item_id")
+    private Long orderItemId;
+
+    // Plain column instead of a relationship so archive reads never trigger lazy loading
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "product_name", nullable = false, length = 200)
+    private String productName;
+
+    @Column(name = "product_description", length = 1000)
+    private String productDescription;
+
+    @Column(name = "unit_price", nullable = false, precision = 10, scale = 2)
+    private BigDecimal unitPrice;
+
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity;
+
+    @Column(name = "total_price", nullable = false, precision = 10, scale = 2)
+    private BigDecimal totalPrice;
+
+    @Column(name = "special_instructions", length = 500)
+    private String specialInstructions;
+}
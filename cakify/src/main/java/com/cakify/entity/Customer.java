@@ -0,0 +1,36 @@
+package com.cakify.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * A customer, identified by normalized email; orders, reviews and inquiries point at it.
+ * Created on first use by CustomerService (never through save(), see CustomerRepository).
+ */
+@Entity
+@Table(name = "customers")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Customer {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "email_normalized", nullable = false, unique = true, length = 255)
+    private String emailNormalized;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Key for a raw email as typed by the customer (case and surrounding spaces ignored)
+    public static String normalizeEmail(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,35 @@
+package com.cakify.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A customer (by normalized email) has received at least one order containing the product
+ * Written through CustomerPurchaseRepository's insert statements only; never updated
+ */
+@Entity
+@Table(name = "customer_purchases")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerPurchase {
+
+    @EmbeddedId
+    private CustomerPurchaseId id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "purchased_at", nullable = false)
+    private LocalDateTime purchasedAt;
+
+    @Column(name = "recorded_at", nullable = false)
+    private LocalDateTime recordedAt;
+}
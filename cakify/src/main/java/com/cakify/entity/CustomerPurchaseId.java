@@ -0,0 +1,31 @@
+package com.cakify.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerPurchaseId implements Serializable {
+
+    @Column(name = "email_normalized", nullable = false, length = 255)
+    private String emailNormalized;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    // Key for a raw email as typed by the customer (case and surrounding spaces ignored)
+    public static CustomerPurchaseId of(String email, Long productId) {
+        return new CustomerPurchaseId(normalizeEmail(email), productId);
+    }
+
+    public static String normalizeEmail(String email) {
+        return Customer.normalizeEmail(email);
+    }
+}
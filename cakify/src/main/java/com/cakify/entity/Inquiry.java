@@ -1,5 +1,6 @@
 package com.cakify.entity;
 
+import com.cakify.id.Tsid;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -19,7 +20,7 @@ import java.time.LocalDateTime;
 public class Inquiry {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Tsid
     private Long id;
     
     @NotBlank(message = "Name is required")
@@ -33,6 +34,11 @@ public class Inquiry {
     @Column(nullable = false, length = 100)
     private String email;
     
+    // The customer behind email (see CustomerService)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "customer_id", nullable = false)
+    private Customer customer;
+    
     @NotBlank(message = "Message is required")
     @Size(min = 10, message = "Message must be at least 10 characters long")
     @Column(columnDefinition = "TEXT", nullable = false)
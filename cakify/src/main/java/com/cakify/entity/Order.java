@@ -1,7 +1,11 @@
 package com.cakify.entity;
 
 import com.cakify.enums.OrderStatus;
+import com.cakify.id.Tsid;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -16,10 +20,12 @@ import jakarta.validation.Valid;
 
 @Entity
 @Table(name = "orders")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "order")
 public class Order {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Tsid
     private Long orderId;
     
     // Foreign Keys (will link to other entities later)
@@ -39,6 +45,12 @@ public class Order {
     @Email(message = "Invalid email format")
     @Column(name = "customer_email", nullable = false)
     private String customerEmail;
+
+    // Resolved from customerEmail by the service; not part of the JSON
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "customer_id", nullable = false)
+    private Customer customer;
     
     @Pattern(regexp = "^[0-9+\\-\\s()]*$", message = "Please provide a valid phone number")
     @Size(min = 10, max = 15, message = "Phone number must be between 10 and 15 digits")
@@ -148,6 +160,14 @@ public class Order {
     public void setCustomerEmail(String customerEmail) {
         this.customerEmail = customerEmail;
     }
+
+    public Customer getCustomer() {
+        return customer;
+    }
+
+    public void setCustomer(Customer customer) {
+        this.customer = customer;
+    }
     
     public String getCustomerPhone() {
         return customerPhone;
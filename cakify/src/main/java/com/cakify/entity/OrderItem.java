@@ -1,5 +1,7 @@
 package com.cakify.entity;
 
+import com.cakify.id.Tsid;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 
@@ -14,10 +16,11 @@ import jakarta.validation.constraints.*;
 public class OrderItem {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Tsid
     private Long orderItemId;
     
-    // Many OrderItems belong to One Order
+    // Many OrderItems belong to One Order (not serialized: it points back at the order)
+    @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id", nullable = false)
     private Order order;
@@ -0,0 +1,36 @@
+package com.cakify.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stock of a limited-quantity product; products without a row are made to order
+ * sold is only advanced by StockJournalFlusher, the live count is StockLedger's
+ */
+@Entity
+@Table(name = "product_stock")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductStock {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer stock;
+
+    @Column(nullable = false)
+    private Integer sold;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,48 @@
+package com.cakify.entity;
+
+import com.cakify.id.Tsid;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Units of a limited product taken (positive) or given back (negative) by an order
+ */
+@Entity
+@Table(name = "stock_journal")
+@Data
+@NoArgsConstructor
+public class StockJournalEntry {
+
+    @Id
+    @Tsid
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    // Set once the quantity has been added to product_stock.sold
+    @Column(nullable = false)
+    private Boolean flushed = false;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public StockJournalEntry(Long productId, Long orderId, Integer quantity, LocalDateTime createdAt) {
+        this.productId = productId;
+        this.orderId = orderId;
+        this.quantity = quantity;
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,20 @@
+package com.cakify.enums;
+
+public enum ReviewSort {
+    // Most recent first
+    NEWEST,
+    // Highest rating first, most recent first within a rating
+    RATING;
+
+    // Get sort from request parameter (case insensitive)
+    public static ReviewSort fromString(String sort) {
+        if (sort == null || sort.trim().isEmpty()) {
+            return NEWEST;
+        }
+        try {
+            return ReviewSort.valueOf(sort.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported review sort: " + sort + " (use newest or rating)");
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.cakify.event;
+
+/**
+ * Published once after a bulk change to products or categories that bypassed the
+ * persistence context (e.g. JDBC batch writes), so anything caching catalog data can
+ * invalidate in one go instead of per row.
+ *
+ * @param source short description of what changed the catalog, for logging
+ */
+public record CatalogChangedEvent(String source) {
+}
@@ -0,0 +1,19 @@
+package com.cakify.event;
+
+/**
+ * Published by the write services inside their transaction when a row that other instances may
+ * hold in a cache changes, so they can drop their copy (see com.cakify.invalidation).
+ *
+ * @param entity kind of entity, one of the constants below
+ * @param id     id of the changed row, or null when a bulk write changed any number of them
+ */
+public record EntityChangedEvent(String entity, Long id) {
+
+    public static final String PRODUCT = "product";
+    public static final String CATEGORY = "category";
+    public static final String ORDER = "order";
+
+    public static EntityChangedEvent all(String entity) {
+        return new EntityChangedEvent(entity, null);
+    }
+}
@@ -0,0 +1,12 @@
+package com.cakify.exception;
+
+/**
+ * Exception thrown when an order does not fit into the baking capacity
+ * of its delivery slot or day
+ */
+public class CapacityExceededException extends OrderException {
+    
+    public CapacityExceededException(String message) {
+        super(message, "CAPACITY_EXCEEDED");
+    }
+}
@@ -0,0 +1,12 @@
+package com.cakify.exception;
+
+/**
+ * Exception thrown when an Idempotency-Key is sent again with a different order
+ * than the one it was first used for
+ */
+public class IdempotencyKeyReusedException extends OrderException {
+    
+    public IdempotencyKeyReusedException(String key) {
+        super("Idempotency-Key '" + key + "' was already used for a different order", "IDEMPOTENCY_KEY_REUSED");
+    }
+}
@@ -0,0 +1,11 @@
+package com.cakify.exception;
+
+/**
+ * Exception thrown when an order asks for more units of a limited product than are left
+ */
+public class OutOfStockException extends OrderException {
+    
+    public OutOfStockException(Long productId, int requested, int left) {
+        super("Product " + productId + " has " + left + " left, " + requested + " requested", "OUT_OF_STOCK");
+    }
+}
@@ -0,0 +1,11 @@
+package com.cakify.exception;
+
+/**
+ * The product itself could not be loaded in time, so there is nothing to build a detail page around
+ */
+public class ProductDetailUnavailableException extends RuntimeException {
+
+    public ProductDetailUnavailableException(String message) {
+        super(message);
+    }
+}
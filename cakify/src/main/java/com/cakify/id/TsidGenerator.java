@@ -0,0 +1,44 @@
+package com.cakify.id;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+import java.util.EnumSet;
+
+/**
+ * Hibernate generator behind {@link Tsid}. Hibernate creates one per entity; all of them share the
+ * TsidFactory passed in the {@link #FACTORY_SETTING} property (see IdGeneratorConfig), which
+ * carries this instance's node id.
+ */
+public class TsidGenerator implements BeforeExecutionGenerator {
+
+    public static final String FACTORY_SETTING = "cakify.tsid.factory";
+
+    private final TsidFactory factory;
+
+    public TsidGenerator(Tsid annotation, Member member, CustomIdGeneratorCreationContext context) {
+        Object factory = context.getServiceRegistry().requireService(ConfigurationService.class)
+                .getSettings().get(FACTORY_SETTING);
+        if (!(factory instanceof TsidFactory tsidFactory)) {
+            throw new IllegalStateException(FACTORY_SETTING + " must be set to a TsidFactory for @Tsid on "
+                    + member.getDeclaringClass().getSimpleName() + "." + member.getName());
+        }
+        this.factory = tsidFactory;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return factory.nextId();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
@@ -0,0 +1,269 @@
+package com.cakify.invalidation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Listens on cakify_invalidate over a dedicated connection (outside the pool, held for the life of
+ * the application) and evicts what each notice names from this instance's caches.
+ *
+ * Notifications sent while the connection is down are lost, so the listener keeps a watermark:
+ * the highest version in cache_invalidations and the database time, read after each wait for
+ * notifications. After a reconnect it replays the notices logged since then. Versions are taken
+ * when a notice is written but become visible when its transaction commits, so the replay also
+ * covers the catch-up overlap before the watermark. When the gap is longer than the retention, or
+ * on the first connection, everything is evicted instead.
+ */
+public class InvalidationListener implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(InvalidationListener.class);
+
+    private static final Duration INITIAL_RECONNECT_DELAY = Duration.ofSeconds(1);
+    private static final Duration PRUNE_INTERVAL = Duration.ofHours(1);
+    // A longer backlog is cheaper to answer by clearing the caches than by replaying it
+    private static final int MAX_REPLAYED_NOTICES = 10_000;
+
+    private static final String WATERMARK_SQL =
+            "SELECT COALESCE(MAX(version), 0), LOCALTIMESTAMP FROM cache_invalidations";
+    private static final String REPLAY_SQL =
+            "SELECT payload FROM cache_invalidations WHERE version > ? OR created_at >= ? ORDER BY version LIMIT ?";
+    private static final String PRUNE_SQL = "DELETE FROM cache_invalidations WHERE created_at < ?";
+
+    /**
+     * Opens the listener connection; it must reach PostgreSQL directly, not through a pool
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection connect() throws SQLException;
+    }
+
+    private record Watermark(long version, LocalDateTime checkedAt) {
+    }
+
+    private final ConnectionFactory connectionFactory;
+    private final LocalCacheInvalidator invalidator;
+    private final Duration heartbeatInterval;
+    private final Duration catchUpOverlap;
+    private final Duration retention;
+    private final Duration maxReconnectDelay;
+    private final Counter notified;
+    private final Counter caughtUp;
+
+    private volatile boolean running;
+    private volatile Thread thread;
+    private volatile Connection connection;
+    private Watermark watermark;
+    private LocalDateTime lastPrunedAt;
+
+    public InvalidationListener(ConnectionFactory connectionFactory, LocalCacheInvalidator invalidator,
+                                Duration heartbeatInterval, Duration catchUpOverlap, Duration retention,
+                                Duration maxReconnectDelay, MeterRegistry registry) {
+        this.connectionFactory = connectionFactory;
+        this.invalidator = invalidator;
+        this.heartbeatInterval = heartbeatInterval;
+        this.catchUpOverlap = catchUpOverlap;
+        this.retention = retention;
+        this.maxReconnectDelay = maxReconnectDelay;
+        this.notified = notices(registry, "notify");
+        this.caughtUp = notices(registry, "catch-up");
+        Gauge.builder("cakify.invalidation.listener.connected", this, l -> l.connection != null ? 1 : 0)
+                .description("Whether this instance is listening for cache invalidations")
+                .register(registry);
+    }
+
+    private static Counter notices(MeterRegistry registry, String source) {
+        return Counter.builder("cakify.invalidation.notices")
+                .description("Cache invalidation notices applied to this instance's caches")
+                .tag("source", source)
+                .register(registry);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        Thread listener = new Thread(this::listen, "cakify-invalidation-listener");
+        listener.setDaemon(true);
+        thread = listener;
+        listener.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread listener = thread;
+        thread = null;
+        if (listener != null) {
+            listener.interrupt();
+        }
+        // Unblocks a listener waiting for notifications
+        closeQuietly(connection);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Listen before the web server takes traffic
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 2048;
+    }
+
+    private void listen() {
+        Duration reconnectDelay = INITIAL_RECONNECT_DELAY;
+        while (running) {
+            try (Connection listening = connectionFactory.connect()) {
+                listening.setAutoCommit(true);
+                PGConnection notifications = listening.unwrap(PGConnection.class);
+                try (Statement statement = listening.createStatement()) {
+                    statement.execute("LISTEN " + InvalidationPublisher.CHANNEL);
+                }
+                connection = listening;
+                reconnectDelay = INITIAL_RECONNECT_DELAY;
+                catchUp(listening);
+                while (running) {
+                    apply(notifications.getNotifications((int) Math.max(1, heartbeatInterval.toMillis())));
+                    // Also detects a dead connection, which getNotifications alone does not
+                    watermark = readWatermark(listening);
+                    pruneIfDue(listening);
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Cache invalidation listener disconnected ({}); reconnecting in {} ms",
+                            e.getMessage(), reconnectDelay.toMillis());
+                }
+            } finally {
+                connection = null;
+            }
+            if (!running) {
+                break;
+            }
+            try {
+                Thread.sleep(reconnectDelay.toMillis());
+            } catch (InterruptedException e) {
+                break;
+            }
+            reconnectDelay = min(reconnectDelay.multipliedBy(2), maxReconnectDelay);
+        }
+    }
+
+    // Called once LISTEN is in place: whatever committed after this is delivered as a notification
+    private void catchUp(Connection listening) throws SQLException {
+        Watermark previous = watermark;
+        Watermark current = readWatermark(listening);
+        if (previous == null) {
+            // Nothing is known about what was cached before
+            invalidator.invalidateAll();
+            log.info("Listening for cache invalidations on {}", InvalidationPublisher.CHANNEL);
+        } else if (previous.checkedAt().isBefore(current.checkedAt().minus(retention))) {
+            invalidator.invalidateAll();
+            log.warn("Cache invalidation listener was disconnected since {}, longer than the retention; "
+                    + "cleared all caches", previous.checkedAt());
+        } else {
+            replay(listening, previous);
+        }
+        watermark = current;
+    }
+
+    private void replay(Connection listening, Watermark since) throws SQLException {
+        Set<String> payloads = new LinkedHashSet<>();
+        try (PreparedStatement statement = listening.prepareStatement(REPLAY_SQL)) {
+            statement.setLong(1, since.version());
+            statement.setTimestamp(2, Timestamp.valueOf(since.checkedAt().minus(catchUpOverlap)));
+            statement.setInt(3, MAX_REPLAYED_NOTICES + 1);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    payloads.add(rs.getString(1));
+                }
+            }
+        }
+        if (payloads.size() > MAX_REPLAYED_NOTICES) {
+            invalidator.invalidateAll();
+            log.warn("More than {} cache invalidations since {}; cleared all caches", MAX_REPLAYED_NOTICES,
+                    since.checkedAt());
+            return;
+        }
+        for (String payload : payloads) {
+            if (apply(payload)) {
+                caughtUp.increment();
+            }
+        }
+        log.info("Cache invalidation listener reconnected; replayed {} notices since {}", payloads.size(),
+                since.checkedAt());
+    }
+
+    private void apply(PGNotification[] notifications) {
+        if (notifications == null) {
+            return;
+        }
+        for (PGNotification notification : notifications) {
+            if (apply(notification.getParameter())) {
+                notified.increment();
+            }
+        }
+    }
+
+    private boolean apply(String payload) {
+        InvalidationNotice notice = InvalidationNotice.parse(payload);
+        if (notice == null) {
+            log.warn("Ignoring malformed cache invalidation '{}'", payload);
+            return false;
+        }
+        return invalidator.invalidate(notice);
+    }
+
+    private static Watermark readWatermark(Connection listening) throws SQLException {
+        try (Statement statement = listening.createStatement();
+             ResultSet rs = statement.executeQuery(WATERMARK_SQL)) {
+            rs.next();
+            return new Watermark(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime());
+        }
+    }
+
+    // Every instance prunes; the deletes are idempotent
+    private void pruneIfDue(Connection listening) throws SQLException {
+        LocalDateTime now = watermark.checkedAt();
+        if (lastPrunedAt != null && lastPrunedAt.plus(PRUNE_INTERVAL).isAfter(now)) {
+            return;
+        }
+        try (PreparedStatement statement = listening.prepareStatement(PRUNE_SQL)) {
+            statement.setTimestamp(1, Timestamp.valueOf(now.minus(retention)));
+            int deleted = statement.executeUpdate();
+            log.debug("Pruned {} cache invalidations older than {}", deleted, retention);
+        }
+        lastPrunedAt = now;
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    private static void closeQuietly(Connection listening) {
+        if (listening == null) {
+            return;
+        }
+        try {
+            listening.close();
+        } catch (SQLException e) {
+            log.debug("Closing the cache invalidation listener connection failed", e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.cakify.invalidation;
+
+/**
+ * Payload of a cakify_invalidate notification: "product:42" for one row, "product:*" for every row
+ * of that kind.
+ *
+ * @param entity kind of entity (see EntityChangedEvent)
+ * @param id     id of the changed row, or null for all of them
+ */
+public record InvalidationNotice(String entity, Long id) {
+
+    private static final String ALL = "*";
+
+    public static InvalidationNotice of(String entity, Long id) {
+        return new InvalidationNotice(entity, id);
+    }
+
+    public static InvalidationNotice all(String entity) {
+        return new InvalidationNotice(entity, null);
+    }
+
+    /**
+     * Parses a payload; returns null for anything malformed (it came from outside this JVM)
+     */
+    public static InvalidationNotice parse(String payload) {
+        if (payload == null) {
+            return null;
+        }
+        int separator = payload.indexOf(':');
+        if (separator <= 0 || separator == payload.length() - 1) {
+            return null;
+        }
+        String entity = payload.substring(0, separator);
+        String id = payload.substring(separator + 1);
+        if (ALL.equals(id)) {
+            return all(entity);
+        }
+        try {
+            return of(entity, Long.parseLong(id));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public boolean isAll() {
+        return id == null;
+    }
+
+    public String toPayload() {
+        return entity + ':' + (id == null ? ALL : id.toString());
+    }
+}
@@ -0,0 +1,46 @@
+package com.cakify.invalidation;
+
+import com.cakify.event.CatalogChangedEvent;
+import com.cakify.event.EntityChangedEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Announces entity changes to every instance (including this one) on the cakify_invalidate channel.
+ *
+ * The notice is logged in cache_invalidations and sent with pg_notify in one statement on the
+ * writing transaction's own connection. PostgreSQL delivers notifications only when that
+ * transaction commits, so listeners never hear of a change they cannot read yet, and a rolled-back
+ * change is never announced. Writes made without a transaction are announced right away.
+ */
+public class InvalidationPublisher {
+
+    public static final String CHANNEL = "cakify_invalidate";
+
+    private static final String NOTIFY_SQL =
+            "WITH notice AS (INSERT INTO cache_invalidations (payload) VALUES (?) RETURNING version) "
+                    + "SELECT pg_notify('" + CHANNEL + "', ?) FROM notice";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public InvalidationPublisher(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        publish(InvalidationNotice.of(event.entity(), event.id()));
+    }
+
+    // Bulk imports touch too many rows to name them one by one
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        publish(InvalidationNotice.all(EntityChangedEvent.PRODUCT));
+    }
+
+    void publish(InvalidationNotice notice) {
+        String payload = notice.toPayload();
+        jdbcTemplate.query(NOTIFY_SQL, rs -> { }, payload, payload);
+    }
+}
@@ -0,0 +1,63 @@
+package com.cakify.invalidation;
+
+import com.cakify.entity.Category;
+import com.cakify.entity.Order;
+import com.cakify.entity.Product;
+import com.cakify.event.EntityChangedEvent;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.cakify.config.SecondLevelCacheConfig.PRODUCT_QUERIES_REGION;
+
+/**
+ * Drops what this instance caches about an entity named in an invalidation notice. The caches are
+ * Hibernate's second-level regions; evicting from a disabled cache does nothing.
+ */
+public class LocalCacheInvalidator {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalCacheInvalidator.class);
+
+    private final SessionFactory sessionFactory;
+
+    public LocalCacheInvalidator(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    /**
+     * @return false if the notice names nothing this instance caches
+     */
+    public boolean invalidate(InvalidationNotice notice) {
+        Cache cache = sessionFactory.getCache();
+        switch (notice.entity()) {
+            case EntityChangedEvent.PRODUCT -> {
+                evict(cache, Product.class, notice);
+                // Any product write can change which products the cached lists contain
+                cache.evictQueryRegion(PRODUCT_QUERIES_REGION);
+            }
+            case EntityChangedEvent.CATEGORY -> evict(cache, Category.class, notice);
+            case EntityChangedEvent.ORDER -> evict(cache, Order.class, notice);
+            default -> {
+                log.debug("Ignoring invalidation of unknown entity {}", notice.toPayload());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * For when notices may have been lost: drops every cached entity and query result
+     */
+    public void invalidateAll() {
+        sessionFactory.getCache().evictAllRegions();
+    }
+
+    private static void evict(Cache cache, Class<?> entityClass, InvalidationNotice notice) {
+        if (notice.isAll()) {
+            cache.evictEntityData(entityClass);
+        } else {
+            cache.evictEntityData(entityClass, notice.id());
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.cakify.json;
+
+import com.cakify.dto.CategoryResponse;
+import com.cakify.dto.InquiryResponse;
+import com.cakify.dto.ProductResponse;
+import com.cakify.dto.ReviewResponse;
+import com.cakify.exception.ErrorResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Hand-written JSON writers for the response DTOs of the busiest endpoints.
+ *
+ * Each writer streams its fields straight to the JsonGenerator with pre-encoded field names: no bean
+ * introspection, no reflective getter calls, no intermediate maps. The output is byte-for-byte what
+ * Jackson's reflective serialization produces with Boot's defaults (field order, nulls included,
+ * ISO-8601 dates), which ResponseJsonWritersTest checks, so a field added to one of these DTOs
+ * must be added here as well. Registered with Boot's ObjectMapper through @JsonComponent.
+ */
+@JsonComponent
+public class ResponseJsonWriters {
+
+    // Same format as Jackson's LocalDateTimeSerializer when dates are not written as timestamps
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString EMAIL = new SerializedString("email");
+    private static final SerializableString MESSAGE = new SerializedString("message");
+    private static final SerializableString STATUS = new SerializedString("status");
+
+    /**
+     * Writers for use outside a Spring context (benchmarks, tests)
+     */
+    public static List<JsonSerializer<?>> all() {
+        return List.of(new ProductResponseWriter(), new InquiryResponseWriter(), new ReviewResponseWriter(),
+                new CategoryResponseWriter(), new ErrorResponseWriter());
+    }
+
+    public static class ProductResponseWriter extends StdSerializer<ProductResponse> {
+
+        private static final SerializableString DESCRIPTION = new SerializedString("description");
+        private static final SerializableString PRICE = new SerializedString("price");
+        private static final SerializableString IMAGE = new SerializedString("image");
+        private static final SerializableString CATEGORY_ID = new SerializedString("categoryId");
+        private static final SerializableString CATEGORY_NAME = new SerializedString("categoryName");
+        private static final SerializableString SIZES = new SerializedString("sizes");
+        private static final SerializableString AVAILABILITY = new SerializedString("availability");
+        private static final SerializableString AVAILABILITY_STATUS = new SerializedString("availabilityStatus");
+        private static final SerializableString FEATURED = new SerializedString("featured");
+        private static final SerializableString AVERAGE_RATING = new SerializedString("averageRating");
+        private static final SerializableString REVIEW_COUNT = new SerializedString("reviewCount");
+
+        public ProductResponseWriter() {
+            super(ProductResponse.class);
+        }
+
+        @Override
+        public void serialize(ProductResponse product, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            gen.writeStartObject(product);
+            writeString(gen, ID, product.getId());
+            writeString(gen, NAME, product.getName());
+            writeString(gen, DESCRIPTION, product.getDescription());
+            writeNumber(gen, PRICE, product.getPrice());
+            writeString(gen, IMAGE, product.getImage());
+            writeNumber(gen, CATEGORY_ID, product.getCategoryId());
+            writeString(gen, CATEGORY_NAME, product.getCategoryName());
+            writeStrings(gen, SIZES, product.getSizes());
+            writeBoolean(gen, AVAILABILITY, product.getAvailability());
+            writeString(gen, AVAILABILITY_STATUS, product.getAvailabilityStatus());
+            writeBoolean(gen, FEATURED, product.getFeatured());
+            writeNumber(gen, AVERAGE_RATING, product.getAverageRating());
+            writeNumber(gen, REVIEW_COUNT, product.getReviewCount());
+            gen.writeEndObject();
+        }
+    }
+
+    public static class InquiryResponseWriter extends StdSerializer<InquiryResponse> {
+
+        private static final SerializableString REPLY = new SerializedString("reply");
+        private static final SerializableString DATE = new SerializedString("date");
+        private static final SerializableString RESOLVED = new SerializedString("resolved");
+
+        public InquiryResponseWriter() {
+            super(InquiryResponse.class);
+        }
+
+        @Override
+        public void serialize(InquiryResponse inquiry, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            gen.writeStartObject(inquiry);
+            writeString(gen, ID, inquiry.getId());
+            writeString(gen, NAME, inquiry.getName());
+            writeString(gen, EMAIL, inquiry.getEmail());
+            writeString(gen, MESSAGE, inquiry.getMessage());
+            writeString(gen, STATUS, inquiry.getStatus());
+            writeString(gen, REPLY, inquiry.getReply());
+            writeString(gen, DATE, inquiry.getDate());
+            // isResolved() has always been exposed as a property
+            gen.writeFieldName(RESOLVED);
+            gen.writeBoolean(inquiry.isResolved());
+            gen.writeEndObject();
+        }
+    }
+
+    public static class ReviewResponseWriter extends StdSerializer<ReviewResponse> {
+
+        private static final SerializableString RATING = new SerializedString("rating");
+        private static final SerializableString COMMENT = new SerializedString("comment");
+        private static final SerializableString CREATED_AT = new SerializedString("createdAt");
+
+        public ReviewResponseWriter() {
+            super(ReviewResponse.class);
+        }
+
+        @Override
+        public void serialize(ReviewResponse review, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            gen.writeStartObject(review);
+            writeNumber(gen, ID, review.getId());
+            writeString(gen, EMAIL, review.getEmail());
+            writeNumber(gen, RATING, review.getRating());
+            writeString(gen, COMMENT, review.getComment());
+            writeDateTime(gen, CREATED_AT, review.getCreatedAt());
+            gen.writeEndObject();
+        }
+    }
+
+    public static class CategoryResponseWriter extends StdSerializer<CategoryResponse> {
+
+        public CategoryResponseWriter() {
+            super(CategoryResponse.class);
+        }
+
+        @Override
+        public void serialize(CategoryResponse category, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            gen.writeStartObject(category);
+            writeNumber(gen, ID, category.getId());
+            writeString(gen, NAME, category.getName());
+            gen.writeEndObject();
+        }
+    }
+
+    public static class ErrorResponseWriter extends StdSerializer<ErrorResponse> {
+
+        private static final SerializableString TIMESTAMP = new SerializedString("timestamp");
+        private static final SerializableString ERROR = new SerializedString("error");
+        private static final SerializableString PATH = new SerializedString("path");
+        private static final SerializableString ERROR_CODE = new SerializedString("errorCode");
+
+        public ErrorResponseWriter() {
+            super(ErrorResponse.class);
+        }
+
+        @Override
+        public void serialize(ErrorResponse error, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            gen.writeStartObject(error);
+            writeDateTime(gen, TIMESTAMP, error.getTimestamp());
+            gen.writeFieldName(STATUS);
+            gen.writeNumber(error.getStatus());
+            writeString(gen, ERROR, error.getError());
+            writeString(gen, MESSAGE, error.getMessage());
+            writeString(gen, PATH, error.getPath());
+            writeString(gen, ERROR_CODE, error.getErrorCode());
+            gen.writeEndObject();
+        }
+    }
+
+    // ========== FIELD HELPERS (null-safe, nulls are written like Jackson's default inclusion) ==========
+
+    private static void writeString(JsonGenerator gen, SerializableString name, String value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(value);
+        }
+    }
+
+    private static void writeNumber(JsonGenerator gen, SerializableString name, Long value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value.longValue());
+        }
+    }
+
+    private static void writeNumber(JsonGenerator gen, SerializableString name, Integer value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value.intValue());
+        }
+    }
+
+    private static void writeNumber(JsonGenerator gen, SerializableString name, Double value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value.doubleValue());
+        }
+    }
+
+    private static void writeNumber(JsonGenerator gen, SerializableString name, BigDecimal value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    private static void writeBoolean(JsonGenerator gen, SerializableString name, Boolean value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeBoolean(value);
+        }
+    }
+
+    private static void writeDateTime(JsonGenerator gen, SerializableString name, LocalDateTime value)
+            throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(DATE_TIME.format(value));
+        }
+    }
+
+    private static void writeStrings(JsonGenerator gen, SerializableString name, List<String> values)
+            throws IOException {
+        gen.writeFieldName(name);
+        if (values == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartArray(values, values.size());
+        for (int i = 0; i < values.size(); i++) {
+            String value = values.get(i);
+            if (value == null) {
+                gen.writeNull();
+            } else {
+                gen.writeString(value);
+            }
+        }
+        gen.writeEndArray();
+    }
+}
@@ -0,0 +1,82 @@
+package com.cakify.metrics;
+
+import com.cakify.enums.OrderStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Business counters and timers, exported next to the technical metrics.
+ *
+ * Tag values are enums or fixed strings only, so the number of time series stays bounded.
+ */
+@Component
+public class BusinessMetrics {
+
+    public static final String REJECTED_NOT_VERIFIED_BUYER = "not_verified_buyer";
+    public static final String REJECTED_ALREADY_REVIEWED = "already_reviewed";
+
+    private final MeterRegistry registry;
+    private final Counter ordersCreated;
+    private final Counter inquiriesCreated;
+    private final Timer orderCreateTimer;
+
+    public BusinessMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.ordersCreated = Counter.builder("cakify.orders.created")
+                .description("Orders placed")
+                .register(registry);
+        this.inquiriesCreated = Counter.builder("cakify.inquiries.created")
+                .description("Inquiries submitted through the contact form")
+                .register(registry);
+        this.orderCreateTimer = Timer.builder("cakify.order.create")
+                .description("Time to validate and persist a new order")
+                .register(registry);
+    }
+
+    // Times order creation and counts it once its transaction commits, so rolled-back orders are not counted
+    public <T> T recordOrderCreation(Supplier<T> createOrder) {
+        T order = orderCreateTimer.record(createOrder);
+        afterCommit(ordersCreated::increment);
+        return order;
+    }
+
+    public void orderStatusChanged(OrderStatus from, OrderStatus to) {
+        Counter.builder("cakify.order.status.transitions")
+                .description("Order status changes")
+                .tag("from", from.name())
+                .tag("to", to.name())
+                .register(registry)
+                .increment();
+    }
+
+    public void reviewRejected(String reason) {
+        Counter.builder("cakify.reviews.rejected")
+                .description("Review submissions refused")
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+    }
+
+    public void inquiryCreated() {
+        inquiriesCreated.increment();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,123 @@
+package com.cakify.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Timings collected for the request running on the current thread.
+ *
+ * Bound to a ThreadLocal by {@link RequestTimingFilter}; work handed to other threads is not
+ * attributed to the request. Updates come from the request thread only, so nothing is synchronized.
+ */
+public final class RequestTiming {
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final boolean captureStatements;
+    private final int maxStatements;
+
+    private int queryCount;
+    private long dbNanos;
+    private long serializationNanos;
+    private long queryStartNanos;
+    private List<Statement> statements;
+    private int droppedStatements;
+
+    /**
+     * One JDBC execution; a batch is one round trip whatever its size
+     */
+    public record Statement(String sql, int batchSize, long nanos) {
+    }
+
+    private RequestTiming(boolean captureStatements, int maxStatements) {
+        this.captureStatements = captureStatements;
+        this.maxStatements = maxStatements;
+    }
+
+    static RequestTiming start(boolean captureStatements, int maxStatements) {
+        RequestTiming timing = new RequestTiming(captureStatements, maxStatements);
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Timing of the current request, or null outside a request (scheduled jobs, startup)
+     */
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    void queryStarted() {
+        queryStartNanos = System.nanoTime();
+    }
+
+    void queryFinished(String sql, int batchSize) {
+        long elapsed = System.nanoTime() - queryStartNanos;
+        queryCount++;
+        dbNanos += elapsed;
+        if (!captureStatements) {
+            return;
+        }
+        if (statements == null) {
+            statements = new ArrayList<>();
+        }
+        if (statements.size() < maxStatements) {
+            statements.add(new Statement(sql, batchSize, elapsed));
+        } else {
+            droppedStatements++;
+        }
+    }
+
+    void addSerialization(long nanos) {
+        serializationNanos += nanos;
+    }
+
+    public boolean isCapturingStatements() {
+        return captureStatements;
+    }
+
+    public int getQueryCount() {
+        return queryCount;
+    }
+
+    public long getDbNanos() {
+        return dbNanos;
+    }
+
+    public long getSerializationNanos() {
+        return serializationNanos;
+    }
+
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    public List<Statement> getStatements() {
+        return statements == null ? Collections.emptyList() : statements;
+    }
+
+    public int getDroppedStatements() {
+        return droppedStatements;
+    }
+
+    /**
+     * Server-Timing header value: db, ser(ialization), app (everything else) and total, in milliseconds
+     */
+    public String toServerTiming(long totalNanos) {
+        long appNanos = Math.max(0, totalNanos - dbNanos - serializationNanos);
+        return String.format(Locale.ROOT,
+                "db;dur=%.1f;desc=\"%d queries\", ser;dur=%.1f, app;dur=%.1f, total;dur=%.1f",
+                millis(dbNanos), queryCount, millis(serializationNanos), millis(appNanos), millis(totalNanos));
+    }
+
+    static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,99 @@
+package com.cakify.metrics;
+
+import com.cakify.config.RequestTimingProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Opens a {@link RequestTiming} for each request, answers debug requests with a Server-Timing
+ * header and writes requests over the slow threshold to the "cakify.slow-requests" logger.
+ *
+ * Query counts and durations are collected for every request (a few counters per statement);
+ * SQL text is kept only for sampled and debug requests, so slow entries for unsampled requests
+ * carry the totals without the statement list.
+ */
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private static final Logger slowLog = LoggerFactory.getLogger("cakify.slow-requests");
+
+    private final RequestTimingProperties properties;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public RequestTimingFilter(RequestTimingProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean debug = isDebugRequest(request);
+        boolean sampled = debug || ThreadLocalRandom.current().nextDouble() < properties.getSampleRate();
+        RequestTiming timing = RequestTiming.start(sampled, properties.getMaxStatements());
+
+        // The header has to be added after the body is serialized, so debug responses are buffered
+        ContentCachingResponseWrapper buffered = debug ? new ContentCachingResponseWrapper(response) : null;
+        try {
+            filterChain.doFilter(request, buffered != null ? buffered : response);
+        } finally {
+            RequestTiming.clear();
+            long totalNanos = timing.getElapsedNanos();
+            if (buffered != null) {
+                buffered.setHeader(SERVER_TIMING_HEADER, timing.toServerTiming(totalNanos));
+                buffered.copyBodyToResponse();
+            }
+            if (totalNanos >= properties.getSlowThreshold().toNanos()) {
+                logSlowRequest(request, response, timing, totalNanos);
+            }
+        }
+    }
+
+    private boolean isDebugRequest(HttpServletRequest request) {
+        if (request.getHeader(properties.getDebugHeader()) == null) {
+            return false;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String excluded : properties.getExcludedPaths()) {
+            if (pathMatcher.match(excluded, path)) {
+                return false;
+            }
+        }
+        return !StringUtils.hasText(properties.getDebugRole()) || request.isUserInRole(properties.getDebugRole());
+    }
+
+    private void logSlowRequest(HttpServletRequest request, HttpServletResponse response,
+                                RequestTiming timing, long totalNanos) {
+        if (!slowLog.isWarnEnabled()) {
+            return;
+        }
+        StringBuilder entry = new StringBuilder(String.format(Locale.ROOT,
+                "%s %s -> %d in %.1f ms (db %.1f ms in %d queries, serialization %.1f ms)",
+                request.getMethod(), request.getRequestURI(), response.getStatus(),
+                RequestTiming.millis(totalNanos), RequestTiming.millis(timing.getDbNanos()),
+                timing.getQueryCount(), RequestTiming.millis(timing.getSerializationNanos())));
+        for (RequestTiming.Statement statement : timing.getStatements()) {
+            entry.append(String.format(Locale.ROOT, "%n  [%.2f ms] %s", RequestTiming.millis(statement.nanos()),
+                    statement.sql()));
+            if (statement.batchSize() > 1) {
+                entry.append(" [batch of ").append(statement.batchSize()).append(']');
+            }
+        }
+        if (timing.getDroppedStatements() > 0) {
+            entry.append(String.format("%n  ... %d more statements not kept", timing.getDroppedStatements()));
+        }
+        slowLog.warn(entry.toString());
+    }
+}
@@ -0,0 +1,47 @@
+package com.cakify.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Feeds every JDBC execution on a request thread into its {@link RequestTiming}.
+ * Statements issued outside a request cost one ThreadLocal lookup.
+ */
+public class RequestTimingQueryListener implements QueryExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestTiming timing = RequestTiming.current();
+        if (timing != null) {
+            timing.queryStarted();
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestTiming timing = RequestTiming.current();
+        if (timing == null) {
+            return;
+        }
+        String sql = timing.isCapturingStatements() ? sqlOf(queryInfoList) : null;
+        int batchSize = execInfo.isBatch() ? Math.max(execInfo.getBatchSize(), 1) : 1;
+        timing.queryFinished(sql, batchSize);
+    }
+
+    private static String sqlOf(List<QueryInfo> queryInfoList) {
+        if (queryInfoList.size() == 1) {
+            return queryInfoList.get(0).getQuery();
+        }
+        StringBuilder sql = new StringBuilder();
+        for (QueryInfo queryInfo : queryInfoList) {
+            if (!sql.isEmpty()) {
+                sql.append("; ");
+            }
+            sql.append(queryInfo.getQuery());
+        }
+        return sql.toString();
+    }
+}
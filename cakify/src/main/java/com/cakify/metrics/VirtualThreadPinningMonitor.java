@@ -0,0 +1,116 @@
+package com.cakify.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reports virtual threads that block while pinned to their carrier (a monitor held across
+ * blocking I/O, or a native frame), which silently turns virtual threads back into a small
+ * platform pool.
+ *
+ * Listens to the JFR jdk.VirtualThreadPinned event in-process. Every event is timed under
+ * cakify.virtual.threads.pinned, tagged by where it happened (jdbc, hibernate or other);
+ * each distinct stack is logged once at WARN.
+ */
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 20;
+    private static final int MAX_DISTINCT_STACKS = 200;
+
+    private final MeterRegistry registry;
+    private final Duration threshold;
+    private final Set<String> reportedStacks = ConcurrentHashMap.newKeySet();
+    private volatile RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry registry, Duration threshold) {
+        this.registry = registry;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void start() {
+        RecordingStream recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::onPinned);
+        recording.startAsync();
+        stream = recording;
+        log.info("Watching for virtual threads pinned longer than {} ms", threshold.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recording = stream;
+        stream = null;
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    void onPinned(RecordedEvent event) {
+        List<RecordedFrame> frames = frames(event.getStackTrace());
+        Timer.builder("cakify.virtual.threads.pinned")
+                .description("Virtual threads that blocked while pinned to their carrier thread")
+                .tag("source", source(frames))
+                .register(registry)
+                .record(event.getDuration());
+
+        String stack = describe(frames);
+        if (reportedStacks.size() < MAX_DISTINCT_STACKS && reportedStacks.add(stack)) {
+            log.warn("Virtual thread pinned for {} ms:{}", event.getDuration().toMillis(), stack);
+        }
+    }
+
+    private static List<RecordedFrame> frames(RecordedStackTrace stackTrace) {
+        return stackTrace == null ? List.of() : stackTrace.getFrames();
+    }
+
+    // The innermost library frame decides the tag (a driver call made by Hibernate counts as jdbc)
+    static String source(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith("org.postgresql.") || type.startsWith("com.zaxxer.hikari.")
+                    || type.startsWith("org.h2.") || type.startsWith("net.ttddyy.dsproxy.")) {
+                return "jdbc";
+            }
+            if (type.startsWith("org.hibernate.")) {
+                return "hibernate";
+            }
+        }
+        return "other";
+    }
+
+    private static String describe(List<RecordedFrame> frames) {
+        StringBuilder stack = new StringBuilder();
+        int count = 0;
+        for (RecordedFrame frame : frames) {
+            if (count++ == LOGGED_FRAMES) {
+                stack.append(System.lineSeparator()).append("\t...");
+                break;
+            }
+            stack.append(System.lineSeparator()).append("\tat ")
+                    .append(frame.getMethod().getType().getName()).append('.').append(frame.getMethod().getName())
+                    .append(':').append(frame.getLineNumber());
+        }
+        return stack.toString();
+    }
+}
@@ -0,0 +1,100 @@
+package com.cakify.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the first matching rate limit to each request and answers 429 with Retry-After when the
+ * client's bucket is empty. Runs ahead of Spring Security, so a rejected request never reaches
+ * authentication, a transaction or the connection pool.
+ *
+ * Clients are told apart by remote address (behind a proxy, set server.forward-headers-strategy so
+ * it is the real client's), or by name when they send one of the configured API keys.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final String REJECTED_BODY = "{\"message\":\"Too many requests, please retry later\"}";
+
+    private final List<Rule> rules;
+    // Rejection counter of each rule, by position
+    private final List<Counter> rejected;
+    private final String apiKeyHeader;
+    private final Map<String, String> apiKeys;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public RateLimitFilter(List<Rule> rules, String apiKeyHeader, Map<String, String> apiKeys,
+                           MeterRegistry meterRegistry) {
+        this.rules = rules;
+        this.apiKeyHeader = apiKeyHeader;
+        this.apiKeys = apiKeys;
+        this.rejected = rules.stream()
+                .map(rule -> Counter.builder("cakify.rate.limit.rejected")
+                        .description("Requests answered with 429 by the rate limiter")
+                        .tag("limit", rule.limiter().getName())
+                        .register(meterRegistry))
+                .toList();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        int index = findRule(request);
+        if (index >= 0) {
+            long waitNanos = rules.get(index).limiter().tryAcquire(clientKey(request));
+            if (waitNanos > 0) {
+                rejected.get(index).increment();
+                reject(response, waitNanos);
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private int findRule(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (int i = 0; i < rules.size(); i++) {
+            Rule rule = rules.get(i);
+            if (rule.method().equalsIgnoreCase(request.getMethod()) && pathMatcher.match(rule.pathPattern(), path)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        String apiKey = request.getHeader(apiKeyHeader);
+        String client = apiKey != null ? apiKeys.get(apiKey) : null;
+        // Unknown keys are ignored: otherwise every made-up key would buy a fresh bucket
+        return client != null ? "key:" + client : "ip:" + request.getRemoteAddr();
+    }
+
+    private static void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        // Whole seconds, rounded up so a client retrying on time finds a token
+        long second = TimeUnit.SECONDS.toNanos(1);
+        long retryAfterSeconds = Math.max(1, (waitNanos + second - 1) / second);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(REJECTED_BODY);
+    }
+
+    /**
+     * A limit and the requests it applies to
+     */
+    public record Rule(String method, String pathPattern, RateLimiter limiter) {
+    }
+}
@@ -0,0 +1,90 @@
+package com.cakify.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * One limit (capacity requests, refilled evenly over a period) applied per client key.
+ *
+ * Buckets live in a ConcurrentHashMap: lookups take no lock and creation only locks one bin, so
+ * clients never contend with each other. Full buckets are dropped by a sweep that the first request
+ * after each sweep interval runs; as a full bucket holds no state this changes no answer. Once
+ * maxClients buckets exist, new clients share one overflow bucket until the next sweep, which
+ * bounds memory when a flood comes from many addresses.
+ */
+public class RateLimiter {
+
+    private final String name;
+    private final int capacity;
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final int maxClients;
+    private final long sweepIntervalNanos;
+    private final LongSupplier nanoClock;
+
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final TokenBucket overflow;
+    private final AtomicLong nextSweepNanos;
+
+    public RateLimiter(String name, int capacity, Duration period, int maxClients, Duration sweepInterval) {
+        this(name, capacity, period, maxClients, sweepInterval, System::nanoTime);
+    }
+
+    RateLimiter(String name, int capacity, Duration period, int maxClients, Duration sweepInterval,
+                LongSupplier nanoClock) {
+        if (capacity < 1 || period.isZero() || period.isNegative()) {
+            throw new IllegalArgumentException("Rate limit '" + name + "' needs a capacity >= 1 and a positive period");
+        }
+        this.name = name;
+        this.capacity = capacity;
+        this.intervalNanos = Math.max(1, period.toNanos() / capacity);
+        this.capacityNanos = intervalNanos * capacity;
+        this.maxClients = maxClients;
+        this.sweepIntervalNanos = sweepInterval.toNanos();
+        this.nanoClock = nanoClock;
+        long now = nanoClock.getAsLong();
+        this.overflow = new TokenBucket(now);
+        this.nextSweepNanos = new AtomicLong(now + sweepIntervalNanos);
+    }
+
+    /**
+     * Take one token from the client's bucket
+     *
+     * @return 0 when the request may proceed, otherwise the nanoseconds until the client may retry
+     */
+    public long tryAcquire(String clientKey) {
+        long now = nanoClock.getAsLong();
+        sweepIfDue(now);
+        TokenBucket bucket = buckets.get(clientKey);
+        if (bucket == null) {
+            bucket = buckets.size() < maxClients
+                    ? buckets.computeIfAbsent(clientKey, key -> new TokenBucket(now))
+                    : overflow;
+        }
+        return bucket.tryTake(now, intervalNanos, capacityNanos);
+    }
+
+    // Only the request that wins the compare-and-set sweeps; everyone else goes straight on
+    private void sweepIfDue(long now) {
+        long due = nextSweepNanos.get();
+        if (now - due >= 0 && nextSweepNanos.compareAndSet(due, now + sweepIntervalNanos)) {
+            // A token taken from a bucket while it is being removed is lost: at worst one extra request
+            buckets.values().removeIf(bucket -> bucket.isFull(now));
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // Clients currently holding a bucket (those that are not yet refilled, plus any not swept yet)
+    public int getTrackedClients() {
+        return buckets.size();
+    }
+}
@@ -0,0 +1,41 @@
+package com.cakify.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket kept as one timestamp: the moment it will be full again (the generic cell rate
+ * algorithm). Taking a token moves that moment one refill interval forward with a compare-and-set,
+ * so a bucket needs no lock and no background refill.
+ */
+final class TokenBucket {
+
+    private final AtomicLong fullAtNanos;
+
+    TokenBucket(long nowNanos) {
+        this.fullAtNanos = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * @param intervalNanos time to refill one token
+     * @param capacityNanos time to refill the whole bucket (capacity * intervalNanos)
+     * @return 0 when a token was taken, otherwise the nanoseconds until one is available
+     */
+    long tryTake(long nowNanos, long intervalNanos, long capacityNanos) {
+        while (true) {
+            long fullAt = fullAtNanos.get();
+            long next = Math.max(fullAt, nowNanos) + intervalNanos;
+            long wait = next - capacityNanos - nowNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAtNanos.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // A full bucket holds no state: dropping it and creating a new one later gives the same answers
+    boolean isFull(long nowNanos) {
+        return fullAtNanos.get() <= nowNanos;
+    }
+}
@@ -0,0 +1,32 @@
+package com.cakify.repository;
+
+import com.cakify.entity.ArchivedInquiry;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ArchivedInquiryRepository extends JpaRepository<ArchivedInquiry, Long> {
+
+    // Find archived inquiries by email (for customer history, uses the lower(email) index)
+    @Query("SELECT i FROM ArchivedInquiry i WHERE LOWER(i.email) = LOWER(:email)")
+    Page<ArchivedInquiry> findByEmailIgnoreCase(@Param("email") String email, Pageable pageable);
+
+    // Copy a batch of inquiries into the archive table in a single statement
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "inquiries_archive"))
+    @Query(value = "INSERT INTO inquiries_archive (id, name, email, message, status, reply, created_at, archived_at) " +
+            "SELECT id, name, email, message, status, reply, created_at, :archivedAt " +
+            "FROM inquiries WHERE id IN (:inquiryIds)", nativeQuery = true)
+    int copyFromInquiries(@Param("inquiryIds") List<Long> inquiryIds, @Param("archivedAt") LocalDateTime archivedAt);
+}
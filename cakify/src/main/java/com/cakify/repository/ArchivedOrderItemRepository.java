@@ -0,0 +1,37 @@
+package com.cakify.repository;
+
+import com.cakify.entity.ArchivedOrderItem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for items of archived orders
+ */
+@Repository
+public interface ArchivedOrderItemRepository extends JpaRepository<ArchivedOrderItem, Long> {
+
+    /**
+     * Find all archived items for a specific order
+     */
+    List<ArchivedOrderItem> findByOrderId(Long orderId);
+
+    /**
+     * Copy the items of a batch of orders into the archive table in a single statement
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "order_items_archive"))
+    @Query(value = "INSERT INTO order_items_archive (order_item_id, order_id, product_id, product_name, " +
+            "product_description, unit_price, quantity, total_price, special_instructions) " +
+            "SELECT order_item_id, order_id, product_id, product_name, product_description, unit_price, quantity, " +
+            "total_price, special_instructions " +
+            "FROM order_items WHERE order_id IN (:orderIds)", nativeQuery = true)
+    int copyFromOrderItems(@Param("orderIds") List<Long> orderIds);
+}
@@ -0,0 +1,43 @@
+package com.cakify.repository;
+
+import com.cakify.entity.ArchivedOrder;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for archived (closed) orders
+ * Read access for the archive API plus the copy statement used by the retention job
+ */
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+
+    /**
+     * Find archived orders by customer email with pagination (uses the lower(customer_email) index)
+     */
+    @Query("SELECT o FROM ArchivedOrder o WHERE LOWER(o.customerEmail) = LOWER(:customerEmail)")
+    Page<ArchivedOrder> findByCustomerEmailIgnoreCase(@Param("customerEmail") String customerEmail, Pageable pageable);
+
+    /**
+     * Copy a batch of orders into the archive table in a single statement
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "orders_archive"))
+    @Query(value = "INSERT INTO orders_archive (order_id, user_id, product_id, customer_name, customer_email, " +
+            "customer_phone, delivery_address, total_amount, quantity, status, order_date, delivery_date, " +
+            "special_notes, created_at, updated_at, archived_at) " +
+            "SELECT order_id, user_id, product_id, customer_name, customer_email, customer_phone, delivery_address, " +
+            "total_amount, quantity, status, order_date, delivery_date, special_notes, created_at, updated_at, :archivedAt " +
+            "FROM orders WHERE order_id IN (:orderIds)", nativeQuery = true)
+    int copyFromOrders(@Param("orderIds") List<Long> orderIds, @Param("archivedAt") LocalDateTime archivedAt);
+}
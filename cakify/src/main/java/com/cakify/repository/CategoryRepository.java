@@ -2,16 +2,26 @@ package com.cakify.repository;
 
 import com.cakify.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
-    // Find category by name (case-insensitive)
-    Optional<Category> findByNameIgnoreCase(String name);
+    // Find category by name (case-insensitive, uses the lower(name) index)
+    @Query("SELECT c FROM Category c WHERE LOWER(c.name) = LOWER(:name)")
+    Optional<Category> findByNameIgnoreCase(@Param("name") String name);
 
-    // Check if category exists by name (case-insensitive)
-    boolean existsByNameIgnoreCase(String name);
+    // Check if category exists by name (case-insensitive, uses the lower(name) index)
+    @Query("SELECT COUNT(c) > 0 FROM Category c WHERE LOWER(c.name) = LOWER(:name)")
+    boolean existsByNameIgnoreCase(@Param("name") String name);
+
+    // Find categories by trimmed lower-cased names in one query (bulk import, uses the lower(trim(name)) index)
+    @Query("SELECT c FROM Category c WHERE LOWER(TRIM(c.name)) IN :names")
+    List<Category> findByLowerCaseNameIn(@Param("names") Collection<String> names);
 }
\ No newline at end of file
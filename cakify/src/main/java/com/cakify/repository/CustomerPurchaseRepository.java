@@ -0,0 +1,109 @@
+package com.cakify.repository;
+
+import com.cakify.entity.CustomerPurchase;
+import com.cakify.entity.CustomerPurchaseId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+/**
+ * Repository for the purchase ledger (verified-buyer checks)
+ * Rows are only ever inserted, with ON CONFLICT DO NOTHING, so concurrent writers never fail on the key;
+ * recorded_at is set by the database
+ */
+@Repository
+public interface CustomerPurchaseRepository extends JpaRepository<CustomerPurchase, CustomerPurchaseId> {
+
+    /**
+     * Record one (customer, product) pair; a no-op when the pair is already known
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "customer_purchases"))
+    @Query(value = "INSERT INTO customer_purchases (email_normalized, product_id, order_id, purchased_at, recorded_at) " +
+            "VALUES (:email, :productId, :orderId, :purchasedAt, LOCALTIMESTAMP) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("email") String emailNormalized, @Param("productId") Long productId,
+                       @Param("orderId") Long orderId, @Param("purchasedAt") LocalDateTime purchasedAt);
+
+    /**
+     * Backfill from delivered orders with order_id in (afterId, lastId]: line items plus the single-product column
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "customer_purchases"))
+    @Query(value = "INSERT INTO customer_purchases (email_normalized, product_id, order_id, purchased_at, recorded_at) " +
+            "SELECT email_normalized, product_id, MIN(order_id), MIN(purchased_at), LOCALTIMESTAMP FROM (" +
+            "SELECT LOWER(TRIM(o.customer_email)) AS email_normalized, oi.product_id AS product_id, o.order_id AS order_id, " +
+            "COALESCE(o.delivery_date, o.updated_at, o.order_date) AS purchased_at " +
+            "FROM orders o JOIN order_items oi ON oi.order_id = o.order_id " +
+            "WHERE o.status = 'DELIVERED' AND o.order_id > :afterId AND o.order_id <= :lastId " +
+            "UNION ALL " +
+            "SELECT LOWER(TRIM(o.customer_email)), o.product_id, o.order_id, " +
+            "COALESCE(o.delivery_date, o.updated_at, o.order_date) " +
+            "FROM orders o WHERE o.status = 'DELIVERED' AND o.product_id IS NOT NULL " +
+            "AND o.order_id > :afterId AND o.order_id <= :lastId" +
+            ") delivered GROUP BY email_normalized, product_id ON CONFLICT DO NOTHING", nativeQuery = true)
+    int backfillFromOrders(@Param("afterId") long afterId, @Param("lastId") long lastId);
+
+    /**
+     * Same as backfillFromOrders for the archive tables (orders moved there by the retention job)
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "customer_purchases"))
+    @Query(value = "INSERT INTO customer_purchases (email_normalized, product_id, order_id, purchased_at, recorded_at) " +
+            "SELECT email_normalized, product_id, MIN(order_id), MIN(purchased_at), LOCALTIMESTAMP FROM (" +
+            "SELECT LOWER(TRIM(o.customer_email)) AS email_normalized, oi.product_id AS product_id, o.order_id AS order_id, " +
+            "COALESCE(o.delivery_date, o.updated_at, o.order_date) AS purchased_at " +
+            "FROM orders_archive o JOIN order_items_archive oi ON oi.order_id = o.order_id " +
+            "WHERE o.status = 'DELIVERED' AND o.order_id > :afterId AND o.order_id <= :lastId " +
+            "UNION ALL " +
+            "SELECT LOWER(TRIM(o.customer_email)), o.product_id, o.order_id, " +
+            "COALESCE(o.delivery_date, o.updated_at, o.order_date) " +
+            "FROM orders_archive o WHERE o.status = 'DELIVERED' AND o.product_id IS NOT NULL " +
+            "AND o.order_id > :afterId AND o.order_id <= :lastId" +
+            ") delivered GROUP BY email_normalized, product_id ON CONFLICT DO NOTHING", nativeQuery = true)
+    int backfillFromArchivedOrders(@Param("afterId") long afterId, @Param("lastId") long lastId);
+
+    // recorded_at is always the database clock, so instances with skewed clocks agree on refresh windows
+    @Query(value = "SELECT LOCALTIMESTAMP", nativeQuery = true)
+    LocalDateTime currentDatabaseTime();
+
+    /**
+     * Last order id of the next backfill batch: the limit-th id after afterId, or the last one there is
+     * Walks the primary key, so the cost per batch does not depend on how sparse the ids are; null when done
+     */
+    @Query(value = "SELECT MAX(order_id) FROM (SELECT order_id FROM orders WHERE order_id > :afterId " +
+            "ORDER BY order_id LIMIT :limit) batch", nativeQuery = true)
+    Long findBatchEndOrderId(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    @Query(value = "SELECT MAX(order_id) FROM (SELECT order_id FROM orders_archive WHERE order_id > :afterId " +
+            "ORDER BY order_id LIMIT :limit) batch", nativeQuery = true)
+    Long findBatchEndArchivedOrderId(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * Stream every key (Bloom filter loading); must be consumed inside a transaction
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p.id FROM CustomerPurchase p")
+    Stream<CustomerPurchaseId> streamAllIds();
+
+    /**
+     * Stream the keys written after a point in time (Bloom filter refresh); must be consumed inside a transaction
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p.id FROM CustomerPurchase p WHERE p.recordedAt > :since")
+    Stream<CustomerPurchaseId> streamIdsRecordedAfter(@Param("since") LocalDateTime since);
+}
@@ -0,0 +1,30 @@
+package com.cakify.repository;
+
+import com.cakify.entity.Customer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository for customers
+ * Rows are only added with insertIfAbsent: two requests creating the same customer at once
+ * both succeed, the second one waiting for the first transaction and then inserting nothing
+ */
+@Repository
+public interface CustomerRepository extends JpaRepository<Customer, Long> {
+
+    Optional<Customer> findByEmailNormalized(String emailNormalized);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "customers"))
+    @Query(value = "INSERT INTO customers (email_normalized, created_at) VALUES (:emailNormalized, LOCALTIMESTAMP) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("emailNormalized") String emailNormalized);
+}
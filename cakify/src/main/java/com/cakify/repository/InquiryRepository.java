@@ -2,13 +2,18 @@ package com.cakify.repository;
 
 import com.cakify.entity.Inquiry;
 import com.cakify.entity.InquiryStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface InquiryRepository extends JpaRepository<Inquiry, Long> {
@@ -22,8 +27,9 @@ public interface InquiryRepository extends JpaRepository<Inquiry, Long> {
     // Find all inquiries ordered by creation date (newest first)
     List<Inquiry> findAllByOrderByCreatedAtDesc();
     
-    // Find inquiries by email (for customer history)
-    List<Inquiry> findByEmailIgnoreCaseOrderByCreatedAtDesc(String email);
+    // Find inquiries by customer (normalized email), for customer history; a join on customer_id
+    @Query("SELECT i FROM Inquiry i WHERE i.customer.emailNormalized = :emailNormalized ORDER BY i.createdAt DESC")
+    List<Inquiry> findByCustomerEmailNormalizedOrderByCreatedAtDesc(@Param("emailNormalized") String emailNormalized);
     
     // Count inquiries by status
     long countByStatus(InquiryStatus status);
@@ -49,4 +55,22 @@ public interface InquiryRepository extends JpaRepository<Inquiry, Long> {
     @Query("SELECT i FROM Inquiry i WHERE (:status IS NULL OR i.status = :status) " +
            "ORDER BY i.createdAt DESC")
     List<Inquiry> findInquiriesByStatusOrdered(@Param("status") InquiryStatus status);
+    
+    // Stream inquiries in a date range [from, to) through a forward-only cursor (exports)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT i FROM Inquiry i WHERE i.createdAt >= :from AND i.createdAt < :to ORDER BY i.createdAt, i.id")
+    Stream<Inquiry> streamByCreatedAtRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    // Lock a batch of resolved inquiries older than the cutoff (retention job)
+    @Query(value = "SELECT id FROM inquiries WHERE status = 'RESOLVED' AND created_at < :cutoff " +
+           "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockResolvedInquiryIdsBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+    
+    // Bulk delete a batch of inquiries
+    @Modifying
+    @Query("DELETE FROM Inquiry i WHERE i.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
 }
\ No newline at end of file
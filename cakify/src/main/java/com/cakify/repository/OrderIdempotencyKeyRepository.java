@@ -0,0 +1,63 @@
+package com.cakify.repository;
+
+import com.cakify.entity.OrderIdempotencyKey;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository for order idempotency keys
+ * A key is claimed with ON CONFLICT DO NOTHING: a second claimer waits for the first transaction
+ * and then gets 0 rows, so exactly one request per key creates an order
+ */
+@Repository
+public interface OrderIdempotencyKeyRepository extends JpaRepository<OrderIdempotencyKey, String> {
+
+    /**
+     * Claim a key for the current transaction; returns 0 when it is already taken
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "order_idempotency_keys"))
+    @Query(value = "INSERT INTO order_idempotency_keys (idempotency_key, request_hash, created_at, expires_at) " +
+            "VALUES (:key, :requestHash, :createdAt, :expiresAt) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int claim(@Param("key") String key, @Param("requestHash") String requestHash,
+              @Param("createdAt") LocalDateTime createdAt, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Store the outcome of a claimed key, in the transaction that claimed it
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "order_idempotency_keys"))
+    @Query(value = "UPDATE order_idempotency_keys SET order_id = :orderId, response_status = :status, " +
+            "response_body = :body WHERE idempotency_key = :key",
+            nativeQuery = true)
+    int complete(@Param("key") String key, @Param("orderId") Long orderId, @Param("status") int status,
+                 @Param("body") String body);
+
+    /**
+     * Drop one key if it has expired, so it can be claimed again
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "order_idempotency_keys"))
+    @Query(value = "DELETE FROM order_idempotency_keys WHERE idempotency_key = :key AND expires_at < :now",
+            nativeQuery = true)
+    int deleteIfExpired(@Param("key") String key, @Param("now") LocalDateTime now);
+
+    /**
+     * Delete up to batchSize expired keys; callers repeat until fewer than batchSize are deleted
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "order_idempotency_keys"))
+    @Query(value = "DELETE FROM order_idempotency_keys WHERE idempotency_key IN (" +
+            "SELECT idempotency_key FROM order_idempotency_keys WHERE expires_at < :now LIMIT :batchSize)",
+            nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+}
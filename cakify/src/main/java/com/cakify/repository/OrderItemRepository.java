@@ -2,6 +2,7 @@ package com.cakify.repository;
 
 import com.cakify.entity.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -45,4 +46,11 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
      * Delete all order items for a specific order
      */
     void deleteByOrderOrderId(Long orderId);
+
+    /**
+     * Bulk delete the items of a batch of orders
+     */
+    @Modifying
+    @Query("DELETE FROM OrderItem oi WHERE oi.order.orderId IN :orderIds")
+    int deleteByOrderIdIn(@Param("orderIds") List<Long> orderIds);
 }
\ No newline at end of file
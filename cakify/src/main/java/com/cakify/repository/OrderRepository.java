@@ -3,15 +3,24 @@ package com.cakify.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import com.cakify.capacity.DeliveryBooking;
 import com.cakify.entity.Order;
 import com.cakify.enums.OrderStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 
 @Repository
@@ -20,8 +29,9 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     // Find orders by status
     List<Order> findByStatus(OrderStatus status);
     
-    // Find orders by customer email
-    List<Order> findByCustomerEmail(String customerEmail);
+    // Find orders by customer (normalized email; a join on customer_id)
+    @Query("SELECT o FROM Order o WHERE o.customer.emailNormalized = :emailNormalized")
+    List<Order> findByCustomerEmailNormalized(@Param("emailNormalized") String emailNormalized);
     
     // Find orders by user ID
     List<Order> findByUserId(Long userId);
@@ -61,9 +71,10 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     Page<Order> findByStatus(OrderStatus status, Pageable pageable);
 
     /**
-    * Find orders by customer email with pagination
+    * Find orders by customer (normalized email) with pagination
     */
-    Page<Order> findByCustomerEmail(String customerEmail, Pageable pageable);
+    @Query("SELECT o FROM Order o WHERE o.customer.emailNormalized = :emailNormalized")
+    Page<Order> findByCustomerEmailNormalized(@Param("emailNormalized") String emailNormalized, Pageable pageable);
 
     /**
     * Find orders by customer name with pagination (case insensitive)
@@ -71,27 +82,47 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @Query("SELECT o FROM Order o WHERE LOWER(o.customerName) LIKE LOWER(CONCAT('%', :name, '%'))")
         Page<Order> findByCustomerNameContainingIgnoreCase(@Param("name") String name, Pageable pageable);
 
+    /**
+    * Load an order and lock its row until the transaction ends
+    * Writes that rebook or release the order's stock take it first, so they apply one at a time
+    */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.orderId = :orderId")
+    Optional<Order> findByIdForUpdate(@Param("orderId") Long orderId);
 
+    /**
+    * Stream orders in a date range [from, to) through a forward-only cursor (exports)
+    * Must be consumed inside a transaction; the fetch size bounds rows held by the JDBC driver
+    * Bypasses the second-level cache, so a full export neither reads it nor fills it with cold orders
+    */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT o FROM Order o WHERE o.orderDate >= :from AND o.orderDate < :to ORDER BY o.orderDate, o.orderId")
+    Stream<Order> streamByOrderDateRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 
+    /**
+    * Lock a batch of closed (DELIVERED/CANCELLED) orders older than the cutoff for archiving
+    * SKIP LOCKED lets several instances run the retention job without blocking each other
+    */
+    @Query(value = "SELECT order_id FROM orders WHERE status IN ('DELIVERED', 'CANCELLED') AND order_date < :cutoff " +
+            "ORDER BY order_id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockClosedOrderIdsBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
 
+    /**
+    * Bulk delete a batch of orders (items must be removed first)
+    */
+    @Modifying
+    @Query("DELETE FROM Order o WHERE o.orderId IN :orderIds")
+    int deleteByOrderIdIn(@Param("orderIds") List<Long> orderIds);
 
-
-    // ========== METHOD FOR PRODUCT REVIEW VERIFICATION (PRODUCT CRUD RELATED) ==========
     /**
-     * Check if a customer has a completed order containing a specific product
-     * Used by Review System to verify only actual buyers can leave reviews
-     *
-     * @param email Customer email address
-     * @param productId Product ID to check
-     * @return true if customer has completed order with this product, false otherwise
-     */
-    @Query("SELECT COUNT(o) > 0 FROM Order o " +
-            "WHERE o.customerEmail = :email " +
-            "AND o.status = 'COMPLETED' " +
-            "AND EXISTS (SELECT 1 FROM OrderItem oi WHERE oi.order = o AND oi.productId = :productId)")
-    boolean existsByEmailAndProductIdAndStatus(
-            @Param("email") String email,
-            @Param("productId") Long productId
-    );
-    //=====================================================================================
-}
\ No newline at end of file
+    * Delivery time and quantity of every order still to be delivered from the given time on (capacity calendar)
+    */
+    @Query("SELECT new com.cakify.capacity.DeliveryBooking(o.orderId, o.deliveryDate, o.quantity) FROM Order o " +
+            "WHERE o.deliveryDate >= :from AND o.status <> 'CANCELLED'")
+    List<DeliveryBooking> findDeliveryBookingsFrom(@Param("from") LocalDateTime from);
+
+}
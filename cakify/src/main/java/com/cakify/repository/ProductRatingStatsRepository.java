@@ -0,0 +1,52 @@
+package com.cakify.repository;
+
+import com.cakify.entity.ProductRatingStats;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for the per-product rating histograms
+ * Counters are changed with in-place increments, so concurrent reviews of one product serialize on the
+ * row lock instead of overwriting each other's counts
+ */
+@Repository
+public interface ProductRatingStatsRepository extends JpaRepository<ProductRatingStats, Long> {
+
+    /**
+     * Add (delta = 1) or remove (delta = -1) one rating; returns 0 when the product has no stats row yet
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "product_rating_stats"))
+    @Query(value = "UPDATE product_rating_stats SET " +
+            "stars_1 = stars_1 + CASE WHEN :rating = 1 THEN :delta ELSE 0 END, " +
+            "stars_2 = stars_2 + CASE WHEN :rating = 2 THEN :delta ELSE 0 END, " +
+            "stars_3 = stars_3 + CASE WHEN :rating = 3 THEN :delta ELSE 0 END, " +
+            "stars_4 = stars_4 + CASE WHEN :rating = 4 THEN :delta ELSE 0 END, " +
+            "stars_5 = stars_5 + CASE WHEN :rating = 5 THEN :delta ELSE 0 END, " +
+            "review_count = review_count + :delta, " +
+            "rating_total = rating_total + :rating * :delta, " +
+            "updated_at = LOCALTIMESTAMP " +
+            "WHERE product_id = :productId", nativeQuery = true)
+    int addRating(@Param("productId") Long productId, @Param("rating") int rating, @Param("delta") int delta);
+
+    /**
+     * Create the empty stats row of a product; a no-op when a concurrent review already created it
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "product_rating_stats"))
+    @Query(value = "INSERT INTO product_rating_stats (product_id, stars_1, stars_2, stars_3, stars_4, stars_5, " +
+            "review_count, rating_total, updated_at) VALUES (:productId, 0, 0, 0, 0, 0, 0, 0, LOCALTIMESTAMP) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("productId") Long productId);
+
+    // Used when a product is deleted together with its reviews
+    @Modifying
+    @Query("DELETE FROM ProductRatingStats s WHERE s.productId = :productId")
+    int deleteByProductId(@Param("productId") Long productId);
+}
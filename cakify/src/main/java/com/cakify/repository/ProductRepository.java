@@ -1,12 +1,19 @@
 package com.cakify.repository;
 
 import com.cakify.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
@@ -14,14 +21,19 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     // Find products by category ID (NEW - for updated service)
     List<Product> findByCategoryId(Long categoryId);
 
-    // Find products by category name (case insensitive)
-    List<Product> findByCategoryNameIgnoreCase(String categoryName);
+    // Find products by category name (case insensitive, uses the lower(name) index)
+    @Query("SELECT p FROM Product p WHERE LOWER(p.category.name) = LOWER(:categoryName)")
+    List<Product> findByCategoryNameIgnoreCase(@Param("categoryName") String categoryName);
 
-    // Find products by availability status
+    // Find products by availability status (query cache: the ids are kept until products change)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "product-queries")})
     @Query("SELECT p FROM Product p WHERE p.availability = true")
     List<Product> findAvailableProducts();
 
-    // Find featured products
+    // Find featured products (query cache, like findAvailableProducts)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "product-queries")})
     List<Product> findByFeaturedTrue();
 
     // Find products by name (case insensitive search)
@@ -34,4 +46,20 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     List<Product> findProductsByCategoryAndFeatured(
             @Param("categoryId") Long categoryId,
             @Param("featured") Boolean featured);
-}
\ No newline at end of file
+
+    // Find [id, trimmed lower-cased name] of products whose names match, in one query (bulk import)
+    // Uses the lower(trim(name)) index
+    @Query("SELECT p.id, LOWER(TRIM(p.name)) FROM Product p WHERE LOWER(TRIM(p.name)) IN :names")
+    List<Object[]> findIdsByLowerCaseNameIn(@Param("names") Collection<String> names);
+
+    // Product with its category in one query, for callers without an open persistence context
+    @EntityGraph(attributePaths = "category")
+    Optional<Product> findWithCategoryById(Long id);
+
+    // Other available products in the same category as the given one (featured first)
+    @EntityGraph(attributePaths = "category")
+    @Query("SELECT p FROM Product p WHERE p.category.id = " +
+            "(SELECT q.category.id FROM Product q WHERE q.id = :productId) " +
+            "AND p.id <> :productId AND p.availability = true ORDER BY p.featured DESC, p.id")
+    List<Product> findRelatedProducts(@Param("productId") Long productId, Pageable pageable);
+}
@@ -0,0 +1,32 @@
+package com.cakify.repository;
+
+import com.cakify.entity.ProductStock;
+import com.cakify.stock.ProductQuantity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ProductStockRepository extends JpaRepository<ProductStock, Long> {
+
+    /**
+    * Units left of every limited product: stock minus flushed and unflushed journal entries
+    * One statement, so a concurrent flush is counted exactly once
+    */
+    @Query("SELECT new com.cakify.stock.ProductQuantity(s.productId, s.stock - s.sold - " +
+            "COALESCE((SELECT SUM(j.quantity) FROM StockJournalEntry j " +
+            "WHERE j.productId = s.productId AND j.flushed = false), 0)) FROM ProductStock s")
+    List<ProductQuantity> findUnitsLeft();
+
+    /**
+    * Add flushed journal units to a product's sold count
+    */
+    @Modifying
+    @Query("UPDATE ProductStock s SET s.sold = s.sold + :quantity, s.updatedAt = :now WHERE s.productId = :productId")
+    int addSold(@Param("productId") Long productId, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+}
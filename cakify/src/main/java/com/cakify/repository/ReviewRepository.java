@@ -1,25 +1,26 @@
 package com.cakify.repository;
 
 import com.cakify.entity.Review;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Long> {
 
-    // Find all reviews for a specific product
-    List<Review> findByProductId(Long productId);
+    // Find all reviews by a customer (normalized email; a join on customer_id)
+    @Query("SELECT r FROM Review r WHERE r.customer.emailNormalized = :emailNormalized")
+    List<Review> findByCustomerEmailNormalized(@Param("emailNormalized") String emailNormalized);
 
-    // Find all reviews by a specific email
-    List<Review> findByEmail(String email);
-
-    // Find review by product ID and email (check if already reviewed)
-    Optional<Review> findByProductIdAndEmail(Long productId, String email);
+    // Check if a customer already reviewed this product
+    boolean existsByProductIdAndCustomerId(Long productId, Long customerId);
 
     // Count total reviews for a product
     long countByProductId(Long productId);
@@ -28,6 +29,40 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     @Query("SELECT AVG(r.rating) FROM Review r WHERE r.product.id = :productId")
     Optional<Double> getAverageRatingByProductId(@Param("productId") Long productId);
 
+    // Newest reviews of a product; the Pageable only limits the rows (no count query)
+    List<Review> findByProductIdOrderByCreatedAtDescIdDesc(Long productId, Pageable pageable);
+
+    // ========== CURSOR-PAGED LISTING ==========
+    // The Pageable only limits the rows (no count query). The first page is read together with the
+    // product's rating stats as [ProductRatingStats, Review] rows: the review is null when the product
+    // has no reviews, and there are no rows when it has never been reviewed (or does not exist).
+
+    @Query("SELECT s, r FROM ProductRatingStats s LEFT JOIN Review r ON r.product.id = s.productId " +
+            "WHERE s.productId = :productId ORDER BY r.createdAt DESC, r.id DESC")
+    List<Object[]> findNewestWithStats(@Param("productId") Long productId, Pageable pageable);
+
+    @Query("SELECT s, r FROM ProductRatingStats s LEFT JOIN Review r ON r.product.id = s.productId " +
+            "WHERE s.productId = :productId ORDER BY r.rating DESC, r.createdAt DESC, r.id DESC")
+    List<Object[]> findTopRatedWithStats(@Param("productId") Long productId, Pageable pageable);
+
+    // Following pages: a row-value comparison, so the index seeks straight to the cursor
+    @Query("SELECT r FROM Review r WHERE r.product.id = :productId " +
+            "AND (r.createdAt, r.id) < (:createdAt, :id) ORDER BY r.createdAt DESC, r.id DESC")
+    List<Review> findNewestAfter(@Param("productId") Long productId, @Param("createdAt") LocalDateTime createdAt,
+                                 @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT r FROM Review r WHERE r.product.id = :productId " +
+            "AND (r.rating, r.createdAt, r.id) < (:rating, :createdAt, :id) " +
+            "ORDER BY r.rating DESC, r.createdAt DESC, r.id DESC")
+    List<Review> findTopRatedAfter(@Param("productId") Long productId, @Param("rating") Integer rating,
+                                   @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                   Pageable pageable);
+
+    // [productId, average rating, review count] for each of the given products that has reviews
+    @Query("SELECT r.product.id, AVG(r.rating), COUNT(r) FROM Review r " +
+            "WHERE r.product.id IN :productIds GROUP BY r.product.id")
+    List<Object[]> getRatingStatsByProductIds(@Param("productIds") Collection<Long> productIds);
+
     // Delete all reviews for a product (used when product is deleted)
     void deleteByProductId(Long productId);
 }
\ No newline at end of file
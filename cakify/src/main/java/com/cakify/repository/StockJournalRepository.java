@@ -0,0 +1,61 @@
+package com.cakify.repository;
+
+import com.cakify.entity.StockJournalEntry;
+import com.cakify.stock.ProductQuantity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StockJournalRepository extends JpaRepository<StockJournalEntry, Long> {
+
+    /**
+    * Units of each limited product an order holds (taken minus given back)
+    */
+    @Query("SELECT new com.cakify.stock.ProductQuantity(j.productId, SUM(j.quantity)) FROM StockJournalEntry j " +
+            "WHERE j.orderId = :orderId GROUP BY j.productId")
+    List<ProductQuantity> sumByOrderId(@Param("orderId") Long orderId);
+
+    /**
+    * Lock a batch of unflushed entries
+    * SKIP LOCKED lets several instances flush without blocking each other
+    */
+    @Query(value = "SELECT id FROM stock_journal WHERE flushed = FALSE ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<Long> lockUnflushedIds(@Param("limit") int limit);
+
+    @Query("SELECT new com.cakify.stock.ProductQuantity(j.productId, SUM(j.quantity)) FROM StockJournalEntry j " +
+            "WHERE j.id IN :ids GROUP BY j.productId")
+    List<ProductQuantity> sumByIdIn(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("UPDATE StockJournalEntry j SET j.flushed = true WHERE j.id IN :ids")
+    int markFlushed(@Param("ids") List<Long> ids);
+
+    /**
+    * Retire a product's unflushed entries together with its stock row (the limit is removed)
+    */
+    @Modifying
+    @Query("UPDATE StockJournalEntry j SET j.flushed = true WHERE j.productId = :productId AND j.flushed = false")
+    int markFlushedByProductId(@Param("productId") Long productId);
+
+    /**
+    * Lock a batch of entries nothing reads any more: flushed, and of an order that is delivered, cancelled
+    * or gone with all its entries flushed. Such an order is never rebooked or released again
+    * SKIP LOCKED lets several instances run the retention job without blocking each other
+    */
+    @Query(value = "SELECT j.id FROM stock_journal j WHERE j.flushed " +
+            "AND NOT EXISTS (SELECT 1 FROM stock_journal u WHERE u.order_id = j.order_id AND NOT u.flushed) " +
+            "AND NOT EXISTS (SELECT 1 FROM orders o WHERE o.order_id = j.order_id " +
+            "AND o.status NOT IN ('DELIVERED', 'CANCELLED')) " +
+            "ORDER BY j.id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockPurgeableIds(@Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM StockJournalEntry j WHERE j.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+}
@@ -0,0 +1,79 @@
+package com.cakify.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Remembers tokens that passed verification, so a client sending the same token on every request
+ * pays for the signature check and claim parsing once. Entries leave the cache when the token
+ * expires (or after maxAge, whichever comes first); rejected tokens are never cached.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final Clock clock;
+    private final Cache<String, Jwt> verified;
+
+    public CachingJwtDecoder(JwtDecoder delegate, int maxSize, Duration maxAge, Clock clock) {
+        this.delegate = delegate;
+        this.clock = clock;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Jwt>() {
+                    @Override
+                    public long expireAfterCreate(String token, Jwt jwt, long currentTime) {
+                        return timeToLive(jwt, maxAge).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, Jwt jwt, long currentTime, long currentDuration) {
+                        return timeToLive(jwt, maxAge).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, Jwt jwt, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .ticker(() -> clock.millis() * 1_000_000)
+                .build();
+    }
+
+    @Override
+    public Jwt decode(String token) {
+        Jwt jwt = verified.getIfPresent(token);
+        if (jwt != null && !isExpired(jwt)) {
+            return jwt;
+        }
+        jwt = delegate.decode(token);
+        verified.put(token, jwt);
+        return jwt;
+    }
+
+    long cachedTokens() {
+        verified.cleanUp();
+        return verified.estimatedSize();
+    }
+
+    // The cache expires entries lazily; the check on read is what guarantees no expired token passes
+    private boolean isExpired(Jwt jwt) {
+        Instant expiresAt = jwt.getExpiresAt();
+        return expiresAt != null && !clock.instant().isBefore(expiresAt);
+    }
+
+    private Duration timeToLive(Jwt jwt, Duration maxAge) {
+        Instant expiresAt = jwt.getExpiresAt();
+        if (expiresAt == null) {
+            return maxAge;
+        }
+        Duration remaining = Duration.between(clock.instant(), expiresAt);
+        return remaining.isNegative() ? Duration.ZERO : (remaining.compareTo(maxAge) < 0 ? remaining : maxAge);
+    }
+}
@@ -0,0 +1,58 @@
+package com.cakify.security;
+
+import com.cakify.config.AuthProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Checks admin credentials against the configured accounts (no database) and issues a token.
+ *
+ * Password hashing runs on a small dedicated executor with a bounded queue: bcrypt is slow on
+ * purpose, and a burst of logins must not occupy request threads or every CPU. When the queue is
+ * full, {@link #login} throws RejectedExecutionException right away.
+ */
+public class LoginService {
+
+    private static final Logger log = LoggerFactory.getLogger(LoginService.class);
+
+    // Checked for unknown usernames, so they take as long as a wrong password (cost 10, like the default)
+    private static final String UNKNOWN_USER_HASH = "$2a$10$B0SU74CfHcCR0mm7vaRTyuyMV.e2gQJT7QG9fhnwxNPsM8rp2U6NW";
+
+    private final Map<String, AuthProperties.User> accounts;
+    private final PasswordEncoder passwordEncoder;
+    private final TokenService tokenService;
+    private final Executor hashingExecutor;
+
+    public LoginService(Map<String, AuthProperties.User> accounts, PasswordEncoder passwordEncoder,
+                        TokenService tokenService, Executor hashingExecutor) {
+        this.accounts = Map.copyOf(accounts);
+        this.passwordEncoder = passwordEncoder;
+        this.tokenService = tokenService;
+        this.hashingExecutor = hashingExecutor;
+    }
+
+    /**
+     * @return the token, or empty when the username or password is wrong
+     * @throws RejectedExecutionException when too many logins are already waiting
+     */
+    public CompletableFuture<Optional<TokenService.IssuedToken>> login(String username, String password) {
+        return CompletableFuture.supplyAsync(() -> authenticate(username, password), hashingExecutor);
+    }
+
+    private Optional<TokenService.IssuedToken> authenticate(String username, String password) {
+        AuthProperties.User account = accounts.get(username);
+        String hash = account != null ? account.getPasswordHash() : UNKNOWN_USER_HASH;
+        if (!passwordEncoder.matches(password, hash) || account == null) {
+            log.debug("Failed login for '{}'", username);
+            return Optional.empty();
+        }
+        return Optional.of(tokenService.issue(username, account.getRoles()));
+    }
+}
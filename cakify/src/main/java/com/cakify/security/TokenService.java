@@ -0,0 +1,50 @@
+package com.cakify.security;
+
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Issues the signed access tokens that every instance can verify on its own: the token carries
+ * the user and roles, so no session or user lookup is needed per request.
+ */
+public class TokenService {
+
+    public static final String ROLES_CLAIM = "roles";
+
+    private final JwtEncoder encoder;
+    private final String issuer;
+    private final Duration ttl;
+    private final Clock clock;
+
+    public TokenService(JwtEncoder encoder, String issuer, Duration ttl, Clock clock) {
+        this.encoder = encoder;
+        this.issuer = issuer;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    public IssuedToken issue(String username, List<String> roles) {
+        Instant now = clock.instant();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer(issuer)
+                .subject(username)
+                .issuedAt(now)
+                .expiresAt(now.plus(ttl))
+                .claim(ROLES_CLAIM, roles)
+                .build();
+        JwsHeader header = JwsHeader.with(MacAlgorithm.HS256).build();
+        String token = encoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+        return new IssuedToken(token, ttl.toSeconds());
+    }
+
+    public record IssuedToken(String value, long expiresInSeconds) {
+    }
+}
@@ -0,0 +1,65 @@
+package com.cakify.service;
+
+import com.cakify.entity.ArchivedInquiry;
+import com.cakify.entity.ArchivedOrder;
+import com.cakify.entity.ArchivedOrderItem;
+import com.cakify.exception.OrderNotFoundException;
+import com.cakify.repository.ArchivedInquiryRepository;
+import com.cakify.repository.ArchivedOrderItemRepository;
+import com.cakify.repository.ArchivedOrderRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read access to data moved out of the hot tables by {@link DataRetentionService}
+ */
+@Lazy
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ArchiveService {
+
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ArchivedOrderItemRepository archivedOrderItemRepository;
+    private final ArchivedInquiryRepository archivedInquiryRepository;
+
+    // Get archived orders with pagination
+    public Page<ArchivedOrder> getArchivedOrders(Pageable pageable) {
+        return archivedOrderRepository.findAll(pageable);
+    }
+
+    // Get archived order by ID
+    public Optional<ArchivedOrder> getArchivedOrderById(Long orderId) {
+        return archivedOrderRepository.findById(orderId);
+    }
+
+    // Get archived items for an archived order
+    public List<ArchivedOrderItem> getArchivedOrderItems(Long orderId) {
+        if (!archivedOrderRepository.existsById(orderId)) {
+            throw new OrderNotFoundException("Archived order not found with ID: " + orderId);
+        }
+        return archivedOrderItemRepository.findByOrderId(orderId);
+    }
+
+    // Get archived orders by customer email
+    public Page<ArchivedOrder> getArchivedOrdersByCustomerEmail(String email, Pageable pageable) {
+        return archivedOrderRepository.findByCustomerEmailIgnoreCase(email, pageable);
+    }
+
+    // Get archived inquiries with pagination
+    public Page<ArchivedInquiry> getArchivedInquiries(Pageable pageable) {
+        return archivedInquiryRepository.findAll(pageable);
+    }
+
+    // Get archived inquiries by customer email
+    public Page<ArchivedInquiry> getArchivedInquiriesByEmail(String email, Pageable pageable) {
+        return archivedInquiryRepository.findByEmailIgnoreCase(email, pageable);
+    }
+}
@@ -0,0 +1,400 @@
+package com.cakify.service;
+
+import com.cakify.dto.CatalogImportReport;
+import com.cakify.entity.Category;
+import com.cakify.event.CatalogChangedEvent;
+import com.cakify.repository.CategoryRepository;
+import com.cakify.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk catalog import from CSV.
+ * Records are parsed from the stream and handled in chunks of CHUNK_SIZE: per chunk, new category
+ * names and existing products are resolved with one query each, rows are validated and products are
+ * upserted with JDBC batches. Only the per-row report and the names already imported outlive a chunk.
+ * The whole file is one transaction; catalog listeners are notified once at the end.
+ *
+ * Expected header (case insensitive, any order): name, price, category and optionally
+ * description, sizes, featured, availability, imageUrl. Sizes may be separated by '|' or ','
+ * (quote the field when using commas). Existing products are matched by name, ignoring case and
+ * surrounding whitespace.
+ */
+@Lazy
+@Service
+@RequiredArgsConstructor
+public class CatalogImportService {
+
+    private static final int BATCH_SIZE = 200;
+    private static final int MAX_ROWS = 10_000;
+    // Records held in memory at a time; also keeps IN lists well below database bind-parameter limits
+    private static final int CHUNK_SIZE = 1_000;
+
+    private static final String INSERT_SQL = "INSERT INTO products (name, description, price, category_id, image_url, " +
+            "featured, availability, sizes, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_SQL = "UPDATE products SET name = ?, description = ?, price = ?, category_id = ?, " +
+            "image_url = COALESCE(?, image_url), featured = ?, availability = ?, sizes = ?, updated_at = ? WHERE id = ?";
+
+    private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public CatalogImportReport importCsv(InputStream input) throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(
+                new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+        Map<String, Integer> columns = readHeader(reader);
+
+        ImportState state = new ImportState(columns);
+        List<String[]> chunk = new ArrayList<>(CHUNK_SIZE);
+        String[] record;
+        while ((record = reader.next()) != null) {
+            if (isBlank(record)) {
+                continue;
+            }
+            if (state.report.getTotalRows() + chunk.size() == MAX_ROWS) {
+                throw new IllegalArgumentException("Import is limited to " + MAX_ROWS + " rows");
+            }
+            chunk.add(record);
+            if (chunk.size() == CHUNK_SIZE) {
+                importChunk(chunk, state);
+                chunk.clear();
+            }
+        }
+        importChunk(chunk, state);
+
+        if (state.report.getCreated() > 0 || state.report.getUpdated() > 0) {
+            eventPublisher.publishEvent(new CatalogChangedEvent("catalog import"));
+        }
+        return state.report;
+    }
+
+    /**
+     * Validate and upsert one chunk of records; rows are numbered after the ones already imported
+     */
+    private void importChunk(List<String[]> records, ImportState state) {
+        if (records.isEmpty()) {
+            return;
+        }
+        resolveCategories(records, state);
+
+        int firstRow = state.report.getTotalRows() + 1;
+        List<ImportRow> rows = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            rows.add(validate(firstRow + i, records.get(i), state.columns, state.categoryIds));
+        }
+
+        // Reject duplicate names within the file (first occurrence wins)
+        Set<String> newNames = new HashSet<>();
+        List<ImportRow> valid = new ArrayList<>();
+        for (ImportRow row : rows) {
+            if (row.error == null) {
+                Integer first = state.firstRowByName.putIfAbsent(row.nameKey, row.row);
+                if (first != null) {
+                    row.error = "Duplicate of row " + first;
+                } else {
+                    newNames.add(row.nameKey);
+                    valid.add(row);
+                }
+            }
+        }
+
+        // One lookup for the products of this chunk that already exist
+        Map<String, Long> existingIds = new HashMap<>();
+        if (!newNames.isEmpty()) {
+            for (Object[] idAndName : productRepository.findIdsByLowerCaseNameIn(newNames)) {
+                existingIds.putIfAbsent((String) idAndName[1], (Long) idAndName[0]);
+            }
+        }
+
+        List<ImportRow> inserts = new ArrayList<>();
+        List<ImportRow> updates = new ArrayList<>();
+        for (ImportRow row : valid) {
+            row.existingId = existingIds.get(row.nameKey);
+            (row.existingId == null ? inserts : updates).add(row);
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, inserts, BATCH_SIZE, (ps, row) -> {
+            ps.setString(1, row.name);
+            ps.setString(2, row.description);
+            ps.setBigDecimal(3, row.price);
+            ps.setLong(4, row.categoryId);
+            ps.setString(5, row.imageUrl);
+            ps.setBoolean(6, row.featured);
+            ps.setBoolean(7, row.availability);
+            ps.setString(8, row.sizes);
+            ps.setTimestamp(9, now);
+            ps.setTimestamp(10, now);
+        });
+        jdbcTemplate.batchUpdate(UPDATE_SQL, updates, BATCH_SIZE, (ps, row) -> {
+            ps.setString(1, row.name);
+            ps.setString(2, row.description);
+            ps.setBigDecimal(3, row.price);
+            ps.setLong(4, row.categoryId);
+            ps.setString(5, row.imageUrl);
+            ps.setBoolean(6, row.featured);
+            ps.setBoolean(7, row.availability);
+            ps.setString(8, row.sizes);
+            ps.setTimestamp(9, now);
+            ps.setLong(10, row.existingId);
+        });
+
+        CatalogImportReport report = state.report;
+        report.setTotalRows(report.getTotalRows() + rows.size());
+        for (ImportRow row : rows) {
+            String status;
+            if (row.error != null) {
+                status = "REJECTED";
+                report.setRejected(report.getRejected() + 1);
+            } else if (row.existingId != null) {
+                status = "UPDATED";
+                report.setUpdated(report.getUpdated() + 1);
+            } else {
+                status = "CREATED";
+                report.setCreated(report.getCreated() + 1);
+            }
+            report.getRows().add(new CatalogImportReport.RowResult(row.row, row.name, status, row.error));
+        }
+    }
+
+    // One lookup for the category names of this chunk not seen in earlier chunks
+    private void resolveCategories(List<String[]> records, ImportState state) {
+        Set<String> unknown = new HashSet<>();
+        for (String[] record : records) {
+            String category = field(record, state.columns, "category");
+            if (category != null && state.lookedUpCategories.add(key(category))) {
+                unknown.add(key(category));
+            }
+        }
+        if (!unknown.isEmpty()) {
+            for (Category category : categoryRepository.findByLowerCaseNameIn(unknown)) {
+                state.categoryIds.putIfAbsent(key(category.getName()), category.getId());
+            }
+        }
+    }
+
+    private Map<String, Integer> readHeader(CsvRecordReader reader) throws IOException {
+        String[] header = reader.next();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV file is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            columns.put(key(header[i]), i);
+        }
+        for (String required : List.of("name", "price", "category")) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("Missing required column: " + required);
+            }
+        }
+        return columns;
+    }
+
+    // Validate one record
+    private ImportRow validate(int rowNumber, String[] record, Map<String, Integer> columns, Map<String, Long> categoryIds) {
+        ImportRow row = new ImportRow(rowNumber);
+        try {
+            row.name = field(record, columns, "name");
+            if (row.name == null) {
+                throw new IllegalArgumentException("Product name is required");
+            }
+            if (row.name.length() > 100) {
+                throw new IllegalArgumentException("Product name must be less than 100 characters");
+            }
+            row.nameKey = key(row.name);
+
+            String price = field(record, columns, "price");
+            if (price == null) {
+                throw new IllegalArgumentException("Product price is required");
+            }
+            try {
+                row.price = new BigDecimal(price);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid price: " + price);
+            }
+            if (row.price.signum() <= 0) {
+                throw new IllegalArgumentException("Product price must be greater than 0");
+            }
+            if (row.price.scale() > 2) {
+                throw new IllegalArgumentException("Price must have at most 2 decimal places");
+            }
+
+            String category = field(record, columns, "category");
+            if (category == null) {
+                throw new IllegalArgumentException("Category is required");
+            }
+            row.categoryId = categoryIds.get(key(category));
+            if (row.categoryId == null) {
+                throw new IllegalArgumentException("Category not found: " + category);
+            }
+
+            row.description = field(record, columns, "description");
+            row.imageUrl = field(record, columns, "imageurl");
+            row.featured = parseBoolean(field(record, columns, "featured"), false);
+            row.availability = parseBoolean(field(record, columns, "availability"), true);
+
+            String sizes = field(record, columns, "sizes");
+            row.sizes = sizes == null ? "" : Arrays.stream(sizes.split("[|,]"))
+                    .map(String::trim)
+                    .filter(size -> !size.isEmpty())
+                    .collect(Collectors.joining(","));
+        } catch (IllegalArgumentException e) {
+            row.error = e.getMessage();
+        }
+        return row;
+    }
+
+    private static String field(String[] record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.length) {
+            return null;
+        }
+        String value = record[index].trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static boolean parseBoolean(String value, boolean defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "true", "yes", "y", "1" -> true;
+            case "false", "no", "n", "0" -> false;
+            default -> throw new IllegalArgumentException("Invalid boolean value: " + value);
+        };
+    }
+
+    private static boolean isBlank(String[] record) {
+        return Arrays.stream(record).allMatch(value -> value.trim().isEmpty());
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // What outlives a chunk: the report, names already imported and categories already looked up
+    private static final class ImportState {
+        private final Map<String, Integer> columns;
+        private final CatalogImportReport report = new CatalogImportReport();
+        private final Map<String, Integer> firstRowByName = new HashMap<>();
+        private final Map<String, Long> categoryIds = new HashMap<>();
+        private final Set<String> lookedUpCategories = new HashSet<>();
+
+        private ImportState(Map<String, Integer> columns) {
+            this.columns = columns;
+        }
+    }
+
+    // Mutable working state for one CSV row
+    private static final class ImportRow {
+        private final int row;
+        private String name;
+        private String nameKey;
+        private String description;
+        private BigDecimal price;
+        private Long categoryId;
+        private String imageUrl;
+        private boolean featured;
+        private boolean availability;
+        private String sizes;
+        private Long existingId;
+        private String error;
+
+        private ImportRow(int row) {
+            this.row = row;
+        }
+    }
+
+    /**
+     * Minimal RFC 4180 reader: quoted fields, escaped quotes ("") and line breaks inside quotes.
+     * Reads one record at a time from the underlying reader.
+     */
+    private static final class CsvRecordReader {
+
+        private final Reader reader;
+        private boolean first = true;
+        private boolean eof;
+
+        private CsvRecordReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        private String[] next() throws IOException {
+            if (eof) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean any = false;
+            int c;
+            while ((c = reader.read()) != -1) {
+                if (first) {
+                    first = false;
+                    if (c == '\uFEFF') {
+                        continue;
+                    }
+                }
+                any = true;
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        int next = reader.read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            if (next != -1) {
+                                reader.reset();
+                            }
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+            }
+            if (c == -1) {
+                eof = true;
+                if (!any) {
+                    return null;
+                }
+            }
+            fields.add(field.toString());
+            return fields.toArray(new String[0]);
+        }
+    }
+}
@@ -2,14 +2,17 @@ package com.cakify.service;
 
 import com.cakify.dto.CategoryResponse;
 import com.cakify.entity.Category;
+import com.cakify.event.EntityChangedEvent;
 import com.cakify.repository.CategoryRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -17,13 +20,20 @@ import java.util.stream.Collectors;
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final SingleFlight singleFlight;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
     // Get all categories
+    // Concurrent callers share one load (see SingleFlight); they wait without a transaction of their own
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<CategoryResponse> getAllCategories() {
-        List<Category> categories = categoryRepository.findAll();
-        return categories.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return singleFlight.execute("categories.all", () -> transactionTemplate.execute(status -> {
+            List<Category> categories = categoryRepository.findAll();
+            return categories.stream()
+                    .map(this::mapToResponse)
+                    .toList();
+        }));
     }
 
     // Get category by ID
@@ -65,6 +75,7 @@ public class CategoryService {
 
                     existingCategory.setName(newName.trim());
                     Category updatedCategory = categoryRepository.save(existingCategory);
+                    eventPublisher.publishEvent(new EntityChangedEvent(EntityChangedEvent.CATEGORY, id));
                     return mapToResponse(updatedCategory);
                 });
     }
@@ -73,6 +84,7 @@ public class CategoryService {
     public boolean deleteCategory(Long id) {
         if (categoryRepository.existsById(id)) {
             categoryRepository.deleteById(id);
+            eventPublisher.publishEvent(new EntityChangedEvent(EntityChangedEvent.CATEGORY, id));
             return true;
         }
         return false;
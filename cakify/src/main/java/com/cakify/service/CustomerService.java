@@ -0,0 +1,26 @@
+package com.cakify.service;
+
+import com.cakify.entity.Customer;
+import com.cakify.repository.CustomerRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class CustomerService {
+
+    private final CustomerRepository customerRepository;
+
+    // The customer for an email as typed, created on first use (in the caller's transaction)
+    public Customer resolveCustomer(String email) {
+        String emailNormalized = Customer.normalizeEmail(email);
+        return customerRepository.findByEmailNormalized(emailNormalized)
+                .orElseGet(() -> {
+                    customerRepository.insertIfAbsent(emailNormalized);
+                    return customerRepository.findByEmailNormalized(emailNormalized)
+                            .orElseThrow(() -> new IllegalStateException("Customer not created: " + emailNormalized));
+                });
+    }
+}
@@ -0,0 +1,166 @@
+package com.cakify.service;
+
+import com.cakify.config.RetentionProperties;
+import com.cakify.dto.RetentionReport;
+import com.cakify.event.EntityChangedEvent;
+import com.cakify.repository.ArchivedInquiryRepository;
+import com.cakify.repository.ArchivedOrderItemRepository;
+import com.cakify.repository.ArchivedOrderRepository;
+import com.cakify.repository.InquiryRepository;
+import com.cakify.repository.OrderItemRepository;
+import com.cakify.repository.OrderRepository;
+import com.cakify.repository.StockJournalRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Data lifecycle job: moves closed orders (with their items) and resolved inquiries out of
+ * the hot tables so their indexes stay small, and deletes the stock journal entries of closed
+ * orders once they are flushed (product_stock.sold already counts them).
+ * Every batch runs in its own short transaction, so a large backlog never holds long locks.
+ */
+@Service
+@RequiredArgsConstructor
+public class DataRetentionService {
+
+    private static final Logger log = LoggerFactory.getLogger(DataRetentionService.class);
+
+    private final RetentionProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final InquiryRepository inquiryRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ArchivedOrderItemRepository archivedOrderItemRepository;
+    private final ArchivedInquiryRepository archivedInquiryRepository;
+    private final StockJournalRepository stockJournalRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Scheduled entry point (cron from cakify.retention.cron)
+     */
+    @Scheduled(cron = "${cakify.retention.cron:0 30 3 * * *}")
+    public void runScheduled() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        RetentionReport report = runRetention();
+        log.info("Retention run finished: {} orders ({} items) archived, {} inquiries archived, {} inquiries purged, "
+                        + "{} stock journal entries purged",
+                report.getArchivedOrders(), report.getArchivedOrderItems(),
+                report.getArchivedInquiries(), report.getPurgedInquiries(), report.getPurgedStockJournalEntries());
+    }
+
+    /**
+     * Run every retention policy now
+     */
+    public RetentionReport runRetention() {
+        RetentionReport report = new RetentionReport();
+        archiveClosedOrders(report);
+        applyInquiryRetention(report);
+        purgeStockJournal(report);
+        return report;
+    }
+
+    /**
+     * Move DELIVERED/CANCELLED orders older than the configured age into the archive tables
+     */
+    private void archiveClosedOrders(RetentionReport report) {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getClosedOrderAge());
+        int batchSize = validBatchSize();
+
+        while (true) {
+            long[] moved = transactionTemplate.execute(status -> {
+                List<Long> orderIds = orderRepository.lockClosedOrderIdsBefore(cutoff, batchSize);
+                if (orderIds.isEmpty()) {
+                    return new long[] {0, 0};
+                }
+                LocalDateTime archivedAt = LocalDateTime.now();
+                archivedOrderRepository.copyFromOrders(orderIds, archivedAt);
+                int items = archivedOrderItemRepository.copyFromOrderItems(orderIds);
+                orderItemRepository.deleteByOrderIdIn(orderIds);
+                orderRepository.deleteByOrderIdIn(orderIds);
+                // Other instances may still cache the archived orders
+                eventPublisher.publishEvent(EntityChangedEvent.all(EntityChangedEvent.ORDER));
+                return new long[] {orderIds.size(), items};
+            });
+
+            report.setArchivedOrders(report.getArchivedOrders() + moved[0]);
+            report.setArchivedOrderItems(report.getArchivedOrderItems() + moved[1]);
+            if (moved[0] < batchSize) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Archive or purge resolved inquiries older than the configured age
+     */
+    private void applyInquiryRetention(RetentionReport report) {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getResolvedInquiryAge());
+        boolean archive = properties.getInquiryMode() == RetentionProperties.InquiryMode.ARCHIVE;
+        int batchSize = validBatchSize();
+
+        while (true) {
+            Integer moved = transactionTemplate.execute(status -> {
+                List<Long> inquiryIds = inquiryRepository.lockResolvedInquiryIdsBefore(cutoff, batchSize);
+                if (inquiryIds.isEmpty()) {
+                    return 0;
+                }
+                if (archive) {
+                    archivedInquiryRepository.copyFromInquiries(inquiryIds, LocalDateTime.now());
+                }
+                inquiryRepository.deleteByIdIn(inquiryIds);
+                return inquiryIds.size();
+            });
+
+            if (archive) {
+                report.setArchivedInquiries(report.getArchivedInquiries() + moved);
+            } else {
+                report.setPurgedInquiries(report.getPurgedInquiries() + moved);
+            }
+            if (moved < batchSize) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Delete flushed stock journal entries of orders that can no longer be rebooked or released
+     * (runs after the archiving, so the orders archived above count as gone)
+     */
+    private void purgeStockJournal(RetentionReport report) {
+        int batchSize = validBatchSize();
+
+        while (true) {
+            Integer purged = transactionTemplate.execute(status -> {
+                List<Long> ids = stockJournalRepository.lockPurgeableIds(batchSize);
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                stockJournalRepository.deleteByIdIn(ids);
+                return ids.size();
+            });
+
+            report.setPurgedStockJournalEntries(report.getPurgedStockJournalEntries() + purged);
+            if (purged < batchSize) {
+                break;
+            }
+        }
+    }
+
+    private int validBatchSize() {
+        if (properties.getBatchSize() <= 0) {
+            throw new IllegalArgumentException("cakify.retention.batch-size must be greater than 0");
+        }
+        return properties.getBatchSize();
+    }
+}
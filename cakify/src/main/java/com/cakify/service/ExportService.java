@@ -0,0 +1,241 @@
+package com.cakify.service;
+
+import com.cakify.entity.Inquiry;
+import com.cakify.entity.Order;
+import com.cakify.enums.ExportFormat;
+import com.cakify.repository.InquiryRepository;
+import com.cakify.repository.OrderRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Streams orders and inquiries to CSV or NDJSON with constant memory.
+ * Rows come from a forward-only, fetch-size-bounded cursor and are written as they are read;
+ * the persistence context is cleared periodically so loaded entities never accumulate.
+ */
+@Lazy
+@Service
+@RequiredArgsConstructor
+public class ExportService {
+
+    // Rows between persistence context clears and output flushes
+    private static final int CLEAR_INTERVAL = 500;
+
+    private static final String[] ORDER_COLUMNS = {
+            "orderId", "orderDate", "status", "customerName", "customerEmail", "customerPhone",
+            "deliveryAddress", "deliveryDate", "quantity", "totalAmount", "specialNotes", "createdAt", "updatedAt"
+    };
+
+    private static final String[] INQUIRY_COLUMNS = {
+            "id", "createdAt", "status", "name", "email", "message", "reply"
+    };
+
+    private final OrderRepository orderRepository;
+    private final InquiryRepository inquiryRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    // Export orders with orderDate in [from, to)
+    @Transactional(readOnly = true)
+    public long exportOrders(LocalDateTime from, LocalDateTime to, ExportFormat format, OutputStream out) throws IOException {
+        validateRange(from, to);
+        // The query's cache-mode hint only covers opening the cursor; rows streamed later load with
+        // the session's mode, so this transaction's session skips the second-level cache as well
+        entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+        try (Stream<Order> orders = orderRepository.streamByOrderDateRange(from, to);
+             RowWriter writer = createWriter(format, out, ORDER_COLUMNS)) {
+            return writeRows(orders.iterator(), writer, order -> new Object[] {
+                    order.getOrderId(), order.getOrderDate(), order.getStatus(), order.getCustomerName(),
+                    order.getCustomerEmail(), order.getCustomerPhone(), order.getDeliveryAddress(),
+                    order.getDeliveryDate(), order.getQuantity(), order.getTotalAmount(), order.getSpecialNotes(),
+                    order.getCreatedAt(), order.getUpdatedAt()
+            });
+        }
+    }
+
+    // Export inquiries with createdAt in [from, to)
+    @Transactional(readOnly = true)
+    public long exportInquiries(LocalDateTime from, LocalDateTime to, ExportFormat format, OutputStream out) throws IOException {
+        validateRange(from, to);
+        try (Stream<Inquiry> inquiries = inquiryRepository.streamByCreatedAtRange(from, to);
+             RowWriter writer = createWriter(format, out, INQUIRY_COLUMNS)) {
+            return writeRows(inquiries.iterator(), writer, inquiry -> new Object[] {
+                    inquiry.getId(), inquiry.getCreatedAt(), inquiry.getStatus(), inquiry.getName(),
+                    inquiry.getEmail(), inquiry.getMessage(), inquiry.getReply()
+            });
+        }
+    }
+
+    private <T> long writeRows(Iterator<T> rows, RowWriter writer, Function<T, Object[]> mapper)
+            throws IOException {
+        long count = 0;
+        while (rows.hasNext()) {
+            writer.writeRow(mapper.apply(rows.next()));
+            if (++count % CLEAR_INTERVAL == 0) {
+                // Drop entities already written so memory stays flat regardless of row count
+                entityManager.clear();
+                writer.flush();
+            }
+        }
+        return count;
+    }
+
+    private void validateRange(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Both 'from' and 'to' dates are required");
+        }
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+    }
+
+    private RowWriter createWriter(ExportFormat format, OutputStream out, String[] columns) throws IOException {
+        return format == ExportFormat.NDJSON
+                ? new NdjsonRowWriter(objectMapper.getFactory().createGenerator(out), columns)
+                : new CsvRowWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)), columns);
+    }
+
+    /**
+     * Writes rows of positional values in one export format
+     */
+    private interface RowWriter extends AutoCloseable {
+
+        void writeRow(Object[] values) throws IOException;
+
+        void flush() throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    /**
+     * RFC 4180 CSV with a header line
+     */
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer, String[] columns) throws IOException {
+            this.writer = writer;
+            writeRow(columns);
+        }
+
+        @Override
+        public void writeRow(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeField(values[i]);
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeField(Object value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+            boolean needsQuotes = false;
+            for (int i = 0; i < text.length() && !needsQuotes; i++) {
+                char c = text.charAt(i);
+                needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!needsQuotes) {
+                writer.write(text);
+                return;
+            }
+            writer.write('"');
+            writer.write(text.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            // Flush only: the servlet container owns the underlying stream
+            writer.flush();
+        }
+    }
+
+    /**
+     * One JSON object per line, field names taken from the column list
+     */
+    private static final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+        private final SerializedString[] fieldNames;
+
+        NdjsonRowWriter(JsonGenerator generator, String[] columns) {
+            this.generator = generator;
+            this.generator.setPrettyPrinter(new MinimalPrettyPrinter(""));
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.fieldNames = new SerializedString[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                fieldNames[i] = new SerializedString(columns[i]);
+            }
+        }
+
+        @Override
+        public void writeRow(Object[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                generator.writeFieldName(fieldNames[i]);
+                writeValue(values[i]);
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        private void writeValue(Object value) throws IOException {
+            if (value == null) {
+                generator.writeNull();
+            } else if (value instanceof BigDecimal decimal) {
+                generator.writeNumber(decimal);
+            } else if (value instanceof Long number) {
+                generator.writeNumber(number);
+            } else if (value instanceof Integer number) {
+                generator.writeNumber(number);
+            } else if (value instanceof Boolean flag) {
+                generator.writeBoolean(flag);
+            } else {
+                generator.writeString(value.toString());
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+}
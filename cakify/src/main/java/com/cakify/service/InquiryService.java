@@ -2,8 +2,10 @@ package com.cakify.service;
 
 import com.cakify.dto.InquiryRequest;
 import com.cakify.dto.InquiryResponse;
+import com.cakify.entity.Customer;
 import com.cakify.entity.Inquiry;
 import com.cakify.entity.InquiryStatus;
+import com.cakify.metrics.BusinessMetrics;
 import com.cakify.repository.InquiryRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -19,6 +21,8 @@ import java.util.stream.Collectors;
 public class InquiryService {
     
     private final InquiryRepository inquiryRepository;
+    private final CustomerService customerService;
+    private final BusinessMetrics businessMetrics;
     
     // Create new inquiry (customer submits)
     public InquiryResponse createInquiry(InquiryRequest request) {
@@ -27,10 +31,13 @@ public class InquiryService {
         Inquiry inquiry = new Inquiry();
         inquiry.setName(request.getName().trim());
         inquiry.setEmail(request.getEmail().trim().toLowerCase());
+        inquiry.setCustomer(customerService.resolveCustomer(request.getEmail()));
         inquiry.setMessage(request.getMessage().trim());
         inquiry.setStatus(InquiryStatus.NEW); // Always NEW when created
         
-        Inquiry savedInquiry = inquiryRepository.save(inquiry);
+        // Flushed now: the id is assigned in the application, createdAt only when the row is written
+        Inquiry savedInquiry = inquiryRepository.saveAndFlush(inquiry);
+        businessMetrics.inquiryCreated();
         return InquiryResponse.fromEntity(savedInquiry);
     }
     
@@ -93,9 +100,10 @@ public class InquiryService {
         return inquiryRepository.countTotalInquiries();
     }
     
-    // Get inquiries by customer email
+    // Get inquiries by customer email (case and surrounding spaces ignored)
     public List<InquiryResponse> getInquiriesByEmail(String email) {
-        List<Inquiry> inquiries = inquiryRepository.findByEmailIgnoreCaseOrderByCreatedAtDesc(email);
+        List<Inquiry> inquiries = inquiryRepository.findByCustomerEmailNormalizedOrderByCreatedAtDesc(
+                Customer.normalizeEmail(email));
         return inquiries.stream()
                 .map(InquiryResponse::fromEntity)
                 .collect(Collectors.toList());
@@ -0,0 +1,211 @@
+package com.cakify.service;
+
+import com.cakify.config.IdempotencyProperties;
+import com.cakify.entity.Order;
+import com.cakify.entity.OrderIdempotencyKey;
+import com.cakify.exception.IdempotencyKeyReusedException;
+import com.cakify.exception.OrderValidationException;
+import com.cakify.repository.OrderIdempotencyKeyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates orders at most once per Idempotency-Key, so a client retrying POST /api/orders after a
+ * lost response gets the original response instead of a second order.
+ *
+ * A request with a known key is answered, in order of cost, from:
+ * the in-flight call on this instance (a concurrent duplicate waits for it), the bounded cache of
+ * responses this instance created, or the order_idempotency_keys table (keys from other instances,
+ * or from before a restart). Otherwise the key is claimed in the same transaction that creates the
+ * order and stores the response, so key and order are committed together or not at all; a failed
+ * creation leaves the key free for the next attempt.
+ */
+@Service
+public class OrderIdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderIdempotencyService.class);
+
+    public static final int MAX_KEY_LENGTH = 100;
+
+    private final OrderService orderService;
+    private final OrderIdempotencyKeyRepository keyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyProperties properties;
+    private final Cache<String, IdempotentResponse> completed;
+    private final ConcurrentHashMap<String, CompletableFuture<IdempotentResponse>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry registry;
+
+    public OrderIdempotencyService(OrderService orderService, OrderIdempotencyKeyRepository keyRepository,
+                                   TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+                                   IdempotencyProperties properties, MeterRegistry registry) {
+        this.orderService = orderService;
+        this.keyRepository = keyRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.registry = registry;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheSize())
+                .expireAfterWrite(properties.getTtl())
+                .build();
+    }
+
+    /**
+     * The stored response for this key, or the response of a newly created order
+     * @throws OrderValidationException when the key is blank or too long
+     * @throws IdempotencyKeyReusedException when the key was used for a different request
+     */
+    public IdempotentResponse createOrder(String key, Order order) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new OrderValidationException("Idempotency-Key", "must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = requestHash(order);
+
+        IdempotentResponse response = completed.getIfPresent(key);
+        if (response != null) {
+            count("cache");
+            return checked(key, requestHash, response.asReplay());
+        }
+
+        CompletableFuture<IdempotentResponse> call = new CompletableFuture<>();
+        CompletableFuture<IdempotentResponse> running = inFlight.putIfAbsent(key, call);
+        if (running != null) {
+            count("in-flight");
+            return checked(key, requestHash, await(running).asReplay());
+        }
+        try {
+            response = createOnce(key, requestHash, order);
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, call);
+            call.completeExceptionally(e);
+            throw e;
+        }
+        if (!response.replayed()) {
+            completed.put(key, response);
+        }
+        // Removed after caching, so a caller arriving from now on finds the response in the cache
+        inFlight.remove(key, call);
+        call.complete(response);
+        return checked(key, requestHash, response);
+    }
+
+    private IdempotentResponse createOnce(String key, String requestHash, Order order) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            keyRepository.deleteIfExpired(key, now);
+            if (keyRepository.claim(key, requestHash, now, now.plus(properties.getTtl())) == 0) {
+                // Claimed by a transaction that has committed by now (the insert waited for it)
+                count("table");
+                OrderIdempotencyKey stored = keyRepository.findById(key)
+                        .orElseThrow(() -> new IllegalStateException("Idempotency-Key " + key + " vanished"));
+                return new IdempotentResponse(stored.getResponseStatus(), stored.getResponseBody(),
+                        stored.getRequestHash(), true);
+            }
+            count("created");
+            Order created = orderService.createOrder(order);
+            String body = toJson(created);
+            keyRepository.complete(key, created.getOrderId(), HttpStatus.CREATED.value(), body);
+            return new IdempotentResponse(HttpStatus.CREATED.value(), body, requestHash, false);
+        });
+    }
+
+    /**
+     * Delete expired keys in batches, one transaction per batch
+     */
+    @Scheduled(fixedDelayString = "${cakify.idempotency.purge-interval:PT1H}",
+            initialDelayString = "${cakify.idempotency.purge-interval:PT1H}")
+    public void purgeExpired() {
+        int batchSize = properties.getPurgeBatchSize();
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("cakify.idempotency.purge-batch-size must be greater than 0");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        long purged = 0;
+        while (true) {
+            Integer deleted = transactionTemplate.execute(status -> keyRepository.deleteExpiredBatch(now, batchSize));
+            purged += deleted;
+            if (deleted < batchSize) {
+                break;
+            }
+        }
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private static IdempotentResponse checked(String key, String requestHash, IdempotentResponse response) {
+        if (!response.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReusedException(key);
+        }
+        return response;
+    }
+
+    private static IdempotentResponse await(CompletableFuture<IdempotentResponse> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            // The first request's own exception: its duplicate would have failed the same way
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    // Of the request as bound, before the service sets status and dates on it
+    private String requestHash(Order order) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(toJson(order).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String toJson(Order order) {
+        try {
+            return objectMapper.writeValueAsString(order);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize order", e);
+        }
+    }
+
+    private void count(String source) {
+        Counter.builder("cakify.idempotency.requests")
+                .description("Order creations with an Idempotency-Key, by where the response came from")
+                .tag("source", source)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * @param replayed true when the response was stored earlier rather than produced by this request
+     */
+    public record IdempotentResponse(int status, String body, String requestHash, boolean replayed) {
+
+        IdempotentResponse asReplay() {
+            return new IdempotentResponse(status, body, requestHash, true);
+        }
+    }
+}
@@ -2,11 +2,15 @@ package com.cakify.service;
 
 import com.cakify.entity.Order;
 import com.cakify.entity.OrderItem;
+import com.cakify.event.EntityChangedEvent;
 import com.cakify.exception.OrderNotFoundException;
 import com.cakify.exception.OrderValidationException;
 import com.cakify.repository.OrderItemRepository;
 import com.cakify.repository.OrderRepository;
+import com.cakify.stock.StockLedger;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,13 +31,21 @@ public class OrderItemService {
     @Autowired
     private OrderRepository orderRepository;
 
+    // Absent when cakify.stock.enabled is false
+    @Autowired
+    private ObjectProvider<StockLedger> stockLedger;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * Add item to an existing order
+     * Rejected with OutOfStockException when a limited product has too few units left
      */
     @Transactional
     public OrderItem addItemToOrder(Long orderId, OrderItem orderItem) {
-        // Validate order exists
-        Optional<Order> orderOpt = orderRepository.findById(orderId);
+        // Validate order exists (locked, so its stock is rebooked by one writer at a time)
+        Optional<Order> orderOpt = orderRepository.findByIdForUpdate(orderId);
         if (!orderOpt.isPresent()) {
             throw new OrderNotFoundException(orderId);
         }
@@ -46,8 +58,8 @@ public class OrderItemService {
         // Calculate total price
         orderItem.calculateTotalPrice();
         
-        // Set the order relationship
-        orderItem.setOrder(order);
+        // Set the order relationship (both sides, so the total and the stock count the new item)
+        order.addOrderItem(orderItem);
         
         // Save order item
         OrderItem savedItem = orderItemRepository.save(orderItem);
@@ -55,6 +67,10 @@ public class OrderItemService {
         // Update order total amount
         order.calculateTotalAmount();
         orderRepository.save(order);
+        stockLedger.ifAvailable(ledger -> ledger.rebook(order));
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityChangedEvent.ORDER, order.getOrderId()));
+        // The total changed, so other instances drop their cached copy of the order
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityChangedEvent.ORDER, order.getOrderId()));
         
         return savedItem;
     }
@@ -80,6 +96,7 @@ public class OrderItemService {
 
     /**
      * Update order item
+     * Rejected with OutOfStockException when a limited product has too few units left for the new quantity
      */
     @Transactional
     public OrderItem updateOrderItem(Long orderItemId, OrderItem updatedItem) {
@@ -89,6 +106,7 @@ public class OrderItemService {
         }
         
         OrderItem existingItem = itemOpt.get();
+        Order order = lockOrder(existingItem);
         
         // Validate updated item
         validateOrderItem(updatedItem);
@@ -107,9 +125,10 @@ public class OrderItemService {
         OrderItem savedItem = orderItemRepository.save(existingItem);
         
         // Update order total amount
-        Order order = existingItem.getOrder();
         order.calculateTotalAmount();
         orderRepository.save(order);
+        stockLedger.ifAvailable(ledger -> ledger.rebook(order));
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityChangedEvent.ORDER, order.getOrderId()));
         
         return savedItem;
     }
@@ -125,13 +144,17 @@ public class OrderItemService {
         }
         
         OrderItem item = itemOpt.get();
-        Order order = item.getOrder();
+        Order order = lockOrder(item);
         
-        orderItemRepository.deleteById(orderItemId);
+        // Detach from the order first: Order cascades to its items and would re-save it on flush
+        order.getOrderItems().remove(item);
+        orderItemRepository.delete(item);
         
-        // Update order total amount
+        // Update order total amount; the item's units go back once the deletion commits
         order.calculateTotalAmount();
         orderRepository.save(order);
+        stockLedger.ifAvailable(ledger -> ledger.rebook(order));
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityChangedEvent.ORDER, order.getOrderId()));
     }
 
     /**
@@ -156,6 +179,13 @@ public class OrderItemService {
         return total != null ? total : 0;
     }
 
+    // The item's order, locked like in addItemToOrder
+    private Order lockOrder(OrderItem item) {
+        Long orderId = item.getOrder().getOrderId();
+        return orderRepository.findByIdForUpdate(orderId)
+                .orElseThrow(() -> new OrderNotFoundException(orderId));
+    }
+
     /**
      * Validate order item data
      */
@@ -3,11 +3,19 @@ package com.cakify.service;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import com.cakify.capacity.CapacityCalendar;
+import com.cakify.entity.Customer;
 import com.cakify.entity.Order;
 import com.cakify.enums.OrderStatus;
+import com.cakify.event.EntityChangedEvent;
+import com.cakify.metrics.BusinessMetrics;
 import com.cakify.repository.OrderRepository;
+import com.cakify.stock.StockLedger;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import com.cakify.exception.OrderNotFoundException;
 import com.cakify.exception.OrderValidationException;
 import com.cakify.exception.InvalidOrderStatusException;
@@ -23,12 +31,42 @@ public class OrderService {
     @Autowired
     private OrderRepository orderRepository;
 
-    // Create new order
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
+    @Autowired
+    private PurchaseLedger purchaseLedger;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Absent when cakify.capacity.enabled is false
+    @Autowired
+    private ObjectProvider<CapacityCalendar> capacityCalendar;
+
+    // Absent when cakify.stock.enabled is false
+    @Autowired
+    private ObjectProvider<StockLedger> stockLedger;
+
+    // Create new order (and its customer, on the first order from that email)
+    // Rejected with CapacityExceededException when its delivery slot or day is full, and with
+    // OutOfStockException when a limited product has too few units left
+    @Transactional
     public Order createOrder(Order order) {
-        validateOrder(order);
-        order.setStatus(OrderStatus.PENDING);
-        order.setOrderDate(LocalDateTime.now());
-        return orderRepository.save(order);
+        return businessMetrics.recordOrderCreation(() -> {
+            validateOrder(order);
+            order.setCustomer(customerService.resolveCustomer(order.getCustomerEmail()));
+            order.setStatus(OrderStatus.PENDING);
+            order.setOrderDate(LocalDateTime.now());
+            // Flushed now, so the returned order carries createdAt/updatedAt (its items go in one batch)
+            Order savedOrder = orderRepository.saveAndFlush(order);
+            capacityCalendar.ifAvailable(calendar -> calendar.reserve(savedOrder));
+            stockLedger.ifAvailable(ledger -> ledger.reserve(savedOrder));
+            return savedOrder;
+        });
     }
 
     // Get all orders
@@ -46,30 +84,47 @@ public class OrderService {
         return orderRepository.findByStatus(status);
     }
 
-    // Get orders by customer email
+    // Get orders by customer email (case and surrounding spaces ignored)
     public List<Order> getOrdersByCustomerEmail(String email) {
-        return orderRepository.findByCustomerEmail(email);
+        return orderRepository.findByCustomerEmailNormalized(Customer.normalizeEmail(email));
     }
 
-   // update OrderStatus 
+   // update OrderStatus (a delivery also records the purchased products for review verification)
+    @Transactional
     public Order updateOrderStatus(Long orderId, OrderStatus newStatus) {
-    Optional<Order> orderOpt = orderRepository.findById(orderId);
+    Optional<Order> orderOpt = orderRepository.findByIdForUpdate(orderId);
     if (orderOpt.isPresent()) {
         Order order = orderOpt.get();
-        validateStatusTransition(order.getStatus(), newStatus);
+        OrderStatus currentStatus = order.getStatus();
+        validateStatusTransition(currentStatus, newStatus);
         order.setStatus(newStatus);
-        return orderRepository.save(order);
+        Order savedOrder = orderRepository.save(order);
+        if (newStatus == OrderStatus.DELIVERED) {
+            purchaseLedger.recordDelivery(savedOrder);
+        }
+        if (newStatus == OrderStatus.CANCELLED) {
+            capacityCalendar.ifAvailable(calendar -> calendar.releaseAfterCommit(orderId));
+            stockLedger.ifAvailable(ledger -> ledger.release(orderId));
+        }
+        businessMetrics.orderStatusChanged(currentStatus, newStatus);
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityChangedEvent.ORDER, orderId));
+        return savedOrder;
     }
     throw new OrderNotFoundException(orderId);
     }
 
     // Update entire order
+    @Transactional
     public Order updateOrder(Long orderId, Order updatedOrder) {
-        Optional<Order> orderOpt = orderRepository.findById(orderId);
+        Optional<Order> orderOpt = orderRepository.findByIdForUpdate(orderId);
         if (orderOpt.isPresent()) {
             Order order = orderOpt.get();
             // Update fields
             order.setCustomerName(updatedOrder.getCustomerName());
+            if (!Customer.normalizeEmail(updatedOrder.getCustomerEmail())
+                    .equals(Customer.normalizeEmail(order.getCustomerEmail()))) {
+                order.setCustomer(customerService.resolveCustomer(updatedOrder.getCustomerEmail()));
+            }
             order.setCustomerEmail(updatedOrder.getCustomerEmail());
             order.setCustomerPhone(updatedOrder.getCustomerPhone());
             order.setDeliveryAddress(updatedOrder.getDeliveryAddress());
@@ -78,15 +133,29 @@ public class OrderService {
             order.setDeliveryDate(updatedOrder.getDeliveryDate());
             order.setSpecialNotes(updatedOrder.getSpecialNotes());
             
-            return orderRepository.save(order);
+            Order savedOrder = orderRepository.save(order);
+            // Moves the booking to the new delivery slot and quantity, or fails if they do not fit
+            capacityCalendar.ifAvailable(calendar -> calendar.reserve(savedOrder));
+            stockLedger.ifAvailable(ledger -> ledger.rebook(savedOrder));
+            eventPublisher.publishEvent(new EntityChangedEvent(EntityChangedEvent.ORDER, orderId));
+            return savedOrder;
         }
         throw new OrderNotFoundException(orderId);
     }
 
-    // Delete order
+    // Delete order; its capacity and stock are given back once the deletion commits
+    // (a delivered order keeps the units it was sold, as in StockLedger.rebook)
+    @Transactional
     public void deleteOrder(Long orderId) {
-        if (orderRepository.existsById(orderId)) {
-            orderRepository.deleteById(orderId);
+        Optional<Order> orderOpt = orderRepository.findByIdForUpdate(orderId);
+        if (orderOpt.isPresent()) {
+            Order order = orderOpt.get();
+            if (order.getStatus() != OrderStatus.DELIVERED) {
+                stockLedger.ifAvailable(ledger -> ledger.release(orderId));
+            }
+            orderRepository.delete(order);
+            capacityCalendar.ifAvailable(calendar -> calendar.releaseAfterCommit(orderId));
+            eventPublisher.publishEvent(new EntityChangedEvent(EntityChangedEvent.ORDER, orderId));
         } else {
             throw new OrderNotFoundException(orderId);
         }
@@ -0,0 +1,169 @@
+package com.cakify.service;
+
+import com.cakify.config.ProductDetailProperties;
+import com.cakify.dto.ProductDetailResponse;
+import com.cakify.dto.ProductResponse;
+import com.cakify.dto.RatingStats;
+import com.cakify.dto.ReviewResponse;
+import com.cakify.entity.Product;
+import com.cakify.exception.ProductDetailUnavailableException;
+import com.cakify.repository.ProductRatingStatsRepository;
+import com.cakify.repository.ProductRepository;
+import com.cakify.repository.ReviewRepository;
+import com.cakify.stock.StockLedger;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the product page payload: the product, its newest reviews, rating stats and related
+ * products are loaded concurrently, so the response takes as long as the slowest section
+ * instead of the sum of all of them.
+ *
+ * Each request gets its own scope of virtual threads that never outlives it: sections still
+ * running at the deadline are interrupted and reported as missing, and a missing product
+ * cancels the rest. Every section is a single read in its own short transaction; nothing
+ * depends on a persistence context shared between threads.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductDetailService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductDetailService.class);
+
+    static final String PRODUCT = "product";
+    static final String REVIEWS = "reviews";
+    static final String RATING_STATS = "ratingStats";
+    static final String RELATED_PRODUCTS = "relatedProducts";
+
+    private static final ThreadFactory BRANCH_THREADS = Thread.ofVirtual().name("product-detail-", 0).factory();
+
+    private final ProductRepository productRepository;
+    private final ReviewRepository reviewRepository;
+    private final ProductRatingStatsRepository ratingStatsRepository;
+    private final ProductDetailProperties properties;
+    private final ObjectProvider<StockLedger> stockLedger;
+
+    /**
+     * @return empty when the product does not exist
+     * @throws ProductDetailUnavailableException when the product section fails or times out
+     */
+    public Optional<ProductDetailResponse> getProductDetail(Long productId) {
+        ExecutorService scope = Executors.newThreadPerTaskExecutor(BRANCH_THREADS);
+        try {
+            Future<Optional<Product>> product = scope.submit(() -> productRepository.findWithCategoryById(productId));
+            Future<List<ReviewResponse>> reviews = scope.submit(() -> newestReviews(productId));
+            Future<RatingStats> ratingStats = scope.submit(() -> ratingStats(productId));
+            Future<List<ProductResponse>> related = scope.submit(() -> relatedProducts(productId));
+
+            // One deadline for every section, measured from when they were all started
+            long deadline = System.nanoTime() + properties.getBranchTimeout().toNanos();
+            ProductDetailResponse detail = new ProductDetailResponse();
+
+            Optional<Product> found = await(PRODUCT, product, deadline, detail);
+            if (found == null) {
+                throw new ProductDetailUnavailableException("Product " + productId + " could not be loaded");
+            }
+            if (found.isEmpty()) {
+                // Let the other sections (lookups for an id with no rows) finish before answering,
+                // so no query for this request runs after the response
+                scope.close();
+                return Optional.empty();
+            }
+
+            detail.setRatingStats(await(RATING_STATS, ratingStats, deadline, detail));
+            detail.setReviews(await(REVIEWS, reviews, deadline, detail));
+            detail.setRelatedProducts(await(RELATED_PRODUCTS, related, deadline, detail));
+
+            RatingStats stats = detail.getRatingStats();
+            ProductResponse productResponse = withStock(ProductResponse.fromEntity(found.get()));
+            // Unknown rather than zero when the stats section is missing
+            productResponse.setAverageRating(stats != null ? stats.getAverageRating() : null);
+            productResponse.setReviewCount(stats != null ? stats.getReviewCount() : null);
+            detail.setProduct(productResponse);
+            return Optional.of(detail);
+        } finally {
+            // Interrupts whatever is still running (only sections that already missed the deadline)
+            scope.shutdownNow();
+        }
+    }
+
+    // Result of the section, or null (recorded in missingSections) when it failed or missed the deadline
+    private <T> T await(String section, Future<T> future, long deadline, ProductDetailResponse detail) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("Product detail section '{}' missed its {} ms deadline", section,
+                    properties.getBranchTimeout().toMillis());
+        } catch (ExecutionException e) {
+            log.warn("Product detail section '{}' failed", section, e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+        }
+        detail.getMissingSections().add(section);
+        return null;
+    }
+
+    private RatingStats ratingStats(Long productId) {
+        return ratingStatsRepository.findById(productId)
+                .map(RatingStats::fromEntity)
+                .orElseGet(RatingStats::empty);
+    }
+
+    private List<ReviewResponse> newestReviews(Long productId) {
+        return reviewRepository.findByProductIdOrderByCreatedAtDescIdDesc(productId,
+                        PageRequest.of(0, properties.getReviewPageSize()))
+                .stream()
+                .map(ReviewResponse::fromEntity)
+                .collect(Collectors.toList());
+    }
+
+    // Related products with their ratings: one query for the products, one grouped query for all ratings
+    private List<ProductResponse> relatedProducts(Long productId) {
+        List<Product> products = productRepository.findRelatedProducts(productId,
+                PageRequest.of(0, properties.getRelatedProductsLimit()));
+        if (products.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Object[]> ratings = new HashMap<>();
+        for (Object[] row : reviewRepository.getRatingStatsByProductIds(
+                products.stream().map(Product::getId).collect(Collectors.toList()))) {
+            ratings.put((Long) row[0], row);
+        }
+        return products.stream()
+                .map(product -> {
+                    Object[] row = ratings.get(product.getId());
+                    return withStock(row != null
+                            ? ProductResponse.fromEntity(product, (Double) row[1], (Long) row[2])
+                            : ProductResponse.fromEntity(product));
+                })
+                .collect(Collectors.toList());
+    }
+
+    private ProductResponse withStock(ProductResponse response) {
+        StockLedger ledger = stockLedger.getIfAvailable();
+        if (ledger != null && ledger.isSoldOut(Long.valueOf(response.getId()))) {
+            response.markOutOfStock();
+        }
+        return response;
+    }
+}
@@ -1,14 +1,21 @@
 package com.cakify.service;
 
 import com.cakify.dto.ProductResponse;
+import com.cakify.event.EntityChangedEvent;
 import com.cakify.entity.Category;
 import com.cakify.entity.Product;
 import com.cakify.repository.CategoryRepository;
+import com.cakify.repository.ProductRatingStatsRepository;
 import com.cakify.repository.ProductRepository;
 import com.cakify.repository.ReviewRepository;
+import com.cakify.stock.StockLedger;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Optional;
@@ -22,6 +29,11 @@ public class ProductService {
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final ReviewRepository reviewRepository;
+    private final ProductRatingStatsRepository ratingStatsRepository;
+    private final SingleFlight singleFlight;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectProvider<StockLedger> stockLedger;
 
     // Get all products with ratings
     public List<ProductResponse> getAllProducts() {
@@ -38,19 +50,26 @@ public class ProductService {
     }
 
     // Get available products only (for public)
+    // Concurrent callers share one load (see SingleFlight); they wait without a transaction of their own
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<ProductResponse> getAvailableProducts() {
-        List<Product> products = productRepository.findAvailableProducts();
-        return products.stream()
-                .map(this::mapToResponseWithRatings)
-                .collect(Collectors.toList());
+        return singleFlight.execute("products.available", () -> transactionTemplate.execute(status -> {
+            List<Product> products = productRepository.findAvailableProducts();
+            return products.stream()
+                    .map(this::mapToResponseWithRatings)
+                    .toList();
+        }));
     }
 
-    // Get featured products
+    // Get featured products (coalesced like getAvailableProducts)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<ProductResponse> getFeaturedProducts() {
-        List<Product> products = productRepository.findByFeaturedTrue();
-        return products.stream()
-                .map(this::mapToResponseWithRatings)
-                .collect(Collectors.toList());
+        return singleFlight.execute("products.featured", () -> transactionTemplate.execute(status -> {
+            List<Product> products = productRepository.findByFeaturedTrue();
+            return products.stream()
+                    .map(this::mapToResponseWithRatings)
+                    .toList();
+        }));
     }
 
     // Get products by category
@@ -82,6 +101,8 @@ public class ProductService {
         }
 
         Product savedProduct = productRepository.save(product);
+        // New rows change the cached product queries of every instance
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityChangedEvent.PRODUCT, savedProduct.getId()));
         return mapToResponseWithRatings(savedProduct);
     }
 
@@ -112,6 +133,7 @@ public class ProductService {
                     }
 
                     Product savedProduct = productRepository.save(existingProduct);
+                    eventPublisher.publishEvent(new EntityChangedEvent(EntityChangedEvent.PRODUCT, id));
                     return mapToResponseWithRatings(savedProduct);
                 });
     }
@@ -121,8 +143,10 @@ public class ProductService {
         if (productRepository.existsById(id)) {
             // Delete associated reviews
             reviewRepository.deleteByProductId(id);
+            ratingStatsRepository.deleteByProductId(id);
             // Delete product
             productRepository.deleteById(id);
+            eventPublisher.publishEvent(new EntityChangedEvent(EntityChangedEvent.PRODUCT, id));
             return true;
         }
         return false;
@@ -154,6 +178,12 @@ public class ProductService {
         Double averageRating = reviewRepository.getAverageRatingByProductId(product.getId())
                 .orElse(0.0);
         Long reviewCount = reviewRepository.countByProductId(product.getId());
-        return ProductResponse.fromEntity(product, averageRating, reviewCount);
+        ProductResponse response = ProductResponse.fromEntity(product, averageRating, reviewCount);
+        stockLedger.ifAvailable(ledger -> {
+            if (ledger.isSoldOut(product.getId())) {
+                response.markOutOfStock();
+            }
+        });
+        return response;
     }
 }
\ No newline at end of file
@@ -0,0 +1,224 @@
+package com.cakify.service;
+
+import com.cakify.config.PurchaseLedgerProperties;
+import com.cakify.dto.PurchaseBackfillReport;
+import com.cakify.entity.CustomerPurchaseId;
+import com.cakify.entity.Order;
+import com.cakify.entity.OrderItem;
+import com.cakify.repository.CustomerPurchaseRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.LongBinaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Verified-buyer checks against the customer_purchases ledger.
+ *
+ * Each instance keeps a Bloom filter of the ledger keys, so the common "never bought it" answer
+ * costs no query and every other answer is one primary-key lookup. Keys recorded here are added
+ * immediately; keys recorded by other instances are merged every bloom-filter-refresh-interval,
+ * which is the longest a new buyer can be refused by another instance.
+ */
+@Service
+@RequiredArgsConstructor
+public class PurchaseLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(PurchaseLedger.class);
+
+    // Rows are stamped with the transaction start time, so a refresh looks back past slow commits
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(2);
+
+    private final CustomerPurchaseRepository customerPurchaseRepository;
+    private final PurchaseLedgerProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    // ReentrantLock rather than synchronized: loading blocks on JDBC and must not pin virtual threads
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private final AtomicLong keysInFilter = new AtomicLong();
+
+    // Null until the first load completes (every check goes to the database meanwhile)
+    private volatile BloomFilter bloomFilter;
+    // Filter being built by a rebuild; new keys go to both so none is lost in the swap
+    private volatile BloomFilter pendingBloomFilter;
+    private volatile LocalDateTime loadedUpTo;
+
+    /**
+     * Has this customer received an order containing the product?
+     */
+    public boolean hasPurchased(String email, Long productId) {
+        if (email == null || email.isBlank() || productId == null) {
+            return false;
+        }
+        CustomerPurchaseId id = CustomerPurchaseId.of(email, productId);
+        BloomFilter filter = bloomFilter;
+        if (filter != null && !filter.mightContain(key(id))) {
+            return false;
+        }
+        return customerPurchaseRepository.existsById(id);
+    }
+
+    /**
+     * Record every product of an order that has just been delivered
+     * Runs in the caller's transaction, so the ledger changes together with the order status
+     */
+    @Transactional
+    public void recordDelivery(Order order) {
+        Set<Long> productIds = new LinkedHashSet<>();
+        if (order.getProductId() != null) {
+            productIds.add(order.getProductId());
+        }
+        for (OrderItem item : order.getOrderItems()) {
+            if (item.getProductId() != null) {
+                productIds.add(item.getProductId());
+            }
+        }
+        LocalDateTime purchasedAt = order.getDeliveryDate() != null ? order.getDeliveryDate() : LocalDateTime.now();
+        for (Long productId : productIds) {
+            recordPurchase(order.getCustomerEmail(), productId, order.getOrderId(), purchasedAt);
+        }
+    }
+
+    @Transactional
+    public void recordPurchase(String email, Long productId, Long orderId, LocalDateTime purchasedAt) {
+        CustomerPurchaseId id = CustomerPurchaseId.of(email, productId);
+        customerPurchaseRepository.insertIfAbsent(id.getEmailNormalized(), productId, orderId, purchasedAt);
+        // Added before commit: a rollback only leaves a false positive behind, which the lookup corrects
+        addToFilters(key(id));
+    }
+
+    /**
+     * Build the ledger from order history (live and archived delivered orders), one batch of
+     * backfill-batch-size orders per transaction, then reload the Bloom filter.
+     * Safe to re-run: known pairs are skipped.
+     */
+    public PurchaseBackfillReport backfill() {
+        long start = System.currentTimeMillis();
+        PurchaseBackfillReport report = new PurchaseBackfillReport();
+        report.setPurchasesFromOrders(backfillBatches(customerPurchaseRepository::findBatchEndOrderId,
+                customerPurchaseRepository::backfillFromOrders));
+        report.setPurchasesFromArchive(backfillBatches(customerPurchaseRepository::findBatchEndArchivedOrderId,
+                customerPurchaseRepository::backfillFromArchivedOrders));
+        rebuildBloomFilter();
+        report.setDurationMillis(System.currentTimeMillis() - start);
+        log.info("Purchase ledger backfill: {} pairs from orders, {} from the archive, in {} ms",
+                report.getPurchasesFromOrders(), report.getPurchasesFromArchive(), report.getDurationMillis());
+        return report;
+    }
+
+    // Keyset batches: order ids are time-ordered TSIDs, far too sparse to step through by range
+    private long backfillBatches(BiFunction<Long, Integer, Long> batchEnd, LongBinaryOperator copyBatch) {
+        long total = 0;
+        int batchSize = properties.getBackfillBatchSize();
+        long afterId = 0;
+        while (true) {
+            long after = afterId;
+            Long lastId = batchEnd.apply(after, batchSize);
+            if (lastId == null) {
+                return total;
+            }
+            Long copied = transactionTemplate.execute(status -> copyBatch.applyAsLong(after, lastId));
+            total += copied != null ? copied : 0;
+            afterId = lastId;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuildBloomFilter();
+    }
+
+    /**
+     * Replace the Bloom filter with one sized for the current ledger (twice its size, at least the minimum capacity)
+     */
+    public void rebuildBloomFilter() {
+        if (!properties.isBloomFilterEnabled()) {
+            return;
+        }
+        loadLock.lock();
+        try {
+            LocalDateTime startedAt = customerPurchaseRepository.currentDatabaseTime();
+            long capacity = Math.max(properties.getBloomFilterMinCapacity(), customerPurchaseRepository.count() * 2);
+            BloomFilter filter = new BloomFilter(capacity, properties.getBloomFilterFalsePositiveRate());
+            pendingBloomFilter = filter;
+            long loaded = load(customerPurchaseRepository::streamAllIds, filter);
+
+            keysInFilter.set(loaded);
+            bloomFilter = filter;
+            pendingBloomFilter = null;
+            loadedUpTo = startedAt;
+            log.info("Purchase Bloom filter loaded: {} keys, capacity {}", loaded, capacity);
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * Merge keys recorded by other instances since the last load; rebuilds once the filter is over capacity
+     */
+    @Scheduled(fixedDelayString = "${cakify.purchases.bloom-filter-refresh-interval:PT30S}",
+            initialDelayString = "${cakify.purchases.bloom-filter-refresh-interval:PT30S}")
+    public void refreshBloomFilter() {
+        BloomFilter filter = bloomFilter;
+        if (filter == null) {
+            return;
+        }
+        if (keysInFilter.get() > filter.getExpectedInsertions()) {
+            rebuildBloomFilter();
+            return;
+        }
+        loadLock.lock();
+        try {
+            LocalDateTime startedAt = customerPurchaseRepository.currentDatabaseTime();
+            LocalDateTime since = loadedUpTo.minus(REFRESH_OVERLAP);
+            keysInFilter.addAndGet(load(() -> customerPurchaseRepository.streamIdsRecordedAfter(since), filter));
+            loadedUpTo = startedAt;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private long load(Supplier<Stream<CustomerPurchaseId>> ids, BloomFilter filter) {
+        AtomicLong loaded = new AtomicLong();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<CustomerPurchaseId> stream = ids.get()) {
+                stream.forEach(id -> {
+                    filter.put(key(id));
+                    loaded.incrementAndGet();
+                });
+            }
+        });
+        return loaded.get();
+    }
+
+    private void addToFilters(String key) {
+        BloomFilter filter = bloomFilter;
+        if (filter != null) {
+            filter.put(key);
+            keysInFilter.incrementAndGet();
+        }
+        BloomFilter pending = pendingBloomFilter;
+        if (pending != null) {
+            pending.put(key);
+        }
+    }
+
+    private static String key(CustomerPurchaseId id) {
+        return id.getProductId() + ":" + id.getEmailNormalized();
+    }
+}
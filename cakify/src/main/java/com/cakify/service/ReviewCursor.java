@@ -0,0 +1,41 @@
+package com.cakify.service;
+
+import com.cakify.entity.Review;
+import com.cakify.enums.ReviewSort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position after the last review of a page: the sort key of that review plus its id as tie-breaker.
+ * Sent to clients as an opaque URL-safe token; the sort is part of it so a cursor cannot be replayed
+ * against the other ordering.
+ */
+record ReviewCursor(ReviewSort sort, int rating, LocalDateTime createdAt, long id) {
+
+    static ReviewCursor after(ReviewSort sort, Review review) {
+        return new ReviewCursor(sort, review.getRating(), review.getCreatedAt(), review.getId());
+    }
+
+    String encode() {
+        String value = sort + "|" + rating + "|" + createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ReviewCursor decode(String token, ReviewSort expectedSort) {
+        ReviewCursor cursor;
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+            cursor = new ReviewCursor(ReviewSort.valueOf(parts[0]), Integer.parseInt(parts[1]),
+                    LocalDateTime.parse(parts[2]), Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid review cursor");
+        }
+        if (cursor.sort() != expectedSort) {
+            throw new IllegalArgumentException("Review cursor was issued for sort=" + cursor.sort().name().toLowerCase());
+        }
+        return cursor;
+    }
+}
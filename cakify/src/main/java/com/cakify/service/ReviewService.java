@@ -1,16 +1,25 @@
 package com.cakify.service;
 
+import com.cakify.dto.RatingStats;
+import com.cakify.dto.ReviewPageResponse;
 import com.cakify.dto.ReviewRequest;
 import com.cakify.dto.ReviewResponse;
+import com.cakify.entity.Customer;
 import com.cakify.entity.Product;
+import com.cakify.entity.ProductRatingStats;
 import com.cakify.entity.Review;
-import com.cakify.repository.OrderRepository;
+import com.cakify.enums.ReviewSort;
+import com.cakify.metrics.BusinessMetrics;
+import com.cakify.repository.ProductRatingStatsRepository;
 import com.cakify.repository.ProductRepository;
 import com.cakify.repository.ReviewRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -19,13 +28,19 @@ import java.util.stream.Collectors;
 @Transactional
 public class ReviewService {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final ReviewRepository reviewRepository;
+    private final ProductRatingStatsRepository ratingStatsRepository;
     private final ProductRepository productRepository;
-    private final OrderRepository orderRepository;
+    private final PurchaseLedger purchaseLedger;
+    private final CustomerService customerService;
+    private final BusinessMetrics businessMetrics;
 
-    // Check if customer is a verified buyer (has completed order)
+    // Check if customer is a verified buyer (has a delivered order containing the product)
     public boolean isVerifiedBuyer(String email, Long productId) {
-        return orderRepository.existsByEmailAndProductIdAndStatus(email, productId);
+        return purchaseLedger.hasPurchased(email, productId);
     }
 
     // Add review (with verification)
@@ -36,11 +51,14 @@ public class ReviewService {
 
         // Verify buyer
         if (!isVerifiedBuyer(reviewRequest.getEmail(), productId)) {
-            throw new RuntimeException("Only verified buyers can leave reviews. You must have a completed order for this product.");
+            businessMetrics.reviewRejected(BusinessMetrics.REJECTED_NOT_VERIFIED_BUYER);
+            throw new RuntimeException("Only verified buyers can leave reviews. You must have a delivered order for this product.");
         }
 
-        // Check if user already reviewed this product
-        if (reviewRepository.findByProductIdAndEmail(productId, reviewRequest.getEmail()).isPresent()) {
+        // Check if user already reviewed this product (a verified buyer is a customer already)
+        Customer customer = customerService.resolveCustomer(reviewRequest.getEmail());
+        if (reviewRepository.existsByProductIdAndCustomerId(productId, customer.getId())) {
+            businessMetrics.reviewRejected(BusinessMetrics.REJECTED_ALREADY_REVIEWED);
             throw new RuntimeException("You have already reviewed this product");
         }
 
@@ -48,35 +66,72 @@ public class ReviewService {
         Review review = new Review();
         review.setProduct(product);
         review.setEmail(reviewRequest.getEmail());
+        review.setCustomer(customer);
         review.setRating(reviewRequest.getRating());
         review.setComment(reviewRequest.getComment());
 
-        Review savedReview = reviewRepository.save(review);
+        // Flushed now: the id is assigned in the application, createdAt only when the row is written
+        Review savedReview = reviewRepository.saveAndFlush(review);
+        updateRatingStats(productId, savedReview.getRating(), 1);
         return ReviewResponse.fromEntity(savedReview);
     }
 
-    // Get all reviews for a product
-    public List<ReviewResponse> getProductReviews(Long productId) {
-        // Verify product exists
-        if (!productRepository.existsById(productId)) {
-            throw new RuntimeException("Product not found with ID: " + productId);
+    // Get one page of a product's reviews; the first page (no cursor) also carries the rating stats
+    @Transactional(readOnly = true)
+    public ReviewPageResponse getProductReviews(Long productId, ReviewSort sort, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        // One row more than the page tells whether there is a next page
+        Pageable rows = PageRequest.of(0, pageSize + 1);
+
+        if (cursor != null && !cursor.isBlank()) {
+            ReviewCursor after = ReviewCursor.decode(cursor, sort);
+            List<Review> reviews = sort == ReviewSort.RATING
+                    ? reviewRepository.findTopRatedAfter(productId, after.rating(), after.createdAt(), after.id(), rows)
+                    : reviewRepository.findNewestAfter(productId, after.createdAt(), after.id(), rows);
+            return toPage(reviews, sort, pageSize, null);
         }
 
-        List<Review> reviews = reviewRepository.findByProductId(productId);
-        return reviews.stream()
-                .map(ReviewResponse::fromEntity)
-                .collect(Collectors.toList());
+        List<Object[]> firstPage = sort == ReviewSort.RATING
+                ? reviewRepository.findTopRatedWithStats(productId, rows)
+                : reviewRepository.findNewestWithStats(productId, rows);
+        if (firstPage.isEmpty()) {
+            // No stats row: the product has never been reviewed, or does not exist
+            if (!productRepository.existsById(productId)) {
+                throw new RuntimeException("Product not found with ID: " + productId);
+            }
+            return new ReviewPageResponse(new ArrayList<>(), null, RatingStats.empty());
+        }
+        RatingStats ratingStats = RatingStats.fromEntity((ProductRatingStats) firstPage.get(0)[0]);
+        List<Review> reviews = new ArrayList<>();
+        for (Object[] row : firstPage) {
+            if (row[1] != null) {
+                reviews.add((Review) row[1]);
+            }
+        }
+        return toPage(reviews, sort, pageSize, ratingStats);
     }
 
-    // Get average rating for a product
-    public Double getAverageRating(Long productId) {
-        return reviewRepository.getAverageRatingByProductId(productId)
-                .orElse(0.0);
+    private ReviewPageResponse toPage(List<Review> reviews, ReviewSort sort, int pageSize, RatingStats ratingStats) {
+        String nextCursor = null;
+        if (reviews.size() > pageSize) {
+            reviews = reviews.subList(0, pageSize);
+            nextCursor = ReviewCursor.after(sort, reviews.get(pageSize - 1)).encode();
+        }
+        List<ReviewResponse> page = reviews.stream()
+                .map(ReviewResponse::fromEntity)
+                .collect(Collectors.toList());
+        return new ReviewPageResponse(page, nextCursor, ratingStats);
     }
 
-    // Get review count for a product
-    public Long getReviewCount(Long productId) {
-        return reviewRepository.countByProductId(productId);
+    // Get rating stats (average, count and 1-5 star histogram) for a product
+    @Transactional(readOnly = true)
+    public RatingStats getRatingStats(Long productId) {
+        return ratingStatsRepository.findById(productId)
+                .map(RatingStats::fromEntity)
+                .orElseGet(RatingStats::empty);
     }
 
     // Get review by ID
@@ -88,10 +143,21 @@ public class ReviewService {
 
     // Delete review (admin only)
     public boolean deleteReview(Long reviewId) {
-        if (reviewRepository.existsById(reviewId)) {
-            reviewRepository.deleteById(reviewId);
-            return true;
+        return reviewRepository.findById(reviewId)
+                .map(review -> {
+                    reviewRepository.delete(review);
+                    updateRatingStats(review.getProduct().getId(), review.getRating(), -1);
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    // Keep the product's histogram in step with its reviews (same transaction as the review change)
+    private void updateRatingStats(Long productId, int rating, int delta) {
+        if (ratingStatsRepository.addRating(productId, rating, delta) == 0) {
+            // First review of the product: create its row, then count the rating
+            ratingStatsRepository.insertIfAbsent(productId);
+            ratingStatsRepository.addRating(productId, rating, delta);
         }
-        return false;
     }
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.cakify.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical concurrent reads: while a call for a key is running, further calls for the
+ * same key wait for its result instead of running the same queries again. Nothing is kept once the
+ * call finishes, so this is not a cache: a caller only ever receives a result whose computation was
+ * already running when it arrived.
+ *
+ * Every caller of a key receives the same result object, which must therefore be treated as
+ * read-only. Callers should not hold a transaction while they wait (the waiting would pin one
+ * pooled connection each); the loader opens its own.
+ */
+@Component
+public class SingleFlight {
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry registry;
+
+    public SingleFlight(MeterRegistry registry) {
+        this.registry = registry;
+        Gauge.builder("cakify.singleflight.in.flight", inFlight, ConcurrentHashMap::size)
+                .description("Keys with a coalesced call currently running")
+                .register(registry);
+    }
+
+    /**
+     * Run the loader, or wait for the run already in progress for this key
+     * Keys are fixed strings (they become metric tags)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> loader) {
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, call);
+        if (running != null) {
+            count(key, "coalesced");
+            return (T) await(running);
+        }
+
+        count(key, "executed");
+        T result;
+        try {
+            result = loader.get();
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, call);
+            call.completeExceptionally(e);
+            throw e;
+        }
+        // Removed before completing, so a caller arriving from now on starts a fresh run
+        inFlight.remove(key, call);
+        call.complete(result);
+        return result;
+    }
+
+    private static Object await(CompletableFuture<Object> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            // The leader's own exception, so waiting callers fail exactly as it did
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private void count(String key, String result) {
+        Counter.builder("cakify.singleflight.calls")
+                .description("Calls through single-flight; coalesced calls reused a running one")
+                .tag("key", key)
+                .tag("result", result)
+                .register(registry)
+                .increment();
+    }
+}
@@ -0,0 +1,7 @@
+package com.cakify.stock;
+
+/**
+ * Units of one product, as summed by ProductStockRepository and StockJournalRepository
+ */
+public record ProductQuantity(Long productId, Long quantity) {
+}
@@ -0,0 +1,66 @@
+package com.cakify.stock;
+
+import com.cakify.config.StockProperties;
+import com.cakify.repository.ProductStockRepository;
+import com.cakify.repository.StockJournalRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Folds the stock journal into product_stock.sold: one update per product per batch instead of one
+ * per order, so concurrent orders for the same product never queue on its stock row
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "cakify.stock", name = "enabled", matchIfMissing = true)
+public class StockJournalFlusher {
+
+    private static final Logger log = LoggerFactory.getLogger(StockJournalFlusher.class);
+
+    private final StockJournalRepository stockJournalRepository;
+    private final ProductStockRepository productStockRepository;
+    private final StockProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Flush every unflushed entry, one batch per transaction; returns the number of entries flushed
+     */
+    @Scheduled(fixedDelayString = "${cakify.stock.flush-interval:PT5S}",
+            initialDelayString = "${cakify.stock.flush-interval:PT5S}")
+    public int flush() {
+        int batchSize = properties.getFlushBatchSize();
+        int total = 0;
+        int flushed;
+        do {
+            flushed = transactionTemplate.execute(status -> flushBatch(batchSize));
+            total += flushed;
+        } while (flushed == batchSize);
+        if (total > 0) {
+            log.debug("Stock journal flushed: {} entries", total);
+        }
+        return total;
+    }
+
+    private int flushBatch(int batchSize) {
+        List<Long> ids = stockJournalRepository.lockUnflushedIds(batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (ProductQuantity sum : stockJournalRepository.sumByIdIn(ids)) {
+            if (sum.quantity() != 0) {
+                productStockRepository.addSold(sum.productId(), sum.quantity().intValue(), now);
+            }
+        }
+        stockJournalRepository.markFlushed(ids);
+        return ids.size();
+    }
+}
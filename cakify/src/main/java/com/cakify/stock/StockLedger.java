@@ -0,0 +1,367 @@
+package com.cakify.stock;
+
+import com.cakify.dto.ProductStockResponse;
+import com.cakify.entity.AvailabilityStatus;
+import com.cakify.entity.Order;
+import com.cakify.entity.OrderItem;
+import com.cakify.entity.ProductStock;
+import com.cakify.entity.StockJournalEntry;
+import com.cakify.enums.OrderStatus;
+import com.cakify.exception.OutOfStockException;
+import com.cakify.repository.ProductRepository;
+import com.cakify.repository.ProductStockRepository;
+import com.cakify.repository.StockJournalRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Stock of limited-quantity products, reserved without locks.
+ *
+ * Every limited product (one with a product_stock row) has an in-memory counter of the units left.
+ * Creating an order or adding items takes their units with compare-and-set, so orders never wait on
+ * each other or on a row lock, and a product can never go below zero; cancelling or deleting an order
+ * (or removing an item) gives them back once that commits. Each change is journaled (stock_journal)
+ * in the order's transaction, which makes it durable, and StockJournalFlusher folds the journal into
+ * product_stock in batches. Flushed entries stay while their order is open (they are what it holds);
+ * the retention job deletes them once the order is delivered, cancelled or gone.
+ * A product whose counter reaches zero is reported OUT_OF_STOCK.
+ *
+ * Counters are loaded before the application takes requests and reconciled with the tables every
+ * refresh-interval, which counts other instances' orders; until then, each instance enforces the
+ * limit against its own count. A reconcile never counts a unit twice as left: changes whose commit
+ * may or may not be in what it read are counted as taken until the next one.
+ */
+@Service
+@ConditionalOnProperty(prefix = "cakify.stock", name = "enabled", matchIfMissing = true)
+public class StockLedger implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(StockLedger.class);
+
+    private final ProductStockRepository productStockRepository;
+    private final StockJournalRepository stockJournalRepository;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Units left per limited product; a product keeps its counter object while it stays limited
+    private final ConcurrentMap<Long, AtomicInteger> remaining = new ConcurrentHashMap<>();
+    // Changes whose transaction has not completed yet
+    private final Set<StockChange> open = ConcurrentHashMap.newKeySet();
+    // Changes completed while a reconcile runs (null otherwise)
+    private volatile Set<StockChange> completedDuringReload;
+    // Only serializes reconciles; reservations never take it
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    public StockLedger(ProductStockRepository productStockRepository, StockJournalRepository stockJournalRepository,
+                       ProductRepository productRepository, TransactionTemplate transactionTemplate) {
+        this.productStockRepository = productStockRepository;
+        this.stockJournalRepository = stockJournalRepository;
+        this.productRepository = productRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        reload();
+    }
+
+    /**
+     * Take the units of a new order; throws OutOfStockException (and takes nothing) when a product has too few left
+     * Must run in the order's transaction: a rollback gives the units back
+     */
+    public void reserve(Order order) {
+        if (remaining.isEmpty()) {
+            return;
+        }
+        apply(order.getOrderId(), quantities(order));
+    }
+
+    /**
+     * Bring the units an order holds in line with its current quantities (order or its items changed)
+     * A cancelled order holds nothing and a delivered one keeps what it was sold
+     */
+    public void rebook(Order order) {
+        if (remaining.isEmpty() || order.getStatus() == OrderStatus.DELIVERED) {
+            return;
+        }
+        if (order.getStatus() == OrderStatus.CANCELLED) {
+            release(order.getOrderId());
+            return;
+        }
+        Map<Long, Integer> delta = quantities(order);
+        held(order.getOrderId()).forEach((productId, quantity) -> delta.merge(productId, -quantity, Integer::sum));
+        apply(order.getOrderId(), delta);
+    }
+
+    /**
+     * Give back the units an order holds once the current transaction commits (order cancelled or deleted)
+     */
+    public void release(Long orderId) {
+        if (remaining.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> delta = new TreeMap<>();
+        held(orderId).forEach((productId, quantity) -> delta.put(productId, -quantity));
+        apply(orderId, delta);
+    }
+
+    /**
+     * Has a limited product no units left?
+     */
+    public boolean isSoldOut(Long productId) {
+        AtomicInteger counter = remaining.get(productId);
+        return counter != null && counter.get() <= 0;
+    }
+
+    public Optional<ProductStockResponse> getStock(Long productId) {
+        return productStockRepository.findById(productId).map(this::toResponse);
+    }
+
+    /**
+     * Limit a product to `stock` units in total (or change its limit; raising it restocks)
+     * Empty when the product does not exist
+     */
+    public Optional<ProductStockResponse> setStock(Long productId, int stock) {
+        Optional<ProductStock> saved = transactionTemplate.execute(status -> {
+            if (!productRepository.existsById(productId)) {
+                return Optional.<ProductStock>empty();
+            }
+            ProductStock productStock = productStockRepository.findById(productId)
+                    .orElseGet(() -> new ProductStock(productId, 0, 0, null));
+            productStock.setStock(stock);
+            productStock.setUpdatedAt(LocalDateTime.now());
+            return Optional.of(productStockRepository.save(productStock));
+        });
+        if (saved.isEmpty()) {
+            return Optional.empty();
+        }
+        reload();
+        return saved.map(this::toResponse);
+    }
+
+    /**
+     * Make a product unlimited again; its journal entries are retired with the stock row
+     */
+    public boolean removeStock(Long productId) {
+        Boolean removed = transactionTemplate.execute(status -> {
+            if (!productStockRepository.existsById(productId)) {
+                return false;
+            }
+            productStockRepository.deleteById(productId);
+            stockJournalRepository.markFlushedByProductId(productId);
+            return true;
+        });
+        if (Boolean.TRUE.equals(removed)) {
+            reload();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Reconcile the counters with product_stock and the unflushed journal
+     */
+    @Scheduled(fixedDelayString = "${cakify.stock.refresh-interval:PT30S}",
+            initialDelayString = "${cakify.stock.refresh-interval:PT30S}")
+    public void reload() {
+        reloadLock.lock();
+        try {
+            Set<StockChange> completed = ConcurrentHashMap.newKeySet();
+            completedDuringReload = completed;
+            Map<Long, Integer> unitsLeft = new HashMap<>();
+            Map<Long, Integer> countedLeft = new HashMap<>();
+            Set<StockChange> unplaced;
+            try {
+                List<ProductQuantity> rows = transactionTemplate.execute(status -> productStockRepository.findUnitsLeft());
+                for (ProductQuantity row : rows) {
+                    unitsLeft.put(row.productId(), row.quantity().intValue());
+                }
+                // Counters first, then the open changes: a change is registered before it touches its counter
+                for (Long productId : unitsLeft.keySet()) {
+                    countedLeft.put(productId, remaining.computeIfAbsent(productId, id -> new AtomicInteger()).get());
+                }
+                unplaced = ConcurrentHashMap.newKeySet();
+                unplaced.addAll(open);
+            } finally {
+                completedDuringReload = null;
+            }
+            // Open now, or completed while the tables were read: maybe in what was read, maybe not
+            unplaced.addAll(completed);
+            for (StockChange change : unplaced) {
+                unitsLeft.computeIfPresent(change.productId(), (id, left) -> left - change.quantity());
+            }
+
+            unitsLeft.forEach((productId, left) -> remaining.get(productId).addAndGet(left - countedLeft.get(productId)));
+            remaining.keySet().retainAll(unitsLeft.keySet());
+            log.debug("Stock counters reconciled: {} limited products", unitsLeft.size());
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    // ========== HELPERS ==========
+
+    // Apply per-product unit changes: positive ones are taken now, negative ones given back after commit
+    private void apply(Long orderId, Map<Long, Integer> delta) {
+        List<StockChange> taken = new ArrayList<>();
+        List<StockChange> givenBack = new ArrayList<>();
+        List<StockJournalEntry> entries = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            for (Map.Entry<Long, Integer> entry : delta.entrySet()) {
+                Long productId = entry.getKey();
+                int quantity = entry.getValue();
+                AtomicInteger counter = remaining.get(productId);
+                if (counter == null || quantity == 0) {
+                    continue;
+                }
+                StockChange change = new StockChange(productId, counter, Math.abs(quantity));
+                open.add(change);
+                if (quantity < 0) {
+                    givenBack.add(change);
+                } else if (take(counter, quantity)) {
+                    taken.add(change);
+                } else {
+                    complete(change);
+                    throw new OutOfStockException(productId, quantity, Math.max(0, counter.get()));
+                }
+                entries.add(new StockJournalEntry(productId, orderId, quantity, now));
+            }
+        } catch (OutOfStockException e) {
+            taken.forEach(change -> change.counter().addAndGet(change.quantity()));
+            taken.forEach(this::complete);
+            givenBack.forEach(this::complete);
+            throw e;
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+        stockJournalRepository.saveAll(entries);
+        afterCompletion(committed -> {
+            for (StockChange change : taken) {
+                if (!committed) {
+                    change.counter().addAndGet(change.quantity());
+                }
+                complete(change);
+            }
+            for (StockChange change : givenBack) {
+                if (committed) {
+                    change.counter().addAndGet(change.quantity());
+                }
+                complete(change);
+            }
+        });
+    }
+
+    // Compare-and-set until the units are taken or too few are left
+    private static boolean take(AtomicInteger counter, int quantity) {
+        while (true) {
+            int left = counter.get();
+            if (left < quantity) {
+                return false;
+            }
+            if (counter.compareAndSet(left, left - quantity)) {
+                return true;
+            }
+        }
+    }
+
+    private void complete(StockChange change) {
+        Set<StockChange> completed = completedDuringReload;
+        if (completed != null) {
+            completed.add(change);
+        }
+        open.remove(change);
+    }
+
+    // Units per product: the order's items, or the single product it was placed for
+    private Map<Long, Integer> quantities(Order order) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        if (order.getOrderItems() != null && !order.getOrderItems().isEmpty()) {
+            for (OrderItem item : order.getOrderItems()) {
+                if (item.getProductId() != null && item.getQuantity() != null) {
+                    quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+                }
+            }
+        } else if (order.getProductId() != null && order.getQuantity() != null) {
+            quantities.put(order.getProductId(), order.getQuantity());
+        }
+        return quantities;
+    }
+
+    private Map<Long, Integer> held(Long orderId) {
+        Map<Long, Integer> held = new TreeMap<>();
+        for (ProductQuantity row : stockJournalRepository.sumByOrderId(orderId)) {
+            if (row.quantity() != 0) {
+                held.put(row.productId(), row.quantity().intValue());
+            }
+        }
+        return held;
+    }
+
+    private ProductStockResponse toResponse(ProductStock productStock) {
+        AtomicInteger counter = remaining.get(productStock.getProductId());
+        int left = counter != null ? Math.max(0, counter.get()) : 0;
+        return new ProductStockResponse(productStock.getProductId(), productStock.getStock(), left,
+                (left > 0 ? AvailabilityStatus.IN_STOCK : AvailabilityStatus.OUT_OF_STOCK).name());
+    }
+
+    private static void afterCompletion(Consumer<Boolean> action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    // A change in flight; compared by identity, so two equal quantities stay two changes
+    private static final class StockChange {
+
+        private final Long productId;
+        private final AtomicInteger counter;
+        private final int quantity;
+
+        StockChange(Long productId, AtomicInteger counter, int quantity) {
+            this.productId = productId;
+            this.counter = counter;
+            this.quantity = quantity;
+        }
+
+        Long productId() {
+            return productId;
+        }
+
+        AtomicInteger counter() {
+            return counter;
+        }
+
+        int quantity() {
+            return quantity;
+        }
+    }
+}
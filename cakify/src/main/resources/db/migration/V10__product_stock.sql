@@ -0,0 +1,28 @@
+-- Limited-quantity products. A product with a product_stock row sells at most `stock` units;
+-- every reservation and release is journaled in the order's transaction, and the journal is
+-- folded into `sold` in batches, so orders do not update (and lock) the stock row one by one.
+
+CREATE TABLE product_stock (
+    product_id BIGINT       NOT NULL PRIMARY KEY,
+    stock      INTEGER      NOT NULL CHECK (stock >= 0),
+    -- Units of the journal entries flushed so far; units left = stock - sold - unflushed entries
+    sold       INTEGER      NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT fk_product_stock_product FOREIGN KEY (product_id) REFERENCES products ON DELETE CASCADE
+);
+
+-- No foreign keys: entries outlive archived orders, and a flush must not wait on order rows
+CREATE TABLE stock_journal (
+    id         BIGINT       NOT NULL PRIMARY KEY,
+    product_id BIGINT       NOT NULL,
+    order_id   BIGINT       NOT NULL,
+    -- Units taken (positive) or given back (negative)
+    quantity   INTEGER      NOT NULL,
+    flushed    BOOLEAN      NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMP(6) NOT NULL
+);
+
+-- Flush batches and the units-left query only read unflushed entries (a few seconds' worth)
+CREATE INDEX idx_stock_journal_unflushed ON stock_journal (id) WHERE NOT flushed;
+-- Units an order holds, given back when it is cancelled
+CREATE INDEX idx_stock_journal_order_id ON stock_journal (order_id);
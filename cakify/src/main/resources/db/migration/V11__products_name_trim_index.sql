@@ -0,0 +1,4 @@
+-- Catalog import matches existing products by name ignoring case and surrounding whitespace,
+-- the same key it uses for duplicates within the file. Only the import used the lower(name) index.
+DROP INDEX idx_products_name_lower;
+CREATE INDEX idx_products_name_lower_trim ON products (lower(trim(name)));
@@ -0,0 +1,3 @@
+-- Catalog import looks categories up by lower(trim(name)), like products (V11). The lower(name)
+-- index stays for the case-insensitive lookups by exact name.
+CREATE INDEX idx_categories_name_lower_trim ON categories (lower(trim(name)));
@@ -0,0 +1,129 @@
+-- Baseline: the schema as previously generated by Hibernate from the entities.
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate)
+-- and only receive the migrations that follow.
+
+CREATE TABLE categories (
+    id   BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(50) NOT NULL UNIQUE,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE products (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name         VARCHAR(100)   NOT NULL,
+    description  TEXT,
+    price        NUMERIC(10, 2) NOT NULL,
+    category_id  BIGINT         NOT NULL,
+    image_url    VARCHAR(255),
+    featured     BOOLEAN        NOT NULL,
+    availability BOOLEAN        NOT NULL,
+    sizes        TEXT,
+    created_at   TIMESTAMP(6),
+    updated_at   TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE reviews (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    product_id BIGINT       NOT NULL,
+    email      VARCHAR(100) NOT NULL,
+    rating     INTEGER      NOT NULL CHECK ((rating >= 1) AND (rating <= 5)),
+    comment    TEXT,
+    created_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE orders (
+    order_id         BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id          BIGINT,
+    product_id       BIGINT,
+    customer_name    VARCHAR(100)   NOT NULL,
+    customer_email   VARCHAR(255)   NOT NULL,
+    customer_phone   VARCHAR(15),
+    delivery_address TEXT           NOT NULL,
+    total_amount     NUMERIC(10, 2) NOT NULL,
+    quantity         INTEGER        NOT NULL CHECK (quantity >= 1),
+    status           VARCHAR(255)   NOT NULL
+        CHECK (status IN ('PENDING', 'CONFIRMED', 'IN_PROGRESS', 'READY', 'DELIVERED', 'CANCELLED')),
+    order_date       TIMESTAMP(6)   NOT NULL,
+    delivery_date    TIMESTAMP(6),
+    special_notes    TEXT,
+    created_at       TIMESTAMP(6),
+    updated_at       TIMESTAMP(6),
+    PRIMARY KEY (order_id)
+);
+
+CREATE TABLE order_items (
+    order_item_id        BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    order_id             BIGINT         NOT NULL,
+    product_id           BIGINT         NOT NULL,
+    product_name         VARCHAR(200)   NOT NULL,
+    product_description  VARCHAR(1000),
+    unit_price           NUMERIC(10, 2) NOT NULL,
+    quantity             INTEGER        NOT NULL CHECK ((quantity <= 50) AND (quantity >= 1)),
+    total_price          NUMERIC(10, 2) NOT NULL,
+    special_instructions VARCHAR(500),
+    PRIMARY KEY (order_item_id)
+);
+
+CREATE TABLE inquiries (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name       VARCHAR(100) NOT NULL,
+    email      VARCHAR(100) NOT NULL,
+    message    TEXT         NOT NULL,
+    status     VARCHAR(20)  NOT NULL CHECK (status IN ('NEW', 'RESOLVED')),
+    reply      TEXT,
+    created_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE orders_archive (
+    order_id         BIGINT         NOT NULL,
+    user_id          BIGINT,
+    product_id       BIGINT,
+    customer_name    VARCHAR(100)   NOT NULL,
+    customer_email   VARCHAR(255)   NOT NULL,
+    customer_phone   VARCHAR(15),
+    delivery_address TEXT,
+    total_amount     NUMERIC(10, 2) NOT NULL,
+    quantity         INTEGER        NOT NULL,
+    status           VARCHAR(255)   NOT NULL
+        CHECK (status IN ('PENDING', 'CONFIRMED', 'IN_PROGRESS', 'READY', 'DELIVERED', 'CANCELLED')),
+    order_date       TIMESTAMP(6)   NOT NULL,
+    delivery_date    TIMESTAMP(6),
+    special_notes    TEXT,
+    created_at       TIMESTAMP(6),
+    updated_at       TIMESTAMP(6),
+    archived_at      TIMESTAMP(6)   NOT NULL,
+    PRIMARY KEY (order_id)
+);
+
+CREATE TABLE order_items_archive (
+    order_item_id        BIGINT         NOT NULL,
+    order_id             BIGINT         NOT NULL,
+    product_id           BIGINT         NOT NULL,
+    product_name         VARCHAR(200)   NOT NULL,
+    product_description  VARCHAR(1000),
+    unit_price           NUMERIC(10, 2) NOT NULL,
+    quantity             INTEGER        NOT NULL,
+    total_price          NUMERIC(10, 2) NOT NULL,
+    special_instructions VARCHAR(500),
+    PRIMARY KEY (order_item_id)
+);
+
+CREATE TABLE inquiries_archive (
+    id          BIGINT       NOT NULL,
+    name        VARCHAR(100) NOT NULL,
+    email       VARCHAR(100) NOT NULL,
+    message     TEXT         NOT NULL,
+    status      VARCHAR(20)  NOT NULL CHECK (status IN ('NEW', 'RESOLVED')),
+    reply       TEXT,
+    created_at  TIMESTAMP(6) NOT NULL,
+    archived_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- Constraint names match the ones Hibernate generated, so baselined and fresh databases agree
+ALTER TABLE products ADD CONSTRAINT FKog2rp4qthbtt2lfyhfo32lsw9 FOREIGN KEY (category_id) REFERENCES categories;
+ALTER TABLE reviews ADD CONSTRAINT FKpl51cejpw4gy5swfar8br9ngi FOREIGN KEY (product_id) REFERENCES products;
+ALTER TABLE order_items ADD CONSTRAINT FKbioxgbv59vetrxe0ejfubep1w FOREIGN KEY (order_id) REFERENCES orders;
@@ -0,0 +1,44 @@
+-- Indexes for the filters used by the repository queries.
+-- PostgreSQL does not index foreign keys automatically, so order_items(order_id),
+-- products(category_id) and reviews(product_id) had none until now.
+-- Substring searches (LIKE '%term%') are intentionally not covered: they need pg_trgm.
+
+-- orders
+CREATE INDEX idx_orders_customer_email ON orders (customer_email);
+CREATE INDEX idx_orders_customer_email_lower ON orders (lower(customer_email));
+CREATE INDEX idx_orders_status_order_date ON orders (status, order_date);
+CREATE INDEX idx_orders_order_date ON orders (order_date);
+CREATE INDEX idx_orders_user_id ON orders (user_id);
+CREATE INDEX idx_orders_product_id ON orders (product_id);
+-- Partial indexes for the open workflow states the dashboard polls; closed orders,
+-- which are the bulk of the table, are left out and stay small
+CREATE INDEX idx_orders_pending_order_date ON orders (order_date) WHERE status = 'PENDING';
+CREATE INDEX idx_orders_open_order_date ON orders (order_date)
+    WHERE status IN ('CONFIRMED', 'IN_PROGRESS', 'READY');
+
+-- order_items
+CREATE INDEX idx_order_items_order_id ON order_items (order_id);
+CREATE INDEX idx_order_items_product_id ON order_items (product_id);
+
+-- reviews
+CREATE INDEX idx_reviews_product_email ON reviews (product_id, email);
+CREATE INDEX idx_reviews_email ON reviews (email);
+CREATE INDEX idx_reviews_email_lower ON reviews (lower(email));
+
+-- inquiries
+CREATE INDEX idx_inquiries_status_created_at ON inquiries (status, created_at);
+CREATE INDEX idx_inquiries_created_at ON inquiries (created_at);
+CREATE INDEX idx_inquiries_email_lower_created_at ON inquiries (lower(email), created_at);
+CREATE INDEX idx_inquiries_new_created_at ON inquiries (created_at) WHERE status = 'NEW';
+
+-- products and categories
+CREATE INDEX idx_products_category_id ON products (category_id);
+CREATE INDEX idx_products_name_lower ON products (lower(name));
+CREATE INDEX idx_products_available ON products (id) WHERE availability = true;
+CREATE INDEX idx_products_featured ON products (id) WHERE featured = true;
+CREATE INDEX idx_categories_name_lower ON categories (lower(name));
+
+-- archive tables (read by customer and order)
+CREATE INDEX idx_orders_archive_customer_email_lower ON orders_archive (lower(customer_email));
+CREATE INDEX idx_order_items_archive_order_id ON order_items_archive (order_id);
+CREATE INDEX idx_inquiries_archive_email_lower ON inquiries_archive (lower(email));
@@ -0,0 +1,16 @@
+-- Ledger of (customer, product) pairs with at least one delivered order.
+-- Review verification is a primary-key lookup here instead of an orders/order_items join.
+-- Filled when an order is marked DELIVERED; history is loaded by the backfill job
+-- (POST /api/purchases/backfill).
+CREATE TABLE customer_purchases (
+    email_normalized VARCHAR(255) NOT NULL,
+    product_id       BIGINT       NOT NULL,
+    -- First delivered order seen for the pair
+    order_id         BIGINT       NOT NULL,
+    purchased_at     TIMESTAMP(6) NOT NULL,
+    -- When the row was written; instances refresh their Bloom filters from it
+    recorded_at      TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (email_normalized, product_id)
+);
+
+CREATE INDEX idx_customer_purchases_recorded_at ON customer_purchases (recorded_at);
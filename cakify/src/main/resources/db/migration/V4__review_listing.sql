@@ -0,0 +1,39 @@
+-- Cursor-paged review listing and precomputed rating histograms.
+
+-- Keyset indexes for the two listing orders; scanned backwards for the DESC sorts,
+-- with id as the tie-breaker the cursor carries
+CREATE INDEX idx_reviews_product_created_at ON reviews (product_id, created_at, id);
+CREATE INDEX idx_reviews_product_rating_created_at ON reviews (product_id, rating, created_at, id);
+
+-- One row per reviewed product, updated in the same transaction as every review insert and delete,
+-- so the stats endpoint and the first review page read counts instead of aggregating reviews
+CREATE TABLE product_rating_stats (
+    product_id   BIGINT       NOT NULL,
+    stars_1      BIGINT       NOT NULL DEFAULT 0,
+    stars_2      BIGINT       NOT NULL DEFAULT 0,
+    stars_3      BIGINT       NOT NULL DEFAULT 0,
+    stars_4      BIGINT       NOT NULL DEFAULT 0,
+    stars_5      BIGINT       NOT NULL DEFAULT 0,
+    review_count BIGINT       NOT NULL DEFAULT 0,
+    -- Sum of all ratings; the average is rating_total / review_count
+    rating_total BIGINT       NOT NULL DEFAULT 0,
+    updated_at   TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (product_id)
+);
+
+ALTER TABLE product_rating_stats ADD CONSTRAINT fk_product_rating_stats_product
+    FOREIGN KEY (product_id) REFERENCES products ON DELETE CASCADE;
+
+INSERT INTO product_rating_stats (product_id, stars_1, stars_2, stars_3, stars_4, stars_5,
+                                  review_count, rating_total, updated_at)
+SELECT product_id,
+       COUNT(*) FILTER (WHERE rating = 1),
+       COUNT(*) FILTER (WHERE rating = 2),
+       COUNT(*) FILTER (WHERE rating = 3),
+       COUNT(*) FILTER (WHERE rating = 4),
+       COUNT(*) FILTER (WHERE rating = 5),
+       COUNT(*),
+       SUM(rating),
+       LOCALTIMESTAMP
+FROM reviews
+GROUP BY product_id;
@@ -0,0 +1,11 @@
+-- Log of cache invalidation notices (product:42, category:7, product:*).
+-- Every notice is also sent with NOTIFY cakify_invalidate in the same transaction; instances read
+-- this table only to catch up on notices sent while their listener connection was down.
+-- Rows older than cakify.invalidation.retention are deleted by the listeners.
+CREATE TABLE cache_invalidations (
+    version    BIGSERIAL    PRIMARY KEY,
+    payload    VARCHAR(100) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL DEFAULT LOCALTIMESTAMP
+);
+
+CREATE INDEX idx_cache_invalidations_created_at ON cache_invalidations (created_at);
@@ -0,0 +1,18 @@
+-- Idempotency-Key support for POST /api/orders.
+-- A row is inserted in the same transaction as the order it created, together with the response
+-- that was sent, so a retried request is answered from here instead of creating a second order.
+-- A concurrent retry on another instance blocks on the primary key until that transaction ends.
+CREATE TABLE order_idempotency_keys (
+    idempotency_key VARCHAR(100) NOT NULL,
+    -- SHA-256 of the request; a key reused with a different request is rejected
+    request_hash    VARCHAR(64)  NOT NULL,
+    order_id        BIGINT,
+    response_status INTEGER,
+    response_body   TEXT,
+    created_at      TIMESTAMP(6) NOT NULL,
+    expires_at      TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (idempotency_key)
+);
+
+-- Batched purge of expired keys
+CREATE INDEX idx_order_idempotency_keys_expires_at ON order_idempotency_keys (expires_at);
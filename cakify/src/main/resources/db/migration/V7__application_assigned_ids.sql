@@ -0,0 +1,10 @@
+-- Orders, order items, reviews and inquiries now get their ids from the application (TsidFactory:
+-- milliseconds since 2024-01-01 in the bits above bit 13), so Hibernate can batch their inserts.
+-- Existing rows keep their ids. An application id is at least 2^40 once its timestamp reaches
+-- 2^27 ms past the epoch (2024-01-02 13:16:57.728 UTC), which every id issued from now on is past,
+-- so capping the identity columns just below 2^40 keeps them from ever producing one: they stay
+-- only as a fallback for rows inserted with plain SQL, and old rows still sort before new ones.
+ALTER TABLE orders      ALTER COLUMN order_id      SET MAXVALUE 1099511627775;
+ALTER TABLE order_items ALTER COLUMN order_item_id SET MAXVALUE 1099511627775;
+ALTER TABLE reviews     ALTER COLUMN id            SET MAXVALUE 1099511627775;
+ALTER TABLE inquiries   ALTER COLUMN id            SET MAXVALUE 1099511627775;
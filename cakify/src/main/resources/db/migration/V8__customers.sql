@@ -0,0 +1,52 @@
+-- Customers as rows of their own, keyed by normalized email (trimmed, lower case).
+-- Orders, reviews and inquiries reference them by id, so a customer's history is an index lookup
+-- on an integer column instead of a case-insensitive scan of free-text emails. The emails as typed
+-- stay on the rows that carry them.
+CREATE TABLE customers (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    email_normalized VARCHAR(255) NOT NULL,
+    created_at       TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_customers_email_normalized UNIQUE (email_normalized)
+);
+
+-- Backfill: one customer per distinct normalized email, first seen at its oldest row
+INSERT INTO customers (email_normalized, created_at)
+SELECT email_normalized, MIN(first_seen)
+FROM (SELECT lower(trim(customer_email)) AS email_normalized, COALESCE(created_at, order_date) AS first_seen
+      FROM orders
+      UNION ALL
+      SELECT lower(trim(email)), created_at FROM reviews
+      UNION ALL
+      SELECT lower(trim(email)), created_at FROM inquiries) seen
+GROUP BY email_normalized;
+
+ALTER TABLE orders ADD COLUMN customer_id BIGINT;
+ALTER TABLE reviews ADD COLUMN customer_id BIGINT;
+ALTER TABLE inquiries ADD COLUMN customer_id BIGINT;
+
+UPDATE orders o SET customer_id = c.id FROM customers c WHERE c.email_normalized = lower(trim(o.customer_email));
+UPDATE reviews r SET customer_id = c.id FROM customers c WHERE c.email_normalized = lower(trim(r.email));
+UPDATE inquiries i SET customer_id = c.id FROM customers c WHERE c.email_normalized = lower(trim(i.email));
+
+ALTER TABLE orders ALTER COLUMN customer_id SET NOT NULL;
+ALTER TABLE reviews ALTER COLUMN customer_id SET NOT NULL;
+ALTER TABLE inquiries ALTER COLUMN customer_id SET NOT NULL;
+
+ALTER TABLE orders ADD CONSTRAINT fk_orders_customer FOREIGN KEY (customer_id) REFERENCES customers (id);
+ALTER TABLE reviews ADD CONSTRAINT fk_reviews_customer FOREIGN KEY (customer_id) REFERENCES customers (id);
+ALTER TABLE inquiries ADD CONSTRAINT fk_inquiries_customer FOREIGN KEY (customer_id) REFERENCES customers (id);
+
+-- History lookups (and the one-review-per-product check) by customer
+CREATE INDEX idx_orders_customer_id ON orders (customer_id);
+CREATE INDEX idx_reviews_customer_id ON reviews (customer_id);
+CREATE INDEX idx_reviews_product_customer ON reviews (product_id, customer_id);
+CREATE INDEX idx_inquiries_customer_created_at ON inquiries (customer_id, created_at);
+
+-- The email indexes served only those lookups; every write paid for them
+DROP INDEX idx_orders_customer_email;
+DROP INDEX idx_orders_customer_email_lower;
+DROP INDEX idx_reviews_product_email;
+DROP INDEX idx_reviews_email;
+DROP INDEX idx_reviews_email_lower;
+DROP INDEX idx_inquiries_email_lower_created_at;
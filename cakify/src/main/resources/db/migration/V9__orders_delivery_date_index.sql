@@ -0,0 +1,3 @@
+-- Capacity calendar: loads the bookings of today and later on startup and every refresh.
+-- Partial, since cancelled orders never take capacity
+CREATE INDEX idx_orders_delivery_date ON orders (delivery_date) WHERE status <> 'CANCELLED';
@@ -0,0 +1,288 @@
+package com.cakify.capacity;
+
+import com.cakify.config.CapacityProperties;
+import com.cakify.entity.Order;
+import com.cakify.exception.CapacityExceededException;
+import com.cakify.repository.OrderRepository;
+import com.cakify.service.OrderService;
+import com.cakify.support.QueryCountTestSupport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.cakify.support.QueryCountAssertions.assertStatementCount;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Delivery capacity: availability from the in-memory calendar, over-capacity orders refused
+ */
+class CapacityCalendarTest extends QueryCountTestSupport {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(3);
+
+    @Autowired
+    private CapacityCalendar capacityCalendar;
+
+    @Autowired
+    private CapacityProperties properties;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private int dailyLimit;
+    private int slotLimit;
+
+    @BeforeEach
+    void resetCalendar() {
+        dailyLimit = properties.getDailyLimit();
+        slotLimit = properties.getSlotLimit();
+        // Forget orders of earlier tests (their rows are gone)
+        capacityCalendar.rebuild();
+    }
+
+    @AfterEach
+    void restoreLimits() {
+        properties.setDailyLimit(dailyLimit);
+        properties.setSlotLimit(slotLimit);
+    }
+
+    @Test
+    void availabilityIsBuiltFromTheOrdersTable() throws Exception {
+        insertDelivery("PENDING", DAY.atTime(9, 30), 3);
+        insertDelivery("CONFIRMED", DAY.atTime(10, 0), 2);
+        insertDelivery("CANCELLED", DAY.atTime(10, 0), 4);
+        capacityCalendar.rebuild();
+
+        perform(get("/api/capacity").param("from", DAY.toString()).param("to", DAY.plusDays(1).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].date").value(DAY.toString()))
+                .andExpect(jsonPath("$[0].booked").value(5))
+                .andExpect(jsonPath("$[0].available").value(35))
+                .andExpect(jsonPath("$[0].slots.length()").value(12))
+                // 08:00-10:00 and 10:00-12:00
+                .andExpect(jsonPath("$[0].slots[4].booked").value(3))
+                .andExpect(jsonPath("$[0].slots[5].booked").value(2))
+                .andExpect(jsonPath("$[0].slots[5].available").value(8))
+                .andExpect(jsonPath("$[1].booked").value(0));
+
+        // Served from memory
+        assertStatementCount(0);
+    }
+
+    @Test
+    void invalidRangeIsRejected() throws Exception {
+        perform(get("/api/capacity").param("from", DAY.toString()).param("to", DAY.minusDays(1).toString()))
+                .andExpect(status().isBadRequest());
+        perform(get("/api/capacity").param("from", DAY.toString()).param("to", DAY.plusYears(1).toString()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void orderBeyondTheSlotLimitIsRefused() throws Exception {
+        properties.setSlotLimit(3);
+
+        postOrder(DAY.atTime(10, 0), 2).andExpect(status().isCreated());
+        postOrder(DAY.atTime(11, 30), 2)
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.errorCode").value("CAPACITY_EXCEEDED"));
+        // The next slot still has room
+        postOrder(DAY.atTime(12, 0), 2).andExpect(status().isCreated());
+
+        assertThat(countOrders()).isEqualTo(2);
+    }
+
+    @Test
+    void orderBeyondTheDailyLimitIsRefused() throws Exception {
+        properties.setDailyLimit(5);
+
+        postOrder(DAY.atTime(8, 0), 3).andExpect(status().isCreated());
+        postOrder(DAY.atTime(14, 0), 3).andExpect(status().isConflict());
+        postOrder(DAY.plusDays(1).atTime(14, 0), 3).andExpect(status().isCreated());
+
+        perform(get("/api/capacity").param("from", DAY.toString()).param("to", DAY.toString()))
+                .andExpect(jsonPath("$[0].available").value(2))
+                // Slots are capped by what is left of the day
+                .andExpect(jsonPath("$[0].slots[7].available").value(2));
+    }
+
+    @Test
+    void cancellingAnOrderReleasesItsCapacity() throws Exception {
+        properties.setSlotLimit(3);
+        long orderId = orderService.createOrder(newOrder("anna@example.com", DAY.atTime(10, 0), 3)).getOrderId();
+        postOrder(DAY.atTime(10, 0), 1).andExpect(status().isConflict());
+
+        perform(put("/api/orders/{id}/status", orderId).with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("\"CANCELLED\""))
+                .andExpect(status().isOk());
+
+        perform(get("/api/capacity").param("from", DAY.toString()).param("to", DAY.toString()))
+                .andExpect(jsonPath("$[0].slots[5].booked").value(0));
+        postOrder(DAY.atTime(10, 0), 3).andExpect(status().isCreated());
+    }
+
+    @Test
+    void reschedulingMovesTheBooking() {
+        properties.setSlotLimit(3);
+        Order order = orderService.createOrder(newOrder("anna@example.com", DAY.atTime(10, 0), 3));
+
+        Order moved = newOrder("anna@example.com", DAY.atTime(16, 0), 3);
+        orderService.updateOrder(order.getOrderId(), moved);
+        // The old slot is free again
+        orderService.createOrder(newOrder("ben@example.com", DAY.atTime(10, 0), 3));
+
+        // Moving onto a full slot fails and leaves the order where it was
+        Order full = newOrder("anna@example.com", DAY.atTime(10, 30), 3);
+        assertThatThrownBy(() -> orderService.updateOrder(order.getOrderId(), full))
+                .isInstanceOf(CapacityExceededException.class);
+        assertThat(jdbcTemplate.queryForObject("SELECT delivery_date FROM orders WHERE order_id = ?",
+                LocalDateTime.class, order.getOrderId())).isEqualTo(DAY.atTime(16, 0));
+    }
+
+    @Test
+    void concurrentOrdersNeverOverbookASlot() throws Exception {
+        properties.setSlotLimit(3);
+        int callers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        int created = 0;
+        int refused = 0;
+        try {
+            List<Future<Order>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                Order order = newOrder("customer" + i + "@example.com", DAY.atTime(10, 0), 1);
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return orderService.createOrder(order);
+                }));
+            }
+            start.countDown();
+
+            for (Future<Order> result : results) {
+                try {
+                    result.get();
+                    created++;
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(CapacityExceededException.class);
+                    refused++;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(created).isEqualTo(3);
+        assertThat(refused).isEqualTo(callers - 3);
+        assertThat(countOrders()).isEqualTo(3);
+    }
+
+    @Test
+    void reservationCommittedWhileARebuildReadsIsKept() throws Exception {
+        CountDownLatch queried = new CountDownLatch(1);
+        CountDownLatch committed = new CountDownLatch(1);
+        // The rebuild's query has run (without the open reservation) and waits for the commit
+        OrderRepository pausingRepository = (OrderRepository) Proxy.newProxyInstance(
+                OrderRepository.class.getClassLoader(), new Class<?>[] {OrderRepository.class}, (proxy, method, args) -> {
+                    Object result;
+                    try {
+                        result = method.invoke(orderRepository, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (method.getName().equals("findDeliveryBookingsFrom")) {
+                        queried.countDown();
+                        assertThat(committed.await(10, TimeUnit.SECONDS)).isTrue();
+                    }
+                    return result;
+                });
+        CapacityCalendar calendar = new CapacityCalendar(pausingRepository, properties, transactionTemplate);
+        Order order = newOrder("anna@example.com", DAY.atTime(10, 0), 3);
+        order.setOrderId(42L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            calendar.reserve(order);
+            Future<?> rebuild = executor.submit(calendar::rebuild);
+            assertThat(queried.await(10, TimeUnit.SECONDS)).isTrue();
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationManager.clearSynchronization();
+            synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            committed.countDown();
+            rebuild.get(10, TimeUnit.SECONDS);
+        } finally {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+            executor.shutdownNow();
+        }
+
+        assertThat(calendar.getAvailability(DAY, DAY).get(0).getBooked()).isEqualTo(3);
+    }
+
+    private ResultActions postOrder(LocalDateTime deliveryDate, int quantity) throws Exception {
+        return perform(post("/api/orders").with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"customerName": "Anna Perera", "customerEmail": "anna@example.com",
+                         "customerPhone": "0771234567", "deliveryAddress": "12 Main Street, Colombo",
+                         "totalAmount": 50.00, "quantity": %d, "deliveryDate": "%s"}
+                        """.formatted(quantity, deliveryDate)));
+    }
+
+    private void insertDelivery(String status, LocalDateTime deliveryDate, int quantity) {
+        long orderId = insertOrder("anna@example.com", status);
+        jdbcTemplate.update("UPDATE orders SET delivery_date = ?, quantity = ? WHERE order_id = ?",
+                deliveryDate, quantity, orderId);
+    }
+
+    private Order newOrder(String email, LocalDateTime deliveryDate, int quantity) {
+        Order order = new Order();
+        order.setCustomerName("Anna Perera");
+        order.setCustomerEmail(email);
+        order.setCustomerPhone("0771234567");
+        order.setDeliveryAddress("12 Main Street, Colombo");
+        order.setTotalAmount(new BigDecimal("50.00"));
+        order.setQuantity(quantity);
+        order.setDeliveryDate(deliveryDate);
+        return order;
+    }
+
+    private int countOrders() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Integer.class);
+    }
+}
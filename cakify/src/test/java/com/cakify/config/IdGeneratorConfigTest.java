@@ -0,0 +1,37 @@
+package com.cakify.config;
+
+import com.cakify.id.TsidFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A production instance refuses to start without its own node id.
+ */
+class IdGeneratorConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(IdGeneratorConfig.class);
+
+    @Test
+    void configuredNodeIsUsed() {
+        contextRunner.withPropertyValues("cakify.ids.node-id=7")
+                .run(context -> assertThat(context.getBean(TsidFactory.class).getNode()).isEqualTo(7));
+    }
+
+    @Test
+    void missingNodeIdFailsStartup() {
+        contextRunner.run(context -> assertThat(context).hasFailed()
+                .getFailure().rootCause().hasMessageContaining("cakify.ids.node-id"));
+    }
+
+    @Test
+    void devAndTestProfilesPickARandomNode() {
+        for (String profile : new String[] {"dev", "test"}) {
+            contextRunner.withPropertyValues("spring.profiles.active=" + profile)
+                    .run(context -> assertThat(context.getBean(TsidFactory.class).getNode())
+                            .isBetween(0, TsidFactory.MAX_NODE));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.cakify.config;
+
+import com.cakify.jdbc.ConnectionLimitingDataSource;
+import com.cakify.metrics.VirtualThreadPinningMonitor;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The virtual-thread mode bounds the DataSource to the pool size and starts the pinning monitor.
+ */
+@SpringBootTest(properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadConfigTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private VirtualThreadPinningMonitor pinningMonitor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void connectionsAreCappedAtThePoolSize() throws Exception {
+        ConnectionLimitingDataSource limited = dataSource.unwrap(ConnectionLimitingDataSource.class);
+        HikariConfigMXBean pool = DataSourceUnwrapper.unwrap(dataSource, HikariConfigMXBean.class,
+                HikariDataSource.class);
+
+        assertThat(limited).isNotNull();
+        assertThat(limited.getMaxConnections()).isEqualTo(pool.getMaximumPoolSize());
+        assertThat(new JdbcTemplate(dataSource).queryForObject("SELECT 1", Integer.class)).isEqualTo(1);
+        assertThat(limited.getWaitingThreads()).isZero();
+        assertThat(meterRegistry.find("cakify.jdbc.connections.waiting").gauge()).isNotNull();
+    }
+
+    @Test
+    void pinningMonitorIsRunning() {
+        assertThat(pinningMonitor.isRunning()).isTrue();
+    }
+}
@@ -0,0 +1,73 @@
+package com.cakify.controller;
+
+import com.cakify.support.QueryCountTestSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static com.cakify.support.QueryCountAssertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Query-count baselines for /api/archive.
+ */
+class ArchiveControllerQueryCountTest extends QueryCountTestSupport {
+
+    @BeforeEach
+    void createArchive() {
+        insertArchivedOrder(101L, "anna@example.com");
+        insertArchivedOrder(102L, "anna@example.com");
+        insertArchivedInquiry(201L, "anna@example.com");
+    }
+
+    @Test
+    void getArchivedOrders() throws Exception {
+        perform(get("/api/archive/orders")).andExpect(status().isOk());
+
+        assertReadOnly(1);
+    }
+
+    @Test
+    void getArchivedOrderById() throws Exception {
+        perform(get("/api/archive/orders/{id}", 101L)).andExpect(status().isOk());
+
+        assertReadOnly(1);
+    }
+
+    @Test
+    void getArchivedOrderItems() throws Exception {
+        perform(get("/api/archive/orders/{id}/items", 101L)).andExpect(status().isOk());
+
+        assertReadOnly(2);
+    }
+
+    @Test
+    void getArchivedOrdersByCustomerEmail() throws Exception {
+        perform(get("/api/archive/orders/customer/{email}", "Anna@example.com")).andExpect(status().isOk());
+
+        assertReadOnly(1);
+    }
+
+    @Test
+    void getArchivedInquiries() throws Exception {
+        perform(get("/api/archive/inquiries")).andExpect(status().isOk());
+
+        assertReadOnly(1);
+    }
+
+    @Test
+    void getArchivedInquiriesByEmail() throws Exception {
+        perform(get("/api/archive/inquiries/customer/{email}", "anna@example.com")).andExpect(status().isOk());
+
+        assertReadOnly(1);
+    }
+
+    @Test
+    void runRetentionWithNothingToArchive() throws Exception {
+        perform(post("/api/archive/run").with(csrf())).andExpect(status().isOk());
+
+        // one locking SELECT per policy that finds nothing
+        assertReadOnly(3);
+    }
+}
@@ -0,0 +1,73 @@
+package com.cakify.controller;
+
+import com.cakify.support.QueryCountTestSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import static com.cakify.support.QueryCountAssertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Query-count baselines for /api/categories.
+ */
+class CategoryControllerQueryCountTest extends QueryCountTestSupport {
+
+    private long cakes;
+
+    @BeforeEach
+    void createCategories() {
+        cakes = insertCategory("Cakes");
+        insertCategory("Cupcakes");
+        insertCategory("Cookies");
+    }
+
+    @Test
+    void getAllCategories() throws Exception {
+        perform(get("/api/categories")).andExpect(status().isOk());
+
+        assertReadOnly(1);
+    }
+
+    @Test
+    void getCategoryById() throws Exception {
+        perform(get("/api/categories/{id}", cakes)).andExpect(status().isOk());
+
+        assertReadOnly(1);
+    }
+
+    @Test
+    void createCategory() throws Exception {
+        perform(post("/api/categories").with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Tarts\"}"))
+                .andExpect(status().isCreated());
+
+        // duplicate-name check, then the insert
+        assertSelectCount(1);
+        assertInsertCount(1);
+    }
+
+    @Test
+    void updateCategory() throws Exception {
+        perform(put("/api/categories/{id}", cakes).with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Celebration Cakes\"}"))
+                .andExpect(status().isOk());
+
+        assertSelectCount(2);
+        assertUpdateCount(1);
+    }
+
+    @Test
+    void deleteCategory() throws Exception {
+        perform(delete("/api/categories/{id}", cakes).with(csrf()))
+                .andExpect(status().isNoContent());
+
+        // existsById, then deleteById loads the entity before removing it
+        assertSelectCount(2);
+        assertDeleteCount(1);
+    }
+}
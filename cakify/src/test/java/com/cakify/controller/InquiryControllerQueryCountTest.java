@@ -0,0 +1,142 @@
+package com.cakify.controller;
+
+import com.cakify.support.QueryCountTestSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.time.LocalDate;
+
+import static com.cakify.support.QueryCountAssertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Query-count baselines for /api/inquiries.
+ */
+class InquiryControllerQueryCountTest extends QueryCountTestSupport {
+
+    private long newInquiry;
+    private long resolvedInquiry;
+
+    @BeforeEach
+    void createInquiries() {
+        newInquiry = insertInquiry("anna@example.com", "NEW");
+        insertInquiry("anna@example.com", "NEW");
+        resolvedInquiry = insertInquiry("ben@example.com", "RESOLVED");
+    }
+
+    @Test
+    void createInquiry() throws Exception {
+        perform(post("/api/inquiries").with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"name": "Cara", "email": "cara@example.com", "message": "Do you deliver to Kandy?"}
+                        """))
+                .andExpect(status().isCreated());
+
+        // a new customer: looked up, inserted and read back
+        assertSelectCount(2);
+        assertInsertCount(1 + 1);
+    }
+
+    @Test
+    void getAllInquiries() throws Exception {
+        perform(get("/api/inquiries")).andExpect(status().isOk());
+
+        assertReadOnly(1);
+    }
+
+    @Test
+    void getInquiriesByStatusParam() throws Exception {
+        perform(get("/api/inquiries").param("status", "new")).andExpect(status().isOk());
+
+        assertReadOnly(1);
+    }
+
+    @Test
+    void getInquiryById() throws Exception {
+        perform(get("/api/inquiries/{id}", newInquiry)).andExpect(status().isOk());
+
+        assertReadOnly(1);
+    }
+
+    @Test
+    void replyToInquiry() throws Exception {
+        perform(put("/api/inquiries/{id}/reply", newInquiry).with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"reply\": \"Yes, every weekday.\"}"))
+                .andExpect(status().isOk());
+
+        assertSelectCount(1);
+        assertUpdateCount(1);
+    }
+
+    @Test
+    void searchInquiries() throws Exception {
+        perform(get("/api/inquiries/search").param("q", "eggless")).andExpect(status().isOk());
+
+        assertReadOnly(1);
+    }
+
+    @Test
+    void getInquiryStats() throws Exception {
+        perform(get("/api/inquiries/stats")).andExpect(status().isOk());
+
+        // total and new are each counted twice to derive "resolved"
+        assertReadOnly(4);
+    }
+
+    @Test
+    void exportInquiries() throws Exception {
+        LocalDate today = LocalDate.now();
+        perform(get("/api/inquiries/export")
+                .param("from", today.minusDays(1).toString())
+                .param("to", today.toString())
+                .param("format", "ndjson"))
+                .andExpect(status().isOk());
+
+        // one streamed query regardless of the number of rows
+        assertReadOnly(1);
+    }
+
+    @Test
+    void getInquiriesByEmail() throws Exception {
+        perform(get("/api/inquiries/customer/{email}", "ANNA@example.com")).andExpect(status().isOk());
+
+        assertReadOnly(1);
+    }
+
+    @Test
+    void deleteInquiry() throws Exception {
+        perform(delete("/api/inquiries/{id}", newInquiry).with(csrf()))
+                .andExpect(status().isNoContent());
+
+        assertSelectCount(2);
+        assertDeleteCount(1);
+    }
+
+    @Test
+    void reopenInquiry() throws Exception {
+        perform(put("/api/inquiries/{id}/reopen", resolvedInquiry).with(csrf()))
+                .andExpect(status().isOk());
+
+        assertSelectCount(1);
+        assertUpdateCount(1);
+    }
+
+    @Test
+    void getNewInquiries() throws Exception {
+        perform(get("/api/inquiries/new")).andExpect(status().isOk());
+
+        assertReadOnly(1);
+    }
+
+    @Test
+    void getResolvedInquiries() throws Exception {
+        perform(get("/api/inquiries/resolved")).andExpect(status().isOk());
+
+        assertReadOnly(1);
+    }
+}
@@ -0,0 +1,195 @@
+package com.cakify.controller;
+
+import com.cakify.support.QueryCountTestSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.time.LocalDate;
+
+import static com.cakify.support.QueryCountAssertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Query-count baselines for /api/orders.
+ *
+ * Orders are returned as entities, so Jackson initializes the lazy orderItems collection of
+ * every order in the response (open-in-view keeps the session open): one extra SELECT per order.
+ * Fixture: 3 orders for the same customer, each with 2 items.
+ */
+class OrderControllerQueryCountTest extends QueryCountTestSupport {
+
+    private static final String ORDER_JSON = """
+            {"customerName": "Anna Perera", "customerEmail": "anna@example.com",
+             "customerPhone": "0771234567", "deliveryAddress": "12 Main Street, Colombo",
+             "totalAmount": 50.00, "quantity": 2}
+            """;
+
+    private long pendingOrder;
+
+    @BeforeEach
+    void createOrders() {
+        long productId = insertProduct(insertCategory("Cakes"), "Chocolate Cake", false);
+        pendingOrder = insertOrder("anna@example.com", "PENDING");
+        long confirmed = insertOrder("anna@example.com", "CONFIRMED");
+        long delivered = insertOrder("anna@example.com", "DELIVERED");
+        for (long orderId : new long[] {pendingOrder, confirmed, delivered}) {
+            insertOrderItem(orderId, productId);
+            insertOrderItem(orderId, productId);
+        }
+    }
+
+    @Test
+    void createOrder() throws Exception {
+        perform(post("/api/orders").with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(ORDER_JSON))
+                .andExpect(status().isCreated());
+
+        // the customer (known from the fixture orders) by email
+        assertSelectCount(1);
+        assertInsertCount(1);
+    }
+
+    @Test
+    void getAllOrders() throws Exception {
+        perform(get("/api/orders")).andExpect(status().isOk());
+
+        assertReadOnly(1 + 3);
+    }
+
+    @Test
+    void exportOrders() throws Exception {
+        LocalDate today = LocalDate.now();
+        perform(get("/api/orders/export")
+                .param("from", today.minusDays(1).toString())
+                .param("to", today.toString()))
+                .andExpect(status().isOk());
+
+        // one streamed query regardless of the number of rows
+        assertReadOnly(1);
+    }
+
+    @Test
+    void getOrderById() throws Exception {
+        perform(get("/api/orders/{id}", pendingOrder)).andExpect(status().isOk());
+
+        assertReadOnly(1 + 1);
+    }
+
+    @Test
+    void getOrdersByStatus() throws Exception {
+        perform(get("/api/orders/status/{status}", "PENDING")).andExpect(status().isOk());
+
+        assertReadOnly(1 + 1);
+    }
+
+    @Test
+    void getOrdersByCustomerEmail() throws Exception {
+        // matched through the customer's normalized email, so the case of the address does not matter
+        perform(get("/api/orders/customer/{email}", "Anna@Example.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3));
+
+        // one join on customer_id, then the items of each order
+        assertReadOnly(1 + 3);
+    }
+
+    @Test
+    void updateOrderStatus() throws Exception {
+        perform(put("/api/orders/{id}/status", pendingOrder).with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("\"CONFIRMED\""))
+                .andExpect(status().isOk());
+
+        assertSelectCount(1 + 1);
+        assertUpdateCount(1);
+    }
+
+    @Test
+    void markOrderDelivered() throws Exception {
+        long productId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM products", Long.class);
+        long readyOrder = insertOrder("ben@example.com", "READY");
+        insertOrderItem(readyOrder, productId);
+        insertOrderItem(readyOrder, productId);
+
+        perform(put("/api/orders/{id}/status", readyOrder).with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("\"DELIVERED\""))
+                .andExpect(status().isOk());
+
+        // order + its items; one ledger row for the single distinct product
+        assertSelectCount(1 + 1);
+        assertUpdateCount(1);
+        assertInsertCount(1);
+    }
+
+    @Test
+    void updateOrder() throws Exception {
+        perform(put("/api/orders/{id}", pendingOrder).with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(ORDER_JSON))
+                .andExpect(status().isOk());
+
+        assertSelectCount(1 + 1);
+        assertUpdateCount(1);
+    }
+
+    @Test
+    void deleteOrder() throws Exception {
+        perform(delete("/api/orders/{id}", pendingOrder).with(csrf()))
+                .andExpect(status().isNoContent());
+
+        // the order (locked), then the items collection for the cascade
+        assertSelectCount(2);
+        // items are removed in one JDBC batch before the order
+        assertDeleteCount(1 + 1);
+    }
+
+    @Test
+    void getRecentOrders() throws Exception {
+        perform(get("/api/orders/recent")).andExpect(status().isOk());
+
+        assertReadOnly(1 + 3);
+    }
+
+    @Test
+    void searchOrdersByCustomerName() throws Exception {
+        perform(get("/api/orders/search").param("name", "test")).andExpect(status().isOk());
+
+        assertReadOnly(1 + 3);
+    }
+
+    @Test
+    void getOrderCountByStatus() throws Exception {
+        perform(get("/api/orders/count/{status}", "PENDING")).andExpect(status().isOk());
+
+        assertReadOnly(1);
+    }
+
+    @Test
+    void getAllOrdersPaginated() throws Exception {
+        perform(get("/api/orders/paginated").param("size", "2")).andExpect(status().isOk());
+
+        // page + total count + items of the 2 orders on the page
+        assertReadOnly(2 + 2);
+    }
+
+    @Test
+    void getOrdersByStatusPaginated() throws Exception {
+        perform(get("/api/orders/status/{status}/paginated", "CONFIRMED")).andExpect(status().isOk());
+
+        // a partial first page needs no count query
+        assertReadOnly(1 + 1);
+    }
+
+    @Test
+    void searchOrdersByCustomerNamePaginated() throws Exception {
+        perform(get("/api/orders/search/paginated").param("name", "test")).andExpect(status().isOk());
+
+        assertReadOnly(1 + 3);
+    }
+}
@@ -0,0 +1,104 @@
+package com.cakify.controller;
+
+import com.cakify.support.QueryCountTestSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import static com.cakify.support.QueryCountAssertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Query-count baselines for /api/order-items.
+ * Fixture: one order with 3 items of the same product.
+ */
+class OrderItemControllerQueryCountTest extends QueryCountTestSupport {
+
+    private static final String ITEM_JSON = """
+            {"productId": %d, "productName": "Chocolate Cake", "unitPrice": 25.00, "quantity": 3}
+            """;
+
+    private long productId;
+    private long orderId;
+    private long itemId;
+
+    @BeforeEach
+    void createOrderWithItems() {
+        productId = insertProduct(insertCategory("Cakes"), "Chocolate Cake", false);
+        orderId = insertOrder("anna@example.com", "PENDING");
+        itemId = insertOrderItem(orderId, productId);
+        insertOrderItem(orderId, productId);
+        insertOrderItem(orderId, productId);
+    }
+
+    @Test
+    void addItemToOrder() throws Exception {
+        perform(post("/api/order-items/order/{orderId}", orderId).with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(ITEM_JSON.formatted(productId)))
+                .andExpect(status().isCreated());
+
+        // order lookup, then its items to recalculate the total
+        assertSelectCount(2);
+        assertInsertCount(1);
+        assertUpdateCount(1);
+    }
+
+    @Test
+    void getItemsByOrderId() throws Exception {
+        perform(get("/api/order-items/order/{orderId}", orderId)).andExpect(status().isOk());
+
+        assertReadOnly(2);
+    }
+
+    @Test
+    void getOrderItemById() throws Exception {
+        perform(get("/api/order-items/{id}", itemId)).andExpect(status().isOk());
+
+        assertReadOnly(1);
+    }
+
+    @Test
+    void updateOrderItem() throws Exception {
+        perform(put("/api/order-items/{id}", itemId).with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(ITEM_JSON.formatted(productId)))
+                .andExpect(status().isOk());
+
+        // item, its lazy order, and the order's items to recalculate the total
+        assertSelectCount(3);
+        assertUpdateCount(2);
+    }
+
+    @Test
+    void deleteOrderItem() throws Exception {
+        perform(delete("/api/order-items/{id}", itemId).with(csrf()))
+                .andExpect(status().isNoContent());
+
+        assertSelectCount(3);
+        assertDeleteCount(1);
+    }
+
+    @Test
+    void getItemsByProductId() throws Exception {
+        perform(get("/api/order-items/product/{productId}", productId)).andExpect(status().isOk());
+
+        assertReadOnly(1);
+    }
+
+    @Test
+    void searchItemsByProductName() throws Exception {
+        perform(get("/api/order-items/search").param("productName", "chocolate")).andExpect(status().isOk());
+
+        assertReadOnly(1);
+    }
+
+    @Test
+    void getTotalQuantitySoldByProduct() throws Exception {
+        perform(get("/api/order-items/product/{productId}/total-sold", productId)).andExpect(status().isOk());
+
+        assertReadOnly(1);
+    }
+}
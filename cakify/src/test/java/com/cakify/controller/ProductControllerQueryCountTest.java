@@ -0,0 +1,258 @@
+package com.cakify.controller;
+
+import com.cakify.repository.ProductRatingStatsRepository;
+import com.cakify.support.QueryCountTestSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static com.cakify.support.QueryCountAssertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Query-count baselines for /api/products.
+ * Fixture: 3 products in 2 categories, one of them featured, 2 reviews on the first product.
+ */
+class ProductControllerQueryCountTest extends QueryCountTestSupport {
+
+    // Per product: average rating + review count (ProductService.mapToResponseWithRatings)
+    private static final int RATING_QUERIES_PER_PRODUCT = 2;
+
+    @Autowired
+    private ProductRatingStatsRepository ratingStatsRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private long cakes;
+    private long chocolateCake;
+
+    @BeforeEach
+    void createCatalog() {
+        cakes = insertCategory("Cakes");
+        long cupcakes = insertCategory("Cupcakes");
+        chocolateCake = insertProduct(cakes, "Chocolate Cake", true);
+        insertProduct(cakes, "Vanilla Cake", false);
+        insertProduct(cupcakes, "Red Velvet Cupcake", false);
+        insertReview(chocolateCake, "anna@example.com", 5);
+        insertReview(chocolateCake, "ben@example.com", 4);
+    }
+
+    @Test
+    void getAllProducts() throws Exception {
+        perform(get("/api/products")).andExpect(status().isOk());
+
+        // 1 list + ratings per product + 1 lazy category load per distinct category
+        assertReadOnly(1 + 3 * RATING_QUERIES_PER_PRODUCT + 2);
+    }
+
+    @Test
+    void getAvailableProducts() throws Exception {
+        perform(get("/api/products/available")).andExpect(status().isOk());
+
+        assertReadOnly(1 + 3 * RATING_QUERIES_PER_PRODUCT + 2);
+    }
+
+    @Test
+    void getFeaturedProducts() throws Exception {
+        perform(get("/api/products/featured")).andExpect(status().isOk());
+
+        assertReadOnly(1 + RATING_QUERIES_PER_PRODUCT + 1);
+    }
+
+    @Test
+    void getProductById() throws Exception {
+        perform(get("/api/products/{id}", chocolateCake)).andExpect(status().isOk());
+
+        assertReadOnly(1 + RATING_QUERIES_PER_PRODUCT + 1);
+    }
+
+    @Test
+    void getProductDetail() throws Exception {
+        perform(get("/api/products/{id}/detail", chocolateCake))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.product.reviewCount").value(2))
+                .andExpect(jsonPath("$.reviews.length()").value(2))
+                .andExpect(jsonPath("$.ratingStats.averageRating").value(4.5))
+                .andExpect(jsonPath("$.relatedProducts[0].name").value("Vanilla Cake"))
+                .andExpect(jsonPath("$.missingSections").isEmpty());
+
+        // product with category, review page, rating stats, related products, their ratings; run concurrently
+        assertReadOnly(5);
+    }
+
+    @Test
+    void getProductDetailForUnknownProduct() throws Exception {
+        perform(get("/api/products/{id}/detail", 999_999)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getProductsByCategory() throws Exception {
+        perform(get("/api/products/category/{categoryId}", cakes)).andExpect(status().isOk());
+
+        assertReadOnly(1 + 2 * RATING_QUERIES_PER_PRODUCT + 1);
+    }
+
+    @Test
+    void searchProducts() throws Exception {
+        perform(get("/api/products/search").param("q", "cake")).andExpect(status().isOk());
+
+        assertReadOnly(1 + 3 * RATING_QUERIES_PER_PRODUCT + 2);
+    }
+
+    @Test
+    void createProduct() throws Exception {
+        perform(post("/api/products").with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"name": "Lemon Tart", "price": 18.50, "categoryId": %d, "sizes": ["Small"]}
+                        """.formatted(cakes)))
+                .andExpect(status().isCreated());
+
+        // category lookup + ratings of the new product
+        assertSelectCount(1 + RATING_QUERIES_PER_PRODUCT);
+        assertInsertCount(1);
+        assertUpdateCount(0);
+    }
+
+    @Test
+    void updateProduct() throws Exception {
+        perform(put("/api/products/{id}", chocolateCake).with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"name": "Dark Chocolate Cake", "price": 30.00, "categoryId": %d, "featured": true}
+                        """.formatted(cakes)))
+                .andExpect(status().isOk());
+
+        // product + category lookups + ratings
+        assertSelectCount(2 + RATING_QUERIES_PER_PRODUCT);
+        assertUpdateCount(1);
+    }
+
+    @Test
+    void deleteProduct() throws Exception {
+        perform(delete("/api/products/{id}", chocolateCake).with(csrf()))
+                .andExpect(status().isNoContent());
+
+        // existsById, the reviews loaded by the derived deleteByProductId, findById,
+        // and the cascaded reviews collection (already empty)
+        assertSelectCount(4);
+        // reviews are deleted in one JDBC batch; the rating stats row in one statement
+        assertDeleteCount(1 + 1 + 1);
+    }
+
+    @Test
+    void importProductsFromCsvBody() throws Exception {
+        perform(post("/api/products/import").with(csrf())
+                .contentType("text/csv")
+                .content("""
+                        name,price,category
+                        Chocolate Cake,28.00,Cakes
+                        Lemon Tart,18.50,Cakes
+                        Blueberry Muffin,6.00,Cupcakes
+                        """))
+                .andExpect(status().isOk());
+
+        // categories and existing names are each fetched once per chunk of 1,000 rows;
+        // inserts and updates go out as one JDBC batch each
+        assertSelectCount(2);
+        assertInsertCount(1);
+        assertUpdateCount(1);
+    }
+
+    // ========== SECOND-LEVEL CACHE ==========
+
+    @Test
+    void repeatedProductLookupIsServedFromSecondLevelCache() throws Exception {
+        perform(get("/api/products/{id}", chocolateCake)).andExpect(status().isOk());
+        perform(get("/api/products/{id}", chocolateCake))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.categoryName").value("Cakes"));
+
+        // product and category come from memory; only the ratings are read
+        assertReadOnly(RATING_QUERIES_PER_PRODUCT);
+    }
+
+    @Test
+    void updatedProductIsServedFreshFromSecondLevelCache() throws Exception {
+        perform(get("/api/products/{id}", chocolateCake)).andExpect(status().isOk());
+        perform(put("/api/products/{id}", chocolateCake).with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"name": "Dark Chocolate Cake", "price": 30.00, "categoryId": %d}
+                        """.formatted(cakes)))
+                .andExpect(status().isOk());
+
+        // product and category lookups of the update hit the cache as well
+        assertSelectCount(RATING_QUERIES_PER_PRODUCT);
+
+        perform(get("/api/products/{id}", chocolateCake))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Dark Chocolate Cake"));
+        assertReadOnly(RATING_QUERIES_PER_PRODUCT);
+    }
+
+    @Test
+    void repeatedAvailableProductsAreServedFromQueryCache() throws Exception {
+        perform(get("/api/products/available")).andExpect(status().isOk());
+        perform(get("/api/products/available"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3));
+
+        // ids from the query cache, products and categories from the entity cache
+        assertReadOnly(3 * RATING_QUERIES_PER_PRODUCT);
+    }
+
+    @Test
+    void newProductInvalidatesCachedProductLists() throws Exception {
+        perform(get("/api/products/available")).andExpect(status().isOk());
+        perform(post("/api/products").with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"name": "Lemon Tart", "price": 18.50, "categoryId": %d}
+                        """.formatted(cakes)))
+                .andExpect(status().isCreated());
+
+        perform(get("/api/products/available"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(4));
+        // the list query runs again; categories are still cached
+        assertReadOnly(1 + 4 * RATING_QUERIES_PER_PRODUCT);
+    }
+
+    @Test
+    void catalogImportEvictsCachedProducts() throws Exception {
+        perform(get("/api/products/{id}", chocolateCake)).andExpect(status().isOk());
+        perform(get("/api/products/available")).andExpect(status().isOk());
+        perform(post("/api/products/import").with(csrf())
+                .contentType("text/csv")
+                .content("""
+                        name,price,category
+                        Chocolate Cake,28.00,Cakes
+                        """))
+                .andExpect(status().isOk());
+
+        // the import writes with JDBC, behind Hibernate's back
+        perform(get("/api/products/{id}", chocolateCake))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.price").value(28.00));
+        perform(get("/api/products/available"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.name == 'Chocolate Cake')].price").value(28.00));
+    }
+
+    @Test
+    void ratingUpdatesKeepCachedProducts() throws Exception {
+        perform(get("/api/products/{id}", chocolateCake)).andExpect(status().isOk());
+        // A native statement that declares its table; without that Hibernate clears every region
+        transactionTemplate.executeWithoutResult(status -> ratingStatsRepository.addRating(chocolateCake, 3, 1));
+
+        perform(get("/api/products/{id}", chocolateCake)).andExpect(status().isOk());
+        assertReadOnly(RATING_QUERIES_PER_PRODUCT);
+    }
+}
@@ -0,0 +1,168 @@
+package com.cakify.controller;
+
+import com.cakify.service.PurchaseLedger;
+import com.cakify.support.QueryCountTestSupport;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+
+import java.time.LocalDateTime;
+
+import static com.cakify.support.QueryCountAssertions.*;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Query-count baselines for /api/products/{productId}/reviews.
+ */
+class ReviewControllerQueryCountTest extends QueryCountTestSupport {
+
+    @Autowired
+    private PurchaseLedger purchaseLedger;
+
+    private long productId;
+    private long reviewId;
+
+    @BeforeEach
+    void createProductWithReviews() {
+        productId = insertProduct(insertCategory("Cakes"), "Chocolate Cake", false);
+        reviewId = insertReview(productId, "anna@example.com", 5);
+        insertReview(productId, "ben@example.com", 4);
+        insertReview(productId, "cara@example.com", 3);
+    }
+
+    @Test
+    void addReviewAsVerifiedBuyer() throws Exception {
+        // a verified buyer has ordered before, so the customer exists
+        insertCustomer("Dan@Example.com");
+        purchaseLedger.recordPurchase("Dan@Example.com", productId, 1L, LocalDateTime.now());
+
+        perform(post("/api/products/{productId}/reviews", productId).with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"email": "dan@example.com", "rating": 5, "comment": "Perfect"}
+                        """))
+                .andExpect(status().isCreated());
+
+        // product, ledger primary-key lookup, customer by email, duplicate-review check (by customer id);
+        // the histogram is incremented in place
+        assertSelectCount(4);
+        assertInsertCount(1);
+        assertUpdateCount(1);
+    }
+
+    @Test
+    void addReviewWithoutPurchase() throws Exception {
+        perform(post("/api/products/{productId}/reviews", productId).with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"email": "erin@example.com", "rating": 5, "comment": "Perfect"}
+                        """))
+                .andExpect(status().isForbidden());
+
+        // Only the product lookup: the Bloom filter rules out the purchase without a query
+        assertReadOnly(1);
+    }
+
+    @Test
+    void getProductReviews() throws Exception {
+        perform(get("/api/products/{productId}/reviews", productId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reviews.length()").value(3))
+                .andExpect(jsonPath("$.nextCursor").value(nullValue()))
+                .andExpect(jsonPath("$.ratingStats.reviewCount").value(3))
+                .andExpect(jsonPath("$.ratingStats.ratingCounts.5").value(1))
+                .andExpect(jsonPath("$.ratingStats.ratingCounts.1").value(0));
+
+        // First page and histogram in one query
+        assertReadOnly(1);
+    }
+
+    @Test
+    void getProductReviewsByCursor() throws Exception {
+        String firstPage = perform(get("/api/products/{productId}/reviews", productId).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reviews.length()").value(2))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = JsonPath.read(firstPage, "$.nextCursor");
+
+        perform(get("/api/products/{productId}/reviews", productId).param("limit", "2").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reviews.length()").value(1))
+                .andExpect(jsonPath("$.reviews[0].email").value("anna@example.com"))
+                .andExpect(jsonPath("$.nextCursor").value(nullValue()))
+                .andExpect(jsonPath("$.ratingStats").value(nullValue()));
+
+        assertReadOnly(1);
+    }
+
+    @Test
+    void getProductReviewsByRating() throws Exception {
+        insertReview(productId, "dan@example.com", 5);
+
+        String firstPage = perform(get("/api/products/{productId}/reviews", productId)
+                .param("sort", "rating").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reviews[0].email").value("dan@example.com"))
+                .andExpect(jsonPath("$.reviews[1].email").value("anna@example.com"))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = JsonPath.read(firstPage, "$.nextCursor");
+
+        perform(get("/api/products/{productId}/reviews", productId)
+                .param("sort", "rating").param("limit", "2").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reviews[0].rating").value(4))
+                .andExpect(jsonPath("$.reviews[1].rating").value(3));
+
+        // A cursor only fits the ordering it was issued for
+        perform(get("/api/products/{productId}/reviews", productId).param("cursor", cursor))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getReviewsForProductWithoutReviews() throws Exception {
+        long unreviewed = insertProduct(insertCategory("Cupcakes"), "Vanilla Cupcake", false);
+
+        perform(get("/api/products/{productId}/reviews", unreviewed))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reviews.length()").value(0))
+                .andExpect(jsonPath("$.ratingStats.reviewCount").value(0));
+
+        // No stats row, so the product's existence is checked
+        assertReadOnly(2);
+    }
+
+    @Test
+    void getReviewsWithInvalidCursor() throws Exception {
+        perform(get("/api/products/{productId}/reviews", productId).param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getReviewStats() throws Exception {
+        perform(get("/api/products/{productId}/reviews/stats", productId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.averageRating").value(4.0))
+                .andExpect(jsonPath("$.ratingCounts.4").value(1));
+
+        assertReadOnly(1);
+    }
+
+    @Test
+    void deleteReview() throws Exception {
+        perform(delete("/api/products/{productId}/reviews/{reviewId}", productId, reviewId).with(csrf()))
+                .andExpect(status().isNoContent());
+
+        assertSelectCount(1);
+        assertDeleteCount(1);
+        assertUpdateCount(1);
+        perform(get("/api/products/{productId}/reviews/stats", productId))
+                .andExpect(jsonPath("$.reviewCount").value(2))
+                .andExpect(jsonPath("$.ratingCounts.5").value(0));
+    }
+}
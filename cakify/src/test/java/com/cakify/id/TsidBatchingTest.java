@@ -0,0 +1,104 @@
+package com.cakify.id;
+
+import com.cakify.entity.Inquiry;
+import com.cakify.entity.Order;
+import com.cakify.entity.OrderItem;
+import com.cakify.repository.InquiryRepository;
+import com.cakify.repository.OrderRepository;
+import com.cakify.service.CustomerService;
+import com.cakify.support.QueryCountAssertions;
+import com.cakify.support.QueryCountTestSupport;
+import com.cakify.support.SqlStatementRecorder;
+import com.cakify.support.SqlStatementRecorder.RecordedStatement;
+import net.ttddyy.dsproxy.QueryType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * With application-assigned ids, the inserts of one flush go out as JDBC batches
+ * instead of one round trip per row
+ */
+class TsidBatchingTest extends QueryCountTestSupport {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private InquiryRepository inquiryRepository;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void orderItemsAreInsertedInOneBatch() {
+        Order order = newOrder();
+        for (int i = 0; i < 4; i++) {
+            order.addOrderItem(new OrderItem(order, 42L, "Chocolate Cake", new BigDecimal("12.50"), 2));
+        }
+
+        QueryCountAssertions.reset();
+        Order saved = transactionTemplate.execute(status -> {
+            order.setCustomer(customerService.resolveCustomer(order.getCustomerEmail()));
+            return orderRepository.save(order);
+        });
+
+        assertThat(saved.getOrderId()).isNotNull();
+        assertThat(saved.getOrderItems())
+                .allSatisfy(item -> assertThat(item.getOrderItemId()).isGreaterThan(saved.getOrderId()));
+        // the customer, the order, then all of its items
+        assertThat(inserts())
+                .extracting(RecordedStatement::batchSize)
+                .containsExactly(1, 1, 4);
+    }
+
+    @Test
+    void savedInquiriesAreInsertedInOneBatchInCreationOrder() {
+        List<Inquiry> inquiries = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Inquiry inquiry = new Inquiry();
+            inquiry.setName("Customer " + i);
+            inquiry.setEmail("customer" + i + "@example.com");
+            inquiry.setMessage("Do you deliver on Sundays?");
+            inquiries.add(inquiry);
+        }
+
+        QueryCountAssertions.reset();
+        List<Inquiry> saved = transactionTemplate.execute(status -> {
+            inquiries.forEach(inquiry -> inquiry.setCustomer(customerService.resolveCustomer(inquiry.getEmail())));
+            return inquiryRepository.saveAll(inquiries);
+        });
+
+        // ten new customers (one statement each: they are created as they are looked up), then the inquiries
+        assertThat(inserts()).extracting(RecordedStatement::batchSize).endsWith(10).hasSize(10 + 1);
+        assertThat(saved).extracting(Inquiry::getId).isSorted();
+    }
+
+    private static List<RecordedStatement> inserts() {
+        return SqlStatementRecorder.statements().stream()
+                .filter(statement -> statement.type() == QueryType.INSERT)
+                .toList();
+    }
+
+    private static Order newOrder() {
+        Order order = new Order();
+        order.setCustomerName("Anna Perera");
+        order.setCustomerEmail("anna@example.com");
+        order.setCustomerPhone("0771234567");
+        order.setDeliveryAddress("12 Main Street, Colombo");
+        order.setTotalAmount(new BigDecimal("100.00"));
+        order.setQuantity(8);
+        order.setOrderDate(LocalDateTime.now());
+        return order;
+    }
+}
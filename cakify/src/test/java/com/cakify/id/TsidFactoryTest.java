@@ -0,0 +1,88 @@
+package com.cakify.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TsidFactoryTest {
+
+    private final AtomicLong millis = new AtomicLong(Instant.parse("2026-06-01T12:00:00Z").toEpochMilli());
+
+    private final TsidFactory factory = new TsidFactory(5, new Clock() {
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis.get());
+        }
+    });
+
+    @Test
+    void idsCarryTheCreationTimeAndNode() {
+        long id = factory.nextId();
+
+        assertThat(TsidFactory.creationTime(id)).isEqualTo(Instant.ofEpochMilli(millis.get()));
+        assertThat((id >>> TsidFactory.COUNTER_BITS) & TsidFactory.MAX_NODE).isEqualTo(5);
+        // exact as a JavaScript number
+        assertThat(id).isLessThan(1L << 53);
+    }
+
+    @Test
+    void idsIncreaseWithinAMillisecondAndAcrossMilliseconds() {
+        long first = factory.nextId();
+        long second = factory.nextId();
+        millis.incrementAndGet();
+        long third = factory.nextId();
+
+        assertThat(second).isEqualTo(first + 1);
+        assertThat(third).isGreaterThan(second);
+    }
+
+    @Test
+    void exhaustedCounterBorrowsTheNextMillisecond() {
+        long last = 0;
+        for (int i = 0; i < 1 << TsidFactory.COUNTER_BITS; i++) {
+            last = factory.nextId();
+        }
+        long borrowed = factory.nextId();
+
+        assertThat(borrowed).isGreaterThan(last);
+        assertThat(TsidFactory.creationTime(borrowed)).isEqualTo(Instant.ofEpochMilli(millis.get() + 1));
+    }
+
+    @Test
+    void idsKeepIncreasingWhenTheClockGoesBack() {
+        long before = factory.nextId();
+        millis.addAndGet(-1_000);
+
+        assertThat(factory.nextId()).isGreaterThan(before);
+    }
+
+    @Test
+    void idsFromEveryNodeAreAboveTheCappedIdentityRange() {
+        // V7 caps the identity columns at 2^40 - 1
+        long earliest = new TsidFactory(0).nextId();
+
+        assertThat(earliest).isGreaterThan((1L << 40) - 1);
+    }
+
+    @Test
+    void nodeMustFitItsBits() {
+        assertThatThrownBy(() -> new TsidFactory(TsidFactory.MAX_NODE + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,150 @@
+package com.cakify.invalidation;
+
+import com.cakify.entity.Product;
+import com.cakify.repository.ProductRepository;
+import com.cakify.service.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * The invalidation bus end to end on PostgreSQL: notices reach the listener after commit, and
+ * notices sent while its connection was down are replayed from cache_invalidations.
+ * Requires Docker; skipped when it is not available.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "cakify.invalidation.enabled=true",
+        "cakify.invalidation.heartbeat-interval=100ms"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class InvalidationBusTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private InvalidationPublisher publisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Cache cache;
+    private long productId;
+
+    @BeforeEach
+    void createProduct() {
+        cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        awaitTrue(() -> connected() == 1, "listener connected");
+        jdbcTemplate.update("DELETE FROM products");
+        jdbcTemplate.update("DELETE FROM categories");
+        long categoryId = jdbcTemplate.queryForObject(
+                "INSERT INTO categories (name) VALUES ('Cakes') RETURNING id", Long.class);
+        productId = jdbcTemplate.queryForObject("""
+                INSERT INTO products (name, price, category_id, availability, featured, created_at, updated_at)
+                VALUES ('Chocolate Cake', 25.00, ?, TRUE, FALSE, LOCALTIMESTAMP, LOCALTIMESTAMP) RETURNING id
+                """, Long.class, categoryId);
+    }
+
+    @Test
+    void serviceWritesAreLoggedAndAnnounced() {
+        productService.deleteProduct(productId);
+
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT payload FROM cache_invalidations ORDER BY version DESC LIMIT 1", String.class))
+                .containsExactly("product:" + productId);
+    }
+
+    @Test
+    void noticeFromAnotherInstanceEvictsCachedProduct() {
+        cacheProduct();
+        double before = notices("notify");
+
+        // Another instance's write: the row changes behind this instance's cache
+        jdbcTemplate.update("UPDATE products SET name = 'Dark Chocolate Cake' WHERE id = ?", productId);
+        publisher.publish(InvalidationNotice.of("product", productId));
+
+        awaitTrue(() -> !cache.containsEntity(Product.class, productId), "product evicted");
+        assertThat(notices("notify")).isGreaterThan(before);
+        assertThat(productRepository.findById(productId)).get()
+                .extracting(Product::getName).isEqualTo("Dark Chocolate Cake");
+    }
+
+    @Test
+    void noticesMissedWhileDisconnectedAreReplayed() {
+        cacheProduct();
+        double before = notices("catch-up");
+
+        // The listener connection is the one whose last statement was a heartbeat, prune or LISTEN
+        jdbcTemplate.queryForList("SELECT pg_terminate_backend(pid) FROM pg_stat_activity "
+                + "WHERE query LIKE 'SELECT COALESCE(MAX(version)%' OR query LIKE 'DELETE FROM cache_invalidations%' "
+                + "OR query LIKE 'LISTEN%'");
+        awaitTrue(() -> connected() == 0, "listener disconnected");
+        // The listener waits a second before reconnecting
+        publisher.publish(InvalidationNotice.of("product", productId));
+
+        awaitTrue(() -> connected() == 1, "listener reconnected");
+        awaitTrue(() -> !cache.containsEntity(Product.class, productId), "product evicted");
+        assertThat(notices("catch-up")).isGreaterThan(before);
+    }
+
+    private void cacheProduct() {
+        productRepository.findById(productId);
+        assertThat(cache.containsEntity(Product.class, productId)).isTrue();
+    }
+
+    private double connected() {
+        return meterRegistry.get("cakify.invalidation.listener.connected").gauge().value();
+    }
+
+    private double notices(String source) {
+        return meterRegistry.get("cakify.invalidation.notices").tag("source", source).counter().count();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, String description) {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() - deadline > 0) {
+                fail("Timed out waiting for: " + description);
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("Interrupted waiting for: " + description);
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.cakify.invalidation;
+
+import com.cakify.support.QueryCountTestSupport;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static com.cakify.support.QueryCountAssertions.assertReadOnly;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * What a received notice does to this instance's caches. Rows are changed with JDBC, standing in
+ * for a write made by another instance.
+ */
+class LocalCacheInvalidatorTest extends QueryCountTestSupport {
+
+    // Per product: average rating + review count (ProductService.mapToResponseWithRatings)
+    private static final int RATING_QUERIES_PER_PRODUCT = 2;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private LocalCacheInvalidator invalidator;
+    private long cakes;
+    private long chocolateCake;
+
+    @BeforeEach
+    void createCatalog() {
+        invalidator = new LocalCacheInvalidator(entityManagerFactory.unwrap(SessionFactory.class));
+        cakes = insertCategory("Cakes");
+        chocolateCake = insertProduct(cakes, "Chocolate Cake", true);
+        insertProduct(cakes, "Vanilla Cake", false);
+    }
+
+    @Test
+    void productNoticeEvictsProductAndProductLists() throws Exception {
+        perform(get("/api/products/{id}", chocolateCake)).andExpect(status().isOk());
+        perform(get("/api/products/available")).andExpect(status().isOk());
+        jdbcTemplate.update("UPDATE products SET name = 'Dark Chocolate Cake' WHERE id = ?", chocolateCake);
+        jdbcTemplate.update("UPDATE products SET availability = FALSE WHERE name = 'Vanilla Cake'");
+
+        assertThat(invalidator.invalidate(InvalidationNotice.parse("product:" + chocolateCake))).isTrue();
+
+        perform(get("/api/products/{id}", chocolateCake))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Dark Chocolate Cake"));
+        perform(get("/api/products/available"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void productNoticeKeepsOtherCachedEntities() throws Exception {
+        long lemonTart = insertProduct(cakes, "Lemon Tart", false);
+        perform(get("/api/products/{id}", lemonTart)).andExpect(status().isOk());
+
+        invalidator.invalidate(InvalidationNotice.parse("product:" + chocolateCake));
+
+        perform(get("/api/products/{id}", lemonTart)).andExpect(status().isOk());
+        assertReadOnly(RATING_QUERIES_PER_PRODUCT);
+    }
+
+    @Test
+    void wildcardNoticeEvictsEveryProduct() throws Exception {
+        perform(get("/api/products/{id}", chocolateCake)).andExpect(status().isOk());
+        jdbcTemplate.update("UPDATE products SET name = 'Dark Chocolate Cake' WHERE id = ?", chocolateCake);
+
+        invalidator.invalidate(InvalidationNotice.parse("product:*"));
+
+        perform(get("/api/products/{id}", chocolateCake))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Dark Chocolate Cake"));
+    }
+
+    @Test
+    void categoryNoticeEvictsCategory() throws Exception {
+        perform(get("/api/categories/{id}", cakes)).andExpect(status().isOk());
+        jdbcTemplate.update("UPDATE categories SET name = 'Gateaux' WHERE id = ?", cakes);
+
+        invalidator.invalidate(InvalidationNotice.parse("category:" + cakes));
+
+        perform(get("/api/categories/{id}", cakes))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Gateaux"));
+    }
+
+    @Test
+    void unknownEntityIsIgnored() {
+        assertThat(invalidator.invalidate(InvalidationNotice.parse("wishlist:3"))).isFalse();
+    }
+
+    @Test
+    void malformedPayloadsAreRejected() {
+        assertThat(InvalidationNotice.parse("product")).isNull();
+        assertThat(InvalidationNotice.parse("product:")).isNull();
+        assertThat(InvalidationNotice.parse(":42")).isNull();
+        assertThat(InvalidationNotice.parse("product:abc")).isNull();
+        assertThat(InvalidationNotice.parse("product:42")).isEqualTo(InvalidationNotice.of("product", 42L));
+        assertThat(InvalidationNotice.all("product").toPayload()).isEqualTo("product:*");
+    }
+}
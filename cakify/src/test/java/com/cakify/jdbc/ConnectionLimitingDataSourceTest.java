@@ -0,0 +1,73 @@
+package com.cakify.jdbc;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class ConnectionLimitingDataSourceTest {
+
+    private JdbcDataSource h2;
+
+    @BeforeEach
+    void createDatabase() {
+        h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:connection-limit;DB_CLOSE_DELAY=-1");
+    }
+
+    @Test
+    void waitsForAClosedConnectionInsteadOfFailing() throws Exception {
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(h2, 1, Duration.ofSeconds(10));
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Connection first = dataSource.getConnection();
+            CompletableFuture<Boolean> second = CompletableFuture.supplyAsync(() -> {
+                try (Connection connection = dataSource.getConnection()) {
+                    return connection.isValid(1);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }, executor);
+
+            await().atMost(5, TimeUnit.SECONDS).until(() -> dataSource.getWaitingThreads() == 1);
+            assertThat(second).isNotDone();
+
+            first.close();
+            assertThat(second.get(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(dataSource.getWaitingThreads()).isZero();
+        }
+    }
+
+    @Test
+    void failsAfterTheAcquireTimeout() throws Exception {
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(h2, 1, Duration.ofMillis(50));
+        try (Connection ignored = dataSource.getConnection()) {
+            assertThatThrownBy(dataSource::getConnection)
+                    .isInstanceOf(SQLTransientConnectionException.class)
+                    .hasMessageContaining("within 50 ms");
+        }
+    }
+
+    @Test
+    void closingTwiceReturnsOnePermit() throws Exception {
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(h2, 1, Duration.ofMillis(50));
+        Connection connection = dataSource.getConnection();
+        connection.close();
+        connection.close();
+
+        try (Connection ignored = dataSource.getConnection()) {
+            // the single permit is taken again, so a second borrower must time out
+            assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.cakify.json;
+
+import com.cakify.dto.CategoryResponse;
+import com.cakify.dto.InquiryResponse;
+import com.cakify.dto.ProductResponse;
+import com.cakify.dto.ReviewResponse;
+import com.cakify.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The writers must produce exactly what reflective Jackson serialization produced
+ */
+class ResponseJsonWritersTest {
+
+    // Boot's ObjectMapper writes dates as ISO strings
+    private final ObjectMapper reflective = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final ObjectMapper writers = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .serializers(ResponseJsonWriters.all().toArray(JsonSerializer[]::new))
+            .build();
+
+    @Test
+    void productResponse() throws Exception {
+        assertSameJson(new ProductResponse("7", "Chocolate \"Fudge\" Cake", "Rich\nand dark",
+                new BigDecimal("4500.00"), "/images/cake.jpg", 3L, "Birthday Cakes",
+                Arrays.asList("1kg", null, "2kg"), true, "IN_STOCK", false, 4.25, 12L));
+        assertSameJson(new ProductResponse());
+    }
+
+    @Test
+    void inquiryResponse() throws Exception {
+        assertSameJson(new InquiryResponse("1", "Anna Perera", "anna@example.com", "Eggless cakes?",
+                "resolved", "Yes", "2024-05-17T14:32:05.123"));
+        assertSameJson(new InquiryResponse());
+    }
+
+    @Test
+    void reviewResponse() throws Exception {
+        assertSameJson(new ReviewResponse(5L, "anna@example.com", 4, "Lovely éclair",
+                LocalDateTime.of(2024, 5, 17, 14, 32, 5, 123_000_000)));
+        assertSameJson(new ReviewResponse(6L, "anna@example.com", 5, null, LocalDateTime.of(2024, 5, 17, 14, 0)));
+        assertSameJson(new ReviewResponse());
+    }
+
+    @Test
+    void categoryResponse() throws Exception {
+        assertSameJson(new CategoryResponse(3L, "Birthday Cakes"));
+        assertSameJson(new CategoryResponse());
+    }
+
+    @Test
+    void errorResponse() throws Exception {
+        assertSameJson(new ErrorResponse(404, "Not Found", "Product not found", "/api/products/9", "NOT_FOUND"));
+        ErrorResponse empty = new ErrorResponse();
+        empty.setTimestamp(null);
+        assertSameJson(empty);
+    }
+
+    @Test
+    void listsAndNestingUseTheWriters() throws Exception {
+        List<CategoryResponse> categories = List.of(new CategoryResponse(1L, "A"), new CategoryResponse(2L, "B"));
+        assertSameJson(categories);
+        assertSameJson(Map.of("reviews", List.of(new ReviewResponse(1L, "a@b.c", 3, "ok", null))));
+    }
+
+    private void assertSameJson(Object value) throws Exception {
+        assertThat(writers.writeValueAsString(value)).isEqualTo(reflective.writeValueAsString(value));
+    }
+}
@@ -0,0 +1,63 @@
+package com.cakify.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Orders are only counted once the transaction that created them commits.
+ */
+class BusinessMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final BusinessMetrics metrics = new BusinessMetrics(registry);
+
+    @BeforeEach
+    void beginTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void endTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void countsOrderAfterCommit() {
+        metrics.recordOrderCreation(() -> "order");
+        assertThat(ordersCreated()).isZero();
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        assertThat(ordersCreated()).isEqualTo(1);
+    }
+
+    @Test
+    void skipsOrderWhenRolledBack() {
+        metrics.recordOrderCreation(() -> "order");
+
+        TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertThat(ordersCreated()).isZero();
+        // the attempt is still timed
+        assertThat(registry.get("cakify.order.create").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void countsImmediatelyWithoutTransaction() {
+        TransactionSynchronizationManager.clearSynchronization();
+
+        metrics.recordOrderCreation(() -> "order");
+        assertThat(ordersCreated()).isEqualTo(1);
+    }
+
+    private double ordersCreated() {
+        return registry.get("cakify.orders.created").counter().count();
+    }
+}
@@ -0,0 +1,58 @@
+package com.cakify.metrics;
+
+import com.cakify.support.QueryCountTestSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.test.context.support.WithAnonymousUser;
+import org.springframework.security.test.context.support.WithMockUser;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Server-Timing is only sent to callers with the debug role who ask for it.
+ */
+class RequestTimingFilterTest extends QueryCountTestSupport {
+
+    private static final String DEBUG_HEADER = "X-Debug-Timing";
+
+    @BeforeEach
+    void createCategories() {
+        insertCategory("Cakes");
+        insertCategory("Cookies");
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void adminDebugRequestGetsServerTiming() throws Exception {
+        perform(get("/api/categories").header(DEBUG_HEADER, "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(RequestTimingFilter.SERVER_TIMING_HEADER,
+                        matchesPattern("db;dur=\\d+\\.\\d;desc=\"1 queries\", ser;dur=\\d+\\.\\d, "
+                                + "app;dur=\\d+\\.\\d, total;dur=\\d+\\.\\d")))
+                // the buffered body still reaches the client
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void noHeaderWithoutDebugRequest() throws Exception {
+        perform(get("/api/categories"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(RequestTimingFilter.SERVER_TIMING_HEADER));
+    }
+
+    @Test
+    @WithAnonymousUser
+    void noHeaderForCallersWithoutDebugRole() throws Exception {
+        perform(get("/api/categories").header(DEBUG_HEADER, "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(RequestTimingFilter.SERVER_TIMING_HEADER))
+                .andExpect(content().string(containsString("Cakes")));
+    }
+}
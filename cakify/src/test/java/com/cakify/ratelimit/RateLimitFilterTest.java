@@ -0,0 +1,67 @@
+package com.cakify.ratelimit;
+
+import com.cakify.support.QueryCountTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static com.cakify.support.QueryCountAssertions.assertStatementCount;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Public writes are limited per client address; a rejected request does no database work.
+ */
+@TestPropertySource(properties = {
+        "cakify.rate-limit.enabled=true",
+        "cakify.rate-limit.limits.inquiries.capacity=2",
+        "cakify.rate-limit.api-keys.partner-secret=partner"
+})
+class RateLimitFilterTest extends QueryCountTestSupport {
+
+    @Test
+    void rejectsBurstBeyondCapacityWithRetryAfter() throws Exception {
+        perform(inquiry("10.0.0.1")).andExpect(status().isCreated());
+        perform(inquiry("10.0.0.1")).andExpect(status().isCreated());
+
+        perform(inquiry("10.0.0.1"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "30"))
+                .andExpect(jsonPath("$.message").exists());
+        assertStatementCount(0);
+
+        // Other clients and other endpoints are unaffected
+        perform(inquiry("10.0.0.2")).andExpect(status().isCreated());
+        perform(get("/api/categories").with(request -> {
+            request.setRemoteAddr("10.0.0.1");
+            return request;
+        })).andExpect(status().isOk());
+    }
+
+    @Test
+    void knownApiKeyGetsItsOwnBucket() throws Exception {
+        perform(inquiry("10.0.0.3")).andExpect(status().isCreated());
+        perform(inquiry("10.0.0.3")).andExpect(status().isCreated());
+        perform(inquiry("10.0.0.3").header("X-Api-Key", "made-up")).andExpect(status().isTooManyRequests());
+
+        perform(inquiry("10.0.0.3").header("X-Api-Key", "partner-secret")).andExpect(status().isCreated());
+    }
+
+    private static MockHttpServletRequestBuilder inquiry(String remoteAddress) {
+        return post("/api/inquiries").with(csrf())
+                .with(request -> {
+                    request.setRemoteAddr(remoteAddress);
+                    return request;
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"name": "Cara", "email": "cara@example.com", "message": "Do you deliver to Kandy?"}
+                        """);
+    }
+}
@@ -0,0 +1,92 @@
+package com.cakify.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    // 3 requests per 3 seconds: a burst of 3, then one token back every second
+    private RateLimiter limiter(int maxClients) {
+        return new RateLimiter("test", 3, Duration.ofSeconds(3), maxClients, Duration.ofMinutes(1), clock::get);
+    }
+
+    @Test
+    void allowsBurstThenRefillsEvenly() {
+        RateLimiter limiter = limiter(100);
+
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+
+        advance(Duration.ofMillis(400));
+        assertThat(limiter.tryAcquire("a")).isEqualTo(TimeUnit.MILLISECONDS.toNanos(600));
+
+        advance(Duration.ofMillis(600));
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isPositive();
+    }
+
+    @Test
+    void clientsHaveSeparateBuckets() {
+        RateLimiter limiter = limiter(100);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("a");
+        }
+
+        assertThat(limiter.tryAcquire("a")).isPositive();
+        assertThat(limiter.tryAcquire("b")).isZero();
+    }
+
+    @Test
+    void idleBucketsNeverSaveUpMoreThanCapacity() {
+        RateLimiter limiter = limiter(100);
+        limiter.tryAcquire("a");
+
+        advance(Duration.ofHours(1));
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("a")).isZero();
+        }
+        assertThat(limiter.tryAcquire("a")).isPositive();
+    }
+
+    @Test
+    void sweepDropsRefilledBuckets() {
+        RateLimiter limiter = limiter(100);
+        limiter.tryAcquire("a");
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("b");
+        }
+
+        // "a" refills after 1s, "b" after 3s
+        advance(Duration.ofSeconds(2));
+        assertThat(limiter.getTrackedClients()).isEqualTo(2);
+        advance(Duration.ofMinutes(1).minusSeconds(1));
+        limiter.tryAcquire("c");
+
+        assertThat(limiter.getTrackedClients()).isEqualTo(1);
+    }
+
+    @Test
+    void clientsBeyondTheCapShareTheOverflowBucket() {
+        RateLimiter limiter = limiter(1);
+        limiter.tryAcquire("a");
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("client-" + i)).isZero();
+        }
+        assertThat(limiter.tryAcquire("another")).isPositive();
+        assertThat(limiter.getTrackedClients()).isEqualTo(1);
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+}
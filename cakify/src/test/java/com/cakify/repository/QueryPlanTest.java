@@ -0,0 +1,224 @@
+package com.cakify.repository;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs EXPLAIN for the SQL behind each repository query against the migrated PostgreSQL schema
+ * and fails when a query can only be answered with a sequential scan.
+ *
+ * Sequential scans are disabled for the session, so the planner picks an index whenever one is
+ * usable and a remaining "Seq Scan" means no index covers the filter.
+ * Queries that cannot use a B-tree index by design (LIKE '%term%', optional filters written as
+ * ":param IS NULL OR ...", unfiltered counts) are not listed.
+ *
+ * Keep this list in sync when adding or changing repository queries.
+ * Requires Docker; skipped when it is not available.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@Testcontainers(disabledWithoutDocker = true)
+@Sql(scripts = "/db/query-plan-seed.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+class QueryPlanTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    static Stream<Arguments> repositoryQueries() {
+        return Stream.of(
+                // OrderRepository
+                query("OrderRepository.findByStatus",
+                        "SELECT * FROM orders WHERE status = 'PENDING'"),
+                query("OrderRepository.findByCustomerEmailNormalized",
+                        "SELECT o.* FROM orders o JOIN customers c ON c.id = o.customer_id " +
+                                "WHERE c.email_normalized = 'customer7@example.com'"),
+                query("OrderRepository.findByUserId",
+                        "SELECT * FROM orders WHERE user_id = 42"),
+                query("OrderRepository.findByProductId",
+                        "SELECT * FROM orders WHERE product_id = 42"),
+                query("OrderRepository.findByOrderDateBetween",
+                        "SELECT * FROM orders WHERE order_date BETWEEN now() - interval '2 days' AND now()"),
+                query("OrderRepository.findByStatusAndUserId",
+                        "SELECT * FROM orders WHERE status = 'READY' AND user_id = 42"),
+                query("OrderRepository.findPendingOrdersOlderThan",
+                        "SELECT * FROM orders WHERE status = 'PENDING' AND order_date < now() - interval '1 day'"),
+                query("OrderRepository.countOrdersByStatus",
+                        "SELECT count(*) FROM orders WHERE status = 'CONFIRMED'"),
+                query("OrderRepository.findTop10ByOrderByOrderDateDesc",
+                        "SELECT * FROM orders ORDER BY order_date DESC LIMIT 10"),
+                query("OrderRepository.findByStatus(Pageable)",
+                        "SELECT * FROM orders WHERE status = 'IN_PROGRESS' ORDER BY order_date DESC LIMIT 20"),
+                query("OrderRepository.streamByOrderDateRange",
+                        "SELECT * FROM orders WHERE order_date >= now() - interval '7 days' AND order_date < now() " +
+                                "ORDER BY order_date, order_id"),
+                query("OrderRepository.lockClosedOrderIdsBefore",
+                        "SELECT order_id FROM orders WHERE status IN ('DELIVERED', 'CANCELLED') " +
+                                "AND order_date < now() - interval '365 days' ORDER BY order_id LIMIT 500 " +
+                                "FOR UPDATE SKIP LOCKED"),
+                query("OrderRepository.findDeliveryBookingsFrom",
+                        "SELECT order_id, delivery_date, quantity FROM orders " +
+                                "WHERE delivery_date >= current_date AND status <> 'CANCELLED'"),
+
+                // CustomerRepository
+                query("CustomerRepository.findByEmailNormalized",
+                        "SELECT * FROM customers WHERE email_normalized = 'customer7@example.com'"),
+
+                // OrderIdempotencyKeyRepository
+                query("OrderIdempotencyKeyRepository.deleteIfExpired",
+                        "DELETE FROM order_idempotency_keys WHERE idempotency_key = 'retry-1' AND expires_at < now()"),
+                query("OrderIdempotencyKeyRepository.deleteExpiredBatch",
+                        "DELETE FROM order_idempotency_keys WHERE idempotency_key IN (" +
+                                "SELECT idempotency_key FROM order_idempotency_keys WHERE expires_at < now() LIMIT 500)"),
+
+                // StockJournalRepository
+                query("StockJournalRepository.sumByOrderId",
+                        "SELECT product_id, sum(quantity) FROM stock_journal WHERE order_id = 42 GROUP BY product_id"),
+                query("StockJournalRepository.lockUnflushedIds",
+                        "SELECT id FROM stock_journal WHERE flushed = FALSE ORDER BY id LIMIT 500 FOR UPDATE SKIP LOCKED"),
+
+                // OrderItemRepository
+                query("OrderItemRepository.findByOrderOrderId",
+                        "SELECT * FROM order_items WHERE order_id = 42"),
+                query("OrderItemRepository.findByProductId",
+                        "SELECT * FROM order_items WHERE product_id = 42"),
+                query("OrderItemRepository.getTotalQuantitySoldByProduct",
+                        "SELECT sum(quantity) FROM order_items WHERE product_id = 42"),
+                query("OrderItemRepository.deleteByOrderIdIn",
+                        "DELETE FROM order_items WHERE order_id IN (1, 2, 3)"),
+
+                // CustomerPurchaseRepository
+                query("CustomerPurchaseRepository.existsById",
+                        "SELECT count(*) FROM customer_purchases " +
+                                "WHERE email_normalized = 'customer7@example.com' AND product_id = 42"),
+                query("CustomerPurchaseRepository.streamIdsRecordedAfter",
+                        "SELECT email_normalized, product_id FROM customer_purchases " +
+                                "WHERE recorded_at > now() - interval '1 minute'"),
+
+                // ReviewRepository
+                query("ReviewRepository.findNewestWithStats",
+                        "SELECT * FROM product_rating_stats s LEFT JOIN reviews r ON r.product_id = s.product_id " +
+                                "WHERE s.product_id = 42 ORDER BY r.created_at DESC, r.id DESC LIMIT 21"),
+                query("ReviewRepository.findTopRatedWithStats",
+                        "SELECT * FROM product_rating_stats s LEFT JOIN reviews r ON r.product_id = s.product_id " +
+                                "WHERE s.product_id = 42 ORDER BY r.rating DESC, r.created_at DESC, r.id DESC LIMIT 21"),
+                query("ReviewRepository.findNewestAfter",
+                        "SELECT * FROM reviews WHERE product_id = 42 AND (created_at, id) < (now(), 4000) " +
+                                "ORDER BY created_at DESC, id DESC LIMIT 21"),
+                query("ReviewRepository.findTopRatedAfter",
+                        "SELECT * FROM reviews WHERE product_id = 42 AND (rating, created_at, id) < (4, now(), 4000) " +
+                                "ORDER BY rating DESC, created_at DESC, id DESC LIMIT 21"),
+                query("ReviewRepository.findByCustomerEmailNormalized",
+                        "SELECT r.* FROM reviews r JOIN customers c ON c.id = r.customer_id " +
+                                "WHERE c.email_normalized = 'customer7@example.com'"),
+                query("ReviewRepository.existsByProductIdAndCustomerId",
+                        "SELECT id FROM reviews WHERE product_id = 42 AND customer_id = 8 LIMIT 1"),
+                query("ReviewRepository.countByProductId",
+                        "SELECT count(*) FROM reviews WHERE product_id = 42"),
+                query("ReviewRepository.getAverageRatingByProductId",
+                        "SELECT avg(rating) FROM reviews WHERE product_id = 42"),
+
+                // InquiryRepository
+                query("InquiryRepository.findByStatusOrderByCreatedAtDesc",
+                        "SELECT * FROM inquiries WHERE status = 'NEW' ORDER BY created_at DESC"),
+                query("InquiryRepository.findAllByOrderByCreatedAtDesc",
+                        "SELECT * FROM inquiries ORDER BY created_at DESC"),
+                query("InquiryRepository.findByCustomerEmailNormalizedOrderByCreatedAtDesc",
+                        "SELECT i.* FROM inquiries i JOIN customers c ON c.id = i.customer_id " +
+                                "WHERE c.email_normalized = 'customer7@example.com' ORDER BY i.created_at DESC"),
+                query("InquiryRepository.countNewInquiries",
+                        "SELECT count(*) FROM inquiries WHERE status = 'NEW'"),
+                query("InquiryRepository.findByCreatedAtAfterOrderByCreatedAtDesc",
+                        "SELECT * FROM inquiries WHERE created_at > now() - interval '1 day' ORDER BY created_at DESC"),
+                query("InquiryRepository.streamByCreatedAtRange",
+                        "SELECT * FROM inquiries WHERE created_at >= now() - interval '7 days' AND created_at < now() " +
+                                "ORDER BY created_at, id"),
+                query("InquiryRepository.lockResolvedInquiryIdsBefore",
+                        "SELECT id FROM inquiries WHERE status = 'RESOLVED' AND created_at < now() - interval '180 days' " +
+                                "ORDER BY id LIMIT 500 FOR UPDATE SKIP LOCKED"),
+
+                // ProductRepository
+                query("ProductRepository.findByCategoryId",
+                        "SELECT * FROM products WHERE category_id = 3"),
+                query("ProductRepository.findByCategoryNameIgnoreCase",
+                        "SELECT p.* FROM products p JOIN categories c ON c.id = p.category_id " +
+                                "WHERE lower(c.name) = lower('category 3')"),
+                query("ProductRepository.findAvailableProducts",
+                        "SELECT * FROM products WHERE availability = true"),
+                query("ProductRepository.findByFeaturedTrue",
+                        "SELECT * FROM products WHERE featured = true"),
+                query("ProductRepository.findIdsByLowerCaseNameIn",
+                        "SELECT id, lower(trim(name)) FROM products WHERE lower(trim(name)) IN ('cake 1', 'cake 2')"),
+
+                // CategoryRepository
+                query("CategoryRepository.findByNameIgnoreCase",
+                        "SELECT * FROM categories WHERE lower(name) = lower('Category 3')"),
+                query("CategoryRepository.findByLowerCaseNameIn",
+                        "SELECT * FROM categories WHERE lower(trim(name)) IN ('category 1', 'category 2')"),
+
+                // Archive repositories
+                query("ArchivedOrderRepository.findByCustomerEmailIgnoreCase",
+                        "SELECT * FROM orders_archive WHERE lower(customer_email) = lower('customer7@example.com')"),
+                query("ArchivedOrderItemRepository.findByOrderId",
+                        "SELECT * FROM order_items_archive WHERE order_id = 42"),
+                query("ArchivedInquiryRepository.findByEmailIgnoreCase",
+                        "SELECT * FROM inquiries_archive WHERE lower(email) = lower('customer7@example.com')")
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    void queryDoesNotFallBackToSequentialScan(String repositoryMethod, String sql) {
+        List<String> plan = explain(sql);
+
+        assertThat(plan)
+                .as("Plan for %s:%n%s", repositoryMethod, String.join(System.lineSeparator(), plan))
+                .noneMatch(line -> line.contains("Seq Scan"));
+    }
+
+    private List<String> explain(String sql) {
+        // SET LOCAL needs a transaction; run both statements on one connection inside it
+        return jdbcTemplate.execute((Connection connection) -> {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (var statement = connection.createStatement()) {
+                statement.execute("SET LOCAL enable_seqscan = off");
+                List<String> lines = new ArrayList<>();
+                try (var resultSet = statement.executeQuery("EXPLAIN " + sql)) {
+                    while (resultSet.next()) {
+                        lines.add(resultSet.getString(1));
+                    }
+                }
+                return lines;
+            } finally {
+                connection.rollback();
+                connection.setAutoCommit(autoCommit);
+            }
+        });
+    }
+
+    private static Arguments query(String repositoryMethod, String sql) {
+        return Arguments.of(repositoryMethod, sql);
+    }
+}
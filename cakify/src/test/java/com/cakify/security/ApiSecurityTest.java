@@ -0,0 +1,138 @@
+package com.cakify.security;
+
+import com.cakify.support.QueryCountTestSupport;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithAnonymousUser;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Route rules and token handling of the stateless API security, with real tokens rather than
+ * mock users. The admin account is configured in the test application.properties.
+ */
+@WithAnonymousUser
+class ApiSecurityTest extends QueryCountTestSupport {
+
+    private static final String PASSWORD = "cakify-admin";
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void createCatalog() {
+        long cakes = insertCategory("Cakes");
+        insertProduct(cakes, "Chocolate Cake", true);
+        insertOrder("anna@example.com", "PENDING");
+    }
+
+    @Test
+    void catalogReadsNeedNoToken() throws Exception {
+        perform(get("/api/products"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.SET_COOKIE));
+        perform(get("/api/categories")).andExpect(status().isOk());
+    }
+
+    @Test
+    void catalogReadsIgnoreBadTokens() throws Exception {
+        perform(get("/api/products").header(HttpHeaders.AUTHORIZATION, "Bearer not-a-token"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void customerWritesNeedNoToken() throws Exception {
+        perform(post("/api/inquiries")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"name": "Anna", "email": "anna@example.com", "message": "Do you deliver on Sundays?"}
+                        """))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void adminRoutesNeedToken() throws Exception {
+        perform(get("/api/orders"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string(HttpHeaders.WWW_AUTHENTICATE, startsWith("Bearer")));
+        perform(post("/api/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Lemon Tart\", \"price\": 18.50}"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void loginIssuesTokenForAdminRoutes() throws Exception {
+        JsonNode token = objectMapper.readTree(login("admin", PASSWORD)
+                .andExpect(status().isOk())
+                // Spring Security's default headers keep the token out of caches
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("no-store")))
+                .andExpect(jsonPath("$.tokenType").value("Bearer"))
+                .andExpect(jsonPath("$.expiresIn").value(3600))
+                .andReturn().getResponse().getContentAsString());
+
+        perform(get("/api/orders").header(HttpHeaders.AUTHORIZATION, "Bearer " + token.get("accessToken").asText()))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.SET_COOKIE));
+    }
+
+    @Test
+    void wrongCredentialsAreRejected() throws Exception {
+        login("admin", "not-the-password")
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.message").value("Invalid username or password"));
+        login("nobody", PASSWORD).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void tokenWithoutAdminRoleIsForbidden() throws Exception {
+        String token = tokenService.issue("clerk", List.of("USER")).value();
+
+        perform(get("/api/orders").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void tamperedTokenIsRejected() throws Exception {
+        String token = tokenService.issue("admin", List.of("ADMIN")).value();
+        String[] parts = token.split("\\.");
+        // Same header and signature, claims of a different user
+        String forged = parts[0] + "." + parts[1].substring(0, parts[1].length() - 2) + "x0." + parts[2];
+
+        perform(get("/api/orders").header(HttpHeaders.AUTHORIZATION, "Bearer " + forged))
+                .andExpect(status().isUnauthorized());
+    }
+
+    // Login answers asynchronously: the password is checked off the request thread
+    private ResultActions login(String username, String password) throws Exception {
+        MvcResult started = perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginFields(username, password))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started));
+    }
+
+    private record LoginFields(String username, String password) {
+    }
+}
@@ -0,0 +1,93 @@
+package com.cakify.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CachingJwtDecoderTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T12:00:00Z"));
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    // Stands in for signature check and parsing: "good" tokens expire in 10 minutes, others are rejected
+    private final JwtDecoder verifier = token -> {
+        verifications.incrementAndGet();
+        if (!token.startsWith("good")) {
+            throw new BadJwtException("bad signature");
+        }
+        Instant now = clock.instant();
+        if (token.endsWith("expired")) {
+            throw new BadJwtException("expired");
+        }
+        return Jwt.withTokenValue(token).header("alg", "HS256").subject("admin")
+                .issuedAt(now).expiresAt(now.plus(Duration.ofMinutes(10))).build();
+    };
+
+    private final CachingJwtDecoder decoder = new CachingJwtDecoder(verifier, 100, Duration.ofHours(1), clock);
+
+    @Test
+    void repeatedTokenIsVerifiedOnce() {
+        Jwt first = decoder.decode("good-1");
+        Jwt second = decoder.decode("good-1");
+
+        assertThat(second).isSameAs(first);
+        assertThat(verifications).hasValue(1);
+    }
+
+    @Test
+    void rejectedTokensAreNotCached() {
+        assertThatThrownBy(() -> decoder.decode("bad")).isInstanceOf(BadJwtException.class);
+        assertThatThrownBy(() -> decoder.decode("bad")).isInstanceOf(BadJwtException.class);
+
+        assertThat(verifications).hasValue(2);
+        assertThat(decoder.cachedTokens()).isZero();
+    }
+
+    @Test
+    void cachedTokenIsVerifiedAgainOnceExpired() {
+        decoder.decode("good-1");
+        clock.advance(Duration.ofMinutes(10));
+
+        decoder.decode("good-1");
+        assertThat(verifications).hasValue(2);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
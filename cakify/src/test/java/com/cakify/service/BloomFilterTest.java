@@ -0,0 +1,97 @@
+package com.cakify.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void everyKeyPutIsFound() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(key(i));
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain(key(i))).as(key(i)).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheTargetAtCapacity() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(key(i));
+        }
+
+        assertThat(falsePositiveRate(filter)).isLessThan(0.02);
+    }
+
+    @Test
+    void overfilledFilterLosesPrecision() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(key(i));
+        }
+
+        // Why PurchaseLedger rebuilds once the ledger outgrows the filter
+        assertThat(falsePositiveRate(filter)).isGreaterThan(0.5);
+    }
+
+    @Test
+    void sizeIsAtLeastOneKey() {
+        BloomFilter filter = new BloomFilter(0, 0.01);
+        filter.put("1:anna@example.com");
+
+        assertThat(filter.getExpectedInsertions()).isEqualTo(1);
+        assertThat(filter.mightContain("1:anna@example.com")).isTrue();
+    }
+
+    @Test
+    void concurrentPutsAreAllKept() throws Exception {
+        BloomFilter filter = new BloomFilter(40_000, 0.01);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int offset = t * 10_000;
+                writers.add(executor.submit(() -> {
+                    for (int i = offset; i < offset + 10_000; i++) {
+                        filter.put(key(i));
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int i = 0; i < 40_000; i++) {
+            assertThat(filter.mightContain(key(i))).as(key(i)).isTrue();
+        }
+    }
+
+    // Share of 100,000 keys never put that the filter claims to contain
+    private static double falsePositiveRate(BloomFilter filter) {
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("absent-" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+        return falsePositives / 100_000.0;
+    }
+
+    private static String key(int i) {
+        return (i % 500) + ":customer" + i + "@example.com";
+    }
+}
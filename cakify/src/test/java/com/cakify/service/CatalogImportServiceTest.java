@@ -0,0 +1,145 @@
+package com.cakify.service;
+
+import com.cakify.dto.CatalogImportReport;
+import com.cakify.support.QueryCountTestSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static com.cakify.support.QueryCountAssertions.assertSelectCount;
+import static com.cakify.support.QueryCountAssertions.reset;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Catalog import: CSV parsing, per-row validation, name matching and chunked processing
+ */
+class CatalogImportServiceTest extends QueryCountTestSupport {
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    private long cakes;
+
+    @BeforeEach
+    void createCategories() {
+        cakes = insertCategory("Cakes");
+        insertCategory("Cupcakes");
+    }
+
+    @Test
+    void quotedFieldsAreParsed() throws Exception {
+        CatalogImportReport report = importCsv("﻿Name,Price,Category,Description,Sizes\r\n"
+                + "\"Cake, \"\"Deluxe\"\"\",28.00, cakes ,\"Two layers\nof sponge\",\"Small, Large\"\r\n"
+                + "Muffin,6.00,Cupcakes,,Small|Medium\r\n");
+
+        assertThat(report.getCreated()).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForMap("SELECT name, description, sizes, category_id FROM products WHERE price = 28.00"))
+                .containsEntry("name", "Cake, \"Deluxe\"")
+                .containsEntry("description", "Two layers\nof sponge")
+                .containsEntry("sizes", "Small,Large")
+                .containsEntry("category_id", cakes);
+        assertThat(jdbcTemplate.queryForObject("SELECT sizes FROM products WHERE name = 'Muffin'", String.class))
+                .isEqualTo("Small,Medium");
+    }
+
+    @Test
+    void invalidRowsAreRejectedAndTheRestImported() throws Exception {
+        CatalogImportReport report = importCsv("""
+                name,price,category
+                Chocolate Cake,28.00,Cakes
+                Lemon Tart,free,Cakes
+                Cheesecake,-1,Cakes
+                Brownie,4.999,Cakes
+                Macaron,3.00,Pastries
+                ,5.00,Cakes
+
+                Red Velvet,30.00,Cakes
+                """);
+
+        assertThat(report.getTotalRows()).isEqualTo(7);
+        assertThat(report.getCreated()).isEqualTo(2);
+        assertThat(report.getRejected()).isEqualTo(5);
+        assertThat(report.getRows())
+                .extracting(CatalogImportReport.RowResult::getRow, CatalogImportReport.RowResult::getStatus,
+                        CatalogImportReport.RowResult::getMessage)
+                .containsExactly(
+                        tuple(1, "CREATED", null),
+                        tuple(2, "REJECTED", "Invalid price: free"),
+                        tuple(3, "REJECTED", "Product price must be greater than 0"),
+                        tuple(4, "REJECTED", "Price must have at most 2 decimal places"),
+                        tuple(5, "REJECTED", "Category not found: Pastries"),
+                        tuple(6, "REJECTED", "Product name is required"),
+                        tuple(7, "CREATED", null));
+    }
+
+    @Test
+    void existingProductsAndDuplicatesMatchIgnoringCaseAndWhitespace() throws Exception {
+        long existing = insertProduct(cakes, "  Chocolate Cake ", false);
+
+        CatalogImportReport report = importCsv("""
+                name,price,category
+                chocolate cake,28.00,Cakes
+                Lemon Tart,18.50,Cakes
+                " LEMON TART",19.00,Cakes
+                """);
+
+        assertThat(report.getUpdated()).isEqualTo(1);
+        assertThat(report.getCreated()).isEqualTo(1);
+        assertThat(report.getRows().get(2).getMessage()).isEqualTo("Duplicate of row 2");
+        assertThat(jdbcTemplate.queryForObject("SELECT name FROM products WHERE id = ?", String.class, existing))
+                .isEqualTo("chocolate cake");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products", Integer.class)).isEqualTo(2);
+    }
+
+    @Test
+    void largeFilesAreImportedInChunks() throws Exception {
+        StringBuilder csv = new StringBuilder("name,price,category\n");
+        for (int i = 1; i <= 2_500; i++) {
+            csv.append("Cake ").append(i).append(",10.00,").append(i % 2 == 0 ? "Cakes" : "Cupcakes").append('\n');
+        }
+        // Duplicates of rows in the first chunk, read in the third
+        csv.append("cake 1,10.00,Cakes\n").append("CAKE 1000,10.00,Cakes\n");
+
+        reset();
+        CatalogImportReport report = importCsv(csv.toString());
+
+        // Categories are looked up once (no new names after the first chunk), products once per chunk
+        assertSelectCount(1 + 3);
+        assertThat(report.getTotalRows()).isEqualTo(2_502);
+        assertThat(report.getCreated()).isEqualTo(2_500);
+        assertThat(report.getRejected()).isEqualTo(2);
+        assertThat(report.getRows().get(2_500).getRow()).isEqualTo(2_501);
+        assertThat(report.getRows().get(2_500).getMessage()).isEqualTo("Duplicate of row 1");
+        assertThat(report.getRows().get(2_501).getMessage()).isEqualTo("Duplicate of row 1000");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products", Integer.class)).isEqualTo(2_500);
+    }
+
+    @Test
+    void tooManyRowsImportNothing() {
+        StringBuilder csv = new StringBuilder("name,price,category\n");
+        for (int i = 1; i <= 10_001; i++) {
+            csv.append("Cake ").append(i).append(",10.00,Cakes\n");
+        }
+
+        assertThatThrownBy(() -> importCsv(csv.toString()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Import is limited to 10000 rows");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products", Integer.class)).isZero();
+    }
+
+    @Test
+    void missingRequiredColumnIsRefused() {
+        assertThatThrownBy(() -> importCsv("name,category\nChocolate Cake,Cakes\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Missing required column: price");
+    }
+
+    private CatalogImportReport importCsv(String csv) throws Exception {
+        return catalogImportService.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+}
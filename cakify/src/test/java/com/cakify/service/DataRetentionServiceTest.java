@@ -0,0 +1,201 @@
+package com.cakify.service;
+
+import com.cakify.config.RetentionProperties;
+import com.cakify.dto.RetentionReport;
+import com.cakify.event.EntityChangedEvent;
+import com.cakify.support.QueryCountTestSupport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Retention: old closed orders and resolved inquiries leave the hot tables, everything else stays
+ */
+@RecordApplicationEvents
+class DataRetentionServiceTest extends QueryCountTestSupport {
+
+    private static final LocalDateTime TWO_YEARS_AGO = LocalDateTime.now().minusYears(2);
+
+    @Autowired
+    private DataRetentionService dataRetentionService;
+
+    @Autowired
+    private RetentionProperties properties;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private long productId;
+    private RetentionProperties.InquiryMode inquiryMode;
+    private int batchSize;
+
+    @BeforeEach
+    void createProduct() {
+        productId = insertProduct(insertCategory("Cakes"), "Chocolate Cake", false);
+        inquiryMode = properties.getInquiryMode();
+        batchSize = properties.getBatchSize();
+    }
+
+    @AfterEach
+    void restoreProperties() {
+        properties.setInquiryMode(inquiryMode);
+        properties.setBatchSize(batchSize);
+    }
+
+    @Test
+    void oldClosedOrdersMoveToTheArchiveWithTheirItems() {
+        long delivered = insertOrderAt("DELIVERED", TWO_YEARS_AGO);
+        long cancelled = insertOrderAt("CANCELLED", TWO_YEARS_AGO);
+        insertOrderItem(delivered, productId);
+        insertOrderItem(delivered, productId);
+        insertOrderItem(cancelled, productId);
+
+        RetentionReport report = dataRetentionService.runRetention();
+
+        assertThat(report.getArchivedOrders()).isEqualTo(2);
+        assertThat(report.getArchivedOrderItems()).isEqualTo(3);
+        assertThat(ids("SELECT order_id FROM orders_archive")).containsExactlyInAnyOrder(delivered, cancelled);
+        assertThat(ids("SELECT order_id FROM order_items_archive")).containsExactlyInAnyOrder(delivered, delivered, cancelled);
+        assertThat(ids("SELECT order_id FROM orders")).isEmpty();
+        assertThat(ids("SELECT order_id FROM order_items")).isEmpty();
+        // cached copies of the archived orders are dropped everywhere
+        assertThat(events.stream(EntityChangedEvent.class))
+                .containsExactly(EntityChangedEvent.all(EntityChangedEvent.ORDER));
+    }
+
+    @Test
+    void openAndRecentOrdersStay() {
+        long pending = insertOrderAt("PENDING", TWO_YEARS_AGO);
+        long confirmed = insertOrderAt("CONFIRMED", TWO_YEARS_AGO);
+        long recentlyDelivered = insertOrderAt("DELIVERED", LocalDateTime.now().minusDays(30));
+        insertOrderItem(pending, productId);
+
+        RetentionReport report = dataRetentionService.runRetention();
+
+        assertThat(report.getArchivedOrders()).isZero();
+        assertThat(ids("SELECT order_id FROM orders")).containsExactlyInAnyOrder(pending, confirmed, recentlyDelivered);
+        assertThat(ids("SELECT order_id FROM order_items")).containsExactly(pending);
+        assertThat(ids("SELECT order_id FROM orders_archive")).isEmpty();
+    }
+
+    @Test
+    void backlogLargerThanABatchIsMovedCompletely() {
+        properties.setBatchSize(2);
+        for (int i = 0; i < 5; i++) {
+            insertOrderItem(insertOrderAt("DELIVERED", TWO_YEARS_AGO), productId);
+        }
+
+        RetentionReport report = dataRetentionService.runRetention();
+
+        assertThat(report.getArchivedOrders()).isEqualTo(5);
+        assertThat(report.getArchivedOrderItems()).isEqualTo(5);
+        assertThat(ids("SELECT order_id FROM orders")).isEmpty();
+    }
+
+    @Test
+    void resolvedInquiriesAreArchivedInArchiveMode() {
+        properties.setInquiryMode(RetentionProperties.InquiryMode.ARCHIVE);
+        long resolved = insertInquiryAt("RESOLVED", TWO_YEARS_AGO);
+        long open = insertInquiryAt("NEW", TWO_YEARS_AGO);
+        long recent = insertInquiryAt("RESOLVED", LocalDateTime.now().minusDays(30));
+
+        RetentionReport report = dataRetentionService.runRetention();
+
+        assertThat(report.getArchivedInquiries()).isEqualTo(1);
+        assertThat(report.getPurgedInquiries()).isZero();
+        assertThat(ids("SELECT id FROM inquiries_archive")).containsExactly(resolved);
+        assertThat(ids("SELECT id FROM inquiries")).containsExactlyInAnyOrder(open, recent);
+    }
+
+    @Test
+    void resolvedInquiriesAreDeletedInPurgeMode() {
+        properties.setInquiryMode(RetentionProperties.InquiryMode.PURGE);
+        insertInquiryAt("RESOLVED", TWO_YEARS_AGO);
+        long open = insertInquiryAt("NEW", TWO_YEARS_AGO);
+
+        RetentionReport report = dataRetentionService.runRetention();
+
+        assertThat(report.getPurgedInquiries()).isEqualTo(1);
+        assertThat(report.getArchivedInquiries()).isZero();
+        assertThat(ids("SELECT id FROM inquiries_archive")).isEmpty();
+        assertThat(ids("SELECT id FROM inquiries")).containsExactly(open);
+    }
+
+    @Test
+    void flushedJournalEntriesOfClosedOrdersArePurged() {
+        long archived = insertOrderAt("DELIVERED", TWO_YEARS_AGO);
+        long delivered = insertOrderAt("DELIVERED", LocalDateTime.now().minusDays(30));
+        long cancelled = insertOrderAt("CANCELLED", LocalDateTime.now().minusDays(30));
+        long pending = insertOrderAt("PENDING", LocalDateTime.now().minusDays(30));
+        long cancelling = insertOrderAt("CANCELLED", LocalDateTime.now().minusDays(30));
+        long deleted = 999L;
+        insertJournalEntry(1, archived, 2, true);
+        insertJournalEntry(2, delivered, 2, true);
+        insertJournalEntry(3, cancelled, 2, true);
+        insertJournalEntry(4, cancelled, -2, true);
+        insertJournalEntry(5, deleted, 1, true);
+        // still held by an open order
+        insertJournalEntry(6, pending, 3, true);
+        // the release is not flushed yet, so the units taken are still needed to sum up the order
+        insertJournalEntry(7, cancelling, 1, true);
+        insertJournalEntry(8, cancelling, -1, false);
+
+        RetentionReport report = dataRetentionService.runRetention();
+
+        assertThat(report.getPurgedStockJournalEntries()).isEqualTo(5);
+        assertThat(ids("SELECT id FROM stock_journal")).containsExactlyInAnyOrder(6L, 7L, 8L);
+    }
+
+    @Test
+    void manualRunReportsAndArchivedOrdersAreReadable() throws Exception {
+        long delivered = insertOrderAt("DELIVERED", TWO_YEARS_AGO);
+        insertOrderItem(delivered, productId);
+
+        perform(post("/api/archive/run").with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.archivedOrders").value(1))
+                .andExpect(jsonPath("$.archivedOrderItems").value(1));
+
+        perform(get("/api/archive/orders/{id}", delivered))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("DELIVERED"));
+        perform(get("/api/archive/orders/{id}/items", delivered))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+        perform(get("/api/orders/{id}", delivered)).andExpect(status().isNotFound());
+    }
+
+    private long insertOrderAt(String status, LocalDateTime orderDate) {
+        long orderId = insertOrder("anna@example.com", status);
+        jdbcTemplate.update("UPDATE orders SET order_date = ? WHERE order_id = ?", orderDate, orderId);
+        return orderId;
+    }
+
+    private void insertJournalEntry(long id, long orderId, int quantity, boolean flushed) {
+        jdbcTemplate.update("INSERT INTO stock_journal (id, product_id, order_id, quantity, flushed, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", id, productId, orderId, quantity, flushed, LocalDateTime.now());
+    }
+
+    private long insertInquiryAt(String status, LocalDateTime createdAt) {
+        long id = insertInquiry("anna@example.com", status);
+        jdbcTemplate.update("UPDATE inquiries SET created_at = ? WHERE id = ?", createdAt, id);
+        return id;
+    }
+
+    private List<Long> ids(String sql) {
+        return jdbcTemplate.queryForList(sql, Long.class);
+    }
+}
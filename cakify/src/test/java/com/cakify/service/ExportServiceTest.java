@@ -0,0 +1,148 @@
+package com.cakify.service;
+
+import com.cakify.entity.Order;
+import com.cakify.enums.ExportFormat;
+import com.cakify.support.QueryCountTestSupport;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Export content: CSV escaping, NDJSON shape and date-range boundaries
+ */
+class ExportServiceTest extends QueryCountTestSupport {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void csvQuotesCommasQuotesAndLineBreaks() throws Exception {
+        long orderId = insertOrderAt(DAY.atTime(10, 0), "Smith, \"Jo\"", "Line one\nLine two");
+        long plain = insertOrderAt(DAY.atTime(11, 0), "Anna Perera", null);
+
+        List<String> lines = csvRecords(export(ExportFormat.CSV));
+
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(0)).isEqualTo("orderId,orderDate,status,customerName,customerEmail,customerPhone,"
+                + "deliveryAddress,deliveryDate,quantity,totalAmount,specialNotes,createdAt,updatedAt");
+        assertThat(lines.get(1)).startsWith(orderId + "," + DAY.atTime(10, 0) + ",PENDING,\"Smith, \"\"Jo\"\"\","
+                + "anna@example.com,0771234567,\"12 Main Street, Colombo\",,2,50.00,\"Line one\nLine two\",");
+        // null is an empty field, plain text stays unquoted
+        assertThat(lines.get(2)).startsWith(plain + "," + DAY.atTime(11, 0) + ",PENDING,Anna Perera,")
+                .contains(",2,50.00,,");
+    }
+
+    @Test
+    void ndjsonWritesOneObjectPerLine() throws Exception {
+        long orderId = insertOrderAt(DAY.atTime(10, 0), "Smith, \"Jo\"", "Line one\nLine two");
+        insertOrderAt(DAY.atTime(11, 0), "Anna Perera", null);
+
+        String body = export(ExportFormat.NDJSON);
+
+        String[] lines = body.split("\n");
+        assertThat(body).endsWith("\n");
+        assertThat(lines).hasSize(2);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("orderId").isIntegralNumber()).isTrue();
+        assertThat(first.get("orderId").asLong()).isEqualTo(orderId);
+        assertThat(first.get("orderDate").asText()).isEqualTo(DAY.atTime(10, 0).toString());
+        assertThat(first.get("customerName").asText()).isEqualTo("Smith, \"Jo\"");
+        assertThat(first.get("specialNotes").asText()).isEqualTo("Line one\nLine two");
+        assertThat(first.get("quantity").asInt()).isEqualTo(2);
+        assertThat(first.get("totalAmount").decimalValue()).isEqualByComparingTo("50.00");
+        assertThat(first.get("deliveryDate").isNull()).isTrue();
+        assertThat(objectMapper.readTree(lines[1]).get("specialNotes").isNull()).isTrue();
+    }
+
+    @Test
+    void serviceRangeIncludesFromAndExcludesTo() throws Exception {
+        insertOrderAt(DAY.atStartOfDay().minusNanos(1000), "Before", null);
+        long first = insertOrderAt(DAY.atStartOfDay(), "First", null);
+        long last = insertOrderAt(DAY.plusDays(1).atStartOfDay().minusNanos(1000), "Last", null);
+        insertOrderAt(DAY.plusDays(1).atStartOfDay(), "After", null);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = exportService.exportOrders(DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay(),
+                ExportFormat.NDJSON, out);
+
+        assertThat(count).isEqualTo(2);
+        assertThat(orderIds(out.toString(StandardCharsets.UTF_8))).containsExactly(first, last);
+    }
+
+    @Test
+    void endpointTreatsBothDatesAsInclusive() throws Exception {
+        insertOrderAt(DAY.minusDays(1).atTime(23, 59), "Before", null);
+        long first = insertOrderAt(DAY.atStartOfDay(), "First", null);
+        long last = insertOrderAt(DAY.plusDays(1).atTime(23, 59, 59), "Last", null);
+        insertOrderAt(DAY.plusDays(2).atStartOfDay(), "After", null);
+
+        String body = perform(get("/api/orders/export")
+                .param("from", DAY.toString())
+                .param("to", DAY.plusDays(1).toString())
+                .param("format", "ndjson"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertThat(orderIds(body)).containsExactly(first, last);
+    }
+
+    @Test
+    void exportBypassesTheSecondLevelCache() throws Exception {
+        long orderId = insertOrderAt(DAY.atTime(10, 0), "Anna Perera", null);
+        evictSecondLevelCache();
+
+        export(ExportFormat.CSV);
+
+        assertThat(entityManagerFactory.getCache().contains(Order.class, orderId)).isFalse();
+    }
+
+    private String export(ExportFormat format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportOrders(DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay(), format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    // CSV records end with CRLF; a bare LF inside a quoted field belongs to the record
+    private static List<String> csvRecords(String csv) {
+        assertThat(csv).endsWith("\r\n");
+        return List.of(csv.substring(0, csv.length() - 2).split("\r\n"));
+    }
+
+    private List<Long> orderIds(String ndjson) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (String line : ndjson.split("\n")) {
+            if (!line.isEmpty()) {
+                ids.add(objectMapper.readTree(line).get("orderId").asLong());
+            }
+        }
+        return ids;
+    }
+
+    private long insertOrderAt(LocalDateTime orderDate, String customerName, String specialNotes) {
+        long orderId = insertOrder("anna@example.com", "PENDING");
+        jdbcTemplate.update("UPDATE orders SET order_date = ?, customer_name = ?, special_notes = ? WHERE order_id = ?",
+                orderDate, customerName, specialNotes, orderId);
+        return orderId;
+    }
+}
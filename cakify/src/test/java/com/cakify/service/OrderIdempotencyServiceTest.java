@@ -0,0 +1,200 @@
+package com.cakify.service;
+
+import com.cakify.config.IdempotencyProperties;
+import com.cakify.entity.Order;
+import com.cakify.service.OrderIdempotencyService.IdempotentResponse;
+import com.cakify.support.QueryCountTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.cakify.support.QueryCountAssertions.assertInsertCount;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * POST /api/orders with an Idempotency-Key: one order per key, retries get the first response
+ */
+class OrderIdempotencyServiceTest extends QueryCountTestSupport {
+
+    private static final String ORDER_JSON = """
+            {"customerName": "Anna Perera", "customerEmail": "anna@example.com",
+             "customerPhone": "0771234567", "deliveryAddress": "12 Main Street, Colombo",
+             "totalAmount": 50.00, "quantity": 2}
+            """;
+
+    @Autowired
+    private OrderIdempotencyService orderIdempotencyService;
+
+    @Autowired
+    private IdempotencyProperties properties;
+
+    @Test
+    void retryIsAnsweredWithTheFirstResponse() throws Exception {
+        MockHttpServletResponse first = postOrder("retry-1", ORDER_JSON)
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "false"))
+                .andExpect(jsonPath("$.orderId").isNumber())
+                .andReturn().getResponse();
+
+        MockHttpServletResponse retry = postOrder("retry-1", ORDER_JSON)
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andReturn().getResponse();
+
+        assertThat(retry.getContentAsString()).isEqualTo(first.getContentAsString());
+        // served from memory: no claim, no order
+        assertInsertCount(0);
+        assertThat(countOrders()).isEqualTo(1);
+    }
+
+    @Test
+    void keyStoredByAnotherInstanceIsReplayedFromTheTable() throws Exception {
+        // Claimed by another instance, so not in this one's cache
+        String body = "{\"orderId\":42}";
+        jdbcTemplate.update("INSERT INTO order_idempotency_keys (idempotency_key, request_hash, order_id, " +
+                        "response_status, response_body, created_at, expires_at) VALUES (?, ?, 42, 201, ?, ?, ?)",
+                "other-instance", requestHash(), body, LocalDateTime.now(), LocalDateTime.now().plusHours(1));
+
+        postOrder("other-instance", ORDER_JSON)
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.orderId").value(42));
+
+        assertThat(countOrders()).isZero();
+    }
+
+    @Test
+    void keyReusedForADifferentOrderIsRejected() throws Exception {
+        postOrder("reused", ORDER_JSON).andExpect(status().isCreated());
+
+        postOrder("reused", ORDER_JSON.replace("\"quantity\": 2", "\"quantity\": 3"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.errorCode").value("IDEMPOTENCY_KEY_REUSED"));
+
+        assertThat(countOrders()).isEqualTo(1);
+    }
+
+    @Test
+    void keyLongerThanTheColumnIsRejected() throws Exception {
+        postOrder("k".repeat(OrderIdempotencyService.MAX_KEY_LENGTH + 1), ORDER_JSON)
+                .andExpect(status().isBadRequest());
+
+        assertThat(countOrders()).isZero();
+    }
+
+    @Test
+    void expiredKeyCreatesANewOrder() throws Exception {
+        jdbcTemplate.update("INSERT INTO order_idempotency_keys (idempotency_key, request_hash, order_id, " +
+                        "response_status, response_body, created_at, expires_at) VALUES (?, ?, 42, 201, ?, ?, ?)",
+                "expired", "0".repeat(64), "{\"orderId\":42}", LocalDateTime.now().minusDays(2),
+                LocalDateTime.now().minusDays(1));
+
+        postOrder("expired", ORDER_JSON)
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "false"));
+
+        assertThat(countOrders()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentDuplicatesCreateOneOrder() throws Exception {
+        int callers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<IdempotentResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                responses.add(executor.submit(() -> {
+                    start.await();
+                    return orderIdempotencyService.createOrder("concurrent", newOrder());
+                }));
+            }
+            start.countDown();
+
+            List<String> bodies = new ArrayList<>();
+            int created = 0;
+            for (Future<IdempotentResponse> response : responses) {
+                IdempotentResponse result = response.get();
+                bodies.add(result.body());
+                created += result.replayed() ? 0 : 1;
+            }
+            assertThat(created).isEqualTo(1);
+            assertThat(bodies).allMatch(bodies.get(0)::equals);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(countOrders()).isEqualTo(1);
+    }
+
+    @Test
+    void purgeDeletesExpiredKeysInBatches() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 5; i++) {
+            insertKey("expired-" + i, now.minusMinutes(1));
+        }
+        insertKey("live", now.plusHours(1));
+
+        int batchSize = properties.getPurgeBatchSize();
+        properties.setPurgeBatchSize(2);
+        try {
+            orderIdempotencyService.purgeExpired();
+        } finally {
+            properties.setPurgeBatchSize(batchSize);
+        }
+
+        assertThat(jdbcTemplate.queryForList("SELECT idempotency_key FROM order_idempotency_keys", String.class))
+                .containsExactly("live");
+    }
+
+    private ResultActions postOrder(String key, String json) throws Exception {
+        return perform(post("/api/orders").with(csrf())
+                .header("Idempotency-Key", key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json));
+    }
+
+    private void insertKey(String key, LocalDateTime expiresAt) {
+        jdbcTemplate.update("INSERT INTO order_idempotency_keys (idempotency_key, request_hash, created_at, expires_at) " +
+                "VALUES (?, ?, ?, ?)", key, "0".repeat(64), expiresAt.minusDays(1), expiresAt);
+    }
+
+    // The fingerprint the service computes for ORDER_JSON: taken from a key it claimed itself
+    private String requestHash() throws Exception {
+        postOrder("fingerprint", ORDER_JSON).andExpect(status().isCreated());
+        String hash = jdbcTemplate.queryForObject(
+                "SELECT request_hash FROM order_idempotency_keys WHERE idempotency_key = 'fingerprint'", String.class);
+        jdbcTemplate.update("DELETE FROM orders");
+        return hash;
+    }
+
+    private Order newOrder() {
+        Order order = new Order();
+        order.setCustomerName("Anna Perera");
+        order.setCustomerEmail("anna@example.com");
+        order.setCustomerPhone("0771234567");
+        order.setDeliveryAddress("12 Main Street, Colombo");
+        order.setTotalAmount(new BigDecimal("50.00"));
+        order.setQuantity(2);
+        return order;
+    }
+
+    private int countOrders() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Integer.class);
+    }
+}
@@ -0,0 +1,141 @@
+package com.cakify.service;
+
+import com.cakify.config.PurchaseLedgerProperties;
+import com.cakify.dto.PurchaseBackfillReport;
+import com.cakify.support.QueryCountTestSupport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.cakify.support.QueryCountAssertions.assertSelectCount;
+import static com.cakify.support.QueryCountAssertions.assertStatementCount;
+import static com.cakify.support.QueryCountAssertions.reset;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Purchase ledger: backfill from order history, Bloom filter rebuild and refresh, verified-buyer checks
+ */
+class PurchaseLedgerTest extends QueryCountTestSupport {
+
+    @Autowired
+    private PurchaseLedger purchaseLedger;
+
+    @Autowired
+    private PurchaseLedgerProperties properties;
+
+    private int backfillBatchSize;
+    private long chocolateCake;
+    private long lemonTart;
+
+    @BeforeEach
+    void createProducts() {
+        backfillBatchSize = properties.getBackfillBatchSize();
+        long cakes = insertCategory("Cakes");
+        chocolateCake = insertProduct(cakes, "Chocolate Cake", false);
+        lemonTart = insertProduct(cakes, "Lemon Tart", false);
+    }
+
+    @AfterEach
+    void restoreBatchSize() {
+        properties.setBackfillBatchSize(backfillBatchSize);
+        // Later tests expect a filter without this test's keys
+        purchaseLedger.rebuildBloomFilter();
+    }
+
+    @Test
+    void backfillCopiesDeliveredOrdersInBatches() {
+        properties.setBackfillBatchSize(2);
+        long anna = insertOrder("Anna@example.com", "DELIVERED");
+        insertOrderItem(anna, chocolateCake);
+        insertOrderItem(anna, lemonTart);
+        long ben = insertOrder("ben@example.com", "DELIVERED");
+        jdbcTemplate.update("UPDATE orders SET product_id = ? WHERE order_id = ?", lemonTart, ben);
+        insertOrderItem(insertOrder("anna@example.com", "DELIVERED"), chocolateCake);
+        insertOrderItem(insertOrder("carl@example.com", "PENDING"), chocolateCake);
+        insertOrderItem(insertOrder("dana@example.com", "CANCELLED"), lemonTart);
+
+        PurchaseBackfillReport report = purchaseLedger.backfill();
+
+        // Anna's second chocolate cake is the same pair as her first
+        assertThat(report.getPurchasesFromOrders()).isEqualTo(3);
+        assertThat(pairs()).containsExactlyInAnyOrder(
+                "anna@example.com:" + chocolateCake,
+                "anna@example.com:" + lemonTart,
+                "ben@example.com:" + lemonTart);
+        assertThat(jdbcTemplate.queryForObject("SELECT order_id FROM customer_purchases " +
+                "WHERE email_normalized = 'anna@example.com' AND product_id = ?", Long.class, chocolateCake))
+                .isEqualTo(anna);
+        assertThat(purchaseLedger.hasPurchased("ANNA@example.com", lemonTart)).isTrue();
+        assertThat(purchaseLedger.hasPurchased("carl@example.com", chocolateCake)).isFalse();
+
+        // Known pairs are skipped on a re-run
+        assertThat(purchaseLedger.backfill().getPurchasesFromOrders()).isZero();
+    }
+
+    @Test
+    void backfillWalksSparseIdsInFewBatches() {
+        properties.setBackfillBatchSize(2);
+        // Archived ids far apart, like TSIDs minted years apart; the live orders carry real TSIDs
+        insertArchivedOrder(7L, "old@example.com");
+        insertArchivedOrder(1L << 40, "older@example.com");
+        insertArchivedOrder((1L << 62) + 3, "oldest@example.com");
+        insertOrderItem(insertOrder("anna@example.com", "DELIVERED"), chocolateCake);
+
+        PurchaseBackfillReport report = purchaseLedger.backfill();
+
+        assertThat(report.getPurchasesFromArchive()).isEqualTo(3);
+        assertThat(report.getPurchasesFromOrders()).isEqualTo(1);
+        assertThat(pairs()).containsExactlyInAnyOrder(
+                "old@example.com:1", "older@example.com:1", "oldest@example.com:1",
+                "anna@example.com:" + chocolateCake);
+    }
+
+    @Test
+    void unknownBuyerIsAnsweredWithoutAQuery() {
+        purchaseLedger.recordPurchase("anna@example.com", chocolateCake, 1L, LocalDateTime.now());
+
+        reset();
+        assertThat(purchaseLedger.hasPurchased("ben@example.com", chocolateCake)).isFalse();
+        assertStatementCount(0);
+
+        // A filter hit is confirmed with one primary-key lookup
+        assertThat(purchaseLedger.hasPurchased(" Anna@Example.com", chocolateCake)).isTrue();
+        assertSelectCount(1);
+    }
+
+    @Test
+    void rebuildLoadsKeysWrittenElsewhere() {
+        insertPurchase("ben@example.com", lemonTart, LocalDateTime.now());
+        // Not in this instance's filter yet, so the filter answers no
+        assertThat(purchaseLedger.hasPurchased("ben@example.com", lemonTart)).isFalse();
+
+        purchaseLedger.rebuildBloomFilter();
+
+        assertThat(purchaseLedger.hasPurchased("ben@example.com", lemonTart)).isTrue();
+    }
+
+    @Test
+    void refreshMergesKeysRecordedByOtherInstances() {
+        purchaseLedger.rebuildBloomFilter();
+        insertPurchase("ben@example.com", lemonTart, LocalDateTime.now());
+
+        purchaseLedger.refreshBloomFilter();
+
+        assertThat(purchaseLedger.hasPurchased("ben@example.com", lemonTart)).isTrue();
+    }
+
+    // A ledger row written by another instance
+    private void insertPurchase(String emailNormalized, long productId, LocalDateTime recordedAt) {
+        jdbcTemplate.update("INSERT INTO customer_purchases (email_normalized, product_id, order_id, purchased_at, " +
+                "recorded_at) VALUES (?, ?, 1, ?, ?)", emailNormalized, productId, recordedAt, recordedAt);
+    }
+
+    private List<String> pairs() {
+        return jdbcTemplate.queryForList("SELECT email_normalized || ':' || product_id FROM customer_purchases",
+                String.class);
+    }
+}
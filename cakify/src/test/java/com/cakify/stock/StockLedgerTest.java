@@ -0,0 +1,329 @@
+package com.cakify.stock;
+
+import com.cakify.entity.Order;
+import com.cakify.enums.OrderStatus;
+import com.cakify.exception.OrderNotFoundException;
+import com.cakify.exception.OutOfStockException;
+import com.cakify.service.OrderService;
+import com.cakify.support.QueryCountTestSupport;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Limited-quantity products: units taken with compare-and-set, never oversold, journaled and flushed
+ */
+class StockLedgerTest extends QueryCountTestSupport {
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private StockJournalFlusher stockJournalFlusher;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private long productId;
+
+    @BeforeEach
+    void limitedProduct() {
+        productId = insertProduct(insertCategory("Seasonal"), "Christmas Cake", false);
+    }
+
+    @AfterEach
+    void forgetCounters() {
+        // Other test classes share this context and expect every product to be unlimited
+        jdbcTemplate.update("DELETE FROM stock_journal");
+        jdbcTemplate.update("DELETE FROM product_stock");
+        stockLedger.reload();
+    }
+
+    @Test
+    void concurrentOrdersNeverOversell() throws Exception {
+        stockLedger.setStock(productId, 15);
+        int callers = 12;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        int created = 0;
+        int refused = 0;
+        try {
+            List<Future<Order>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                Order order = newOrder("customer" + i + "@example.com", 2);
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return orderService.createOrder(order);
+                }));
+            }
+            start.countDown();
+
+            for (Future<Order> result : results) {
+                try {
+                    result.get();
+                    created++;
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(OutOfStockException.class);
+                    refused++;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        // 7 orders of 2 fit into 15; the last unit stays for sale
+        assertThat(created).isEqualTo(7);
+        assertThat(refused).isEqualTo(callers - 7);
+        assertThat(countOrders()).isEqualTo(7);
+        assertThat(stockLedger.getStock(productId).orElseThrow().getRemaining()).isEqualTo(1);
+
+        assertThat(stockJournalFlusher.flush()).isEqualTo(7);
+        assertThat(jdbcTemplate.queryForObject("SELECT sold FROM product_stock WHERE product_id = ?",
+                Integer.class, productId)).isEqualTo(14);
+        // Reconciling with the flushed tables changes nothing
+        stockLedger.reload();
+        assertThat(stockLedger.getStock(productId).orElseThrow().getRemaining()).isEqualTo(1);
+    }
+
+    @Test
+    void soldOutProductIsReportedOutOfStock() throws Exception {
+        perform(put("/api/products/{id}/stock", productId).with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"stock\": 2}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.remaining").value(2))
+                .andExpect(jsonPath("$.availabilityStatus").value("IN_STOCK"));
+
+        postOrder(2).andExpect(status().isCreated());
+        postOrder(1)
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.errorCode").value("OUT_OF_STOCK"));
+
+        perform(get("/api/products/{id}", productId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availability").value(false))
+                .andExpect(jsonPath("$.availabilityStatus").value("OUT_OF_STOCK"));
+        assertThat(countOrders()).isEqualTo(1);
+    }
+
+    @Test
+    void cancellingAnOrderGivesItsUnitsBack() throws Exception {
+        stockLedger.setStock(productId, 3);
+        long orderId = orderService.createOrder(newOrder("anna@example.com", 3)).getOrderId();
+        assertThat(stockLedger.isSoldOut(productId)).isTrue();
+
+        perform(put("/api/orders/{id}/status", orderId).with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("\"CANCELLED\""))
+                .andExpect(status().isOk());
+
+        perform(get("/api/products/{id}/stock", productId))
+                .andExpect(jsonPath("$.remaining").value(3))
+                .andExpect(jsonPath("$.availabilityStatus").value("IN_STOCK"));
+        // Taken and given back
+        assertThat(jdbcTemplate.queryForList("SELECT quantity FROM stock_journal WHERE order_id = ? ORDER BY id",
+                Integer.class, orderId)).containsExactly(3, -3);
+    }
+
+    @Test
+    void rolledBackOrderGivesItsUnitsBack() {
+        stockLedger.setStock(productId, 3);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            orderService.createOrder(newOrder("anna@example.com", 3));
+            assertThat(stockLedger.isSoldOut(productId)).isTrue();
+            status.setRollbackOnly();
+        });
+
+        assertThat(stockLedger.getStock(productId).orElseThrow().getRemaining()).isEqualTo(3);
+        assertThat(countOrders()).isZero();
+    }
+
+    @Test
+    void reloadCountsUnitsTakenByAnotherInstance() {
+        stockLedger.setStock(productId, 10);
+        orderService.createOrder(newOrder("anna@example.com", 2));
+        // Journaled by another instance
+        jdbcTemplate.update("INSERT INTO stock_journal (id, product_id, order_id, quantity, flushed, created_at) " +
+                "VALUES (1, ?, 42, 5, FALSE, ?)", productId, LocalDateTime.now());
+
+        stockLedger.reload();
+
+        assertThat(stockLedger.getStock(productId).orElseThrow().getRemaining()).isEqualTo(3);
+    }
+
+    @Test
+    void orderItemsTakeAndGiveBackTheirUnits() throws Exception {
+        stockLedger.setStock(productId, 5);
+        Order order = newOrder("anna@example.com", 1);
+        order.setProductId(null);
+        long orderId = orderService.createOrder(order).getOrderId();
+        assertThat(remaining()).isEqualTo(5);
+
+        postItem(orderId, 1).andExpect(status().isCreated());
+        String item = postItem(orderId, 2)
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long itemId = Long.parseLong(JsonPath.read(item, "$.orderItemId").toString());
+        assertThat(remaining()).isEqualTo(2);
+
+        putItem(itemId, 6)
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.errorCode").value("OUT_OF_STOCK"));
+        assertThat(remaining()).isEqualTo(2);
+        putItem(itemId, 4).andExpect(status().isOk());
+        assertThat(stockLedger.isSoldOut(productId)).isTrue();
+
+        perform(delete("/api/order-items/{id}", itemId).with(csrf())).andExpect(status().isNoContent());
+        assertThat(remaining()).isEqualTo(4);
+        // A later order update finds the remaining item already booked
+        orderService.updateOrder(orderId, newOrder("anna@example.com", 1));
+        assertThat(remaining()).isEqualTo(4);
+    }
+
+    @Test
+    void updatingACancelledOrderTakesNothing() {
+        stockLedger.setStock(productId, 3);
+        Order order = orderService.createOrder(newOrder("anna@example.com", 3));
+        orderService.updateOrderStatus(order.getOrderId(), OrderStatus.CANCELLED);
+        orderService.createOrder(newOrder("ben@example.com", 3));
+
+        orderService.updateOrder(order.getOrderId(), newOrder("anna@example.com", 3));
+
+        assertThat(remaining()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT SUM(quantity) FROM stock_journal WHERE order_id = ?",
+                Integer.class, order.getOrderId())).isZero();
+    }
+
+    @Test
+    void deletingAnOrderGivesItsUnitsBack() throws Exception {
+        stockLedger.setStock(productId, 3);
+        long orderId = orderService.createOrder(newOrder("anna@example.com", 3)).getOrderId();
+
+        perform(delete("/api/orders/{id}", orderId).with(csrf())).andExpect(status().isNoContent());
+
+        assertThat(remaining()).isEqualTo(3);
+    }
+
+    @Test
+    void deletingADeliveredOrderKeepsItsUnitsSold() throws Exception {
+        stockLedger.setStock(productId, 3);
+        long orderId = orderService.createOrder(newOrder("anna@example.com", 2)).getOrderId();
+        orderService.updateOrderStatus(orderId, OrderStatus.CONFIRMED);
+        orderService.updateOrderStatus(orderId, OrderStatus.IN_PROGRESS);
+        orderService.updateOrderStatus(orderId, OrderStatus.READY);
+        orderService.updateOrderStatus(orderId, OrderStatus.DELIVERED);
+
+        perform(delete("/api/orders/{id}", orderId).with(csrf())).andExpect(status().isNoContent());
+
+        assertThat(remaining()).isEqualTo(1);
+    }
+
+    @Test
+    void cancelRacingADeleteGivesTheUnitsBackOnce() throws Exception {
+        stockLedger.setStock(productId, 3);
+        long orderId = orderService.createOrder(newOrder("anna@example.com", 3)).getOrderId();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> cancel = executor.submit(() -> {
+                start.await();
+                return orderService.updateOrderStatus(orderId, OrderStatus.CANCELLED);
+            });
+            Future<?> delete = executor.submit(() -> {
+                start.await();
+                orderService.deleteOrder(orderId);
+                return null;
+            });
+            start.countDown();
+
+            delete.get();
+            try {
+                cancel.get();
+            } catch (ExecutionException e) {
+                // the delete went first
+                assertThat(e.getCause()).isInstanceOf(OrderNotFoundException.class);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(remaining()).isEqualTo(3);
+        stockLedger.reload();
+        assertThat(remaining()).isEqualTo(3);
+    }
+
+    private int remaining() {
+        return stockLedger.getStock(productId).orElseThrow().getRemaining();
+    }
+
+    private ResultActions postItem(long orderId, int quantity) throws Exception {
+        return perform(post("/api/order-items/order/{orderId}", orderId).with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(itemJson(quantity)));
+    }
+
+    private ResultActions putItem(long itemId, int quantity) throws Exception {
+        return perform(put("/api/order-items/{id}", itemId).with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(itemJson(quantity)));
+    }
+
+    private String itemJson(int quantity) {
+        return """
+                {"productId": %d, "productName": "Christmas Cake", "unitPrice": 25.00, "quantity": %d}
+                """.formatted(productId, quantity);
+    }
+
+    private ResultActions postOrder(int quantity) throws Exception {
+        return perform(post("/api/orders").with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"customerName": "Anna Perera", "customerEmail": "anna@example.com",
+                         "customerPhone": "0771234567", "deliveryAddress": "12 Main Street, Colombo",
+                         "totalAmount": 50.00, "productId": %d, "quantity": %d}
+                        """.formatted(productId, quantity)));
+    }
+
+    private Order newOrder(String email, int quantity) {
+        Order order = new Order();
+        order.setCustomerName("Anna Perera");
+        order.setCustomerEmail(email);
+        order.setCustomerPhone("0771234567");
+        order.setDeliveryAddress("12 Main Street, Colombo");
+        order.setTotalAmount(new BigDecimal("50.00"));
+        order.setProductId(productId);
+        order.setQuantity(quantity);
+        return order;
+    }
+
+    private int countOrders() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Integer.class);
+    }
+}
@@ -0,0 +1,77 @@
+package com.cakify.support;
+
+import com.cakify.support.SqlStatementRecorder.RecordedStatement;
+import net.ttddyy.dsproxy.QueryType;
+
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Assertions on the number of SQL statements executed since the last {@link #reset()}.
+ *
+ * Usage:
+ * <pre>
+ *     QueryCountAssertions.reset();
+ *     mockMvc.perform(get("/api/products"));
+ *     QueryCountAssertions.assertSelectCount(2);
+ * </pre>
+ * On failure the message lists every recorded statement, which usually points straight at the
+ * lazy load or per-row lookup that caused the regression.
+ */
+public final class QueryCountAssertions {
+
+    private QueryCountAssertions() {
+    }
+
+    public static void reset() {
+        SqlStatementRecorder.reset();
+    }
+
+    public static void assertSelectCount(int expected) {
+        assertCount("SELECT", expected, statement -> statement.type() == QueryType.SELECT);
+    }
+
+    public static void assertInsertCount(int expected) {
+        assertCount("INSERT", expected, statement -> statement.type() == QueryType.INSERT);
+    }
+
+    public static void assertUpdateCount(int expected) {
+        assertCount("UPDATE", expected, statement -> statement.type() == QueryType.UPDATE);
+    }
+
+    public static void assertDeleteCount(int expected) {
+        assertCount("DELETE", expected, statement -> statement.type() == QueryType.DELETE);
+    }
+
+    // All statements, including ones that are not SELECT/INSERT/UPDATE/DELETE
+    public static void assertStatementCount(int expected) {
+        assertCount("total", expected, statement -> true);
+    }
+
+    // Shorthand for read-only endpoints: exactly this many SELECTs and nothing else
+    public static void assertReadOnly(int expectedSelects) {
+        assertSelectCount(expectedSelects);
+        assertStatementCount(expectedSelects);
+    }
+
+    private static void assertCount(String label, int expected, Predicate<RecordedStatement> filter) {
+        List<RecordedStatement> statements = SqlStatementRecorder.statements();
+        long actual = statements.stream().filter(filter).count();
+        assertThat(actual)
+                .as("Expected %d %s statement(s) but %d were executed:%n%s",
+                        expected, label, actual, describe(statements))
+                .isEqualTo(expected);
+    }
+
+    private static String describe(List<RecordedStatement> statements) {
+        if (statements.isEmpty()) {
+            return "  (none)";
+        }
+        return statements.stream()
+                .map(statement -> "  " + statement)
+                .collect(Collectors.joining(System.lineSeparator()));
+    }
+}
@@ -0,0 +1,18 @@
+package com.cakify.support;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Registers {@link SqlStatementRecorder} as a statement listener; DataSourceProxyConfig attaches it to
+ * the application DataSource, so every statement, whether issued by Hibernate, Spring Data or a
+ * JdbcTemplate, is seen by the recorder.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class QueryCountConfig {
+
+    @Bean
+    SqlStatementRecorder sqlStatementRecorder() {
+        return new SqlStatementRecorder();
+    }
+}
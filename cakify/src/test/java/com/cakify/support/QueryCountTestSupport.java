@@ -0,0 +1,210 @@
+package com.cakify.support;
+
+import com.cakify.entity.Customer;
+import com.cakify.id.TsidFactory;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Base class for the per-endpoint query-count baselines.
+ *
+ * Fixtures are written with plain JDBC and every test runs outside a test transaction, so
+ * each request starts with an empty persistence context exactly as in production.
+ * {@link #perform(RequestBuilder)} resets the statement recorder right before the request,
+ * so fixture inserts are never counted. JDBC writes are invisible to the second-level cache, so
+ * it is cleared together with the tables.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(QueryCountConfig.class)
+@WithMockUser(roles = "ADMIN")
+public abstract class QueryCountTestSupport {
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TsidFactory tsidFactory;
+
+    protected ResultActions perform(RequestBuilder request) throws Exception {
+        QueryCountAssertions.reset();
+        return mockMvc.perform(request);
+    }
+
+    @AfterEach
+    void deleteAllRows() {
+        // Children first; H2 enforces the same foreign keys as PostgreSQL
+        for (String table : new String[] {
+                "customer_purchases", "product_rating_stats", "reviews", "order_items", "orders", "stock_journal", "product_stock",
+                "products", "categories", "inquiries", "order_items_archive", "orders_archive", "inquiries_archive",
+                "order_idempotency_keys", "customers"}) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+        evictSecondLevelCache();
+    }
+
+    // For tests that change fixture rows with JDBC after the application has cached them
+    protected void evictSecondLevelCache() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    // ========== FIXTURES ==========
+
+    protected long insertCategory(String name) {
+        return insert("categories", Map.of("name", name));
+    }
+
+    // The customer row for an email, created on first use like CustomerService does
+    protected long insertCustomer(String email) {
+        String emailNormalized = Customer.normalizeEmail(email);
+        return jdbcTemplate.queryForList("SELECT id FROM customers WHERE email_normalized = ?", Long.class,
+                        emailNormalized).stream()
+                .findFirst()
+                .orElseGet(() -> insert("customers", Map.of(
+                        "email_normalized", emailNormalized,
+                        "created_at", LocalDateTime.now())));
+    }
+
+    protected long insertProduct(long categoryId, String name, boolean featured) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("name", name);
+        row.put("description", name + " description");
+        row.put("price", new BigDecimal("25.00"));
+        row.put("category_id", categoryId);
+        row.put("featured", featured);
+        row.put("availability", true);
+        row.put("sizes", "Small,Large");
+        row.put("created_at", LocalDateTime.now());
+        row.put("updated_at", LocalDateTime.now());
+        return insert("products", row);
+    }
+
+    // Also counts the rating in product_rating_stats, as ReviewService does
+    protected long insertReview(long productId, String email, int rating) {
+        long id = insertWithTsid("reviews", "id", Map.of(
+                "product_id", productId,
+                "email", email,
+                "customer_id", insertCustomer(email),
+                "rating", rating,
+                "comment", "Lovely",
+                "created_at", LocalDateTime.now()));
+        jdbcTemplate.update("INSERT INTO product_rating_stats (product_id, stars_1, stars_2, stars_3, stars_4, stars_5, " +
+                "review_count, rating_total, updated_at) VALUES (?, 0, 0, 0, 0, 0, 0, 0, LOCALTIMESTAMP) " +
+                "ON CONFLICT DO NOTHING", productId);
+        jdbcTemplate.update("UPDATE product_rating_stats SET stars_" + rating + " = stars_" + rating + " + 1, " +
+                "review_count = review_count + 1, rating_total = rating_total + ? WHERE product_id = ?", rating, productId);
+        return id;
+    }
+
+    protected long insertOrder(String customerEmail, String status) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("customer_name", "Test Customer");
+        row.put("customer_email", customerEmail);
+        row.put("customer_id", insertCustomer(customerEmail));
+        row.put("customer_phone", "0771234567");
+        row.put("delivery_address", "12 Main Street, Colombo");
+        row.put("total_amount", new BigDecimal("50.00"));
+        row.put("quantity", 2);
+        row.put("status", status);
+        row.put("order_date", LocalDateTime.now());
+        row.put("created_at", LocalDateTime.now());
+        row.put("updated_at", LocalDateTime.now());
+        return insertWithTsid("orders", "order_id", row);
+    }
+
+    protected long insertOrderItem(long orderId, long productId) {
+        return insertWithTsid("order_items", "order_item_id", Map.of(
+                "order_id", orderId,
+                "product_id", productId,
+                "product_name", "Chocolate Cake",
+                "unit_price", new BigDecimal("25.00"),
+                "quantity", 2,
+                "total_price", new BigDecimal("50.00")));
+    }
+
+    protected long insertInquiry(String email, String status) {
+        return insertWithTsid("inquiries", "id", Map.of(
+                "name", "Test Customer",
+                "email", email,
+                "customer_id", insertCustomer(email),
+                "message", "Do you make eggless cakes?",
+                "status", status,
+                "created_at", LocalDateTime.now()));
+    }
+
+    protected void insertArchivedOrder(long orderId, String customerEmail) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("order_id", orderId);
+        row.put("customer_name", "Test Customer");
+        row.put("customer_email", customerEmail);
+        row.put("delivery_address", "12 Main Street, Colombo");
+        row.put("total_amount", new BigDecimal("50.00"));
+        row.put("quantity", 2);
+        row.put("status", "DELIVERED");
+        row.put("order_date", LocalDateTime.now().minusYears(2));
+        row.put("archived_at", LocalDateTime.now());
+        new SimpleJdbcInsert(jdbcTemplate).withTableName("orders_archive").execute(row);
+        new SimpleJdbcInsert(jdbcTemplate).withTableName("order_items_archive").execute(Map.of(
+                "order_item_id", orderId,
+                "order_id", orderId,
+                "product_id", 1L,
+                "product_name", "Chocolate Cake",
+                "unit_price", new BigDecimal("25.00"),
+                "quantity", 2,
+                "total_price", new BigDecimal("50.00")));
+    }
+
+    protected void insertArchivedInquiry(long id, String email) {
+        new SimpleJdbcInsert(jdbcTemplate).withTableName("inquiries_archive").execute(Map.of(
+                "id", id,
+                "name", "Test Customer",
+                "email", email,
+                "message", "Do you make eggless cakes?",
+                "status", "RESOLVED",
+                "created_at", LocalDateTime.now().minusYears(1),
+                "archived_at", LocalDateTime.now()));
+    }
+
+    private long insert(String table, Map<String, Object> row) {
+        return insert(table, "id", row);
+    }
+
+    // For the @Tsid entities, whose ids the application assigns
+    private long insertWithTsid(String table, String keyColumn, Map<String, Object> row) {
+        long id = tsidFactory.nextId();
+        Map<String, Object> withId = new HashMap<>(row);
+        withId.put(keyColumn, id);
+        new SimpleJdbcInsert(jdbcTemplate).withTableName(table).execute(withId);
+        return id;
+    }
+
+    private long insert(String table, String keyColumn, Map<String, Object> row) {
+        return new SimpleJdbcInsert(jdbcTemplate)
+                .withTableName(table)
+                .usingGeneratedKeyColumns(keyColumn)
+                .executeAndReturnKey(row)
+                .longValue();
+    }
+}
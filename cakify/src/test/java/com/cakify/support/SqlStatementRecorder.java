@@ -0,0 +1,59 @@
+package com.cakify.support;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records every statement sent through the test DataSource.
+ *
+ * State is static so assertions can reach it without injection; the tests using it run
+ * sequentially against one shared application context. A JDBC batch counts as one
+ * statement (one round trip), whatever its size.
+ */
+public class SqlStatementRecorder implements QueryExecutionListener {
+
+    private static final List<RecordedStatement> STATEMENTS = new ArrayList<>();
+
+    public record RecordedStatement(QueryType type, String sql, int batchSize) {
+
+        @Override
+        public String toString() {
+            return batchSize > 1 ? sql + " [batch of " + batchSize + "]" : sql;
+        }
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        for (QueryInfo queryInfo : queryInfoList) {
+            String sql = queryInfo.getQuery();
+            int batchSize = execInfo.isBatch() ? Math.max(execInfo.getBatchSize(), 1) : 1;
+            synchronized (STATEMENTS) {
+                STATEMENTS.add(new RecordedStatement(QueryUtils.getQueryType(sql), sql, batchSize));
+            }
+        }
+    }
+
+    // Forget everything recorded so far
+    public static void reset() {
+        synchronized (STATEMENTS) {
+            STATEMENTS.clear();
+        }
+    }
+
+    // Snapshot of the statements recorded since the last reset
+    public static List<RecordedStatement> statements() {
+        synchronized (STATEMENTS) {
+            return List.copyOf(STATEMENTS);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+-- Seed data for QueryPlanTest (PostgreSQL only)
+INSERT INTO categories (name)
+SELECT 'Category ' || g FROM generate_series(1, 20) g;
+
+INSERT INTO products (name, description, price, category_id, featured, availability, sizes, created_at, updated_at)
+SELECT 'Cake ' || g, 'Description ' || g, 10 + g % 50, 1 + g % 20, g % 10 = 0, g % 4 <> 0, 'Small,Large', now(), now()
+FROM generate_series(1, 500) g;
+
+-- customerN@example.com gets id N + 1
+INSERT INTO customers (email_normalized, created_at)
+SELECT 'customer' || g || '@example.com', now() FROM generate_series(0, 999) g;
+
+INSERT INTO orders (customer_name, customer_email, customer_id, customer_phone, delivery_address, total_amount,
+                    quantity, status, order_date, user_id, product_id, created_at, updated_at)
+SELECT 'Customer ' || g, 'customer' || (g % 1000) || '@example.com', 1 + g % 1000, '0771234567',
+       g || ' Main Street, Colombo', 25.00, 1 + g % 3,
+       (ARRAY ['PENDING', 'CONFIRMED', 'IN_PROGRESS', 'READY', 'DELIVERED', 'CANCELLED'])[1 + g % 6],
+       now() - (g || ' hours')::interval, g % 500, 1 + g % 500, now(), now()
+FROM generate_series(1, 20000) g;
+
+INSERT INTO order_items (order_id, product_id, product_name, unit_price, quantity, total_price)
+SELECT 1 + g % 20000, 1 + g % 500, 'Cake ' || (1 + g % 500), 12.50, 2, 25.00
+FROM generate_series(1, 40000) g;
+
+INSERT INTO reviews (product_id, email, customer_id, rating, comment, created_at)
+SELECT 1 + g % 500, 'customer' || (g % 1000) || '@example.com', 1 + g % 1000, 1 + g % 5, 'Lovely cake',
+       now() - (g || ' hours')::interval
+FROM generate_series(1, 5000) g;
+
+INSERT INTO product_rating_stats (product_id, stars_1, stars_2, stars_3, stars_4, stars_5, review_count,
+                                  rating_total, updated_at)
+SELECT product_id, COUNT(*) FILTER (WHERE rating = 1), COUNT(*) FILTER (WHERE rating = 2),
+       COUNT(*) FILTER (WHERE rating = 3), COUNT(*) FILTER (WHERE rating = 4), COUNT(*) FILTER (WHERE rating = 5),
+       COUNT(*), SUM(rating), now()
+FROM reviews
+GROUP BY product_id;
+
+INSERT INTO inquiries (name, email, customer_id, message, status, reply, created_at)
+SELECT 'Customer ' || g, 'customer' || (g % 1000) || '@example.com', 1 + g % 1000, 'Do you make eggless cakes?',
+       CASE WHEN g % 3 = 0 THEN 'NEW' ELSE 'RESOLVED' END, NULL, now() - (g || ' hours')::interval
+FROM generate_series(1, 10000) g;
+
+INSERT INTO customer_purchases (email_normalized, product_id, order_id, purchased_at, recorded_at)
+SELECT DISTINCT ON (lower(o.customer_email), oi.product_id) lower(o.customer_email), oi.product_id, o.order_id,
+       o.order_date, o.order_date
+FROM orders o JOIN order_items oi ON oi.order_id = o.order_id
+WHERE o.status = 'DELIVERED';
+
+ANALYZE;